@@ -0,0 +1,122 @@
+package fr.lehtto.jaser.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-packet cost of creating a UDP client handler.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerFactoryBenchmark {
+
+  private final DatagramPacket packet = new DatagramPacket(new byte[512], 512);
+  private final BiFunction<DatagramPacket, DatagramSocket, NoopHandler> methodHandleFactory =
+      HandlerFactories.udp(NoopHandler.class);
+  private final BiFunction<DatagramPacket, DatagramSocket, NoopHandler> lambdaFactory = NoopHandler::new;
+  private DatagramSocket socket;
+
+  /**
+   * Opens the socket given to the handlers.
+   *
+   * @throws SocketException if an error occurs
+   */
+  @Setup
+  public void setUp() throws SocketException {
+    socket = new DatagramSocket(null);
+  }
+
+  /**
+   * Closes the socket given to the handlers.
+   */
+  @TearDown
+  public void tearDown() {
+    socket.close();
+  }
+
+  /**
+   * Creates a handler the way the servers did before handler factories.
+   *
+   * @return the handler
+   * @throws ReflectiveOperationException if an error occurs
+   */
+  @Benchmark
+  public NoopHandler reflection() throws ReflectiveOperationException {
+    try {
+      return NoopHandler.class
+          .getDeclaredConstructor(DatagramPacket.class, DatagramSocket.class)
+          .newInstance(packet, socket);
+    } catch (final InvocationTargetException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Creates a handler with the factory built from the handler class.
+   *
+   * @return the handler
+   */
+  @Benchmark
+  public NoopHandler methodHandle() {
+    return methodHandleFactory.apply(packet, socket);
+  }
+
+  /**
+   * Creates a handler with a constructor reference.
+   *
+   * @return the handler
+   */
+  @Benchmark
+  public NoopHandler lambda() {
+    return lambdaFactory.apply(packet, socket);
+  }
+
+  /**
+   * Handler doing nothing.
+   */
+  public static class NoopHandler extends AbstractUdpClientHandler {
+
+    /**
+     * Valued constructor.
+     *
+     * @param packet the client packet
+     * @param socket the server socket
+     */
+    public NoopHandler(final @NotNull DatagramPacket packet, final @NotNull DatagramSocket socket) {
+      super(packet, socket);
+    }
+
+    @Override
+    public void run() {
+      // Nothing to do
+    }
+
+    @Override
+    protected void stop() {
+      // Nothing to do
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package fr.lehtto.jaser.dns;
+
+import fr.lehtto.jaser.dns.cache.ResponseCache;
+import fr.lehtto.jaser.dns.entity.AddressV4;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.Query;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata;
+import fr.lehtto.jaser.dns.master.file.MasterFile;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-query cost of answering a parsed query, from its resolution to its encoded response.
+ * <p>
+ * The query asks for the A records of www.example.com, which has four of them. With the response cache enabled, every
+ * query but the first is answered from the cache. Run with {@code -prof gc} to get the bytes allocated per query
+ * ({@code gc.alloc.rate.norm}).
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class QueryAnswerBenchmark {
+
+  private static final int RECORD_COUNT = 4;
+  private static final int TTL = 3600;
+
+  /**
+   * Query for the A records of www.example.com, with an OPT pseudo-record advertising 1232 bytes.
+   */
+  private static final byte[] QUERY = {
+      0x12, 0x34, 0x01, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01,
+      0x03, 'w', 'w', 'w', 0x07, 'e', 'x', 'a', 'm', 'p', 'l', 'e', 0x03, 'c', 'o', 'm', 0x00,
+      0x00, 0x01, 0x00, 0x01,
+      0x00, 0x00, 0x29, 0x04, (byte) 0xD0, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00
+  };
+
+  /**
+   * Maximum bytes of the cached responses, 0 to disable the cache.
+   */
+  @Param({"0", "16777216"})
+  private long responseCacheSize;
+
+  private Query query;
+  private byte[] buffer;
+
+  /**
+   * Loads the zone and parses the query.
+   *
+   * @throws InvalidDnsZoneEntryException if a record of the zone is invalid
+   */
+  @Setup
+  public void setUp() throws InvalidDnsZoneEntryException {
+    Dns.INSTANCE.setResponseCache(0 == responseCacheSize ? null : new ResponseCache(responseCacheSize));
+    final MasterFile masterFile = new MasterFile();
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      masterFile.addRecord(ResourceRecord.builder()
+          .name(DomainName.of("www.example.com"))
+          .type(Type.A)
+          .recordClass(DnsClass.IN)
+          .ttl(TTL)
+          .data(new ARdata(AddressV4.of(192, 0, 2, i)))
+          .build());
+    }
+    Dns.INSTANCE.initializeMasterFiles(masterFile);
+    query = Query.read(QUERY, QUERY.length);
+    buffer = new byte[Dns.DEFAULT_EDNS_PAYLOAD_SIZE];
+  }
+
+  /**
+   * Disables the response cache.
+   */
+  @TearDown
+  public void tearDown() {
+    Dns.INSTANCE.setResponseCache(null);
+  }
+
+  /**
+   * Answers the query.
+   *
+   * @return the length of the response
+   */
+  @Benchmark
+  public int answer() {
+    return DnsClientHandler.writeResponse(QUERY, QUERY.length, query, InetAddress.getLoopbackAddress(), buffer,
+        Dns.DEFAULT_EDNS_PAYLOAD_SIZE);
+  }
+}
@@ -0,0 +1,51 @@
+package fr.lehtto.jaser.dns;
+
+import fr.lehtto.jaser.dns.entity.Query;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-query cost of parsing a query.
+ * <p>
+ * Logging is limited to warnings, so that it does not hide the cost of parsing. Run with {@code -prof gc} to get the
+ * bytes allocated per query ({@code gc.alloc.rate.norm}).
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class QueryReadBenchmark {
+
+  /**
+   * Query for the A records of www.example.com, with an OPT pseudo-record advertising 1232 bytes.
+   */
+  private static final byte[] QUERY = {
+      0x12, 0x34, 0x01, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01,
+      0x03, 'w', 'w', 'w', 0x07, 'e', 'x', 'a', 'm', 'p', 'l', 'e', 0x03, 'c', 'o', 'm', 0x00,
+      0x00, 0x01, 0x00, 0x01,
+      0x00, 0x00, 0x29, 0x04, (byte) 0xD0, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00
+  };
+
+  /**
+   * Parses the query.
+   *
+   * @return the query
+   */
+  @Benchmark
+  public Query read() {
+    return Query.read(QUERY, QUERY.length);
+  }
+}
@@ -0,0 +1,128 @@
+package fr.lehtto.jaser.dns;
+
+import fr.lehtto.jaser.dns.entity.AddressV4;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.Flags;
+import fr.lehtto.jaser.dns.entity.Header;
+import fr.lehtto.jaser.dns.entity.Question;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.Response;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.OpCode;
+import fr.lehtto.jaser.dns.entity.enumration.QR;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MxRdata;
+import fr.lehtto.jaser.dns.entity.writer.ResponseWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-response cost of writing a response.
+ * <p>
+ * The response answers the A or MX records of www.example.com, their owner name pointing to the question like the
+ * query handlers do, and holds the addresses of other hosts of example.com in the additional section, whose names
+ * share a suffix with the question. The exchanges of the MX records are hosts of example.com as well, compressed in
+ * their RDATA. The fields of the records are encoded beforehand, as the zone stores them. Run with
+ * {@code -prof gc} to get the bytes allocated per response ({@code gc.alloc.rate.norm}).
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class ResponseWriteBenchmark {
+
+  private static final int TTL = 3600;
+
+  /**
+   * Number of records of the response, split evenly between the answer and additional sections.
+   */
+  @Param({"1", "10", "50"})
+  private int recordCount;
+
+  /**
+   * Type of the answers.
+   */
+  @Param({"A", "MX"})
+  private String answerType;
+
+  private Response response;
+  private byte[] buffer;
+
+  /**
+   * Builds the response to write.
+   */
+  @Setup
+  public void setUp() {
+    final Type type = Type.valueOf(answerType);
+    final Question question = Question.builder()
+        .name(DomainName.of("www.example.com"))
+        .type(type)
+        .recordClass(DnsClass.IN)
+        .build();
+    final List<ResourceRecord> answers = new ArrayList<>();
+    final List<ResourceRecord> additionals = new ArrayList<>();
+    for (int i = 0; i < recordCount; i++) {
+      final ResourceRecord.Builder builder = ResourceRecord.builder()
+          .type(Type.A)
+          .recordClass(DnsClass.IN)
+          .ttl(TTL)
+          .data(new ARdata(AddressV4.of(192, 0, 2, i)));
+      if (0 == i % 2 && Type.MX == type) {
+        answers.add(builder.pointer(question)
+                        .type(Type.MX)
+                        .data(new MxRdata((short) i, DomainName.of("mail" + i + ".example.com")))
+                        .build()
+                        .withEncodedFields());
+      } else if (0 == i % 2) {
+        answers.add(builder.pointer(question).build().withEncodedFields());
+      } else {
+        additionals.add(builder.name(DomainName.of("host" + i + ".example.com")).build().withEncodedFields());
+      }
+    }
+    response = Response.builder()
+        .header(Header.builder()
+            .id((short) 0x1234)
+            .flags(Flags.builder()
+                .qr(QR.RESPONSE)
+                .opcode(OpCode.QUERY)
+                .z((byte) 0)
+                .rcode(RCode.NO_ERROR)
+                .build())
+            .build())
+        .question(question)
+        .answers(answers)
+        .noAuthorityRecords()
+        .additionalRecords(additionals)
+        .build();
+    buffer = new byte[DnsTcpClientHandler.MAX_MESSAGE_SIZE];
+  }
+
+  /**
+   * Writes the response.
+   *
+   * @return the number of bytes written
+   */
+  @Benchmark
+  public int write() {
+    return ResponseWriter.write(response, buffer);
+  }
+}
@@ -0,0 +1,113 @@
+package fr.lehtto.jaser.dns;
+
+import fr.lehtto.jaser.dns.entity.AddressV4;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata;
+import fr.lehtto.jaser.dns.master.file.MasterFile;
+import fr.lehtto.jaser.dns.master.file.Zone;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-lookup cost of searching the zone of a name in the master file.
+ * <p>
+ * The master file holds synthetic names under example.com, either all children of example.com ({@code wide}), or
+ * made of one label per decimal digit of their number, so that each zone has up to ten sub zones ({@code deep}). The
+ * names looked up are the loaded ones, in turn.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+@State(Scope.Benchmark)
+public class ZoneSearchBenchmark {
+
+  private static final int TTL = 3600;
+
+  /**
+   * Shape of the zone: {@code wide} or {@code deep}.
+   */
+  @Param({"wide", "deep"})
+  private String shape;
+
+  /**
+   * Number of names of the zone.
+   */
+  @Param({"1000", "100000"})
+  private int nameCount;
+
+  private MasterFile masterFile;
+  private DomainName[] names;
+  private int next;
+
+  /**
+   * Loads the zone.
+   *
+   * @throws InvalidDnsZoneEntryException if a record of the zone is invalid
+   */
+  @Setup
+  public void setUp() throws InvalidDnsZoneEntryException {
+    masterFile = new MasterFile();
+    names = new DomainName[nameCount];
+    final int digits = String.valueOf(nameCount - 1).length();
+    for (int i = 0; i < nameCount; i++) {
+      names[i] = DomainName.of(("wide".equals(shape) ? "host" + i : digitLabels(i, digits)) + ".example.com");
+      masterFile.addRecord(ResourceRecord.builder()
+          .name(names[i])
+          .type(Type.A)
+          .recordClass(DnsClass.IN)
+          .ttl(TTL)
+          .data(new ARdata(AddressV4.of(192, 0, 2, i & 0xFF)))
+          .build());
+    }
+  }
+
+  /**
+   * Searches the zone of the next name.
+   *
+   * @return the zone
+   */
+  @Benchmark
+  public Optional<Zone> search() {
+    final DomainName name = names[next];
+    next = (next + 1) % names.length;
+    return masterFile.search(name);
+  }
+
+  /**
+   * Gets the labels of a deep name: the decimal digits of its number.
+   *
+   * @param number the number of the name
+   * @param digits the number of digits of the numbers
+   * @return the labels, separated by dots
+   */
+  private static String digitLabels(final int number, final int digits) {
+    final StringBuilder labels = new StringBuilder(2 * digits);
+    String.format("%0" + digits + "d", number).chars().forEach(digit -> {
+      if (!labels.isEmpty()) {
+        labels.append('.');
+      }
+      labels.append((char) digit);
+    });
+    return labels.toString();
+  }
+}
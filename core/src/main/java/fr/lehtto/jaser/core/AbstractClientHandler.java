@@ -2,8 +2,7 @@ package fr.lehtto.jaser.core;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.lang.ref.WeakReference;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -14,6 +13,7 @@ import org.slf4j.LoggerFactory;
  * Abstract client handler.
  *
  * @author Lehtto
+ * @version 1.1.0
  * @since 0.1.0
  */
 abstract class AbstractClientHandler implements Closeable, Runnable {
@@ -21,14 +21,19 @@ abstract class AbstractClientHandler implements Closeable, Runnable {
   private static final Logger LOG =
       LoggerFactory.getLogger(AbstractClientHandler.class);
 
-  private final @NotNull UUID uuid;
-  private WeakReference<Thread> thread;
+  /**
+   * Generator of the client IDs.
+   */
+  private static final AtomicLong NEXT_ID = new AtomicLong();
+
+  private final long id;
+  private volatile @Nullable Thread thread;
   private boolean running = true;
 
   /**
    * Default constructor.
    */
-  AbstractClientHandler() { this.uuid = UUID.randomUUID(); }
+  AbstractClientHandler() { this.id = NEXT_ID.incrementAndGet(); }
 
   /**
    * Closes the client handler.
@@ -49,6 +54,18 @@ abstract class AbstractClientHandler implements Closeable, Runnable {
    */
   @OverrideOnly protected abstract void stop() throws IOException;
 
+  /**
+   * Answers the client without running the handler, the server being overloaded.
+   * <p>
+   * Called from the receiver thread when the server applies the {@link OverloadPolicy#REJECT reject} policy, so it
+   * must be fast. The default implementation does nothing, the client handler being closed afterwards.
+   *
+   * @since 1.1.0
+   */
+  protected void reject() {
+    // Nothing to answer by default
+  }
+
   /**
    * Gets the running state.
    *
@@ -57,13 +74,12 @@ abstract class AbstractClientHandler implements Closeable, Runnable {
   protected boolean isRunning() { return running; }
 
   /**
-   * Gets the client ID.
+   * Gets the client ID, unique within the JVM.
    *
    * @return the client ID
    */
-  @NotNull
-  UUID getUuid() {
-    return uuid;
+  long getId() {
+    return id;
   }
 
   /**
@@ -73,7 +89,7 @@ abstract class AbstractClientHandler implements Closeable, Runnable {
    */
   @Nullable
   Thread getThread() {
-    return thread.get();
+    return thread;
   }
 
   /**
@@ -82,6 +98,6 @@ abstract class AbstractClientHandler implements Closeable, Runnable {
    * @param thread the client handler thread
    */
   void setThread(final @NotNull Thread thread) {
-    this.thread = new WeakReference<>(thread);
+    this.thread = thread;
   }
 }
@@ -0,0 +1,93 @@
+package fr.lehtto.jaser.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.ApiStatus.Experimental;
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handler for a non-blocking client connection of a {@link NioTcpServer}.
+ * <p>
+ * Unlike {@link AbstractTcpClientHandler}, it does not own a thread for the lifetime of the connection: each time data
+ * is received, it is run on a worker to {@link #handle(ByteBuffer) handle} it, then goes back to the selector.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@Experimental
+public abstract class AbstractNioTcpClientHandler extends AbstractClientHandler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AbstractNioTcpClientHandler.class);
+
+  private final @NotNull TcpConnection connection;
+
+  /**
+   * Valued constructor.
+   *
+   * @param connection the client connection
+   */
+  protected AbstractNioTcpClientHandler(final @NotNull TcpConnection connection) {
+    this.connection = connection;
+  }
+
+  /**
+   * Handles the data received so far.
+   * <p>
+   * Never called concurrently for a connection. The bytes left between the position and the limit of the input, such
+   * as an incomplete request, are given again with the next data.
+   *
+   * @param input the received data
+   * @throws IOException if an error occurs, the connection is then closed
+   */
+  @OverrideOnly
+  protected abstract void handle(@NotNull ByteBuffer input) throws IOException;
+
+  /**
+   * Called from the selector thread when the client has shut down its output, so it must be fast.
+   * <p>
+   * The default implementation closes the connection once the queued responses have been sent.
+   */
+  @OverrideOnly
+  protected void endOfInput() {
+    connection.closeAfterWrites();
+  }
+
+  /**
+   * Handles the data received so far, closing the connection on error.
+   */
+  @Override
+  public final void run() {
+    if (!connection.isOpen()) {
+      return;
+    }
+    try {
+      connection.process(this);
+    } catch (final IOException e) {
+      LOG.debug("Error while handling {}, closing it", connection, e);
+      connection.close();
+    } catch (final RuntimeException e) {
+      LOG.error("Error while handling {}, closing it", connection, e);
+      connection.close();
+    }
+  }
+
+  /**
+   * Closes the client connection.
+   */
+  @Override
+  public void stop() {
+    connection.close();
+  }
+
+  /**
+   * Gets the client connection.
+   *
+   * @return the client connection
+   */
+  protected @NotNull TcpConnection getConnection() {
+    return connection;
+  }
+}
@@ -1,21 +1,43 @@
 package fr.lehtto.jaser.core;
 
+import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.nio.ByteBuffer;
 import org.jetbrains.annotations.ApiStatus.Experimental;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Handler for a client connection.
  *
  * @author Lehtto
+ * @version 1.1.0
  * @since 0.1.0
  */
 @Experimental
 public abstract class AbstractUdpClientHandler extends AbstractClientHandler {
 
+  /**
+   * Default size of the UDP packets received and sent by the servers.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_PACKET_SIZE = 512;
+
+  /**
+   * Maximum size of a UDP packet, the payload of the largest IPv4 datagram.
+   *
+   * @since 1.1.0
+   */
+  public static final int MAX_PACKET_SIZE = 65_507;
+
   private final @NotNull DatagramPacket packet;
   private final @NotNull DatagramSocket socket;
+  private @NotNull DatagramSender sender;
+  private @Nullable BufferPool bufferPool;
+  private @Nullable ByteBuffer receiveBuffer;
+  private @Nullable ByteBuffer sendBuffer;
 
   /**
    * Valued constructor.
@@ -27,6 +49,7 @@ public abstract class AbstractUdpClientHandler extends AbstractClientHandler {
       @NotNull final DatagramSocket socket) {
     this.packet = packet;
     this.socket = socket;
+    this.sender = socket::send;
   }
 
   /**
@@ -46,5 +69,92 @@ public abstract class AbstractUdpClientHandler extends AbstractClientHandler {
   protected @NotNull DatagramSocket getSocket() {
     return socket;
   }
-}
 
+  /**
+   * Sends a packet through the server which received the client packet.
+   * <p>
+   * Handlers should prefer this method over {@code getSocket().send(...)} as the socket of a non-blocking server
+   * cannot be used to send packets.
+   *
+   * @param response the packet to send
+   * @throws IOException if an error occurs
+   * @since 1.1.0
+   */
+  protected void send(final @NotNull DatagramPacket response) throws IOException {
+    sender.send(response);
+  }
+
+  /**
+   * Sets the sender used by {@link #send(DatagramPacket)}.
+   *
+   * @param sender the sender to use
+   * @since 1.1.0
+   */
+  void setSender(final @NotNull DatagramSender sender) {
+    this.sender = sender;
+  }
+
+  /**
+   * Gets a buffer to write the response to.
+   * <p>
+   * The buffer comes from the pool of the server, if any, and goes back to it once the client handler is done, so it
+   * must not be used afterwards. Successive calls return the same buffer.
+   *
+   * @return the send buffer, of the {@link ServerConfiguration#packetSize() packet size} of the server
+   * @since 1.1.0
+   */
+  protected byte @NotNull [] getSendBuffer() {
+    if (null == sendBuffer) {
+      sendBuffer = null == bufferPool ? ByteBuffer.allocate(DEFAULT_PACKET_SIZE) : bufferPool.acquire();
+    }
+    return sendBuffer.array();
+  }
+
+  /**
+   * Sets the pool the buffers of the client handler come from.
+   *
+   * @param bufferPool    the buffer pool
+   * @param receiveBuffer the pooled buffer backing the client packet
+   * @since 1.1.0
+   */
+  void setBuffers(final @NotNull BufferPool bufferPool, final @NotNull ByteBuffer receiveBuffer) {
+    this.bufferPool = bufferPool;
+    this.receiveBuffer = receiveBuffer;
+  }
+
+  /**
+   * Gives the buffers of the client handler back to the pool.
+   *
+   * @since 1.1.0
+   */
+  void releaseBuffers() {
+    if (null == bufferPool) {
+      return;
+    }
+    if (null != receiveBuffer) {
+      bufferPool.release(receiveBuffer);
+      receiveBuffer = null;
+    }
+    if (null != sendBuffer) {
+      bufferPool.release(sendBuffer);
+      sendBuffer = null;
+    }
+  }
+
+  /**
+   * Sends datagram packets on behalf of a client handler.
+   *
+   * @since 1.1.0
+   */
+  @FunctionalInterface
+  interface DatagramSender {
+
+    /**
+     * Sends a datagram packet.
+     *
+     * @param packet the packet to send
+     * @throws IOException if an error occurs
+     */
+    void send(@NotNull DatagramPacket packet) throws IOException;
+  }
+}
@@ -0,0 +1,141 @@
+package fr.lehtto.jaser.core;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.ApiStatus.Experimental;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Lock-free pool of fixed-size {@link ByteBuffer byte buffers}.
+ * <p>
+ * Buffers are kept in a ring of slots claimed and filled with compare-and-set. When the pool is empty a new buffer is
+ * allocated (a miss), when it is full a released buffer is left to the garbage collector.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@Experimental
+public final class BufferPool {
+
+  /**
+   * The number of client handlers per worker a UDP server pools buffers for.
+   */
+  private static final int HANDLERS_PER_WORKER = 64;
+
+  private final @NotNull AtomicReferenceArray<ByteBuffer> slots;
+  private final int bufferSize;
+  private final boolean direct;
+  private final @NotNull LongAdder hits = new LongAdder();
+  private final @NotNull LongAdder misses = new LongAdder();
+
+  /**
+   * Valued constructor.
+   *
+   * @param capacity   the maximum number of pooled buffers
+   * @param bufferSize the size of the buffers
+   * @param direct     whether to allocate direct buffers, heap buffers otherwise
+   */
+  public BufferPool(final int capacity, final int bufferSize, final boolean direct) {
+    if (0 >= capacity) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    if (0 >= bufferSize) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
+    slots = new AtomicReferenceArray<>(capacity);
+    this.bufferSize = bufferSize;
+    this.direct = direct;
+  }
+
+  /**
+   * Creates the pool of a UDP server: heap buffers, as client handlers work on the arrays of their packets, for the
+   * receive and send buffers of {@value #HANDLERS_PER_WORKER} client handlers per worker, or of a full batch per
+   * listener.
+   *
+   * @param configuration the server configuration
+   * @return the buffer pool
+   */
+  static @NotNull BufferPool forUdpServer(final @NotNull ServerConfiguration configuration) {
+    final int handlers = Math.max(HANDLERS_PER_WORKER * configuration.workers(),
+                                  configuration.batchSize() * configuration.listeners());
+    return new BufferPool(2 * handlers, configuration.packetSize(), false);
+  }
+
+  /**
+   * Gets a cleared buffer from the pool, or allocates one if the pool is empty.
+   *
+   * @return the buffer
+   */
+  public @NotNull ByteBuffer acquire() {
+    final int length = slots.length();
+    final int start = startSlot();
+    for (int i = 0; i < length; i++) {
+      final int slot = (start + i) % length;
+      final ByteBuffer buffer = slots.get(slot);
+      if (null != buffer && slots.compareAndSet(slot, buffer, null)) {
+        hits.increment();
+        return buffer.clear();
+      }
+    }
+    misses.increment();
+    return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+  }
+
+  /**
+   * Gives a buffer back to the pool.
+   * <p>
+   * Buffers which were not allocated by a pool of the same kind are ignored.
+   *
+   * @param buffer the buffer to release
+   */
+  public void release(final @NotNull ByteBuffer buffer) {
+    if (bufferSize != buffer.capacity() || direct != buffer.isDirect()) {
+      return;
+    }
+    final int length = slots.length();
+    final int start = startSlot();
+    for (int i = 0; i < length; i++) {
+      final int slot = (start + i) % length;
+      if (null == slots.get(slot) && slots.compareAndSet(slot, null, buffer)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Gets the size of the buffers.
+   *
+   * @return the size of the buffers
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * Gets the number of buffers taken from the pool.
+   *
+   * @return the number of hits
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of buffers allocated because the pool was empty.
+   *
+   * @return the number of misses
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the slot to start scanning from, spreading the threads over the ring to limit contention.
+   *
+   * @return the start slot
+   */
+  private int startSlot() {
+    return (int) (Thread.currentThread().getId() % slots.length());
+  }
+}
@@ -0,0 +1,93 @@
+package fr.lehtto.jaser.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived worker thread processing the elements of a work queue one after the other.
+ *
+ * @param <T> the type of the processed elements
+ * @author Lehtto
+ * @since 1.1.0
+ */
+final class EventLoop<T> implements Runnable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EventLoop.class);
+
+  /**
+   * How long to wait for an element before checking if the event loop has been shut down, in milliseconds.
+   */
+  private static final long POLL_TIMEOUT = 100L;
+
+  private final @NotNull WorkQueue<T> queue;
+  private final @NotNull Consumer<T> action;
+  private final @NotNull Thread thread;
+  private volatile boolean shutdown;
+
+  /**
+   * Valued constructor.
+   *
+   * @param name   the name of the event loop thread
+   * @param queue  the work queue to consume
+   * @param action the action processing each element
+   */
+  EventLoop(final @NotNull String name, final @NotNull WorkQueue<T> queue, final @NotNull Consumer<T> action) {
+    this.queue = queue;
+    this.action = action;
+    thread = new Thread(this, name);
+  }
+
+  /**
+   * Starts the event loop thread.
+   */
+  void start() {
+    thread.start();
+  }
+
+  /**
+   * Stops the event loop once the work queue is empty.
+   */
+  void shutdown() {
+    shutdown = true;
+  }
+
+  /**
+   * Waits for the event loop thread to finish.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void join() throws InterruptedException {
+    thread.join();
+  }
+
+  /**
+   * Processes the elements of the work queue until the event loop is shut down.
+   */
+  @Override
+  public void run() {
+    while (true) {
+      final T element;
+      try {
+        element = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        LOG.warn("Event loop {} interrupted", thread.getName());
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (null == element) {
+        if (shutdown) {
+          return;
+        }
+        continue;
+      }
+      try {
+        action.accept(element);
+      } catch (final RuntimeException e) {
+        LOG.error("Error while running task on event loop {}", thread.getName(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package fr.lehtto.jaser.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Strategy used by a {@link Server server} to run its client handlers.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public enum ExecutionStrategy {
+
+  /**
+   * Runs each client handler on a new platform thread.
+   */
+  PLATFORM_PER_TASK {
+    @Override
+    @NotNull ExecutorService newExecutorService(final int workers, final @NotNull ThreadFactory threadFactory) {
+      return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+          threadFactory);
+    }
+  },
+  /**
+   * Runs the client handlers on a fixed pool of platform threads.
+   */
+  BOUNDED_POOL {
+    @Override
+    @NotNull ExecutorService newExecutorService(final int workers, final @NotNull ThreadFactory threadFactory) {
+      return Executors.newFixedThreadPool(workers, threadFactory);
+    }
+  },
+  /**
+   * Runs each client handler on a new virtual thread.
+   * <p>
+   * Virtual threads require Java 21, older runtimes fall back to {@link #PLATFORM_PER_TASK}.
+   */
+  VIRTUAL {
+    @Override
+    @NotNull ExecutorService newExecutorService(final int workers, final @NotNull ThreadFactory threadFactory) {
+      if (null != NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR) {
+        try {
+          return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+        } catch (final UnsupportedOperationException e) {
+          LOG.warn("Virtual threads are not enabled on this runtime, falling back to {}", PLATFORM_PER_TASK);
+        } catch (final Throwable e) {
+          throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+      } else {
+        LOG.warn("Virtual threads are not available on this runtime, falling back to {}", PLATFORM_PER_TASK);
+      }
+      return PLATFORM_PER_TASK.newExecutorService(workers, threadFactory);
+    }
+  };
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExecutionStrategy.class);
+
+  /**
+   * Handle on {@code Executors.newVirtualThreadPerTaskExecutor()}, null if the runtime does not provide it.
+   */
+  private static final @Nullable MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR =
+      findVirtualThreadPerTaskExecutor();
+
+  /**
+   * Creates the executor service running the client handlers.
+   *
+   * @param workers       the number of workers, used by bounded strategies
+   * @param threadFactory the factory of the platform threads
+   * @return the executor service
+   */
+  abstract @NotNull ExecutorService newExecutorService(int workers, @NotNull ThreadFactory threadFactory);
+
+  /**
+   * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()}, which does not exist before Java 21.
+   *
+   * @return the method handle, or null if not found
+   */
+  private static @Nullable MethodHandle findVirtualThreadPerTaskExecutor() {
+    try {
+      return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+          MethodType.methodType(ExecutorService.class));
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package fr.lehtto.jaser.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Client handler factories calling the constructor of a handler class.
+ * <p>
+ * The constructor is looked up once, when the factory is created, then called through a {@link MethodHandle} for
+ * each client.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+final class HandlerFactories {
+
+  /**
+   * Default constructor.
+   */
+  private HandlerFactories() {
+    throw new AssertionError("This constructor should not be called.");
+  }
+
+  /**
+   * Creates a factory of UDP client handlers.
+   *
+   * @param handlerClass the handler class, with a public {@code (DatagramPacket, DatagramSocket)} constructor
+   * @param <H>          the handler class
+   * @return the factory
+   * @throws IllegalArgumentException if the handler class has no such constructor
+   */
+  static <H extends AbstractUdpClientHandler> @NotNull BiFunction<DatagramPacket, DatagramSocket, H> udp(
+      final @NotNull Class<H> handlerClass) {
+    final MethodHandle constructor = findConstructor(handlerClass, DatagramPacket.class, DatagramSocket.class);
+    return (packet, socket) -> {
+      try {
+        return handlerClass.cast(constructor.invoke(packet, socket));
+      } catch (final Throwable e) {
+        throw rethrow(e);
+      }
+    };
+  }
+
+  /**
+   * Creates a factory of TCP client handlers.
+   *
+   * @param handlerClass the handler class, with a public {@code (Socket)} constructor
+   * @param <H>          the handler class
+   * @return the factory
+   * @throws IllegalArgumentException if the handler class has no such constructor
+   */
+  static <H extends AbstractTcpClientHandler> @NotNull Function<Socket, H> tcp(final @NotNull Class<H> handlerClass) {
+    final MethodHandle constructor = findConstructor(handlerClass, Socket.class);
+    return socket -> {
+      try {
+        return handlerClass.cast(constructor.invoke(socket));
+      } catch (final Throwable e) {
+        throw rethrow(e);
+      }
+    };
+  }
+
+  /**
+   * Creates a factory of non-blocking TCP client handlers.
+   *
+   * @param handlerClass the handler class, with a public {@code (TcpConnection)} constructor
+   * @param <H>          the handler class
+   * @return the factory
+   * @throws IllegalArgumentException if the handler class has no such constructor
+   */
+  static <H extends AbstractNioTcpClientHandler> @NotNull Function<TcpConnection, H> nioTcp(
+      final @NotNull Class<H> handlerClass) {
+    final MethodHandle constructor = findConstructor(handlerClass, TcpConnection.class);
+    return connection -> {
+      try {
+        return handlerClass.cast(constructor.invoke(connection));
+      } catch (final Throwable e) {
+        throw rethrow(e);
+      }
+    };
+  }
+
+  /**
+   * Looks up the public constructor of a handler class.
+   *
+   * @param handlerClass   the handler class
+   * @param parameterTypes the parameter types of the constructor
+   * @return the constructor
+   * @throws IllegalArgumentException if the handler class is abstract or has no such constructor
+   */
+  private static @NotNull MethodHandle findConstructor(final @NotNull Class<?> handlerClass,
+                                                       final @NotNull Class<?>... parameterTypes) {
+    if (Modifier.isAbstract(handlerClass.getModifiers())) {
+      throw new IllegalArgumentException("Handler class " + handlerClass.getName() + " must not be abstract");
+    }
+    try {
+      return MethodHandles.publicLookup()
+          .findConstructor(handlerClass, MethodType.methodType(void.class, parameterTypes));
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalArgumentException("Handler class " + handlerClass.getName()
+          + " must have a public constructor with parameters " + Arrays.toString(parameterTypes), e);
+    }
+  }
+
+  /**
+   * Rethrows an error thrown by a handler constructor.
+   *
+   * @param throwable the thrown error
+   * @return the exception to throw
+   */
+  private static @NotNull RuntimeException rethrow(final @NotNull Throwable throwable) {
+    if (throwable instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (throwable instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException("Handler constructor throws an exception", throwable);
+  }
+}
@@ -0,0 +1,324 @@
+package fr.lehtto.jaser.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.function.Function;
+import org.jetbrains.annotations.ApiStatus.Experimental;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TCP server based on non-blocking channels multiplexed by selectors.
+ * <p>
+ * Each listener has its own server channel, bound with {@code SO_REUSEPORT} when supported, and a selector thread
+ * accepting connections and doing their I/O. Client handlers are only run by the event loops, sharing the work queue of
+ * the server, when data has been received, so idle connections do not hold any thread.
+ * <p>
+ * While a client handler handles its input, its connection is not read, so it is never run concurrently and the work
+ * queue holds at most one entry per connection.
+ *
+ * @param <H> the handler class
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@Experimental
+public class NioTcpServer<H extends AbstractNioTcpClientHandler> extends Server<H> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(NioTcpServer.class);
+
+  private final @NotNull EventLoop<H> @NotNull [] eventLoops;
+  private final @NotNull Function<TcpConnection, H> handlerFactory;
+  private @NotNull ServerSocketChannel @Nullable [] channels;
+  private @NotNull Selector @Nullable [] selectors;
+  private @Nullable Iterator<SelectionKey> @Nullable [] selectedKeys;
+
+  /**
+   * Valued constructor.
+   *
+   * @param port         the port
+   * @param bindAddress  the bind address
+   * @param handlerClass the handler class, with a public {@code (TcpConnection)} constructor
+   */
+  public NioTcpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull Class<H> handlerClass) {
+    this(port, bindAddress, HandlerFactories.nioTcp(handlerClass));
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port          the port
+   * @param bindAddress   the bind address
+   * @param handlerClass  the handler class, with a public {@code (TcpConnection)} constructor
+   * @param configuration the server configuration
+   */
+  public NioTcpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull Class<H> handlerClass,
+                      final @NotNull ServerConfiguration configuration) {
+    this(port, bindAddress, HandlerFactories.nioTcp(handlerClass), configuration);
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each connection
+   */
+  public NioTcpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull Function<TcpConnection, H> handlerFactory) {
+    this(port, bindAddress, handlerFactory, ServerConfiguration.defaults());
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each connection
+   * @param configuration  the server configuration
+   */
+  public NioTcpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull Function<TcpConnection, H> handlerFactory,
+                      final @NotNull ServerConfiguration configuration) {
+    super(port, bindAddress, configuration);
+    this.handlerFactory = handlerFactory;
+    final int workers = configuration.workers();
+    @SuppressWarnings("unchecked") final EventLoop<H>[] loops = new EventLoop[workers];
+    for (int i = 0; i < workers; i++) {
+      loops[i] = new EventLoop<>("EventLoop-" + i, getWorkQueue(), AbstractNioTcpClientHandler::run);
+    }
+    eventLoops = loops;
+  }
+
+  @Override
+  protected void startServer() throws IOException {
+    final int listeners = getConfiguration().listeners();
+    channels = new ServerSocketChannel[listeners];
+    selectors = new Selector[listeners];
+    @SuppressWarnings("unchecked") final Iterator<SelectionKey>[] keys = new Iterator[listeners];
+    selectedKeys = keys;
+    channels[0] = openChannel(1 < listeners);
+    final boolean reusePort = 1 < listeners
+        && isReusePortSupported(channels[0].supportedOptions());
+    if (1 < listeners && !reusePort) {
+      LOG.warn("SO_REUSEPORT is not supported, a single listener accepts the connections");
+    }
+    for (int i = 0; i < listeners; i++) {
+      selectors[i] = Selector.open();
+      if (0 == i || reusePort) {
+        if (0 < i) {
+          channels[i] = openChannel(true);
+        }
+        channels[i].register(selectors[i], SelectionKey.OP_ACCEPT);
+      }
+    }
+    for (final EventLoop<H> eventLoop : eventLoops) {
+      eventLoop.start();
+    }
+  }
+
+  @Override
+  protected H acceptConnection() throws IOException {
+    return acceptConnection(0);
+  }
+
+  /**
+   * Processes the I/O events of the connections of a listener until a new connection is accepted.
+   *
+   * @param listener the index of the listener
+   * @return the client handler of the new connection
+   * @throws IOException if an error occurs or if the server has been closed
+   */
+  @Override
+  protected H acceptConnection(final int listener) throws IOException {
+    assert null != selectors && null != selectedKeys;
+    final Selector selector = selectors[listener];
+    while (true) {
+      final Iterator<SelectionKey> keys = selectedKeys[listener];
+      if (null == keys || !keys.hasNext()) {
+        selectedKeys[listener] = select(selector);
+        continue;
+      }
+      final SelectionKey key = keys.next();
+      keys.remove();
+      if (!key.isValid()) {
+        continue;
+      }
+      if (key.isAcceptable()) {
+        final SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+        if (null != channel) {
+          return newClientHandler(channel, selector);
+        }
+      } else {
+        @SuppressWarnings("unchecked") final H clientHandler = (H) key.attachment();
+        processEvents(key, clientHandler);
+      }
+    }
+  }
+
+  /**
+   * Nothing to do, the connection being registered with the selector of its listener: its client handler is queued for
+   * the event loops each time data is received.
+   *
+   * @param clientHandler the client handler of the new connection
+   */
+  @Override
+  protected void dispatch(final @NotNull H clientHandler) {
+    // Run on data only
+  }
+
+  /**
+   * Waits for the event loops to run the pending client handlers.
+   */
+  @Override
+  protected void awaitClientHandlers() {
+    LOG.debug("Waiting for event loops to finish");
+    for (final EventLoop<H> eventLoop : eventLoops) {
+      eventLoop.shutdown();
+    }
+    for (final EventLoop<H> eventLoop : eventLoops) {
+      try {
+        eventLoop.join();
+      } catch (final InterruptedException e) {
+        LOG.error("Error while waiting for event loop to finish", e);
+        Thread.currentThread().interrupt();
+      }
+    }
+    LOG.debug("All event loops finished");
+  }
+
+  /**
+   * Closes the server channels and the selectors.
+   * <p>
+   * The client connections are closed by their client handlers.
+   *
+   * @throws IOException if an error occurs
+   */
+  @Override
+  public void stop() throws IOException {
+    if (null != channels) {
+      for (final ServerSocketChannel channel : channels) {
+        if (null != channel) {
+          channel.close();
+        }
+      }
+    }
+    if (null != selectors) {
+      for (final Selector selector : selectors) {
+        if (null != selector) {
+          selector.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Registers a new connection with the selector of its listener and creates its client handler.
+   *
+   * @param channel  the client channel
+   * @param selector the selector of the listener
+   * @return the client handler
+   * @throws IOException if an error occurs
+   */
+  private @NotNull H newClientHandler(final @NotNull SocketChannel channel, final @NotNull Selector selector)
+      throws IOException {
+    try {
+      channel.configureBlocking(false);
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      final SelectionKey key = channel.register(selector, 0);
+      final TcpConnection connection = new TcpConnection(channel, key);
+      final H clientHandler = handlerFactory.apply(connection);
+      connection.setCloseListener(() -> complete(clientHandler));
+      key.attach(clientHandler);
+      key.interestOps(SelectionKey.OP_READ);
+      return clientHandler;
+    } catch (final IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Processes the I/O events of a connection: sends its queued data, then reads the received data and queues its
+   * client handler, which stops reading until the data has been handled.
+   *
+   * @param key           the selection key of the connection
+   * @param clientHandler the client handler of the connection
+   */
+  private void processEvents(final @NotNull SelectionKey key, final @NotNull H clientHandler) {
+    final TcpConnection connection = clientHandler.getConnection();
+    try {
+      if (key.isWritable()) {
+        connection.flush();
+      }
+      if (!key.isValid() || !key.isReadable()) {
+        return;
+      }
+      final int read = connection.read();
+      if (0 > read) {
+        key.interestOpsAnd(~SelectionKey.OP_READ);
+        clientHandler.endOfInput();
+      } else if (0 < read) {
+        key.interestOpsAnd(~SelectionKey.OP_READ);
+        getWorkQueue().offer(clientHandler);
+      }
+    } catch (final IOException e) {
+      LOG.debug("Error on {}, closing it", connection, e);
+      connection.close();
+    } catch (final CancelledKeyException e) {
+      // Closed concurrently by a worker
+      connection.close();
+    }
+  }
+
+  /**
+   * Opens a non-blocking server channel bound to the server address and port.
+   *
+   * @param reusePort whether to enable {@code SO_REUSEPORT}, if supported
+   * @return the server channel
+   * @throws IOException if an error occurs
+   */
+  private @NotNull ServerSocketChannel openChannel(final boolean reusePort) throws IOException {
+    final ServerSocketChannel channel = ServerSocketChannel.open();
+    try {
+      channel.configureBlocking(false);
+      if (reusePort && isReusePortSupported(channel.supportedOptions())) {
+        channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+      }
+      channel.bind(new InetSocketAddress(getBindAddress(), getPort()));
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel;
+  }
+
+  /**
+   * Waits until some connections of a listener are ready for I/O.
+   *
+   * @param selector the selector of the listener
+   * @return the ready keys
+   * @throws IOException if an error occurs or if the server has been closed
+   */
+  private static @NotNull Iterator<SelectionKey> select(final @NotNull Selector selector) throws IOException {
+    try {
+      selector.select();
+      return selector.selectedKeys().iterator();
+    } catch (final ClosedSelectorException e) {
+      throw new AsynchronousCloseException();
+    }
+  }
+}
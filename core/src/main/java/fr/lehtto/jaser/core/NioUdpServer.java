@@ -0,0 +1,393 @@
+package fr.lehtto.jaser.core;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import org.jetbrains.annotations.ApiStatus.Experimental;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * UDP server based on a non-blocking {@link DatagramChannel}.
+ * <p>
+ * Datagrams are received into pooled buffers and client handlers are run by a fixed set of event loops, sharing the
+ * work queue of the server, instead of a thread per datagram. Each listener has its own channel, bound with
+ * {@code SO_REUSEPORT} when supported, selector and receive loop.
+ * <p>
+ * In {@link ServerConfiguration#batchSize() batching} mode, each receive loop drains the ready datagrams, runs their
+ * client handlers itself and sends all the responses at once before going back to the selector.
+ *
+ * @param <H> the handler class
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@Experimental
+public class NioUdpServer<H extends AbstractUdpClientHandler> extends Server<H> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(NioUdpServer.class);
+
+  private final @NotNull EventLoop<H> @NotNull [] eventLoops;
+  private final @NotNull BiFunction<DatagramPacket, DatagramSocket, H> handlerFactory;
+  private final @NotNull BufferPool bufferPool;
+  private @NotNull DatagramChannel @Nullable [] channels;
+  private @NotNull Selector @Nullable [] selectors;
+  private @NotNull Batch @Nullable [] batches;
+
+  /**
+   * Valued constructor.
+   *
+   * @param port         the port
+   * @param bindAddress  the bind address
+   * @param handlerClass the handler class, with a public {@code (DatagramPacket, DatagramSocket)} constructor
+   */
+  public NioUdpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull Class<H> handlerClass) {
+    this(port, bindAddress, HandlerFactories.udp(handlerClass));
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port          the port
+   * @param bindAddress   the bind address
+   * @param handlerClass  the handler class, with a public {@code (DatagramPacket, DatagramSocket)} constructor
+   * @param configuration the server configuration
+   * @since 1.1.0
+   */
+  public NioUdpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull Class<H> handlerClass,
+                      final @NotNull ServerConfiguration configuration) {
+    this(port, bindAddress, HandlerFactories.udp(handlerClass), configuration);
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each client
+   * @since 1.1.0
+   */
+  public NioUdpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull BiFunction<DatagramPacket, DatagramSocket, H> handlerFactory) {
+    this(port, bindAddress, handlerFactory, ServerConfiguration.defaults());
+  }
+
+  /**
+   * Valued constructor.
+   * <p>
+   * Client handlers are always run by the event loops, the number of which is given by the
+   * {@link ServerConfiguration#workers() workers} of the configuration; its execution strategy is ignored.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each client
+   * @param configuration  the server configuration
+   * @since 1.1.0
+   */
+  public NioUdpServer(final int port, final @NotNull InetAddress bindAddress,
+                      final @NotNull BiFunction<DatagramPacket, DatagramSocket, H> handlerFactory,
+                      final @NotNull ServerConfiguration configuration) {
+    super(port, bindAddress, configuration);
+    this.handlerFactory = handlerFactory;
+    final int workers = configuration.workers();
+    @SuppressWarnings("unchecked") final EventLoop<H>[] loops = new EventLoop[workers];
+    for (int i = 0; i < workers; i++) {
+      loops[i] = new EventLoop<>("EventLoop-" + i, getWorkQueue(), this::runClientHandler);
+    }
+    eventLoops = loops;
+    bufferPool = BufferPool.forUdpServer(configuration);
+  }
+
+  @Override
+  protected void startServer() throws IOException {
+    final int listeners = getConfiguration().listeners();
+    channels = new DatagramChannel[listeners];
+    selectors = new Selector[listeners];
+    channels[0] = openChannel(1 < listeners);
+    final boolean reusePort = 1 < listeners
+        && isReusePortSupported(channels[0].supportedOptions());
+    if (1 < listeners && !reusePort) {
+      LOG.warn("SO_REUSEPORT is not supported, listeners share a single channel");
+    }
+    for (int i = 0; i < listeners; i++) {
+      if (0 < i) {
+        channels[i] = reusePort ? openChannel(true) : channels[0];
+      }
+      selectors[i] = Selector.open();
+      channels[i].register(selectors[i], SelectionKey.OP_READ);
+    }
+    if (isBatching()) {
+      batches = new Batch[listeners];
+      for (int i = 0; i < listeners; i++) {
+        batches[i] = new Batch(channels[i]);
+      }
+    } else {
+      for (final EventLoop<H> eventLoop : eventLoops) {
+        eventLoop.start();
+      }
+    }
+  }
+
+  @Override
+  protected H acceptConnection() throws IOException {
+    return acceptConnection(0);
+  }
+
+  @Override
+  protected H acceptConnection(final int listener) throws IOException {
+    assert null != channels;
+    final DatagramChannel channel = channels[listener];
+    final Batch batch = null == batches ? null : batches[listener];
+    if (null != batch && batch.size() >= getConfiguration().batchSize()) {
+      batch.flush();
+    }
+    final ByteBuffer buffer = bufferPool.acquire();
+    SocketAddress client = channel.receive(buffer);
+    while (null == client) {
+      if (null != batch) {
+        // No more ready datagram, send the responses of the batch before waiting
+        batch.flush();
+      }
+      waitForDatagram(listener);
+      client = channel.receive(buffer);
+    }
+    final DatagramPacket datagramPacket =
+        new DatagramPacket(buffer.array(), buffer.position(), client);
+    // Create a new client handler
+    final H clientHandler = handlerFactory.apply(datagramPacket, channel.socket());
+    clientHandler.setBuffers(bufferPool, buffer);
+    if (null == batch) {
+      clientHandler.setSender(packet -> send(channel, packet));
+    } else {
+      batch.add(clientHandler);
+      clientHandler.setSender(batch::send);
+    }
+    return clientHandler;
+  }
+
+  /**
+   * Queues the client handler for the event loops, or runs it on the receive loop in batching mode.
+   *
+   * @param clientHandler the client handler to run
+   */
+  @Override
+  protected void dispatch(final @NotNull H clientHandler) {
+    if (isBatching()) {
+      runClientHandler(clientHandler);
+    } else {
+      getWorkQueue().offer(clientHandler);
+    }
+  }
+
+  /**
+   * Gives the buffers of the client handler back to the pool.
+   * <p>
+   * In batching mode, the buffers are given back once the responses of the batch have been sent.
+   *
+   * @param clientHandler the client handler to release
+   */
+  @Override
+  protected void release(final @NotNull H clientHandler) {
+    if (!isBatching()) {
+      clientHandler.releaseBuffers();
+    }
+  }
+
+  @Override
+  public @NotNull Optional<BufferPool> getBufferPool() {
+    return Optional.of(bufferPool);
+  }
+
+  /**
+   * Waits for the event loops to run the pending client handlers.
+   */
+  @Override
+  protected void awaitClientHandlers() {
+    LOG.debug("Waiting for event loops to finish");
+    for (final EventLoop<H> eventLoop : eventLoops) {
+      eventLoop.shutdown();
+    }
+    for (final EventLoop<H> eventLoop : eventLoops) {
+      try {
+        eventLoop.join();
+      } catch (final InterruptedException e) {
+        LOG.error("Error while waiting for event loop to finish", e);
+        Thread.currentThread().interrupt();
+      }
+    }
+    LOG.debug("All event loops finished");
+  }
+
+  /**
+   * Closes the channels and the selectors.
+   *
+   * @throws IOException if an error occurs
+   */
+  @Override
+  public void stop() throws IOException {
+    if (null != channels) {
+      for (final DatagramChannel channel : channels) {
+        if (null != channel) {
+          channel.close();
+        }
+      }
+    }
+    if (null != selectors) {
+      for (final Selector selector : selectors) {
+        if (null != selector) {
+          selector.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if the server runs in batching mode.
+   *
+   * @return true, if client handlers are run by batches on the receive loops
+   */
+  private boolean isBatching() {
+    return 0 < getConfiguration().batchSize();
+  }
+
+  /**
+   * Opens a non-blocking channel bound to the server address and port.
+   *
+   * @param reusePort whether to enable {@code SO_REUSEPORT}, if supported
+   * @return the channel
+   * @throws IOException if an error occurs
+   */
+  private @NotNull DatagramChannel openChannel(final boolean reusePort) throws IOException {
+    final DatagramChannel channel = DatagramChannel.open();
+    try {
+      channel.configureBlocking(false);
+      if (reusePort && isReusePortSupported(channel.supportedOptions())) {
+        channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+      }
+      channel.bind(new InetSocketAddress(getBindAddress(), getPort()));
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel;
+  }
+
+  /**
+   * Waits until a datagram is ready to be received by a listener.
+   *
+   * @param listener the index of the listener
+   * @throws IOException if an error occurs or if the server has been closed
+   */
+  private void waitForDatagram(final int listener) throws IOException {
+    assert null != selectors;
+    final Selector selector = selectors[listener];
+    try {
+      selector.select();
+      selector.selectedKeys().clear();
+    } catch (final ClosedSelectorException e) {
+      throw new AsynchronousCloseException();
+    }
+  }
+
+  /**
+   * Sends a packet through a channel.
+   * <p>
+   * The channel is non-blocking: if the socket send buffer is full the packet is dropped, as the network would do.
+   *
+   * @param channel the channel to send the packet through
+   * @param packet  the packet to send
+   * @throws IOException if an error occurs
+   */
+  private static void send(final @NotNull DatagramChannel channel, final @NotNull DatagramPacket packet)
+      throws IOException {
+    final int sent = channel.send(
+        ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength()),
+        packet.getSocketAddress());
+    if (0 == sent) {
+      LOG.warn("Send buffer full, packet to {} dropped", packet.getSocketAddress());
+    }
+  }
+
+  /**
+   * Client handlers run by a receive loop since its last flush, and their responses waiting to be sent.
+   */
+  private static final class Batch {
+
+    private final @NotNull DatagramChannel channel;
+    private final @NotNull List<AbstractUdpClientHandler> clientHandlers = new ArrayList<>();
+    private final @NotNull List<DatagramPacket> responses = new ArrayList<>();
+
+    /**
+     * Valued constructor.
+     *
+     * @param channel the channel to send the responses through
+     */
+    private Batch(final @NotNull DatagramChannel channel) {
+      this.channel = channel;
+    }
+
+    /**
+     * Adds a client handler to the batch.
+     *
+     * @param clientHandler the client handler
+     */
+    private void add(final @NotNull AbstractUdpClientHandler clientHandler) {
+      clientHandlers.add(clientHandler);
+    }
+
+    /**
+     * Gets the number of client handlers in the batch.
+     *
+     * @return the size of the batch
+     */
+    private int size() {
+      return clientHandlers.size();
+    }
+
+    /**
+     * Queues a response until the batch is flushed.
+     *
+     * @param response the response to send
+     */
+    private void send(final @NotNull DatagramPacket response) {
+      responses.add(response);
+    }
+
+    /**
+     * Sends the queued responses, then gives the buffers of the client handlers back to the pool.
+     */
+    private void flush() {
+      for (final DatagramPacket response : responses) {
+        try {
+          NioUdpServer.send(channel, response);
+        } catch (final IOException e) {
+          if (channel.isOpen()) {
+            LOG.error("Error while sending response to {}", response.getSocketAddress(), e);
+          }
+        }
+      }
+      responses.clear();
+      for (final AbstractUdpClientHandler clientHandler : clientHandlers) {
+        clientHandler.releaseBuffers();
+      }
+      clientHandlers.clear();
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package fr.lehtto.jaser.core;
+
+/**
+ * Policy applied by a {@link Server server} when its work queue is full.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public enum OverloadPolicy {
+
+  /**
+   * Drops the client handler being submitted.
+   */
+  DROP_NEWEST,
+  /**
+   * Drops the oldest queued client handler to make room for the one being submitted.
+   */
+  DROP_OLDEST,
+  /**
+   * Rejects the client handler being submitted, letting it answer immediately from the receiver thread.
+   *
+   * @see AbstractClientHandler#reject()
+   */
+  REJECT
+}
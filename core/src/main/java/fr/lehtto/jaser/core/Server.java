@@ -1,14 +1,21 @@
 package fr.lehtto.jaser.core;
 
 import java.io.IOException;
-import java.lang.ref.WeakReference;
-import java.lang.reflect.InvocationTargetException;
 import java.net.InetAddress;
-import java.util.HashSet;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.UnmodifiableView;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,32 +24,48 @@ import org.slf4j.LoggerFactory;
  *
  * @param <H> the handler class
  * @author Lehtto
- * @version 0.2.0
+ * @version 1.1.0
  * @since 0.1.0
  */
-abstract class Server<H extends AbstractClientHandler>
+public abstract class Server<H extends AbstractClientHandler>
     implements AutoCloseable, Runnable {
 
   private static final Logger LOG = LoggerFactory.getLogger(Server.class);
 
   private final int port;
   private final @NotNull InetAddress bindAddress;
-  private final @NotNull Class<H> handlerClass;
-  private final @NotNull Set<WeakReference<H>> clientHandlers = new HashSet<>();
-  private boolean running = true;
+  private final @NotNull ServerConfiguration configuration;
+  private final @NotNull WorkQueue<H> workQueue;
+  private final @NotNull AtomicInteger activeWorkers = new AtomicInteger();
+  private final @NotNull Map<Long, H> clientHandlers = new ConcurrentHashMap<>();
+  private volatile @Nullable ExecutorService executor;
+  private volatile boolean running = true;
+
+  /**
+   * Valued constructor, using the default configuration.
+   *
+   * @param port        the port
+   * @param bindAddress the bind address
+   */
+  protected Server(final int port, @NotNull final InetAddress bindAddress) {
+    this(port, bindAddress, ServerConfiguration.defaults());
+  }
 
   /**
    * Valued constructor.
    *
-   * @param port         the port
-   * @param bindAddress  the bind address
-   * @param handlerClass the handler class
+   * @param port          the port
+   * @param bindAddress   the bind address
+   * @param configuration the server configuration
+   * @since 1.1.0
    */
   protected Server(final int port, @NotNull final InetAddress bindAddress,
-                   @NotNull final Class<H> handlerClass) {
+                   @NotNull final ServerConfiguration configuration) {
     this.port = port;
     this.bindAddress = bindAddress;
-    this.handlerClass = handlerClass;
+    this.configuration = configuration;
+    this.workQueue = new WorkQueue<>(configuration.queueCapacity(), configuration.overloadPolicy(),
+                                     this::drop, this::reject);
   }
 
   /**
@@ -55,14 +78,9 @@ abstract class Server<H extends AbstractClientHandler>
     LOG.info("Closing server");
     running = false;
     stop();
-    for (final WeakReference<H> reference : getClientHandlers()) {
-      final H clientHandler = reference.get();
-      if (null != clientHandler) {
-        LOG.debug("Closing client handler {}", clientHandler);
-        clientHandler.close();
-      } else {
-        LOG.debug("Client handler {} already closed", reference);
-      }
+    for (final H clientHandler : clientHandlers.values()) {
+      LOG.debug("Closing client handler {}", clientHandler);
+      clientHandler.close();
     }
   }
 
@@ -75,71 +93,315 @@ abstract class Server<H extends AbstractClientHandler>
 
   /**
    * Starts the server and waits for connections.
+   * <p>
+   * The calling thread runs the receive loop of the first listener, the other listeners get their own thread.
    */
   @Override
   public final void run() {
+    LOG.info("Starting server on {}:{}", getBindAddress(), getPort());
     try {
-      LOG.info("Starting server on {}:{}", getBindAddress(), getPort());
       startServer();
-      LOG.info("TcpServer started on {}:{}", getBindAddress(), getPort());
+    } catch (final IOException e) {
+      LOG.error("Error while starting server", e);
+      return;
+    }
+    LOG.info("Server started on {}:{}", getBindAddress(), getPort());
+    final Thread[] receivers = new Thread[configuration.listeners() - 1];
+    for (int i = 0; i < receivers.length; i++) {
+      final int listener = i + 1;
+      receivers[i] = new Thread(() -> acceptConnections(listener), "Receiver-" + listener);
+      receivers[i].start();
+    }
+    acceptConnections(0);
+    for (final Thread receiver : receivers) {
+      try {
+        receiver.join();
+      } catch (final InterruptedException e) {
+        LOG.error("Error while waiting for receiver {} to finish", receiver.getName(), e);
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    awaitClientHandlers();
+  }
+
+  /**
+   * Runs the receive loop of a listener until the server is closed.
+   *
+   * @param listener the index of the listener
+   */
+  private void acceptConnections(final int listener) {
+    try {
       LOG.debug("Waiting for connections...");
       while (isRunning()) {
-        final H clientHandler = acceptConnection();
+        final H clientHandler;
+        try {
+          clientHandler = acceptConnection(listener);
+        } catch (final RuntimeException e) {
+          LOG.error("Error while creating client handler, check your handler factory", e);
+          continue;
+        }
         LOG.debug("New client connected");
-        addClientHandler(clientHandler);
-        final Thread thread =
-            new Thread(clientHandler,
-                       "ClientHandler-" +
-                           clientHandler.getUuid().getMostSignificantBits());
-        clientHandler.setThread(thread);
-        thread.start();
+        clientHandlers.put(clientHandler.getId(), clientHandler);
+        dispatch(clientHandler);
       }
     } catch (final IOException e) {
       if (isRunning()) {
         LOG.error("Error while accepting client connection", e);
       }
-    } catch (final InvocationTargetException e) {
-      LOG.error(
-          "Error while creating client handler, check your handler class. "
-              + "Handler constructor throws an exception",
-          e);
-    } catch (final InstantiationException e) {
-      LOG.error(
-          "Error while creating client handler, could not instantiate class. "
-              + "Hint: handler class must not be abstract",
-          e);
-    } catch (final IllegalAccessException e) {
-      LOG.error("Error while creating client handler, illegal access", e);
-    } catch (final NoSuchMethodException e) {
-      LOG.error(
-          "Error while creating client handler, no constructor found. "
-              +
-              "Hint: handler class must have a public constructor with a single Socket parameter",
-          e);
     }
+  }
 
-    // Wait for all client handlers to finish
+  /**
+   * Runs a client handler.
+   * <p>
+   * The default implementation submits the client handler to the executor of the configured
+   * {@link ExecutionStrategy execution strategy}, through the work queue if it is bounded.
+   *
+   * @param clientHandler the client handler to run
+   * @since 1.1.0
+   */
+  protected void dispatch(final @NotNull H clientHandler) {
+    if (0 == configuration.queueCapacity()) {
+      getExecutor().execute(() -> runClientHandler(clientHandler));
+    } else if (workQueue.offer(clientHandler)) {
+      startWorker();
+    }
+  }
+
+  /**
+   * Runs a client handler on the current thread, then unregisters and releases it.
+   *
+   * @param clientHandler the client handler to run
+   * @since 1.1.0
+   */
+  protected final void runClientHandler(final @NotNull H clientHandler) {
+    clientHandler.setThread(Thread.currentThread());
+    try {
+      clientHandler.run();
+    } catch (final RuntimeException e) {
+      LOG.error("Error while running client handler {}", clientHandler, e);
+    } finally {
+      complete(clientHandler);
+    }
+  }
+
+  /**
+   * Releases the resources held by a client handler once it has been run, dropped or rejected.
+   * <p>
+   * The client handler has already been unregistered from the server.
+   * <p>
+   * The default implementation does nothing.
+   *
+   * @param clientHandler the client handler to release
+   * @since 1.1.0
+   */
+  protected void release(final @NotNull H clientHandler) {
+    // Nothing to release by default
+  }
+
+  /**
+   * Waits for all client handlers to finish.
+   *
+   * @since 1.1.0
+   */
+  protected void awaitClientHandlers() {
+    final ExecutorService current = executor;
+    if (null == current) {
+      return;
+    }
     LOG.debug("Waiting for client handlers to finish");
-    for (final WeakReference<H> reference : getClientHandlers()) {
-      final H clientHandler = reference.get();
-      if (null != clientHandler) {
-        final Thread thread = clientHandler.getThread();
-        if (null != thread) {
-          LOG.debug("Waiting for client handler {} to finish", reference);
-          try {
-            thread.join();
-          } catch (final InterruptedException e) {
-            LOG.error("Error while waiting for client handler to finish", e);
-            thread.interrupt();
-          }
-        } else {
-          LOG.warn("Client handler {} has no thread", clientHandler);
-        }
+    current.shutdown();
+    try {
+      while (!current.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.warn("Client handlers still running, waiting...");
       }
+    } catch (final InterruptedException e) {
+      LOG.error("Error while waiting for client handlers to finish", e);
+      current.shutdownNow();
+      Thread.currentThread().interrupt();
+      return;
     }
     LOG.debug("All client handlers finished");
   }
 
+  /**
+   * Gets the number of client handlers accepted and not completed yet, either queued or running.
+   *
+   * @return the number of client handlers in flight
+   * @since 1.1.0
+   */
+  public int getInFlightCount() {
+    return clientHandlers.size();
+  }
+
+  /**
+   * Gets the pool of the I/O buffers of the server.
+   *
+   * @return the buffer pool, empty if the server does not pool its buffers
+   * @since 1.1.0
+   */
+  public @NotNull Optional<BufferPool> getBufferPool() {
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the number of client handlers waiting in the work queue.
+   *
+   * @return the queue depth
+   * @since 1.1.0
+   */
+  public int getQueueDepth() {
+    return workQueue.size();
+  }
+
+  /**
+   * Gets the number of client handlers dropped because the work queue was full.
+   *
+   * @return the number of dropped client handlers
+   * @since 1.1.0
+   */
+  public long getDroppedCount() {
+    return workQueue.getDroppedCount();
+  }
+
+  /**
+   * Gets the number of client handlers rejected because the work queue was full.
+   *
+   * @return the number of rejected client handlers
+   * @since 1.1.0
+   */
+  public long getRejectedCount() {
+    return workQueue.getRejectedCount();
+  }
+
+  /**
+   * Starts a worker draining the work queue, unless all the workers are already active.
+   */
+  private void startWorker() {
+    if (tryAcquireWorker()) {
+      getExecutor().execute(this::drainWorkQueue);
+    }
+  }
+
+  /**
+   * Runs the client handlers of the work queue until it is empty.
+   */
+  private void drainWorkQueue() {
+    do {
+      H clientHandler = workQueue.poll();
+      while (null != clientHandler) {
+        runClientHandler(clientHandler);
+        clientHandler = workQueue.poll();
+      }
+      activeWorkers.decrementAndGet();
+      // A client handler may have been queued after the last poll but before the decrement
+    } while (!workQueue.isEmpty() && tryAcquireWorker());
+  }
+
+  /**
+   * Reserves a worker slot.
+   *
+   * @return true if a slot has been reserved, false if all the workers are active
+   */
+  private boolean tryAcquireWorker() {
+    int active = activeWorkers.get();
+    while (active < configuration.workers()) {
+      if (activeWorkers.compareAndSet(active, active + 1)) {
+        return true;
+      }
+      active = activeWorkers.get();
+    }
+    return false;
+  }
+
+  /**
+   * Drops a client handler, the work queue being full.
+   *
+   * @param clientHandler the dropped client handler
+   */
+  private void drop(final @NotNull H clientHandler) {
+    LOG.debug("Work queue full, client handler {} dropped", clientHandler);
+    closeQuietly(clientHandler);
+    complete(clientHandler);
+  }
+
+  /**
+   * Rejects a client handler, the work queue being full.
+   *
+   * @param clientHandler the rejected client handler
+   */
+  private void reject(final @NotNull H clientHandler) {
+    LOG.debug("Work queue full, client handler {} rejected", clientHandler);
+    try {
+      clientHandler.reject();
+    } catch (final RuntimeException e) {
+      LOG.error("Error while rejecting client handler {}", clientHandler, e);
+    } finally {
+      closeQuietly(clientHandler);
+      complete(clientHandler);
+    }
+  }
+
+  /**
+   * Unregisters a client handler which has been run, dropped or rejected, then releases it.
+   * <p>
+   * Servers whose client handlers outlive a single run, such as connection handlers, call it once the client is gone.
+   * Only the first call releases the client handler: a dropped or rejected connection is completed again once closed.
+   *
+   * @param clientHandler the client handler
+   * @since 1.1.0
+   */
+  protected final void complete(final @NotNull H clientHandler) {
+    if (null != clientHandlers.remove(clientHandler.getId())) {
+      release(clientHandler);
+    }
+  }
+
+  /**
+   * Closes a client handler, logging errors.
+   *
+   * @param clientHandler the client handler to close
+   */
+  private static void closeQuietly(final @NotNull AbstractClientHandler clientHandler) {
+    try {
+      clientHandler.close();
+    } catch (final IOException e) {
+      LOG.error("Error while closing client handler {}", clientHandler, e);
+    }
+  }
+
+  /**
+   * Gets the executor running the client handlers, creating it on first use.
+   *
+   * @return the executor
+   */
+  private @NotNull ExecutorService getExecutor() {
+    ExecutorService result = executor;
+    if (null == result) {
+      synchronized (this) {
+        result = executor;
+        if (null == result) {
+          LOG.debug("Running client handlers with {}", configuration.executionStrategy());
+          result = configuration.executionStrategy()
+              .newExecutorService(configuration.workers(), newThreadFactory());
+          executor = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Creates the factory of the platform threads running the client handlers.
+   *
+   * @return the thread factory
+   */
+  private static @NotNull ThreadFactory newThreadFactory() {
+    final AtomicLong counter = new AtomicLong();
+    return runnable -> new Thread(runnable, "ClientHandler-" + counter.incrementAndGet());
+  }
+
   /**
    * Starts the server.
    *
@@ -151,15 +413,24 @@ abstract class Server<H extends AbstractClientHandler>
    * Accepts a connection.
    *
    * @return the client handler
-   * @throws IOException               if an error occurs
-   * @throws InvocationTargetException if an error occurs
-   * @throws InstantiationException    if an error occurs
-   * @throws IllegalAccessException    if an error occurs
-   * @throws NoSuchMethodException     if an error occurs
+   * @throws IOException if an error occurs
    */
-  protected abstract H acceptConnection()
-      throws IOException, InvocationTargetException, InstantiationException,
-             IllegalAccessException, NoSuchMethodException;
+  protected abstract H acceptConnection() throws IOException;
+
+  /**
+   * Accepts a connection on the given listener.
+   * <p>
+   * Called concurrently by the receive loops when the server has several listeners. The default implementation
+   * delegates to {@link #acceptConnection()}.
+   *
+   * @param listener the index of the listener
+   * @return the client handler
+   * @throws IOException if an error occurs
+   * @since 1.1.0
+   */
+  protected H acceptConnection(final int listener) throws IOException {
+    return acceptConnection();
+  }
 
   /**
    * Gets the port.
@@ -179,33 +450,36 @@ abstract class Server<H extends AbstractClientHandler>
   }
 
   /**
-   * Gets the handler class.
+   * Gets the server configuration.
    *
-   * @return the handler class
+   * @return the server configuration
+   * @since 1.1.0
    */
   @NotNull
-  Class<H> getHandlerClass() {
-    return handlerClass;
+  ServerConfiguration getConfiguration() {
+    return configuration;
   }
 
   /**
-   * Adds a client handler.
+   * Gets the work queue.
    *
-   * @param clientHandler the client handler
+   * @return the work queue
+   * @since 1.1.0
    */
-  private void addClientHandler(@NotNull final H clientHandler) {
-    clientHandlers.add(new WeakReference<>(clientHandler));
+  @NotNull
+  WorkQueue<H> getWorkQueue() {
+    return workQueue;
   }
 
   /**
-   * Gets the client handlers.
+   * Checks whether a socket supports {@code SO_REUSEPORT}, for the sockets of several listeners to share the port.
    *
-   * @return the client handlers
+   * @param supportedOptions the options supported by the socket
+   * @return true, if {@code SO_REUSEPORT} is supported
+   * @since 1.1.0
    */
-  @UnmodifiableView
-  @NotNull
-  private Set<WeakReference<H>> getClientHandlers() {
-    return Set.copyOf(clientHandlers);
+  boolean isReusePortSupported(final @NotNull Set<SocketOption<?>> supportedOptions) {
+    return supportedOptions.contains(StandardSocketOptions.SO_REUSEPORT);
   }
 
   /**
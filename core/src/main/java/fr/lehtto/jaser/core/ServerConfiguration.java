@@ -0,0 +1,207 @@
+package fr.lehtto.jaser.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Configuration of a {@link Server server}.
+ *
+ * @param executionStrategy the strategy used to run the client handlers
+ * @param workers           the number of workers of bounded strategies and event loops
+ * @param queueCapacity     the capacity of the work queue, 0 to hand client handlers directly to the executor
+ * @param overloadPolicy    the policy applied when the work queue is full
+ * @param listeners         the number of sockets receiving the client requests, each with its own receive loop
+ * @param batchSize         the maximum number of datagrams handled per batch, 0 to disable batching
+ * @param packetSize        the size of the buffers of the UDP servers, the largest datagram received or sent
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public record ServerConfiguration(@NotNull ExecutionStrategy executionStrategy, int workers, int queueCapacity,
+                                  @NotNull OverloadPolicy overloadPolicy, int listeners,
+                                  int batchSize, int packetSize) {
+
+  /**
+   * Creates a new builder.
+   *
+   * @return the builder
+   */
+  public static @NotNull Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates the default configuration.
+   *
+   * @return the default configuration
+   */
+  public static @NotNull ServerConfiguration defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder.
+   *
+   * @return the builder
+   */
+  public @NotNull Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Builder for {@link ServerConfiguration}.
+   */
+  public static final class Builder {
+
+    private @NotNull ExecutionStrategy executionStrategy;
+    private int workers;
+    private int queueCapacity;
+    private @NotNull OverloadPolicy overloadPolicy;
+    private int listeners;
+    private int batchSize;
+    private int packetSize;
+
+    /**
+     * Default constructor.
+     */
+    private Builder() {
+      executionStrategy = ExecutionStrategy.PLATFORM_PER_TASK;
+      workers = Runtime.getRuntime().availableProcessors();
+      queueCapacity = 0;
+      overloadPolicy = OverloadPolicy.DROP_NEWEST;
+      listeners = 1;
+      batchSize = 0;
+      packetSize = AbstractUdpClientHandler.DEFAULT_PACKET_SIZE;
+    }
+
+    /**
+     * Valued constructor.
+     *
+     * @param configuration the configuration to copy
+     */
+    private Builder(final @NotNull ServerConfiguration configuration) {
+      executionStrategy = configuration.executionStrategy;
+      workers = configuration.workers;
+      queueCapacity = configuration.queueCapacity;
+      overloadPolicy = configuration.overloadPolicy;
+      listeners = configuration.listeners;
+      batchSize = configuration.batchSize;
+      packetSize = configuration.packetSize;
+    }
+
+    /**
+     * Sets the strategy used to run the client handlers.
+     *
+     * @param executionStrategy the execution strategy
+     * @return this builder
+     */
+    public @NotNull Builder executionStrategy(final @NotNull ExecutionStrategy executionStrategy) {
+      this.executionStrategy = executionStrategy;
+      return this;
+    }
+
+    /**
+     * Sets the number of workers.
+     *
+     * @param workers the number of workers
+     * @return this builder
+     */
+    public @NotNull Builder workers(final int workers) {
+      this.workers = workers;
+      return this;
+    }
+
+    /**
+     * Sets the capacity of the work queue.
+     * <p>
+     * With a bounded work queue, at most {@link #workers(int) workers} client handlers run at the same time whatever
+     * the execution strategy, the others wait in the queue.
+     *
+     * @param queueCapacity the capacity of the work queue, 0 to hand client handlers directly to the executor
+     * @return this builder
+     */
+    public @NotNull Builder queueCapacity(final int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * Sets the policy applied when the work queue is full.
+     *
+     * @param overloadPolicy the overload policy
+     * @return this builder
+     */
+    public @NotNull Builder overloadPolicy(final @NotNull OverloadPolicy overloadPolicy) {
+      this.overloadPolicy = overloadPolicy;
+      return this;
+    }
+
+    /**
+     * Sets the number of listeners.
+     * <p>
+     * UDP servers open one socket per listener, bound to the same address and port with {@code SO_REUSEPORT} so that
+     * the kernel spreads the datagrams across them. If the platform does not support it, the listeners share a single
+     * socket. {@link NioTcpServer} likewise opens one server socket and selector per listener, the kernel spreading the
+     * connections across them. Other servers run one receive loop per listener on their single socket.
+     *
+     * @param listeners the number of listeners
+     * @return this builder
+     */
+    public @NotNull Builder listeners(final int listeners) {
+      this.listeners = listeners;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of datagrams handled per batch.
+     * <p>
+     * In batching mode, supported by {@link NioUdpServer}, each receive loop drains the ready datagrams, runs their
+     * client handlers itself and sends all the responses before waiting for new datagrams. Workers, execution strategy
+     * and work queue are then unused.
+     *
+     * @param batchSize the maximum batch size, 0 to disable batching
+     * @return this builder
+     */
+    public @NotNull Builder batchSize(final int batchSize) {
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Sets the size of the buffers of the UDP servers.
+     * <p>
+     * Larger datagrams are truncated on receive, so it is also the largest response a client handler can send.
+     *
+     * @param packetSize the packet size, in bytes
+     * @return this builder
+     */
+    public @NotNull Builder packetSize(final int packetSize) {
+      this.packetSize = packetSize;
+      return this;
+    }
+
+    /**
+     * Builds the configuration.
+     *
+     * @return the configuration
+     */
+    public @NotNull ServerConfiguration build() {
+      if (0 >= workers) {
+        throw new IllegalArgumentException("At least one worker is required");
+      }
+      if (0 > queueCapacity) {
+        throw new IllegalArgumentException("Queue capacity must not be negative");
+      }
+      if (0 >= listeners) {
+        throw new IllegalArgumentException("At least one listener is required");
+      }
+      if (0 > batchSize) {
+        throw new IllegalArgumentException("Batch size must not be negative");
+      }
+      if (0 >= packetSize || AbstractUdpClientHandler.MAX_PACKET_SIZE < packetSize) {
+        throw new IllegalArgumentException(
+            "Packet size must be between 1 and " + AbstractUdpClientHandler.MAX_PACKET_SIZE + " bytes");
+      }
+      return new ServerConfiguration(executionStrategy, workers, queueCapacity, overloadPolicy, listeners,
+                                     batchSize, packetSize);
+    }
+  }
+}
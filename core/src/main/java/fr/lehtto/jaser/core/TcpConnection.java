@@ -0,0 +1,222 @@
+package fr.lehtto.jaser.core;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.ApiStatus.Experimental;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking client connection of a {@link NioTcpServer}, with its own read buffer and write queue.
+ * <p>
+ * Data is read by the selector thread of the server while the client handler is idle, and handed over to the client
+ * handler on a worker. Writes are thread-safe: they are sent right away when the socket accepts them, otherwise queued
+ * and sent by the selector thread once the socket is writable.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@Experimental
+public final class TcpConnection {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TcpConnection.class);
+
+  /**
+   * Initial size of the read buffer, enough for most requests.
+   */
+  static final int INITIAL_READ_BUFFER_SIZE = 4096;
+
+  /**
+   * Maximum size of the read buffer, the connection is closed if a request does not fit.
+   */
+  static final int MAX_READ_BUFFER_SIZE = 128 * 1024;
+
+  private final @NotNull SocketChannel channel;
+  private final @NotNull SelectionKey key;
+  private final @NotNull Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+  private final @NotNull AtomicBoolean closed = new AtomicBoolean();
+  private @NotNull ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+  private boolean closeAfterWrites;
+  private @Nullable Runnable closeListener;
+
+  /**
+   * Valued constructor.
+   *
+   * @param channel the client channel
+   * @param key     the key of the channel registration with the selector of the server
+   */
+  TcpConnection(final @NotNull SocketChannel channel, final @NotNull SelectionKey key) {
+    this.channel = channel;
+    this.key = key;
+  }
+
+  /**
+   * Gets the address of the client.
+   *
+   * @return the remote address, or null if the connection is closed
+   */
+  public @Nullable SocketAddress getRemoteAddress() {
+    try {
+      return channel.getRemoteAddress();
+    } catch (final IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Checks if the connection is open.
+   *
+   * @return true, if the connection is open
+   */
+  public boolean isOpen() {
+    return !closed.get();
+  }
+
+  /**
+   * Sends data to the client.
+   * <p>
+   * Thread-safe, the data of concurrent writes is never interleaved. The buffer must not be modified afterwards, as it
+   * may be queued until the socket is writable.
+   *
+   * @param data the data to send, from its position to its limit
+   * @throws IOException if an error occurs or if the connection is closed
+   */
+  public void write(final @NotNull ByteBuffer data) throws IOException {
+    synchronized (writeQueue) {
+      if (writeQueue.isEmpty()) {
+        channel.write(data);
+        if (!data.hasRemaining()) {
+          return;
+        }
+      }
+      writeQueue.add(data);
+      try {
+        key.interestOpsOr(SelectionKey.OP_WRITE);
+      } catch (final CancelledKeyException e) {
+        throw new IOException("Connection closed", e);
+      }
+    }
+    key.selector().wakeup();
+  }
+
+  /**
+   * Closes the connection once the queued data has been sent.
+   */
+  public void closeAfterWrites() {
+    synchronized (writeQueue) {
+      if (!writeQueue.isEmpty()) {
+        closeAfterWrites = true;
+        return;
+      }
+    }
+    close();
+  }
+
+  /**
+   * Closes the connection right away, dropping the queued data.
+   */
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    key.cancel();
+    try {
+      channel.close();
+    } catch (final IOException e) {
+      LOG.debug("Error while closing connection", e);
+    }
+    if (null != closeListener) {
+      closeListener.run();
+    }
+  }
+
+  /**
+   * Sets the action run once the connection is closed.
+   *
+   * @param closeListener the close listener
+   */
+  void setCloseListener(final @NotNull Runnable closeListener) {
+    this.closeListener = closeListener;
+  }
+
+  /**
+   * Reads the available data into the read buffer, growing it if it is full.
+   * <p>
+   * Called by the selector thread, never while the client handler is handling input.
+   *
+   * @return the number of bytes read, -1 if the client has shut down its output
+   * @throws IOException if an error occurs or if the read buffer cannot grow anymore
+   */
+  synchronized int read() throws IOException {
+    if (!readBuffer.hasRemaining()) {
+      if (MAX_READ_BUFFER_SIZE <= readBuffer.capacity()) {
+        throw new IOException("Request larger than " + MAX_READ_BUFFER_SIZE + " bytes");
+      }
+      readBuffer = ByteBuffer.allocate(Math.min(2 * readBuffer.capacity(), MAX_READ_BUFFER_SIZE))
+          .put(readBuffer.flip());
+    }
+    return channel.read(readBuffer);
+  }
+
+  /**
+   * Hands the data read so far over to a client handler, keeping the bytes it does not consume, then resumes reading.
+   *
+   * @param clientHandler the client handler of the connection
+   * @throws IOException if an error occurs
+   */
+  synchronized void process(final @NotNull AbstractNioTcpClientHandler clientHandler) throws IOException {
+    readBuffer.flip();
+    try {
+      clientHandler.handle(readBuffer);
+    } finally {
+      readBuffer.compact();
+    }
+    try {
+      key.interestOpsOr(SelectionKey.OP_READ);
+    } catch (final CancelledKeyException e) {
+      // Closed while handling the input
+      return;
+    }
+    key.selector().wakeup();
+  }
+
+  /**
+   * Sends the queued data, as much as the socket accepts.
+   * <p>
+   * Called by the selector thread when the socket is writable.
+   *
+   * @throws IOException if an error occurs
+   */
+  void flush() throws IOException {
+    synchronized (writeQueue) {
+      ByteBuffer data = writeQueue.peek();
+      while (null != data) {
+        channel.write(data);
+        if (data.hasRemaining()) {
+          return;
+        }
+        writeQueue.remove();
+        data = writeQueue.peek();
+      }
+      key.interestOpsAnd(~SelectionKey.OP_WRITE);
+      if (!closeAfterWrites) {
+        return;
+      }
+    }
+    close();
+  }
+
+  @Override
+  public String toString() {
+    return "TcpConnection[" + getRemoteAddress() + "]";
+  }
+}
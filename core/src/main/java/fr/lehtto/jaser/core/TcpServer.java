@@ -1,10 +1,10 @@
 package fr.lehtto.jaser.core;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.function.Function;
 import org.jetbrains.annotations.ApiStatus.Experimental;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -13,12 +13,13 @@ import org.jetbrains.annotations.Nullable;
  * Tcp server.
  *
  * @author Lehtto
- * @version 0.2.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @Experimental
 public class TcpServer<H extends AbstractTcpClientHandler> extends Server<H> {
 
+  private final @NotNull Function<Socket, H> handlerFactory;
   private @Nullable ServerSocket serverSocket;
 
   /**
@@ -26,11 +27,55 @@ public class TcpServer<H extends AbstractTcpClientHandler> extends Server<H> {
    *
    * @param port         the port
    * @param bindAddress  the bind address
-   * @param handlerClass the handler class
+   * @param handlerClass the handler class, with a public {@code (Socket)} constructor
    */
   public TcpServer(final int port, final @NotNull InetAddress bindAddress,
                    final @NotNull Class<H> handlerClass) {
-    super(port, bindAddress, handlerClass);
+    this(port, bindAddress, HandlerFactories.tcp(handlerClass));
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port          the port
+   * @param bindAddress   the bind address
+   * @param handlerClass  the handler class, with a public {@code (Socket)} constructor
+   * @param configuration the server configuration
+   * @since 1.1.0
+   */
+  public TcpServer(final int port, final @NotNull InetAddress bindAddress,
+                   final @NotNull Class<H> handlerClass,
+                   final @NotNull ServerConfiguration configuration) {
+    this(port, bindAddress, HandlerFactories.tcp(handlerClass), configuration);
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each client
+   * @since 1.1.0
+   */
+  public TcpServer(final int port, final @NotNull InetAddress bindAddress,
+                   final @NotNull Function<Socket, H> handlerFactory) {
+    this(port, bindAddress, handlerFactory, ServerConfiguration.defaults());
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each client
+   * @param configuration  the server configuration
+   * @since 1.1.0
+   */
+  public TcpServer(final int port, final @NotNull InetAddress bindAddress,
+                   final @NotNull Function<Socket, H> handlerFactory,
+                   final @NotNull ServerConfiguration configuration) {
+    super(port, bindAddress, configuration);
+    this.handlerFactory = handlerFactory;
   }
 
   @Override
@@ -39,13 +84,9 @@ public class TcpServer<H extends AbstractTcpClientHandler> extends Server<H> {
   }
 
   @Override
-  protected H acceptConnection()
-      throws IOException, InvocationTargetException, InstantiationException,
-             IllegalAccessException, NoSuchMethodException {
+  protected H acceptConnection() throws IOException {
     assert null != serverSocket;
-    return getHandlerClass()
-        .getDeclaredConstructor(Socket.class)
-        .newInstance(serverSocket.accept());
+    return handlerFactory.apply(serverSocket.accept());
   }
 
   /**
@@ -1,56 +1,145 @@
 package fr.lehtto.jaser.core;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.function.BiFunction;
 import org.jetbrains.annotations.ApiStatus.Experimental;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * DNS server.
  *
  * @author Lehtto
- * @version 0.2.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @Experimental
 public class UdpServer<H extends AbstractUdpClientHandler> extends Server<H> {
 
-  private @Nullable DatagramSocket datagramSocket;
+  private static final Logger LOG = LoggerFactory.getLogger(UdpServer.class);
+
+  private final @NotNull BiFunction<DatagramPacket, DatagramSocket, H> handlerFactory;
+  private final @NotNull BufferPool bufferPool;
+  private @NotNull DatagramSocket @Nullable [] datagramSockets;
 
   /**
    * Valued constructor.
    *
    * @param port         the port
    * @param bindAddress  the bind address
-   * @param handlerClass the handler class
+   * @param handlerClass the handler class, with a public {@code (DatagramPacket, DatagramSocket)} constructor
    */
   public UdpServer(final int port, final @NotNull InetAddress bindAddress,
                    final @NotNull Class<H> handlerClass) {
-    super(port, bindAddress, handlerClass);
+    this(port, bindAddress, HandlerFactories.udp(handlerClass));
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port          the port
+   * @param bindAddress   the bind address
+   * @param handlerClass  the handler class, with a public {@code (DatagramPacket, DatagramSocket)} constructor
+   * @param configuration the server configuration
+   * @since 1.1.0
+   */
+  public UdpServer(final int port, final @NotNull InetAddress bindAddress,
+                   final @NotNull Class<H> handlerClass,
+                   final @NotNull ServerConfiguration configuration) {
+    this(port, bindAddress, HandlerFactories.udp(handlerClass), configuration);
   }
 
+  /**
+   * Valued constructor.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each client
+   * @since 1.1.0
+   */
+  public UdpServer(final int port, final @NotNull InetAddress bindAddress,
+                   final @NotNull BiFunction<DatagramPacket, DatagramSocket, H> handlerFactory) {
+    this(port, bindAddress, handlerFactory, ServerConfiguration.defaults());
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param port           the port
+   * @param bindAddress    the bind address
+   * @param handlerFactory the factory creating a client handler for each client
+   * @param configuration  the server configuration
+   * @since 1.1.0
+   */
+  public UdpServer(final int port, final @NotNull InetAddress bindAddress,
+                   final @NotNull BiFunction<DatagramPacket, DatagramSocket, H> handlerFactory,
+                   final @NotNull ServerConfiguration configuration) {
+    super(port, bindAddress, configuration);
+    this.handlerFactory = handlerFactory;
+    this.bufferPool = BufferPool.forUdpServer(configuration);
+  }
+
+  /**
+   * Opens one socket per listener, sharing the address and port with {@code SO_REUSEPORT}.
+   *
+   * @throws IOException if an error occurs
+   */
   @Override
-  protected void startServer() throws SocketException {
-    datagramSocket = new DatagramSocket(getPort(), getBindAddress());
+  protected void startServer() throws IOException {
+    final DatagramSocket[] sockets = new DatagramSocket[getConfiguration().listeners()];
+    sockets[0] = openSocket(1 < sockets.length);
+    final boolean reusePort = 1 < sockets.length
+        && isReusePortSupported(sockets[0].supportedOptions());
+    if (1 < sockets.length && !reusePort) {
+      LOG.warn("SO_REUSEPORT is not supported, listeners share a single socket");
+    }
+    for (int i = 1; i < sockets.length; i++) {
+      sockets[i] = reusePort ? openSocket(true) : sockets[0];
+    }
+    datagramSockets = sockets;
   }
 
   @Override
-  protected H acceptConnection()
-      throws IOException, InvocationTargetException, InstantiationException,
-             IllegalAccessException, NoSuchMethodException {
+  protected H acceptConnection() throws IOException {
+    return acceptConnection(0);
+  }
+
+  @Override
+  protected H acceptConnection(final int listener) throws IOException {
+    final ByteBuffer buffer = bufferPool.acquire();
     final DatagramPacket datagramPacket =
-        new DatagramPacket(new byte[512], 512);
-    assert null != datagramSocket;
+        new DatagramPacket(buffer.array(), buffer.capacity());
+    assert null != datagramSockets;
+    final DatagramSocket datagramSocket = datagramSockets[listener];
     datagramSocket.receive(datagramPacket);
     // Create a new client handler
-    return getHandlerClass()
-        .getDeclaredConstructor(DatagramPacket.class, DatagramSocket.class)
-        .newInstance(datagramPacket, datagramSocket);
+    final H clientHandler = handlerFactory.apply(datagramPacket, datagramSocket);
+    clientHandler.setBuffers(bufferPool, buffer);
+    return clientHandler;
+  }
+
+  /**
+   * Gives the buffers of the client handler back to the pool.
+   *
+   * @param clientHandler the client handler to release
+   */
+  @Override
+  protected void release(final @NotNull H clientHandler) {
+    clientHandler.releaseBuffers();
+  }
+
+  @Override
+  public @NotNull Optional<BufferPool> getBufferPool() {
+    return Optional.of(bufferPool);
   }
 
   /**
@@ -58,8 +147,33 @@ public class UdpServer<H extends AbstractUdpClientHandler> extends Server<H> {
    */
   @Override
   public void stop() {
-    if (null != datagramSocket) {
-      datagramSocket.close();
+    if (null != datagramSockets) {
+      for (final DatagramSocket datagramSocket : datagramSockets) {
+        if (null != datagramSocket) {
+          datagramSocket.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens a socket bound to the server address and port.
+   *
+   * @param reusePort whether to enable {@code SO_REUSEPORT}, if supported
+   * @return the socket
+   * @throws IOException if an error occurs
+   */
+  private @NotNull DatagramSocket openSocket(final boolean reusePort) throws IOException {
+    final DatagramSocket socket = new DatagramSocket(null);
+    try {
+      if (reusePort && isReusePortSupported(socket.supportedOptions())) {
+        socket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+      }
+      socket.bind(new InetSocketAddress(getBindAddress(), getPort()));
+    } catch (final IOException e) {
+      socket.close();
+      throw e;
     }
+    return socket;
   }
 }
@@ -0,0 +1,137 @@
+package fr.lehtto.jaser.core;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handoff queue between the receiver thread of a server and its workers.
+ * <p>
+ * When the queue is bounded and full, the {@link OverloadPolicy overload policy} decides which element is given up.
+ *
+ * @param <T> the type of the queued elements
+ * @author Lehtto
+ * @since 1.1.0
+ */
+final class WorkQueue<T> {
+
+  private final @NotNull BlockingQueue<T> queue;
+  private final @NotNull OverloadPolicy overloadPolicy;
+  private final @NotNull Consumer<T> onDropped;
+  private final @NotNull Consumer<T> onRejected;
+  private final @NotNull LongAdder dropped = new LongAdder();
+  private final @NotNull LongAdder rejected = new LongAdder();
+
+  /**
+   * Valued constructor.
+   *
+   * @param capacity       the capacity of the queue, 0 for an unbounded queue
+   * @param overloadPolicy the policy applied when the queue is full
+   * @param onDropped      called with each dropped element
+   * @param onRejected     called with each rejected element
+   */
+  WorkQueue(final int capacity, final @NotNull OverloadPolicy overloadPolicy,
+            final @NotNull Consumer<T> onDropped, final @NotNull Consumer<T> onRejected) {
+    queue = 0 == capacity ? new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(capacity);
+    this.overloadPolicy = overloadPolicy;
+    this.onDropped = onDropped;
+    this.onRejected = onRejected;
+  }
+
+  /**
+   * Adds an element to the queue, applying the overload policy if the queue is full.
+   *
+   * @param element the element to add
+   * @return true if the element has been queued
+   */
+  boolean offer(final @NotNull T element) {
+    if (queue.offer(element)) {
+      return true;
+    }
+    switch (overloadPolicy) {
+      case DROP_NEWEST -> {
+        dropped.increment();
+        onDropped.accept(element);
+        return false;
+      }
+      case DROP_OLDEST -> {
+        do {
+          final T oldest = queue.poll();
+          if (null != oldest) {
+            dropped.increment();
+            onDropped.accept(oldest);
+          }
+        } while (!queue.offer(element));
+        return true;
+      }
+      case REJECT -> {
+        rejected.increment();
+        onRejected.accept(element);
+        return false;
+      }
+      default -> throw new IllegalStateException("Unknown overload policy: " + overloadPolicy);
+    }
+  }
+
+  /**
+   * Retrieves and removes the head of the queue.
+   *
+   * @return the head of the queue, or null if the queue is empty
+   */
+  @Nullable T poll() {
+    return queue.poll();
+  }
+
+  /**
+   * Retrieves and removes the head of the queue, waiting if necessary for an element to become available.
+   *
+   * @param timeout how long to wait
+   * @param unit    the unit of the timeout
+   * @return the head of the queue, or null if the timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @Nullable T poll(final long timeout, final @NotNull TimeUnit unit) throws InterruptedException {
+    return queue.poll(timeout, unit);
+  }
+
+  /**
+   * Checks if the queue is empty.
+   *
+   * @return true if the queue is empty
+   */
+  boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  /**
+   * Gets the number of queued elements.
+   *
+   * @return the number of queued elements
+   */
+  int size() {
+    return queue.size();
+  }
+
+  /**
+   * Gets the number of elements dropped since the creation of the queue.
+   *
+   * @return the number of dropped elements
+   */
+  long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Gets the number of elements rejected since the creation of the queue.
+   *
+   * @return the number of rejected elements
+   */
+  long getRejectedCount() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,109 @@
+package fr.lehtto.jaser.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link BufferPool buffer pool}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("JavaDoc")
+class BufferPoolTest {
+
+  @Test
+  void allocatesWhenEmpty() {
+    final BufferPool pool = new BufferPool(2, 64, false);
+
+    final ByteBuffer buffer = pool.acquire();
+
+    assertEquals(64, buffer.capacity());
+    assertEquals(0, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+  }
+
+  @Test
+  void reusesReleasedBuffersCleared() {
+    final BufferPool pool = new BufferPool(2, 64, false);
+    final ByteBuffer buffer = pool.acquire();
+    buffer.put((byte) 1).put((byte) 2).flip();
+
+    pool.release(buffer);
+    final ByteBuffer reused = pool.acquire();
+
+    assertSame(buffer, reused);
+    assertEquals(0, reused.position());
+    assertEquals(64, reused.limit());
+    assertEquals(1, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+  }
+
+  @Test
+  void dropsReleasedBuffersWhenFull() {
+    final BufferPool pool = new BufferPool(2, 64, false);
+    final List<ByteBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      buffers.add(pool.acquire());
+    }
+    buffers.forEach(pool::release);
+
+    final Map<ByteBuffer, Boolean> reused = new IdentityHashMap<>();
+    for (int i = 0; i < 3; i++) {
+      reused.put(pool.acquire(), Boolean.TRUE);
+    }
+
+    assertEquals(2, pool.getHitCount());
+    assertEquals(4, pool.getMissCount());
+    assertEquals(2, buffers.stream().filter(reused::containsKey).count());
+  }
+
+  @Test
+  void ignoresForeignBuffers() {
+    final BufferPool pool = new BufferPool(2, 64, false);
+
+    pool.release(ByteBuffer.allocate(32));
+    pool.release(ByteBuffer.allocateDirect(64));
+    final ByteBuffer buffer = pool.acquire();
+
+    assertEquals(0, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+    assertEquals(64, buffer.capacity());
+  }
+
+  @Test
+  void allocatesBuffersOfItsKind() {
+    final BufferPool pool = new BufferPool(1, 64, true);
+    final ByteBuffer buffer = pool.acquire();
+
+    assertTrue(buffer.isDirect());
+    pool.release(buffer);
+    assertSame(buffer, pool.acquire());
+    assertNotSame(buffer, pool.acquire());
+  }
+
+  @Test
+  void rejectsInvalidSizes() {
+    assertThrows(IllegalArgumentException.class, () -> new BufferPool(0, 64, false));
+    assertThrows(IllegalArgumentException.class, () -> new BufferPool(1, 0, false));
+  }
+
+  @Test
+  void sizesUdpPoolsForWorkersAndBatches() {
+    final ServerConfiguration configuration = ServerConfiguration.defaults();
+
+    final BufferPool pool = BufferPool.forUdpServer(configuration);
+
+    assertEquals(configuration.packetSize(), pool.getBufferSize());
+  }
+}
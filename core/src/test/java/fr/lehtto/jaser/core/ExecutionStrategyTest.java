@@ -0,0 +1,126 @@
+package fr.lehtto.jaser.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link ExecutionStrategy execution strategies}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class ExecutionStrategyTest {
+
+  private static final ThreadFactory THREAD_FACTORY = runnable -> new Thread(runnable, "Worker");
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private ExecutorService executor;
+
+  @AfterEach
+  void after() throws InterruptedException {
+    release.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void runsEachTaskOnANewPlatformThread() throws InterruptedException, ExecutionException, TimeoutException {
+    executor = ExecutionStrategy.PLATFORM_PER_TASK.newExecutorService(1, THREAD_FACTORY);
+
+    assertPlatformThreadPerTask();
+  }
+
+  @Test
+  void runsTheTasksOnAPoolOfTheWorkers() throws InterruptedException, ExecutionException, TimeoutException {
+    executor = ExecutionStrategy.BOUNDED_POOL.newExecutorService(3, THREAD_FACTORY);
+
+    final ThreadPoolExecutor pool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+    assertEquals(3, pool.getCorePoolSize());
+    assertEquals(3, pool.getMaximumPoolSize());
+    for (int i = 0; i < 4; i++) {
+      executor.execute(this::block);
+    }
+    // The task exceeding the workers waits for one of them
+    Servers.await(() -> 3 == pool.getActiveCount());
+    assertEquals(1, pool.getQueue().size());
+    release.countDown();
+
+    assertEquals("Worker", executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS));
+    assertEquals(3, pool.getPoolSize());
+  }
+
+  @Test
+  void runsEachTaskOnAVirtualThreadWhenAvailable() throws Throwable {
+    executor = ExecutionStrategy.VIRTUAL.newExecutorService(1, THREAD_FACTORY);
+
+    if (virtualThreadsAvailable()) {
+      final Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+      assertTrue((boolean) MethodHandles.publicLookup()
+          .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class))
+          .invoke(thread));
+    } else {
+      // Each task gets a new platform thread instead
+      assertPlatformThreadPerTask();
+    }
+  }
+
+  /**
+   * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} on the running JDK, which may also only provide it as
+   * a preview feature.
+   */
+  private static boolean virtualThreadsAvailable() throws Throwable {
+    final MethodHandle factory;
+    try {
+      factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+          MethodType.methodType(ExecutorService.class));
+    } catch (final NoSuchMethodException e) {
+      return false;
+    }
+    try {
+      ((ExecutorService) factory.invokeExact()).shutdown();
+      return true;
+    } catch (final UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks that the executor runs each task on a new platform thread of the factory, without queueing it.
+   */
+  private void assertPlatformThreadPerTask() throws InterruptedException, ExecutionException, TimeoutException {
+    final ThreadPoolExecutor pool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+    assertInstanceOf(SynchronousQueue.class, pool.getQueue());
+    assertEquals(0, pool.getCorePoolSize());
+    for (int i = 0; i < 8; i++) {
+      executor.execute(this::block);
+    }
+    assertEquals(8, pool.getPoolSize());
+    assertEquals("Worker", executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS));
+  }
+
+  private void block() {
+    try {
+      release.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package fr.lehtto.jaser.core;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link HandlerFactories handler factories}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class HandlerFactoriesTest {
+
+  private static final int PORT = 5353;
+
+  @Test
+  void passesTheArgumentsToTheConstructor() throws IOException {
+    final DatagramPacket packet = new DatagramPacket(new byte[1], 1);
+    try (DatagramSocket datagramSocket = new DatagramSocket(null); Socket socket = new Socket()) {
+      // The connection is only handed over, never used
+      final TcpConnection connection = new TcpConnection(null, null);
+
+      final UdpHandler udpHandler = HandlerFactories.udp(UdpHandler.class).apply(packet, datagramSocket);
+      final TcpHandler tcpHandler = HandlerFactories.tcp(TcpHandler.class).apply(socket);
+      final NioTcpHandler nioTcpHandler = HandlerFactories.nioTcp(NioTcpHandler.class).apply(connection);
+
+      assertSame(packet, udpHandler.getPacket());
+      assertSame(datagramSocket, udpHandler.getSocket());
+      assertSame(socket, tcpHandler.getSocket());
+      assertSame(connection, nioTcpHandler.getConnection());
+    }
+  }
+
+  @Test
+  void failsAtServerConstructionWithoutAPublicConstructor() {
+    assertFailsWith("must have a public constructor",
+                    () -> new UdpServer<>(PORT, Servers.LOOPBACK, HiddenConstructorUdpHandler.class));
+    assertFailsWith("must have a public constructor",
+                    () -> new NioUdpServer<>(PORT, Servers.LOOPBACK, HiddenConstructorUdpHandler.class));
+    assertFailsWith("must have a public constructor",
+                    () -> new TcpServer<>(PORT, Servers.LOOPBACK, HiddenTcpHandler.class));
+    assertFailsWith("must have a public constructor",
+                    () -> new NioTcpServer<>(PORT, Servers.LOOPBACK, NoConstructorNioTcpHandler.class));
+    assertFailsWith("must not be abstract",
+                    () -> new UdpServer<>(PORT, Servers.LOOPBACK, AbstractUdpHandler.class));
+  }
+
+  @Test
+  void rethrowsTheExceptionsOfTheConstructor() throws IOException {
+    final DatagramPacket packet = new DatagramPacket(new byte[1], 1);
+    try (DatagramSocket datagramSocket = new DatagramSocket(null); Socket socket = new Socket()) {
+      assertThrows(IllegalArgumentException.class,
+                   () -> HandlerFactories.udp(FailingUdpHandler.class).apply(packet, datagramSocket));
+      final IllegalStateException checked = assertThrows(
+          IllegalStateException.class, () -> HandlerFactories.tcp(FailingTcpHandler.class).apply(socket));
+      assertInstanceOf(IOException.class, checked.getCause());
+    }
+  }
+
+  private static void assertFailsWith(final @NotNull String message, final @NotNull Runnable serverConstruction) {
+    final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, serverConstruction::run);
+    assertTrue(e.getMessage().contains(message), e.getMessage());
+  }
+
+  public static class UdpHandler extends AbstractUdpClientHandler {
+
+    public UdpHandler(final @NotNull DatagramPacket packet, final @NotNull DatagramSocket socket) {
+      super(packet, socket);
+    }
+
+    @Override
+    public void run() {
+      // Nothing to handle
+    }
+
+    @Override
+    protected void stop() {
+      // Nothing to stop
+    }
+  }
+
+  public static class TcpHandler extends AbstractTcpClientHandler {
+
+    public TcpHandler(final @NotNull Socket socket) {
+      super(socket);
+    }
+
+    @Override
+    public void run() {
+      // Nothing to handle
+    }
+  }
+
+  public static class NioTcpHandler extends AbstractNioTcpClientHandler {
+
+    public NioTcpHandler(final @NotNull TcpConnection connection) {
+      super(connection);
+    }
+
+    @Override
+    protected void handle(final @NotNull ByteBuffer input) {
+      // Nothing to handle
+    }
+  }
+
+  public static class HiddenConstructorUdpHandler extends UdpHandler {
+
+    HiddenConstructorUdpHandler(final @NotNull DatagramPacket packet, final @NotNull DatagramSocket socket) {
+      super(packet, socket);
+    }
+  }
+
+  /**
+   * Not public, so neither are its constructors.
+   */
+  static class HiddenTcpHandler extends TcpHandler {
+
+    public HiddenTcpHandler(final @NotNull Socket socket) {
+      super(socket);
+    }
+  }
+
+  public static class NoConstructorNioTcpHandler extends NioTcpHandler {
+
+    public NoConstructorNioTcpHandler() {
+      super(null);
+    }
+  }
+
+  public abstract static class AbstractUdpHandler extends UdpHandler {
+
+    public AbstractUdpHandler(final @NotNull DatagramPacket packet, final @NotNull DatagramSocket socket) {
+      super(packet, socket);
+    }
+  }
+
+  public static class FailingUdpHandler extends UdpHandler {
+
+    public FailingUdpHandler(final @NotNull DatagramPacket packet, final @NotNull DatagramSocket socket) {
+      super(packet, socket);
+      throw new IllegalArgumentException("Invalid packet");
+    }
+  }
+
+  public static class FailingTcpHandler extends TcpHandler {
+
+    public FailingTcpHandler(final @NotNull Socket socket) throws IOException {
+      super(socket);
+      throw new IOException("Could not read");
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package fr.lehtto.jaser.core;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.Property;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Captures the warnings and errors logged by a class in tests, until closed.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("JavaDoc")
+final class LogCapture implements AutoCloseable {
+
+  private final @NotNull List<String> messages = new CopyOnWriteArrayList<>();
+  private final @NotNull Logger logger;
+  private final @NotNull Level level;
+  private final @NotNull AbstractAppender appender;
+
+  LogCapture(final @NotNull Class<?> loggingClass) {
+    logger = (Logger) LogManager.getLogger(loggingClass);
+    level = logger.getLevel();
+    appender = new AbstractAppender("LogCapture", null, null, true, Property.EMPTY_ARRAY) {
+      @Override
+      public void append(final @NotNull LogEvent event) {
+        messages.add(event.getMessage().getFormattedMessage());
+      }
+    };
+    appender.start();
+    logger.addAppender(appender);
+    Configurator.setLevel(logger.getName(), Level.WARN);
+  }
+
+  /**
+   * Gets the messages logged since the capture started.
+   */
+  @NotNull List<String> getMessages() {
+    return messages;
+  }
+
+  @Override
+  public void close() {
+    logger.removeAppender(appender);
+    Configurator.setLevel(logger.getName(), level);
+    appender.stop();
+  }
+}
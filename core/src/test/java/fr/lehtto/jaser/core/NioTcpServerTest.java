@@ -0,0 +1,431 @@
+package fr.lehtto.jaser.core;
+
+import static fr.lehtto.jaser.core.Servers.await;
+import static fr.lehtto.jaser.core.Servers.connect;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketOption;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link NioTcpServer non-blocking TCP server} and of its {@link TcpConnection connections}, on the
+ * loopback interface.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class NioTcpServerTest {
+
+  /**
+   * Size of the large responses, more than the socket buffers can hold.
+   */
+  private static final int LARGE_RESPONSE_SIZE = 16 * 1024 * 1024;
+
+  private final int port = Servers.freeTcpPort();
+  private final CountDownLatch entered = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final CountDownLatch written = new CountDownLatch(1);
+  private final Set<String> acceptors = ConcurrentHashMap.newKeySet();
+  private final Map<Long, Integer> releases = new ConcurrentHashMap<>();
+  private NioTcpServer<AbstractNioTcpClientHandler> server;
+  private Thread serverThread;
+
+  @AfterEach
+  void after() throws IOException, InterruptedException {
+    release.countDown();
+    if (null != server) {
+      Servers.stop(server, serverThread);
+    }
+  }
+
+  @Test
+  void echoesRequests() throws IOException, InterruptedException {
+    start(LineHandler::new, ServerConfiguration.defaults());
+
+    try (Socket first = connect(port); Socket second = connect(port)) {
+      send(first, "ping\n");
+      send(second, "pong\n");
+
+      assertEquals("ping\n", read(first, 5));
+      assertEquals("pong\n", read(second, 5));
+    }
+  }
+
+  @Test
+  void keepsTheBytesNotConsumedForTheNextRead() throws IOException, InterruptedException {
+    start(LineHandler::new, ServerConfiguration.defaults());
+
+    try (Socket client = connect(port)) {
+      send(client, "hel");
+      Thread.sleep(50);
+      send(client, "lo\nwor");
+      Thread.sleep(50);
+      send(client, "ld\n");
+
+      assertEquals("hello\nworld\n", read(client, 12));
+    }
+  }
+
+  @Test
+  void growsTheReadBufferUpToItsMaximum() throws IOException, InterruptedException {
+    start(LineHandler::new, ServerConfiguration.defaults());
+    final String line = "a".repeat(TcpConnection.MAX_READ_BUFFER_SIZE - 1) + "\n";
+
+    try (Socket client = connect(port)) {
+      send(client, line);
+
+      assertEquals(line, read(client, line.length()));
+    }
+  }
+
+  @Test
+  void closesConnectionsWithRequestsLargerThanTheReadBuffer() throws IOException, InterruptedException {
+    start(LineHandler::new, ServerConfiguration.defaults());
+
+    try (Socket client = connect(port)) {
+      try {
+        send(client, "a".repeat(TcpConnection.MAX_READ_BUFFER_SIZE + 1));
+      } catch (final SocketException e) {
+        // Closed by the server while sending
+      }
+
+      assertClosed(client);
+    }
+  }
+
+  @Test
+  void queuesTheWritesTheSocketDoesNotAccept() throws IOException, InterruptedException {
+    start(LargeResponseHandler::new, ServerConfiguration.defaults());
+
+    try (Socket client = connect(port)) {
+      send(client, "x");
+
+      // Written without waiting for the client to read
+      assertTrue(written.await(Servers.TIMEOUT, TimeUnit.MILLISECONDS));
+      assertArrayEquals(largeResponse(), readBytes(client, LARGE_RESPONSE_SIZE));
+    }
+  }
+
+  @Test
+  void closesOnClientShutdownOnceTheQueuedWritesAreSent() throws IOException, InterruptedException {
+    start(LargeResponseHandler::new, ServerConfiguration.defaults());
+
+    try (Socket client = connect(port)) {
+      send(client, "x");
+      client.shutdownOutput();
+
+      assertArrayEquals(largeResponse(), readBytes(client, LARGE_RESPONSE_SIZE));
+      assertClosed(client);
+    }
+  }
+
+  @Test
+  void dropsConnectionsWhenOverloaded() throws IOException, InterruptedException {
+    start(BlockingHandler::new, overloadConfiguration(OverloadPolicy.DROP_NEWEST));
+
+    try (Socket running = connect(port); Socket queued = connect(port); Socket dropped = connect(port)) {
+      overload(running, queued, dropped);
+      await(() -> 1 == server.getDroppedCount());
+
+      assertClosed(dropped);
+      release.countDown();
+      assertEquals("1\n", read(running, 2));
+      assertEquals("2\n", read(queued, 2));
+      assertEquals(0, server.getRejectedCount());
+    }
+  }
+
+  @Test
+  void rejectsConnectionsWhenOverloaded() throws IOException, InterruptedException {
+    start(BlockingHandler::new, overloadConfiguration(OverloadPolicy.REJECT));
+
+    try (Socket running = connect(port); Socket queued = connect(port); Socket rejected = connect(port)) {
+      overload(running, queued, rejected);
+
+      assertEquals("busy\n", read(rejected, 5));
+      assertClosed(rejected);
+      assertEquals(1, server.getRejectedCount());
+      release.countDown();
+      assertEquals("1\n", read(running, 2));
+      assertEquals("2\n", read(queued, 2));
+      assertEquals(0, server.getDroppedCount());
+    }
+  }
+
+  @Test
+  void releasesDroppedConnectionsOnce() throws IOException, InterruptedException {
+    startReleaseCounting(OverloadPolicy.DROP_NEWEST);
+
+    try (Socket running = connect(port); Socket queued = connect(port); Socket dropped = connect(port)) {
+      overload(running, queued, dropped);
+      await(() -> 1 == server.getDroppedCount());
+      release.countDown();
+      assertEquals("1\n", read(running, 2));
+      assertEquals("2\n", read(queued, 2));
+    }
+
+    assertReleasedOnce(3);
+  }
+
+  @Test
+  void releasesRejectedConnectionsOnce() throws IOException, InterruptedException {
+    startReleaseCounting(OverloadPolicy.REJECT);
+
+    try (Socket running = connect(port); Socket queued = connect(port); Socket rejected = connect(port)) {
+      overload(running, queued, rejected);
+      assertEquals("busy\n", read(rejected, 5));
+      release.countDown();
+      assertEquals("1\n", read(running, 2));
+      assertEquals("2\n", read(queued, 2));
+    }
+
+    assertReleasedOnce(3);
+  }
+
+  @Test
+  void closeWaitsForTheEventLoops() throws IOException, InterruptedException {
+    start(BlockingHandler::new, ServerConfiguration.builder().workers(2).build());
+
+    try (Socket client = connect(port)) {
+      send(client, "1\n");
+      assertTrue(entered.await(Servers.TIMEOUT, TimeUnit.MILLISECONDS));
+
+      server.close();
+
+      serverThread.join(200);
+      assertTrue(serverThread.isAlive());
+      release.countDown();
+      serverThread.join(Servers.TIMEOUT);
+      assertFalse(serverThread.isAlive());
+      assertTrue(Thread.getAllStackTraces().keySet().stream()
+                     .noneMatch(thread -> thread.getName().startsWith("EventLoop-")));
+    }
+  }
+
+  @Test
+  void acceptsOnEveryListener() throws IOException, InterruptedException {
+    start(this::newLineHandler, ServerConfiguration.builder().listeners(2).build());
+
+    // Each client goes to one of the channels sharing the port, from the hash of its address and port
+    echoFromClients(32);
+
+    assertEquals(Set.of("Server", "Receiver-1"), acceptors);
+  }
+
+  @Test
+  void acceptsOnASingleListenerWithoutReusePort() throws IOException, InterruptedException {
+    try (LogCapture log = new LogCapture(NioTcpServer.class)) {
+      server = new NioTcpServer<>(port, Servers.LOOPBACK, this::newLineHandler,
+                                  ServerConfiguration.builder().listeners(2).build()) {
+        @Override
+        boolean isReusePortSupported(final @NotNull Set<SocketOption<?>> supportedOptions) {
+          return false;
+        }
+      };
+      serverThread = Servers.start(server);
+
+      echoFromClients(8);
+
+      assertEquals(Set.of("Server"), acceptors);
+      assertEquals(List.of("SO_REUSEPORT is not supported, a single listener accepts the connections"),
+                   log.getMessages());
+    }
+  }
+
+  private void start(final @NotNull Function<TcpConnection, AbstractNioTcpClientHandler> handlerFactory,
+      final @NotNull ServerConfiguration configuration) {
+    server = new NioTcpServer<>(port, Servers.LOOPBACK, handlerFactory, configuration);
+    serverThread = Servers.start(server);
+  }
+
+  /**
+   * Creates the client handler of a connection, recording the receive loop which accepted it.
+   */
+  private @NotNull AbstractNioTcpClientHandler newLineHandler(final @NotNull TcpConnection connection) {
+    acceptors.add(Thread.currentThread().getName());
+    return new LineHandler(connection);
+  }
+
+  /**
+   * Sends a line from each of the given number of clients, and checks that each one is sent back.
+   */
+  private void echoFromClients(final int count) throws IOException, InterruptedException {
+    for (int i = 0; i < count; i++) {
+      try (Socket client = connect(port)) {
+        send(client, i + "\n");
+        assertEquals(i + "\n", read(client, Integer.toString(i).length() + 1));
+      }
+    }
+  }
+
+  /**
+   * Starts an overloadable server counting the releases of each client handler.
+   */
+  private void startReleaseCounting(final @NotNull OverloadPolicy overloadPolicy) {
+    server = new NioTcpServer<>(port, Servers.LOOPBACK, BlockingHandler::new, overloadConfiguration(overloadPolicy)) {
+      @Override
+      protected void release(final @NotNull AbstractNioTcpClientHandler clientHandler) {
+        releases.merge(clientHandler.getId(), 1, Integer::sum);
+      }
+    };
+    serverThread = Servers.start(server);
+  }
+
+  /**
+   * Waits for the client handlers to be unregistered, and checks that each one has been released once.
+   */
+  private void assertReleasedOnce(final int count) throws InterruptedException {
+    await(() -> 0 == server.getInFlightCount() && count == releases.size());
+    // Lets a second release, following the first one, happen
+    Thread.sleep(100);
+    assertEquals(Collections.nCopies(count, 1), List.copyOf(releases.values()));
+  }
+
+  /**
+   * Builds a configuration with a single event loop and room for a single queued connection.
+   */
+  private static @NotNull ServerConfiguration overloadConfiguration(final @NotNull OverloadPolicy overloadPolicy) {
+    return ServerConfiguration.builder()
+        .workers(1)
+        .queueCapacity(1)
+        .overloadPolicy(overloadPolicy)
+        .build();
+  }
+
+  /**
+   * Blocks the event loop with the first client, fills the work queue with the second one, then overloads the server
+   * with the third one.
+   */
+  private void overload(final @NotNull Socket running, final @NotNull Socket queued, final @NotNull Socket overload)
+      throws IOException, InterruptedException {
+    send(running, "1\n");
+    assertTrue(entered.await(Servers.TIMEOUT, TimeUnit.MILLISECONDS));
+    send(queued, "2\n");
+    await(() -> 1 == server.getQueueDepth());
+    send(overload, "3\n");
+  }
+
+  private static void send(final @NotNull Socket client, final @NotNull String data) throws IOException {
+    final OutputStream output = client.getOutputStream();
+    output.write(data.getBytes(US_ASCII));
+    output.flush();
+  }
+
+  private static @NotNull String read(final @NotNull Socket client, final int length) throws IOException {
+    return new String(readBytes(client, length), US_ASCII);
+  }
+
+  private static byte @NotNull [] readBytes(final @NotNull Socket client, final int length) throws IOException {
+    final byte[] data = new byte[length];
+    new DataInputStream(client.getInputStream()).readFully(data);
+    return data;
+  }
+
+  /**
+   * Checks that the server has closed the connection, either gracefully or by resetting it.
+   */
+  private static void assertClosed(final @NotNull Socket client) throws IOException {
+    try {
+      assertEquals(-1, client.getInputStream().read());
+    } catch (final SocketException e) {
+      // Reset by the server
+    }
+  }
+
+  private static byte @NotNull [] largeResponse() {
+    final byte[] response = new byte[LARGE_RESPONSE_SIZE];
+    for (int i = 0; i < response.length; i++) {
+      response[i] = (byte) (i % 251);
+    }
+    return response;
+  }
+
+  /**
+   * Sends back each complete line, leaving the incomplete one for the next read.
+   */
+  private static final class LineHandler extends AbstractNioTcpClientHandler {
+
+    LineHandler(final @NotNull TcpConnection connection) {
+      super(connection);
+    }
+
+    @Override
+    protected void handle(final @NotNull ByteBuffer input) throws IOException {
+      for (int i = input.position(); i < input.limit(); i++) {
+        if ('\n' == input.get(i)) {
+          final int length = i + 1 - input.position();
+          getConnection().write(ByteBuffer.allocate(length).put(input.slice(input.position(), length)).flip());
+          input.position(i + 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Answers any request with a response larger than the socket buffers.
+   */
+  private final class LargeResponseHandler extends AbstractNioTcpClientHandler {
+
+    LargeResponseHandler(final @NotNull TcpConnection connection) {
+      super(connection);
+    }
+
+    @Override
+    protected void handle(final @NotNull ByteBuffer input) throws IOException {
+      input.position(input.limit());
+      getConnection().write(ByteBuffer.wrap(largeResponse()));
+      written.countDown();
+    }
+  }
+
+  /**
+   * Sends back the requests once released, and answers busy when rejected.
+   */
+  private final class BlockingHandler extends AbstractNioTcpClientHandler {
+
+    BlockingHandler(final @NotNull TcpConnection connection) {
+      super(connection);
+    }
+
+    @Override
+    protected void handle(final @NotNull ByteBuffer input) throws IOException {
+      entered.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      getConnection().write(ByteBuffer.allocate(input.remaining()).put(input).flip());
+    }
+
+    @Override
+    protected void reject() {
+      try {
+        getConnection().write(ByteBuffer.wrap("busy\n".getBytes(US_ASCII)));
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,251 @@
+package fr.lehtto.jaser.core;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketOption;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link NioUdpServer non-blocking UDP server}, on the loopback interface.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class NioUdpServerTest {
+
+  /**
+   * Prefix of the requests whose handler blocks until released.
+   */
+  private static final String BLOCKING = "block";
+
+  /**
+   * Request sent until answered, to wait for the server to be bound.
+   */
+  private static final String PING = "ping";
+
+  private final int port = Servers.freeUdpPort();
+  private final Semaphore entered = new Semaphore(0);
+  private final Semaphore release = new Semaphore(0);
+  private final Set<String> receivers = ConcurrentHashMap.newKeySet();
+  private NioUdpServer<EchoHandler> server;
+  private Thread serverThread;
+  private DatagramSocket client;
+
+  @BeforeEach
+  void before() throws IOException {
+    client = new DatagramSocket(0, Servers.LOOPBACK);
+    client.setSoTimeout((int) Servers.TIMEOUT);
+  }
+
+  @AfterEach
+  void after() throws IOException, InterruptedException {
+    release.release(Integer.MAX_VALUE / 2);
+    if (null != server) {
+      Servers.stop(server, serverThread);
+    }
+    client.close();
+  }
+
+  @Test
+  void sendsAPartialBatchWhenNoDatagramIsReady() throws IOException {
+    start(ServerConfiguration.builder().batchSize(8).build());
+
+    send("1");
+
+    assertEquals("1", receive());
+  }
+
+  @Test
+  void sendsAFullBatchBeforeReceivingTheNextDatagram() throws IOException, InterruptedException {
+    start(ServerConfiguration.builder().batchSize(2).build());
+
+    // Holds the receive loop for the next datagrams to be ready at once
+    send(BLOCKING + 0);
+    awaitEntered();
+    send("1");
+    send(BLOCKING + 2);
+    Thread.sleep(100);
+    release.release();
+    awaitEntered();
+
+    // Sent while the handler of the third datagram blocks the receive loop
+    assertEquals(BLOCKING + 0, receive());
+    assertEquals("1", receive());
+    release.release();
+    assertEquals(BLOCKING + 2, receive());
+  }
+
+  @Test
+  void sendsEveryResponseOfABatch() throws IOException, InterruptedException {
+    start(ServerConfiguration.builder().batchSize(16).build());
+
+    send(BLOCKING + 0);
+    awaitEntered();
+    for (int i = 1; i < 16; i++) {
+      send(Integer.toString(i));
+    }
+    Thread.sleep(100);
+    release.release();
+
+    final Set<String> responses = new HashSet<>();
+    for (int i = 0; i < 16; i++) {
+      responses.add(receive());
+    }
+    assertEquals(16, responses.size());
+    assertTrue(responses.contains(BLOCKING + 0));
+    assertTrue(responses.contains("15"));
+  }
+
+  @Test
+  void receivesOnEveryListener() throws IOException {
+    start(ServerConfiguration.builder().listeners(2).build());
+
+    // Each client goes to one of the channels sharing the port, from the hash of its address and port
+    requestFromClients(32);
+
+    assertEquals(Set.of("Server", "Receiver-1"), receivers);
+  }
+
+  @Test
+  void sharesASingleChannelWithoutReusePort() throws IOException {
+    try (LogCapture log = new LogCapture(NioUdpServer.class)) {
+      start(new NioUdpServer<>(port, Servers.LOOPBACK, this::newEchoHandler,
+                               ServerConfiguration.builder().listeners(2).build()) {
+        @Override
+        boolean isReusePortSupported(final @NotNull Set<SocketOption<?>> supportedOptions) {
+          return false;
+        }
+      });
+
+      requestFromClients(8);
+
+      assertEquals(List.of("SO_REUSEPORT is not supported, listeners share a single channel"), log.getMessages());
+    }
+  }
+
+  private void start(final @NotNull ServerConfiguration configuration) throws IOException {
+    start(new NioUdpServer<>(port, Servers.LOOPBACK, this::newEchoHandler, configuration));
+  }
+
+  /**
+   * Starts the server and waits for it to answer, the requests sent before it is bound being lost.
+   */
+  private void start(final @NotNull NioUdpServer<EchoHandler> udpServer) throws IOException {
+    server = udpServer;
+    serverThread = Servers.start(server);
+    final long deadline = System.currentTimeMillis() + Servers.TIMEOUT;
+    client.setSoTimeout(200);
+    while (true) {
+      send(PING);
+      try {
+        receiveAny();
+        break;
+      } catch (final SocketTimeoutException e) {
+        if (System.currentTimeMillis() > deadline) {
+          throw e;
+        }
+      }
+    }
+    client.setSoTimeout((int) Servers.TIMEOUT);
+  }
+
+  private void send(final @NotNull String request) throws IOException {
+    final byte[] data = request.getBytes(US_ASCII);
+    client.send(new DatagramPacket(data, data.length, Servers.LOOPBACK, port));
+  }
+
+  /**
+   * Receives a response, skipping the late answers to the pings.
+   */
+  private @NotNull String receive() throws IOException {
+    String response = receiveAny();
+    while (PING.equals(response)) {
+      response = receiveAny();
+    }
+    return response;
+  }
+
+  private @NotNull String receiveAny() throws IOException {
+    final DatagramPacket packet = new DatagramPacket(new byte[512], 512);
+    client.receive(packet);
+    return new String(packet.getData(), 0, packet.getLength(), US_ASCII);
+  }
+
+  /**
+   * Sends a request from each of the given number of clients, and checks that each one is answered.
+   */
+  private void requestFromClients(final int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      try (DatagramSocket other = new DatagramSocket(0, Servers.LOOPBACK)) {
+        other.setSoTimeout((int) Servers.TIMEOUT);
+        final byte[] request = Integer.toString(i).getBytes(US_ASCII);
+        other.send(new DatagramPacket(request, request.length, Servers.LOOPBACK, port));
+        final DatagramPacket response = new DatagramPacket(new byte[512], 512);
+        other.receive(response);
+        assertEquals(Integer.toString(i), new String(response.getData(), 0, response.getLength(), US_ASCII));
+      }
+    }
+  }
+
+  /**
+   * Creates the client handler of a datagram, recording the receive loop which received it.
+   */
+  private @NotNull EchoHandler newEchoHandler(final @NotNull DatagramPacket packet,
+      final @NotNull DatagramSocket socket) {
+    receivers.add(Thread.currentThread().getName());
+    return new EchoHandler(packet, socket);
+  }
+
+  private void awaitEntered() throws InterruptedException {
+    assertTrue(entered.tryAcquire(Servers.TIMEOUT, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Sends back the requests, blocking on the blocking ones until released.
+   */
+  private final class EchoHandler extends AbstractUdpClientHandler {
+
+    EchoHandler(final @NotNull DatagramPacket packet, final @NotNull DatagramSocket socket) {
+      super(packet, socket);
+    }
+
+    @Override
+    public void run() {
+      final DatagramPacket packet = getPacket();
+      final byte[] request = Arrays.copyOf(packet.getData(), packet.getLength());
+      try {
+        if (new String(request, US_ASCII).startsWith(BLOCKING)) {
+          entered.release();
+          release.acquire();
+        }
+        send(new DatagramPacket(request, request.length, packet.getSocketAddress()));
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    protected void stop() {
+      // Nothing to stop
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package fr.lehtto.jaser.core;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.function.BooleanSupplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Helpers running servers on the loopback interface in tests.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+final class Servers {
+
+  static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+  /**
+   * How long to wait for a server to get to the expected state, in milliseconds.
+   */
+  static final long TIMEOUT = 5_000L;
+
+  private Servers() {
+  }
+
+  /**
+   * Finds a free TCP port, released for the server to bind it.
+   */
+  static int freeTcpPort() {
+    try (ServerSocket socket = new ServerSocket(0, 1, LOOPBACK)) {
+      return socket.getLocalPort();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Finds a free UDP port, released for the server to bind it.
+   */
+  static int freeUdpPort() {
+    try (DatagramSocket socket = new DatagramSocket(0, LOOPBACK)) {
+      return socket.getLocalPort();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Runs a server on its own thread.
+   *
+   * @return the thread running the server
+   */
+  static @NotNull Thread start(final @NotNull Server<?> server) {
+    final Thread thread = new Thread(server, "Server");
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Connects to a TCP server, waiting for it to listen.
+   */
+  static @NotNull Socket connect(final int port) throws IOException, InterruptedException {
+    final long deadline = System.currentTimeMillis() + TIMEOUT;
+    while (true) {
+      try {
+        final Socket socket = new Socket(LOOPBACK, port);
+        socket.setSoTimeout((int) TIMEOUT);
+        return socket;
+      } catch (final ConnectException e) {
+        if (System.currentTimeMillis() > deadline) {
+          throw e;
+        }
+        Thread.sleep(10);
+      }
+    }
+  }
+
+  /**
+   * Waits for a condition to hold.
+   */
+  static void await(final @NotNull BooleanSupplier condition) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + TIMEOUT;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Condition not met within " + TIMEOUT + " ms");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Closes a server and checks that its thread finishes.
+   */
+  static void stop(final @NotNull Server<?> server, final @NotNull Thread thread)
+      throws IOException, InterruptedException {
+    server.close();
+    thread.join(TIMEOUT);
+    assertFalse(thread.isAlive());
+  }
+}
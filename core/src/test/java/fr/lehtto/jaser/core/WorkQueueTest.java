@@ -0,0 +1,123 @@
+package fr.lehtto.jaser.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link WorkQueue work queue} and its overload policies.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("JavaDoc")
+class WorkQueueTest {
+
+  private final List<String> dropped = new ArrayList<>();
+  private final List<String> rejected = new ArrayList<>();
+
+  @Test
+  void queuesUntilFull() {
+    final WorkQueue<String> queue = newQueue(2, OverloadPolicy.DROP_NEWEST);
+
+    assertTrue(queue.offer("a"));
+    assertTrue(queue.offer("b"));
+
+    assertEquals(2, queue.size());
+    assertEquals("a", queue.poll());
+    assertEquals("b", queue.poll());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+    assertNoOverload(queue);
+  }
+
+  @Test
+  void unboundedQueueNeverOverloads() {
+    final WorkQueue<String> queue = newQueue(0, OverloadPolicy.REJECT);
+
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(queue.offer(Integer.toString(i)));
+    }
+
+    assertEquals(1000, queue.size());
+    assertNoOverload(queue);
+  }
+
+  @Test
+  void dropNewestDropsTheOfferedElement() {
+    final WorkQueue<String> queue = newQueue(2, OverloadPolicy.DROP_NEWEST);
+    queue.offer("a");
+    queue.offer("b");
+
+    assertFalse(queue.offer("c"));
+    assertFalse(queue.offer("d"));
+
+    assertEquals(List.of("c", "d"), dropped);
+    assertEquals(List.of(), rejected);
+    assertEquals(2, queue.getDroppedCount());
+    assertEquals(0, queue.getRejectedCount());
+    assertEquals("a", queue.poll());
+    assertEquals("b", queue.poll());
+  }
+
+  @Test
+  void dropOldestMakesRoomForTheOfferedElement() {
+    final WorkQueue<String> queue = newQueue(2, OverloadPolicy.DROP_OLDEST);
+    queue.offer("a");
+    queue.offer("b");
+
+    assertTrue(queue.offer("c"));
+    assertTrue(queue.offer("d"));
+
+    assertEquals(List.of("a", "b"), dropped);
+    assertEquals(List.of(), rejected);
+    assertEquals(2, queue.getDroppedCount());
+    assertEquals(0, queue.getRejectedCount());
+    assertEquals("c", queue.poll());
+    assertEquals("d", queue.poll());
+  }
+
+  @Test
+  void rejectHandsBackTheOfferedElement() {
+    final WorkQueue<String> queue = newQueue(1, OverloadPolicy.REJECT);
+    queue.offer("a");
+
+    assertFalse(queue.offer("b"));
+
+    assertEquals(List.of(), dropped);
+    assertEquals(List.of("b"), rejected);
+    assertEquals(0, queue.getDroppedCount());
+    assertEquals(1, queue.getRejectedCount());
+    assertEquals(1, queue.size());
+    assertEquals("a", queue.poll());
+  }
+
+  @Test
+  void acceptsAgainOnceDrained() {
+    final WorkQueue<String> queue = newQueue(1, OverloadPolicy.REJECT);
+    queue.offer("a");
+    queue.offer("b");
+    queue.poll();
+
+    assertTrue(queue.offer("c"));
+
+    assertEquals(1, queue.getRejectedCount());
+    assertEquals("c", queue.poll());
+  }
+
+  private WorkQueue<String> newQueue(final int capacity, final OverloadPolicy overloadPolicy) {
+    return new WorkQueue<>(capacity, overloadPolicy, dropped::add, rejected::add);
+  }
+
+  private void assertNoOverload(final WorkQueue<String> queue) {
+    assertEquals(0, queue.getDroppedCount());
+    assertEquals(0, queue.getRejectedCount());
+    assertEquals(List.of(), dropped);
+    assertEquals(List.of(), rejected);
+  }
+}
@@ -1,15 +1,36 @@
 package fr.lehtto.jaser.dns;
 
 import com.jcabi.aspects.Loggable;
+import fr.lehtto.jaser.core.ExecutionStrategy;
+import fr.lehtto.jaser.core.NioUdpServer;
+import fr.lehtto.jaser.core.Server;
+import fr.lehtto.jaser.core.ServerConfiguration;
+import fr.lehtto.jaser.core.TcpServer;
 import fr.lehtto.jaser.core.UdpServer;
+import fr.lehtto.jaser.dns.cache.ResponseCache;
+import fr.lehtto.jaser.dns.entity.Edns;
+import fr.lehtto.jaser.dns.entity.Update;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
 import fr.lehtto.jaser.dns.master.file.MasterFile;
 import fr.lehtto.jaser.dns.master.file.MasterFileParser;
+import fr.lehtto.jaser.dns.master.file.MasterFileWatcher;
+import fr.lehtto.jaser.dns.master.file.UpdateProcessor;
 import fr.lehtto.jaser.dns.metrics.MetricsService;
 import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
@@ -20,82 +41,335 @@ import org.slf4j.LoggerFactory;
  * DNS main class.
  *
  * @author Lehtto
- * @version 0.2.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public final class Dns implements AutoCloseable {
 
   public static final Dns INSTANCE = new Dns();
 
+  /**
+   * Default largest UDP response, small enough to avoid IP fragmentation on most networks.
+   */
+  public static final int DEFAULT_EDNS_PAYLOAD_SIZE = 1232;
+
   private static final Logger LOG = LoggerFactory.getLogger(Dns.class);
-  private MasterFile masterFile;
+
+  /**
+   * Frozen master file the queries are answered from, replaced as a whole when records are loaded.
+   */
+  private final @NotNull AtomicReference<MasterFile> masterFile =
+      new AtomicReference<>(new MasterFile().freeze());
+
+  /**
+   * Lock of the loads, so that concurrent loads do not lose each other's records.
+   */
+  private final @NotNull Object loadLock = new Object();
+
+  /**
+   * Files loaded, to reload them.
+   */
+  private final @NotNull List<File> files = new ArrayList<>();
+
+  /**
+   * Files read by the loads, included ones among them, to watch them.
+   */
+  private final @NotNull Set<File> readFiles = new LinkedHashSet<>();
+
+  private @Nullable MasterFileWatcher watcher;
+  private @Nullable Thread watcherThread;
   private Thread serverThread;
-  private UdpServer<DnsClientHandler> server;
+  private Server<DnsClientHandler> server;
+  private @Nullable Thread tcpServerThread;
+  private @Nullable Server<DnsTcpClientHandler> tcpServer;
+  private @Nullable ExecutorService tcpQueryExecutor;
   private @Nullable MetricsService metricsService;
+  private @Nullable ResponseCache responseCache;
+  private @NotNull RCode overloadRCode = RCode.SERVER_FAILURE;
+  private @NotNull Set<InetAddress> updateClients = Set.of();
+  private int ednsPayloadSize = DEFAULT_EDNS_PAYLOAD_SIZE;
 
   /**
    * Valued constructor.
    */
-  private Dns() { masterFile = new MasterFile(); }
+  private Dns() { }
 
   /**
    * Starts the DNS server.
    *
-   * @param ip   address to listen on
-   * @param port port to listen on
+   * @param ip            address to listen on
+   * @param port          port to listen on
+   * @param nio           whether to use the non-blocking UDP server
+   * @param tcp           whether to also answer DNS over TCP
+   * @param configuration the server configuration, whose packet size is the largest UDP response advertised to EDNS
+   *                      clients
    */
-  void start(final @NotNull InetAddress ip, final int port) {
-    server = new UdpServer<>(port, ip, DnsClientHandler.class);
+  void start(final @NotNull InetAddress ip, final int port, final boolean nio,
+             final boolean tcp,
+             final @NotNull ServerConfiguration configuration) {
+    if (Edns.MIN_UDP_PAYLOAD_SIZE > configuration.packetSize()) {
+      throw new IllegalArgumentException("EDNS payload size must be at least "
+          + Edns.MIN_UDP_PAYLOAD_SIZE + " bytes");
+    }
+    ednsPayloadSize = configuration.packetSize();
+    server = nio
+        ? new NioUdpServer<>(port, ip, DnsClientHandler::new, configuration)
+        : new UdpServer<>(port, ip, DnsClientHandler::new, configuration);
+    getMetricsService()
+        .map(MetricsService::getMetrics)
+        .ifPresent(metrics -> {
+          metrics.bindServer(server);
+          getResponseCache().ifPresent(metrics::bindResponseCache);
+        });
     serverThread = new Thread(server, "server");
     serverThread.start();
+    if (tcp) {
+      startTcp(ip, port, configuration);
+    }
+  }
+
+  /**
+   * Starts the DNS over TCP server.
+   * <p>
+   * Client handlers live as long as their connection, so they are neither queued nor run by a bounded pool, which would
+   * hold new connections back. Their queries are resolved by a pool of workers.
+   *
+   * @param ip            address to listen on
+   * @param port          port to listen on
+   * @param configuration the server configuration
+   */
+  private void startTcp(final @NotNull InetAddress ip, final int port,
+                        final @NotNull ServerConfiguration configuration) {
+    final AtomicLong counter = new AtomicLong();
+    final ExecutorService queryExecutor = Executors.newFixedThreadPool(
+        configuration.workers(),
+        runnable -> new Thread(runnable, "TcpQuery-" + counter.incrementAndGet()));
+    final ServerConfiguration.Builder tcpConfiguration = configuration.toBuilder()
+        .queueCapacity(0)
+        .batchSize(0);
+    if (ExecutionStrategy.BOUNDED_POOL == configuration.executionStrategy()) {
+      tcpConfiguration.executionStrategy(ExecutionStrategy.PLATFORM_PER_TASK);
+    }
+    final Server<DnsTcpClientHandler> tcpServer = new TcpServer<>(port, ip,
+        socket -> new DnsTcpClientHandler(socket, queryExecutor),
+        tcpConfiguration.build());
+    getMetricsService()
+        .map(MetricsService::getMetrics)
+        .ifPresent(metrics -> metrics.bindTcpServer(tcpServer));
+    tcpServerThread = new Thread(tcpServer, "tcp-server");
+    tcpServerThread.start();
+    this.tcpServer = tcpServer;
+    tcpQueryExecutor = queryExecutor;
   }
 
   /**
-   * Gets the master file.
+   * Gets the master file, frozen.
    *
    * @return the master file
    */
-  public MasterFile getMasterFile() { return masterFile; }
+  public MasterFile getMasterFile() { return masterFile.get(); }
 
   /**
-   * Loads the DNS zone from a file.
+   * Loads the DNS zone from a file, clearing the cached responses.
+   * <p>
+   * The records are loaded into a copy of the master file, which replaces it once the whole file is loaded: queries
+   * are answered from the previous master file meanwhile, and a file which cannot be read or has an invalid entry is
+   * not loaded at all.
    *
    * @param file the master file to load
    */
   @Loggable
   void load(final @NotNull File file) {
-    try {
-      final int count = MasterFileParser.parse(masterFile, file);
-      LOG.info("Loaded {} records", count);
+    synchronized (loadLock) {
+      files.add(file);
+      try {
+        final MasterFile loaded = new MasterFile(masterFile.get());
+        final int count = MasterFileParser.parse(loaded, file, readFiles);
+        masterFile.set(loaded.freeze());
+        LOG.info("Loaded {} records", count);
+        getResponseCache().ifPresent(ResponseCache::clear);
+        getMetricsService()
+            .map(MetricsService::getMetrics)
+            .ifPresent(metrics -> metrics.incrementZoneSize(count));
+      } catch (final InvalidDnsZoneEntryException e) {
+        LOG.error("Invalid DNS zone entry: {}", e.getMessage());
+      } catch (final IOException e) {
+        LOG.error("Could not read master file: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Reloads the DNS zone from all the loaded files, clearing the cached responses.
+   * <p>
+   * The files are loaded into a new master file, which replaces the current one once they are all loaded. If one of
+   * them cannot be read, as when it is deleted or being replaced, or has an invalid entry, the current master file is
+   * kept.
+   *
+   * @return the files read, included ones among them, to watch for changes
+   * @since 1.1.0
+   */
+  @Loggable
+  @NotNull
+  Collection<File> reload() {
+    synchronized (loadLock) {
+      final long start = System.nanoTime();
+      final MasterFile previous = masterFile.get();
+      final MasterFile loaded = new MasterFile();
+      final Set<File> read = new LinkedHashSet<>();
+      try {
+        for (final File file : files) {
+          MasterFileParser.parse(loaded, file, read);
+        }
+      } catch (final InvalidDnsZoneEntryException e) {
+        LOG.error("Invalid DNS zone entry, zone not reloaded: {}", e.getMessage());
+        return failReload(start, read);
+      } catch (final IOException e) {
+        LOG.error("Could not read master file, zone not reloaded: {}", e.getMessage());
+        return failReload(start, read);
+      }
+      masterFile.set(loaded.freeze());
+      getResponseCache().ifPresent(ResponseCache::clear);
+      final long duration = System.nanoTime() - start;
+      readFiles.clear();
+      readFiles.addAll(read);
+
+      final int added = loaded.countRecordsNotIn(previous);
+      final int removed = previous.countRecordsNotIn(loaded);
+      LOG.info("Reloaded {} records: {} added, {} removed", loaded.size(), added, removed);
       getMetricsService()
           .map(MetricsService::getMetrics)
-          .ifPresent(metrics -> metrics.incrementZoneSize(count));
-    } catch (final InvalidDnsZoneEntryException e) {
-      LOG.error("Invalid DNS zone entry: {}", e.getMessage());
+          .ifPresent(metrics -> metrics.recordZoneReload(duration, added, removed));
+      return List.copyOf(readFiles);
     }
   }
 
+  /**
+   * Records a failed reload, the current master file being kept.
+   *
+   * @param start the start of the reload, in nanoseconds
+   * @param read  the files read before the reload failed
+   * @return the files to watch for changes, those read before the reload failed among them
+   */
+  private @NotNull Collection<File> failReload(final long start, final @NotNull Set<File> read) {
+    readFiles.addAll(read);
+    final long duration = System.nanoTime() - start;
+    getMetricsService()
+        .map(MetricsService::getMetrics)
+        .ifPresent(metrics -> metrics.recordFailedZoneReload(duration));
+    return List.copyOf(readFiles);
+  }
+
+  /**
+   * Applies a dynamic update, clearing the cached responses if it changed the zone.
+   * <p>
+   * The update is applied to a copy of the master file sharing the zones it does not change, which replaces the
+   * master file once the update is applied. An update which is not applied leaves the master file as it was. The
+   * changes are not written to the files, and are lost on {@link #reload() reload}.
+   *
+   * @param update the update to apply
+   * @return the result of the update
+   * @since 1.1.0
+   */
+  public @NotNull RCode update(final @NotNull Update update) {
+    synchronized (loadLock) {
+      final MasterFile updated = new MasterFile(masterFile.get());
+      final UpdateProcessor processor = new UpdateProcessor(updated, update);
+      final RCode rcode = processor.process();
+      if (RCode.NO_ERROR == rcode && processor.hasChanged()) {
+        masterFile.set(updated.freeze());
+        getResponseCache().ifPresent(ResponseCache::clear);
+      }
+      LOG.info("Update of zone {}: {}, {} records added, {} removed", update.zone().name().value(), rcode,
+          processor.getAddedCount(), processor.getRemovedCount());
+      getMetricsService()
+          .map(MetricsService::getMetrics)
+          .ifPresent(metrics -> metrics.recordUpdate(rcode, processor.getAddedCount(),
+              processor.getRemovedCount()));
+      return rcode;
+    }
+  }
+
+  /**
+   * Watches the loaded files, included ones among them, reloading the DNS zone in the background when they change.
+   *
+   * @since 1.1.0
+   */
+  void watch() {
+    final MasterFileWatcher masterFileWatcher;
+    try {
+      synchronized (loadLock) {
+        masterFileWatcher = new MasterFileWatcher(List.copyOf(readFiles), this::reload);
+      }
+    } catch (final IOException e) {
+      LOG.error("Could not watch the master files", e);
+      return;
+    }
+    watcherThread = new Thread(masterFileWatcher, "zone-watcher");
+    watcherThread.setDaemon(true);
+    watcherThread.start();
+    watcher = masterFileWatcher;
+  }
+
   @Override
   public void close() throws IOException {
+    if (null != watcher) {
+      watcher.close();
+    }
     server.close();
+    if (null != tcpServer) {
+      tcpServer.close();
+    }
+    join(serverThread);
+    if (null != tcpServerThread) {
+      join(tcpServerThread);
+    }
+    if (null != watcherThread) {
+      join(watcherThread);
+    }
+    if (null != tcpQueryExecutor) {
+      tcpQueryExecutor.shutdown();
+      try {
+        tcpQueryExecutor.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(
+            "Error while waiting for TCP queries to terminate", e);
+      }
+    }
+  }
+
+  /**
+   * Waits for a server thread to terminate.
+   *
+   * @param thread the server thread
+   * @throws IOException if interrupted while waiting
+   */
+  private static void join(final @NotNull Thread thread) throws IOException {
     try {
-      serverThread.join();
+      thread.join();
     } catch (final InterruptedException e) {
       LOG.error("Error while waiting for server thread to terminate", e);
-      serverThread.interrupt();
+      thread.interrupt();
       throw new IOException(
           "Error while waiting for server thread to terminate", e);
     }
   }
 
   /**
-   * Sets master files.
+   * Sets master files, freezing them and clearing the cached responses. The files loaded before are forgotten, and
+   * are not reloaded.
    *
    * @param masterFile the master files to set
    */
   @VisibleForTesting
   void initializeMasterFiles(final MasterFile masterFile) {
-    this.masterFile = masterFile;
+    synchronized (loadLock) {
+      files.clear();
+      readFiles.clear();
+      this.masterFile.set(masterFile.freeze());
+      getResponseCache().ifPresent(ResponseCache::clear);
+    }
   }
 
   /**
@@ -107,6 +381,74 @@ public final class Dns implements AutoCloseable {
     return Optional.ofNullable(metricsService);
   }
 
+  /**
+   * Gets the cache of the responses, if enabled.
+   *
+   * @return the response cache
+   * @since 1.1.0
+   */
+  public @NotNull Optional<ResponseCache> getResponseCache() {
+    return Optional.ofNullable(responseCache);
+  }
+
+  /**
+   * Gets the error answered to the queries rejected because the server is overloaded.
+   *
+   * @return the overload error
+   */
+  public @NotNull RCode getOverloadRCode() {
+    return overloadRCode;
+  }
+
+  /**
+   * Checks whether a client may send dynamic updates.
+   *
+   * @param client the address of the client
+   * @return true if the client is allowed to update the zones
+   * @since 1.1.0
+   */
+  public boolean isUpdateAllowed(final @NotNull InetAddress client) {
+    return updateClients.contains(client);
+  }
+
+  /**
+   * Gets the largest UDP response of the server, advertised to EDNS clients.
+   *
+   * @return the EDNS payload size, in bytes
+   */
+  public int getEdnsPayloadSize() {
+    return ednsPayloadSize;
+  }
+
+  /**
+   * Sets the error answered to the queries rejected because the server is overloaded.
+   *
+   * @param overloadRCode the overload error to set
+   */
+  void setOverloadRCode(final @NotNull RCode overloadRCode) {
+    this.overloadRCode = overloadRCode;
+  }
+
+  /**
+   * Sets the addresses of the clients allowed to send dynamic updates.
+   *
+   * @param updateClients the addresses of the clients, empty to refuse all the updates
+   * @since 1.1.0
+   */
+  void setUpdateClients(final @NotNull Collection<InetAddress> updateClients) {
+    this.updateClients = Set.copyOf(updateClients);
+  }
+
+  /**
+   * Sets the cache of the responses.
+   *
+   * @param responseCache the response cache to set, null to disable it
+   * @since 1.1.0
+   */
+  void setResponseCache(final @Nullable ResponseCache responseCache) {
+    this.responseCache = responseCache;
+  }
+
   /**
    * Sets the metrics service.
    *
@@ -1,14 +1,22 @@
 package fr.lehtto.jaser.dns;
 
 import fr.lehtto.jaser.core.AbstractUdpClientHandler;
+import fr.lehtto.jaser.dns.cache.ResponseCache;
+import fr.lehtto.jaser.dns.entity.Edns;
 import fr.lehtto.jaser.dns.entity.Query;
+import fr.lehtto.jaser.dns.entity.Response;
+import fr.lehtto.jaser.dns.entity.enumration.OpCode;
 import fr.lehtto.jaser.dns.entity.writer.ResponseWriter;
 import fr.lehtto.jaser.dns.metrics.Metrics;
 import fr.lehtto.jaser.dns.metrics.MetricsService;
 import fr.lehtto.jaser.dns.query.handler.QueryHandlerFactory;
+import fr.lehtto.jaser.dns.query.handler.UpdateHandler;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.function.IntSupplier;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +25,7 @@ import org.slf4j.LoggerFactory;
  * Handler for a client connection.
  *
  * @author Lehtto
+ * @version 1.1.0
  * @since 0.1.0
  */
 public class DnsClientHandler extends AbstractUdpClientHandler {
@@ -46,17 +55,7 @@ public class DnsClientHandler extends AbstractUdpClientHandler {
       final Query query =
           Query.read(getPacket().getData(), getPacket().getLength());
       LOG.debug("Query received: {}", query);
-      handleQueryWithMetrics(() -> {
-        try {
-          final byte[] buffer = new byte[512];
-          final int length = ResponseWriter.write(
-              QueryHandlerFactory.fromQuery(query).handle(query), buffer);
-          getSocket().send(new DatagramPacket(
-              buffer, length, getPacket().getAddress(), getPacket().getPort()));
-        } catch (final IOException e) {
-          LOG.error("Error while sending response", e);
-        }
-      });
+      handleQueryWithMetrics(() -> answer(query));
     } catch (final Exception e) {
       if (isRunning()) {
         LOG.error("Error while handling client", e);
@@ -65,18 +64,130 @@ public class DnsClientHandler extends AbstractUdpClientHandler {
     LOG.info("Client disconnected from {}", getPacket().getAddress());
   }
 
+  /**
+   * Answers the query with the overload error, without resolving it.
+   */
+  @Override
+  protected void reject() {
+    try {
+      final Query query =
+          Query.read(getPacket().getData(), getPacket().getLength());
+      sendResponse(query,
+                   QueryHandlerFactory.fromRCode(Dns.INSTANCE.getOverloadRCode())
+                       .handle(query));
+    } catch (final Exception e) {
+      LOG.debug("Could not reject query from {}", getPacket().getAddress(), e);
+    }
+  }
+
   @Override
   protected void stop() {
     // Do nothing
   }
 
+  /**
+   * Resolves the query, or gets its response from the cache, and sends the response to the client.
+   *
+   * @param query the query of the client
+   */
+  private void answer(final @NotNull Query query) {
+    final byte[] buffer = getSendBuffer();
+    send(buffer, writeResponse(getPacket().getData(), getPacket().getLength(),
+                               query, getPacket().getAddress(), buffer,
+                               getMaxResponseSize(query)));
+  }
+
+  /**
+   * Sends the response to the client.
+   * <p>
+   * If the response is larger than the client accepts, it is truncated and its TC flag set, so that the client
+   * retries over TCP.
+   *
+   * @param query    the query of the client
+   * @param response the response to send
+   */
+  private void sendResponse(final @NotNull Query query,
+                            final @NotNull Response response) {
+    final byte[] buffer = getSendBuffer();
+    send(buffer, ResponseWriter.write(response, buffer, getMaxResponseSize(query)));
+  }
+
+  /**
+   * Sends a written response to the client.
+   *
+   * @param buffer the buffer holding the response
+   * @param length the length of the response
+   */
+  private void send(final byte @NotNull [] buffer, final int length) {
+    try {
+      send(new DatagramPacket(
+          buffer, length, getPacket().getAddress(), getPacket().getPort()));
+    } catch (final IOException e) {
+      LOG.error("Error while sending response", e);
+    }
+  }
+
+  /**
+   * Writes the response to a query, from the {@link ResponseCache response cache} if enabled.
+   * <p>
+   * UPDATE messages are {@link UpdateHandler applied} to the zone, their responses never being cached. If the response
+   * is larger than allowed, it is truncated and its TC flag set.
+   *
+   * @param message       the query message
+   * @param messageLength the length of the query message
+   * @param query         the query read from the message
+   * @param client        the address of the client
+   * @param buffer        the buffer to write the response to
+   * @param maxLength     the maximum length of the response
+   * @return the length of the response
+   * @since 1.1.0
+   */
+  static int writeResponse(final byte @NotNull [] message,
+                           final int messageLength,
+                           final @NotNull Query query,
+                           final @NotNull InetAddress client,
+                           final byte @NotNull [] buffer,
+                           final int maxLength) {
+    if (OpCode.UPDATE == query.header().flags().opcode()) {
+      return ResponseWriter.write(
+          UpdateHandler.INSTANCE.handle(
+              ByteBuffer.wrap(message, 0, messageLength), query, client),
+          buffer, maxLength);
+    }
+    final IntSupplier writer = () -> ResponseWriter.write(
+        QueryHandlerFactory.fromQuery(query).handle(query), buffer, maxLength);
+    final ResponseCache responseCache =
+        Dns.INSTANCE.getResponseCache().orElse(null);
+    if (null == responseCache) {
+      return writer.getAsInt();
+    }
+    return responseCache.write(message, messageLength, query.edns(),
+                               maxLength, buffer, writer);
+  }
+
+  /**
+   * Gets the largest response the client accepts: 512 bytes, or the UDP payload size advertised with EDNS, up to the
+   * one of the server.
+   *
+   * @param query the query of the client
+   * @return the maximum response size, in bytes
+   */
+  static int getMaxResponseSize(final @NotNull Query query) {
+    final Edns edns = query.edns();
+    if (null == edns) {
+      return Edns.MIN_UDP_PAYLOAD_SIZE;
+    }
+    return Math.min(edns.getEffectiveUdpPayloadSize(),
+                    Dns.INSTANCE.getEdnsPayloadSize());
+  }
+
   /**
    * Handles the query with metrics if metrics are enabled. Else, just handles
    * the query.
    *
    * @param runnable the runnable to run
    */
-  private void handleQueryWithMetrics(final Runnable runnable) {
+  static void handleQueryWithMetrics(final Runnable runnable) {
     Dns.INSTANCE.getMetricsService()
         .map(MetricsService::getMetrics)
         .map(Metrics::getQueryTimer)
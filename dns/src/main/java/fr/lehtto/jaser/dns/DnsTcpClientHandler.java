@@ -0,0 +1,213 @@
+package fr.lehtto.jaser.dns;
+
+import fr.lehtto.jaser.core.AbstractTcpClientHandler;
+import fr.lehtto.jaser.dns.entity.Query;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handler for a DNS over TCP client connection, as specified by RFC 7766.
+ * <p>
+ * Each message is prefixed by its length on two bytes. Queries are read one after the other and resolved
+ * concurrently, so that a client can pipeline several queries on the connection and get each response as soon as it is
+ * ready, in any order.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public class DnsTcpClientHandler extends AbstractTcpClientHandler {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DnsTcpClientHandler.class);
+
+  /**
+   * Maximum size of a DNS message over TCP, limited by its two bytes length prefix.
+   */
+  public static final int MAX_MESSAGE_SIZE = 65_535;
+
+  /**
+   * Maximum number of queries of a connection resolved at the same time, further queries are not read until one of
+   * them is answered.
+   */
+  static final int MAX_PIPELINED_QUERIES = 64;
+
+  /**
+   * How long to wait for a new query before closing an idle connection, in milliseconds.
+   */
+  static final int IDLE_TIMEOUT = 10_000;
+
+  /**
+   * Per-thread buffers the responses are written to.
+   */
+  private static final ThreadLocal<byte[]> SEND_BUFFERS =
+      ThreadLocal.withInitial(() -> new byte[MAX_MESSAGE_SIZE]);
+
+  private final @NotNull Executor queryExecutor;
+  private final @NotNull Semaphore pendingQueries =
+      new Semaphore(MAX_PIPELINED_QUERIES);
+
+  /**
+   * Valued constructor.
+   *
+   * @param socket        the client socket
+   * @param queryExecutor the executor resolving the queries
+   */
+  public DnsTcpClientHandler(final @NotNull Socket socket,
+                             final @NotNull Executor queryExecutor) {
+    super(socket);
+    this.queryExecutor = queryExecutor;
+  }
+
+  /**
+   * Handles the client connection until the client closes it or stays idle.
+   */
+  @Override
+  public void run() {
+    LOG.info("New client connected from {}", getSocket().getInetAddress());
+    try {
+      getSocket().setSoTimeout(IDLE_TIMEOUT);
+      final DataInputStream input = new DataInputStream(
+          new BufferedInputStream(getSocket().getInputStream()));
+      final OutputStream output =
+          new BufferedOutputStream(getSocket().getOutputStream());
+      byte[] message = readMessage(input);
+      while (isRunning() && null != message) {
+        pendingQueries.acquire();
+        final byte[] query = message;
+        submit(() -> handleQuery(query, output));
+        message = readMessage(input);
+      }
+    } catch (final SocketTimeoutException e) {
+      LOG.debug("Closing idle connection from {}", getSocket().getInetAddress());
+    } catch (final IOException | RejectedExecutionException e) {
+      if (isRunning()) {
+        LOG.error("Error while handling client", e);
+      }
+    } catch (final InterruptedException e) {
+      LOG.warn("Interrupted while waiting for pending queries");
+      Thread.currentThread().interrupt();
+    } finally {
+      awaitPendingQueries();
+      closeSocket();
+    }
+    LOG.info("Client disconnected from {}", getSocket().getInetAddress());
+  }
+
+  /**
+   * Submits the resolution of a query, giving its permit back if the executor rejects it.
+   *
+   * @param task the resolution of the query
+   * @throws RejectedExecutionException if the executor is shut down
+   */
+  private void submit(final @NotNull Runnable task) {
+    try {
+      queryExecutor.execute(task);
+    } catch (final RejectedExecutionException e) {
+      pendingQueries.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads a length-prefixed message.
+   *
+   * @param input the input stream of the connection
+   * @return the message, or null if the client has closed the connection
+   * @throws IOException if an error occurs or if the message is truncated
+   */
+  private static byte @Nullable [] readMessage(
+      final @NotNull DataInputStream input) throws IOException {
+    final int high = input.read();
+    if (-1 == high) {
+      return null;
+    }
+    final byte[] message = new byte[high << 8 | input.readUnsignedByte()];
+    input.readFully(message);
+    return message;
+  }
+
+  /**
+   * Resolves a query and sends its response.
+   *
+   * @param message the query message
+   * @param output  the output stream of the connection
+   */
+  private void handleQuery(final byte @NotNull [] message,
+                           final @NotNull OutputStream output) {
+    try {
+      final Query query = Query.read(message, message.length);
+      LOG.debug("Query received: {}", query);
+      DnsClientHandler.handleQueryWithMetrics(() -> sendResponse(
+          message, query, output));
+    } catch (final RuntimeException e) {
+      LOG.error("Error while handling query", e);
+    } finally {
+      pendingQueries.release();
+    }
+  }
+
+  /**
+   * Sends the response to a query to the client, prefixed by its length.
+   * <p>
+   * Responses sent concurrently are written one after the other.
+   *
+   * @param message the query message
+   * @param query   the query read from the message
+   * @param output  the output stream of the connection
+   */
+  private void sendResponse(final byte @NotNull [] message,
+                            final @NotNull Query query,
+                            final @NotNull OutputStream output) {
+    final byte[] buffer = SEND_BUFFERS.get();
+    final int length = DnsClientHandler.writeResponse(
+        message, message.length, query, getSocket().getInetAddress(), buffer,
+        buffer.length);
+    try {
+      synchronized (output) {
+        output.write(length >>> 8);
+        output.write(length);
+        output.write(buffer, 0, length);
+        output.flush();
+      }
+    } catch (final IOException e) {
+      if (isRunning()) {
+        LOG.error("Error while sending response", e);
+      }
+    }
+  }
+
+  /**
+   * Waits for the queries being resolved to be answered.
+   */
+  private void awaitPendingQueries() {
+    try {
+      pendingQueries.acquire(MAX_PIPELINED_QUERIES);
+    } catch (final InterruptedException e) {
+      LOG.warn("Interrupted while waiting for pending queries");
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Closes the client socket, logging errors.
+   */
+  private void closeSocket() {
+    try {
+      stop();
+    } catch (final IOException e) {
+      LOG.error("Error while closing client socket", e);
+    }
+  }
+}
@@ -1,11 +1,17 @@
 package fr.lehtto.jaser.dns;
 
+import fr.lehtto.jaser.core.ExecutionStrategy;
+import fr.lehtto.jaser.core.OverloadPolicy;
+import fr.lehtto.jaser.core.ServerConfiguration;
 import fr.lehtto.jaser.core.console.Cui;
+import fr.lehtto.jaser.dns.cache.ResponseCache;
 import fr.lehtto.jaser.dns.console.RecordsCommandHandler;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
 import fr.lehtto.jaser.dns.metrics.MetricsService;
 import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.List;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +51,82 @@ public class StartCommand implements Runnable {
           description = "Metrics server port")
   private int metricsPort;
 
+  @Option(names = "--nio", defaultValue = "false",
+          description = "Use the non-blocking UDP server")
+  private boolean nio;
+
+  @Option(names = "--tcp", negatable = true, defaultValue = "true",
+          fallbackValue = "true",
+          description = "Also answer DNS over TCP on the same port, "
+              + "--no-tcp to disable (default: ${DEFAULT-VALUE})")
+  private boolean tcp;
+
+  @Option(names = "--workers", paramLabel = "COUNT",
+          description = "Number of workers of the bounded pool, of the "
+              + "non-blocking UDP server and resolving the TCP queries "
+              + "(default: number of processors)")
+  private int workers = Runtime.getRuntime().availableProcessors();
+
+  @Option(names = "--execution", paramLabel = "STRATEGY",
+          defaultValue = "PLATFORM_PER_TASK",
+          description = "Strategy running the client handlers: "
+              + "${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  private ExecutionStrategy executionStrategy;
+
+  @Option(names = "--listeners", paramLabel = "COUNT", defaultValue = "1",
+          description = "Number of UDP sockets bound with SO_REUSEPORT, each "
+              + "with its own receive loop (default: ${DEFAULT-VALUE})")
+  private int listeners;
+
+  @Option(names = "--batch-size", paramLabel = "COUNT", defaultValue = "0",
+          description = "Maximum number of queries handled per batch by the "
+              + "receive loops of the non-blocking UDP server, 0 to disable "
+              + "batching (default: ${DEFAULT-VALUE})")
+  private int batchSize;
+
+  @Option(names = "--edns-payload-size", paramLabel = "BYTES",
+          defaultValue = "1232",
+          description = "Largest UDP response sent to EDNS clients, which "
+              + "may advertise less, and largest UDP query received "
+              + "(default: ${DEFAULT-VALUE})")
+  private int ednsPayloadSize;
+
+  @Option(names = "--queue-capacity", paramLabel = "COUNT",
+          defaultValue = "1024",
+          description = "Maximum number of queries waiting for a worker, "
+              + "0 for no limit (default: ${DEFAULT-VALUE})")
+  private int queueCapacity;
+
+  @Option(names = "--overload-policy", paramLabel = "POLICY",
+          defaultValue = "DROP_NEWEST",
+          description = "Policy applied when the queue is full: "
+              + "${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  private OverloadPolicy overloadPolicy;
+
+  @Option(names = "--overload-rcode", paramLabel = "RCODE",
+          defaultValue = "SERVER_FAILURE",
+          description = "Error answered to rejected queries, usually "
+              + "SERVER_FAILURE or REFUSED (default: ${DEFAULT-VALUE})")
+  private RCode overloadRCode;
+
+  @Option(names = "--watch", defaultValue = "false",
+          description = "Reload the zone files, included ones among them, "
+              + "in the background when they change")
+  private boolean watch;
+
+  @Option(names = "--allow-update", paramLabel = "IP", split = ",",
+          description = "Addresses of the clients allowed to send dynamic "
+              + "updates (RFC 2136), all the updates being refused by "
+              + "default")
+  private List<InetAddress> updateClients = List.of();
+
+  @Option(names = "--response-cache-size", paramLabel = "BYTES",
+          defaultValue = "16777216",
+          description = "Maximum bytes of the cached responses, least "
+              + "recently used ones being evicted, 0 to disable the cache "
+              + "(default: ${DEFAULT-VALUE})")
+  private long responseCacheSize;
+
   @Parameters(index = "0", arity = "0..1", defaultValue = "localhost",
               description = "AddressV4 of the DNS server")
   private InetAddress ip;
@@ -77,10 +159,26 @@ public class StartCommand implements Runnable {
     }
 
     // Create a new DNS server and start it
+    if (0 < responseCacheSize) {
+      Dns.INSTANCE.setResponseCache(new ResponseCache(responseCacheSize));
+    }
     for (final File file : files) {
       Dns.INSTANCE.load(file);
     }
-    Dns.INSTANCE.start(ip, port);
+    if (watch) {
+      Dns.INSTANCE.watch();
+    }
+    Dns.INSTANCE.setOverloadRCode(overloadRCode);
+    Dns.INSTANCE.setUpdateClients(updateClients);
+    Dns.INSTANCE.start(ip, port, nio, tcp, ServerConfiguration.builder()
+        .executionStrategy(executionStrategy)
+        .workers(workers)
+        .queueCapacity(queueCapacity)
+        .overloadPolicy(overloadPolicy)
+        .listeners(listeners)
+        .batchSize(batchSize)
+        .packetSize(ednsPayloadSize)
+        .build());
 
     // Create a new CUI and start it
     final Cui cui = new Cui();
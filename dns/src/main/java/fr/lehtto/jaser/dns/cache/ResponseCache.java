@@ -0,0 +1,445 @@
+package fr.lehtto.jaser.dns.cache;
+
+import fr.lehtto.jaser.dns.entity.Edns;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Bounded cache of encoded responses, keyed by the query they answer.
+ * <p>
+ * Answers are deterministic for a given query and zone, so a query is answered by copying the response of an earlier
+ * equal query and patching the few bytes which echo the query: the ID, the RD flag, and the case of the question name.
+ * Two queries are equal if they have the same question ignoring case, the same other flags, the same EDNS payload size,
+ * version and DO bit, and the same maximum response size, which drives truncation. The other records of the query and
+ * the EDNS options, such as cookies or client subnets which differ between clients and queries, are left out, as
+ * responses do not depend on them. Only queries with a single uncompressed question are cached, and only if their
+ * response echoes their question name.
+ * <p>
+ * The cache is bounded by the bytes of its entries. It is split into segments, each locked on its own and evicting its
+ * least recently used entries once over its share of the capacity. It must be {@link #clear() cleared} whenever the
+ * zone changes.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
+public final class ResponseCache {
+
+  private static final int SEGMENT_COUNT = 16;
+
+  /**
+   * Estimated bytes of the objects holding an entry, besides the key and the response.
+   */
+  private static final int ENTRY_OVERHEAD = 96;
+
+  private static final int ID_LENGTH = 2;
+  private static final int FLAGS_OFFSET = 2;
+  private static final int FLAGS_LENGTH = 2;
+  private static final int QDCOUNT_OFFSET = 4;
+  private static final int QUESTION_OFFSET = 12;
+
+  /**
+   * Mask of the RD flag in the first byte of the flags.
+   */
+  private static final int RD_MASK = 0x01;
+
+  /**
+   * Mask of the two first bits of a label length, set for a pointer or an extended label.
+   */
+  private static final int LABEL_TYPE_MASK = 0xC0;
+
+  /**
+   * Length of the type and class of a question.
+   */
+  private static final int QUESTION_FIELDS_LENGTH = 4;
+
+  /**
+   * Length of the EDNS parameters in a key: presence, payload size, version and DO bit.
+   */
+  private static final int EDNS_KEY_LENGTH = 5;
+
+  private final @NotNull Segment @NotNull [] segments;
+  private final long capacity;
+  private final @NotNull LongAdder hits = new LongAdder();
+  private final @NotNull LongAdder misses = new LongAdder();
+  private final @NotNull LongAdder evictions = new LongAdder();
+
+  /**
+   * Incremented by {@link #clear()}, so that the responses resolved before are not cached after.
+   */
+  private final @NotNull AtomicLong generation = new AtomicLong();
+
+  /**
+   * Valued constructor.
+   *
+   * @param capacity the maximum number of bytes of the cached responses
+   */
+  public ResponseCache(final long capacity) {
+    if (0 >= capacity) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.capacity = capacity;
+    segments = new Segment[SEGMENT_COUNT];
+    for (int s = 0; s < SEGMENT_COUNT; s++) {
+      segments[s] = new Segment(Math.max(1, capacity / SEGMENT_COUNT));
+    }
+  }
+
+  /**
+   * Writes the response to a query to a buffer, from the cache or else from the given writer, caching its response.
+   *
+   * @param query       the query message
+   * @param queryLength the length of the query message
+   * @param edns        the EDNS parameters read from the query, null if it has none
+   * @param maxLength   the maximum length of the response
+   * @param buffer      the buffer to write the response to
+   * @param writer      resolves the query and writes its response to the buffer, returning its length
+   * @return the length of the response
+   */
+  @Contract(mutates = "this,param5")
+  public int write(final byte @NotNull [] query, final int queryLength, final @Nullable Edns edns,
+      final int maxLength, final byte @NotNull [] buffer, final @NotNull IntSupplier writer) {
+    final Key key = Key.of(query, queryLength, edns, maxLength);
+    if (null == key) {
+      return writer.getAsInt();
+    }
+    final Segment segment = segmentOf(key);
+    final byte[] response = segment.get(key);
+    if (null != response && response.length <= buffer.length) {
+      hits.increment();
+      System.arraycopy(response, 0, buffer, 0, response.length);
+      patch(query, key.nameLength, buffer);
+      return response.length;
+    }
+    misses.increment();
+    final long resolvedGeneration = generation.get();
+    final int length = writer.getAsInt();
+    if (QUESTION_OFFSET + key.nameLength + QUESTION_FIELDS_LENGTH <= length
+        && 1 == readUnsignedShort(buffer, QDCOUNT_OFFSET)
+        && echoesName(query, key.nameLength, buffer)) {
+      evictions.add(segment.put(key, Arrays.copyOf(buffer, length), resolvedGeneration));
+    }
+    return length;
+  }
+
+  /**
+   * Removes all the responses, once the zone has changed.
+   */
+  @Contract(mutates = "this")
+  public void clear() {
+    final long newGeneration = generation.incrementAndGet();
+    for (final Segment segment : segments) {
+      segment.clear(newGeneration);
+    }
+  }
+
+  /**
+   * Gets the maximum number of bytes of the cached responses.
+   *
+   * @return the capacity
+   */
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets the number of bytes of the cached responses.
+   *
+   * @return the size
+   */
+  public long getSize() {
+    long size = 0;
+    for (final Segment segment : segments) {
+      size += segment.getBytes();
+    }
+    return size;
+  }
+
+  /**
+   * Gets the number of queries answered from the cache.
+   *
+   * @return the number of hits
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of cacheable queries whose response was not in the cache.
+   *
+   * @return the number of misses
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the ratio of the cacheable queries answered from the cache.
+   *
+   * @return the hit ratio, 0 if no query was cacheable
+   */
+  public double getHitRatio() {
+    final long hitCount = hits.sum();
+    final long total = hitCount + misses.sum();
+    return 0 == total ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Gets the number of responses evicted to make room for others.
+   *
+   * @return the number of evictions
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Gets the segment holding a key.
+   *
+   * @param key the key
+   * @return the segment
+   */
+  private @NotNull Segment segmentOf(final @NotNull Key key) {
+    final int hash = key.hash ^ (key.hash >>> 16);
+    return segments[hash & (SEGMENT_COUNT - 1)];
+  }
+
+  /**
+   * Patches a cached response with the bytes echoing the query: its ID, its RD flag and its question name.
+   *
+   * @param query      the query message
+   * @param nameLength the length of the question name
+   * @param response   the response, at the start of the buffer
+   */
+  private static void patch(final byte @NotNull [] query, final int nameLength,
+      final byte @NotNull [] response) {
+    System.arraycopy(query, 0, response, 0, ID_LENGTH);
+    response[FLAGS_OFFSET] = (byte) (response[FLAGS_OFFSET] & ~RD_MASK | query[FLAGS_OFFSET] & RD_MASK);
+    System.arraycopy(query, QUESTION_OFFSET, response, QUESTION_OFFSET, nameLength);
+  }
+
+  /**
+   * Checks that a response echoes the question name of a query ignoring case, so that {@link #patch(byte[], int,
+   * byte[]) patching} it with the name of an equal query only changes the case of the name.
+   *
+   * @param query      the query message
+   * @param nameLength the length of the question name
+   * @param response   the response, at the start of the buffer
+   * @return true if the response starts its question with the name of the query
+   */
+  private static boolean echoesName(final byte @NotNull [] query, final int nameLength,
+      final byte @NotNull [] response) {
+    for (int b = QUESTION_OFFSET; b < QUESTION_OFFSET + nameLength; b++) {
+      if (toLowerCase(query[b]) != toLowerCase(response[b])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Lower cases an ASCII letter.
+   *
+   * @param b the byte
+   * @return the lower case letter, or the byte if it is not an upper case ASCII letter
+   */
+  private static byte toLowerCase(final byte b) {
+    return 'A' <= b && 'Z' >= b ? (byte) (b + ('a' - 'A')) : b;
+  }
+
+  /**
+   * Reads an unsigned short.
+   *
+   * @param bytes  the bytes to read from
+   * @param offset the offset of the short
+   * @return the unsigned short
+   */
+  private static int readUnsignedShort(final byte @NotNull [] bytes, final int offset) {
+    return (bytes[offset] & 0xFF) << 8 | bytes[offset + 1] & 0xFF;
+  }
+
+  /**
+   * Key of a cached response: the flags of the query with its RD flag cleared, its question with its name lower cased,
+   * its EDNS parameters, and the maximum response size.
+   */
+  private static final class Key {
+
+    private final byte @NotNull [] bytes;
+    private final int maxLength;
+    private final int nameLength;
+    private final int hash;
+
+    /**
+     * Valued constructor.
+     *
+     * @param bytes      the normalized flags, question and EDNS parameters of the query
+     * @param maxLength  the maximum length of the response
+     * @param nameLength the length of the question name
+     */
+    private Key(final byte @NotNull [] bytes, final int maxLength, final int nameLength) {
+      this.bytes = bytes;
+      this.maxLength = maxLength;
+      this.nameLength = nameLength;
+      hash = 31 * Arrays.hashCode(bytes) + maxLength;
+    }
+
+    /**
+     * Creates the key of a query.
+     *
+     * @param query       the query message
+     * @param queryLength the length of the query message
+     * @param edns        the EDNS parameters of the query, null if it has none
+     * @param maxLength   the maximum length of the response
+     * @return the key, or null if the query is not cached
+     */
+    private static @Nullable Key of(final byte @NotNull [] query, final int queryLength, final @Nullable Edns edns,
+        final int maxLength) {
+      if (QUESTION_OFFSET > queryLength || 1 != readUnsignedShort(query, QDCOUNT_OFFSET)) {
+        return null;
+      }
+      int i = QUESTION_OFFSET;
+      while (i < queryLength && 0 != query[i]) {
+        if (0 != (query[i] & LABEL_TYPE_MASK)) {
+          return null;
+        }
+        i += 1 + query[i];
+      }
+      final int nameLength = i + 1 - QUESTION_OFFSET;
+      final int questionEnd = i + 1 + QUESTION_FIELDS_LENGTH;
+      if (questionEnd > queryLength) {
+        return null;
+      }
+      // Flags, question, then the EDNS parameters
+      final int questionLength = questionEnd - QUESTION_OFFSET;
+      final byte[] bytes = new byte[FLAGS_LENGTH + questionLength + (null == edns ? 1 : EDNS_KEY_LENGTH)];
+      System.arraycopy(query, FLAGS_OFFSET, bytes, 0, FLAGS_LENGTH);
+      bytes[0] &= (byte) ~RD_MASK;
+      System.arraycopy(query, QUESTION_OFFSET, bytes, FLAGS_LENGTH, questionLength);
+      // Names are compared ignoring ASCII case (RFC 4343), label lengths being below 'A'
+      for (int b = FLAGS_LENGTH; b < FLAGS_LENGTH + nameLength; b++) {
+        bytes[b] = toLowerCase(bytes[b]);
+      }
+      if (null != edns) {
+        int b = FLAGS_LENGTH + questionLength;
+        bytes[b++] = 1;
+        bytes[b++] = (byte) (edns.udpPayloadSize() >>> 8);
+        bytes[b++] = (byte) edns.udpPayloadSize();
+        bytes[b++] = (byte) edns.version();
+        bytes[b] = (byte) (edns.dnssecOk() ? 1 : 0);
+      }
+      return new Key(bytes, maxLength, nameLength);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof final Key that)) {
+        return false;
+      }
+      return hash == that.hash && maxLength == that.maxLength && Arrays.equals(bytes, that.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * Segment of the cache, an access ordered map evicting its least recently used entries once over its capacity.
+   */
+  private static final class Segment {
+
+    private final @NotNull Map<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long capacity;
+    private long bytes;
+    private long generation;
+
+    /**
+     * Valued constructor.
+     *
+     * @param capacity the maximum number of bytes of the entries of the segment
+     */
+    private Segment(final long capacity) {
+      this.capacity = capacity;
+    }
+
+    /**
+     * Gets a cached response, marking it as the most recently used.
+     *
+     * @param key the key of the response
+     * @return the response, or null if it is not cached
+     */
+    private synchronized byte @Nullable [] get(final @NotNull Key key) {
+      return entries.get(key);
+    }
+
+    /**
+     * Caches a response, unless the segment was cleared since it was resolved.
+     *
+     * @param key                the key of the response
+     * @param response           the response
+     * @param resolvedGeneration the generation of the cache when the response started being resolved
+     * @return the number of entries evicted
+     */
+    private synchronized int put(final @NotNull Key key, final byte @NotNull [] response,
+        final long resolvedGeneration) {
+      final long size = sizeOf(key, response);
+      if (resolvedGeneration != generation || size > capacity) {
+        return 0;
+      }
+      final byte[] previous = entries.put(key, response);
+      bytes += size - (null == previous ? 0 : sizeOf(key, previous));
+      int evicted = 0;
+      final Iterator<Map.Entry<Key, byte[]>> eldest = entries.entrySet().iterator();
+      while (bytes > capacity) {
+        final Map.Entry<Key, byte[]> entry = eldest.next();
+        bytes -= sizeOf(entry.getKey(), entry.getValue());
+        eldest.remove();
+        evicted++;
+      }
+      return evicted;
+    }
+
+    /**
+     * Removes all the entries.
+     *
+     * @param generation the new generation of the cache
+     */
+    private synchronized void clear(final long generation) {
+      entries.clear();
+      bytes = 0;
+      this.generation = generation;
+    }
+
+    /**
+     * Gets the number of bytes of the entries.
+     *
+     * @return the bytes of the entries
+     */
+    private synchronized long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Estimates the bytes of an entry.
+     *
+     * @param key      the key of the entry
+     * @param response the response of the entry
+     * @return the bytes of the entry
+     */
+    private static long sizeOf(final @NotNull Key key, final byte @NotNull [] response) {
+      return ENTRY_OVERHEAD + key.bytes.length + response.length;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package fr.lehtto.jaser.dns.entity;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
@@ -8,7 +9,7 @@ import org.jetbrains.annotations.Range;
  * IPV4 address entity.
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -49,9 +50,14 @@ public record AddressV4(byte @NotNull [] address) implements Writable {
     return new AddressV4(bytes);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    return Arrays.copyOf(address, getLength());
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    buffer.put(address);
   }
 
   /**
@@ -10,7 +10,7 @@ import org.jetbrains.annotations.Range;
  * IPV6 address entity.
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -62,18 +62,16 @@ public record AddressV6(short @NotNull[] address) implements Writable {
     return new AddressV6(shorts);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull[] getBytes() {
-    return ByteBuffer.allocate(getLength())
-        .putShort(address[0])
-        .putShort(address[1])
-        .putShort(address[2])
-        .putShort(address[3])
-        .putShort(address[4])
-        .putShort(address[5])
-        .putShort(address[6])
-        .putShort(address[7])
-        .array();
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    for (final short group : address) {
+      buffer.putShort(group);
+    }
   }
 
   /**
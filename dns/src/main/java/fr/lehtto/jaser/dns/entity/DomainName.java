@@ -1,9 +1,7 @@
 package fr.lehtto.jaser.dns.entity;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.StringJoiner;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -11,7 +9,7 @@ import org.jetbrains.annotations.NotNull;
  *
  * @author lehtto
  * @since 0.2.0
- * @version 1.0.0
+ * @version 1.1.0
  */
 @SuppressWarnings("NumericCastThatLosesPrecision")
 public final class DomainName implements Writable {
@@ -48,27 +46,25 @@ public final class DomainName implements Writable {
    * @return the domain name
    */
   public static DomainName of(final String @NotNull [] labels) {
-    final StringJoiner joiner = new StringJoiner(".");
-    for (final String label : labels) {
-      joiner.add(label);
-    }
-    return new DomainName(labels, joiner.toString());
+    return new DomainName(labels, String.join(".", labels));
   }
 
   /**
-   * Gets the value of this domain name as a byte array.
+   * {@inheritDoc}
    *
-   * @return the domain name as a byte array.
+   * @since 1.1.0
    */
   @Override
-  public byte @NotNull [] getBytes() {
-    final ByteBuffer byteBuffer = ByteBuffer.allocate(getLength());
+  public void writeTo(final @NotNull ByteBuffer buffer) {
     for (final String label : labels) {
-      byteBuffer.put((byte) label.length());
-      byteBuffer.put(label.getBytes(StandardCharsets.UTF_8));
+      final int length = label.length();
+      buffer.put((byte) length);
+      // One byte per character, labels being decoded as ISO-8859-1, as getLength assumes
+      for (int c = 0; c < length; c++) {
+        buffer.put((byte) label.charAt(c));
+      }
     }
-    byteBuffer.put((byte) 0);
-    return byteBuffer.array();
+    buffer.put((byte) 0);
   }
 
   /**
@@ -78,8 +74,11 @@ public final class DomainName implements Writable {
    */
   @Override
   public int getLength() {
-    final Integer totalLabelLength = Arrays.stream(labels).map(String::length).reduce(0, Integer::sum);
-    return totalLabelLength + labels.length + 1;
+    int length = labels.length + 1;
+    for (final String label : labels) {
+      length += label.length();
+    }
+    return length;
   }
 
   /**
@@ -0,0 +1,98 @@
+package fr.lehtto.jaser.dns.entity;
+
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * EDNS(0) parameters, carried by the OPT pseudo-record of the additional section (RFC 6891).
+ * <p>
+ * Options are not supported, they are ignored when reading and never written.
+ *
+ * @param udpPayloadSize the largest UDP response the sender can receive, in bytes
+ * @param extendedRcode  the upper 8 bits of the 12 bits response code
+ * @param version        the EDNS version
+ * @param dnssecOk       whether the sender supports DNSSEC records
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
+public record Edns(int udpPayloadSize, int extendedRcode, int version, boolean dnssecOk) implements Writable {
+
+  /**
+   * The only supported EDNS version.
+   */
+  public static final int VERSION = 0;
+
+  /**
+   * Extended response code answered to queries with an unsupported EDNS version (BADVERS, 16), without its lower 4 bits
+   * carried by the header.
+   */
+  public static final int BAD_VERSION = 1;
+
+  /**
+   * Smallest UDP payload size, every client accepting responses of the size allowed without EDNS.
+   */
+  public static final int MIN_UDP_PAYLOAD_SIZE = 512;
+
+  /**
+   * Size of the OPT pseudo-record without options: root name, type, class, TTL and data length.
+   */
+  private static final int OPT_LENGTH = 11;
+
+  private static final int DNSSEC_OK_MASK = 0x8000;
+
+  /**
+   * Creates the EDNS parameters of a response.
+   *
+   * @param udpPayloadSize the largest UDP response the server can receive, in bytes
+   * @return the EDNS parameters
+   */
+  public static @NotNull Edns of(final int udpPayloadSize) {
+    return of(udpPayloadSize, false);
+  }
+
+  /**
+   * Creates the EDNS parameters of a response, the DO bit being copied from the query (RFC 3225 section 3).
+   *
+   * @param udpPayloadSize the largest UDP response the server can receive, in bytes
+   * @param dnssecOk       whether the query had the DO bit set
+   * @return the EDNS parameters
+   */
+  public static @NotNull Edns of(final int udpPayloadSize, final boolean dnssecOk) {
+    return new Edns(udpPayloadSize, 0, VERSION, dnssecOk);
+  }
+
+  /**
+   * Gets the largest UDP response the sender can receive, values below 512 being treated as 512.
+   *
+   * @return the UDP payload size, in bytes
+   */
+  public int getEffectiveUdpPayloadSize() {
+    return Math.max(MIN_UDP_PAYLOAD_SIZE, udpPayloadSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    // Root domain name
+    buffer.put((byte) 0);
+    buffer.putShort(Type.OPT.getTypeValue());
+    buffer.putShort((short) udpPayloadSize);
+    buffer.put((byte) extendedRcode);
+    buffer.put((byte) version);
+    buffer.putShort((short) (dnssecOk ? DNSSEC_OK_MASK : 0));
+    // No options
+    buffer.putShort((short) 0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getLength() {
+    return OPT_LENGTH;
+  }
+}
@@ -3,13 +3,14 @@ package fr.lehtto.jaser.dns.entity;
 import fr.lehtto.jaser.dns.entity.enumration.OpCode;
 import fr.lehtto.jaser.dns.entity.enumration.QR;
 import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import java.nio.ByteBuffer;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * DNS flags.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
@@ -50,13 +51,13 @@ public record Flags(@NotNull QR qr, @NotNull OpCode opcode, boolean aa, boolean
 
   /**
    * {@inheritDoc}
+   *
+   * @since 1.1.0
    */
   @Override
-  public byte[] getBytes() {
-    return new byte[]{
-        (byte) (qr.getValue() << 7 | opcode.getValue() << 3 | (aa ? 0x4 : 0) | (tc ? 0x2 : 0) | (rd ? 0x1 : 0)),
-        (byte) ((ra ? 0x80 : 0) | z << 4 | rcode.getValue())
-    };
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    buffer.put((byte) (qr.getValue() << 7 | opcode.getValue() << 3 | (aa ? 0x4 : 0) | (tc ? 0x2 : 0) | (rd ? 0x1 : 0)));
+    buffer.put((byte) ((ra ? 0x80 : 0) | z << 4 | rcode.getValue()));
   }
 
   /**
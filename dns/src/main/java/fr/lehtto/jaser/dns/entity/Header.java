@@ -9,7 +9,7 @@ import org.slf4j.LoggerFactory;
  * DNS header.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public record Header(short id, @NotNull Flags flags, short qdcount,
@@ -47,19 +47,17 @@ public record Header(short id, @NotNull Flags flags, short qdcount,
 
   /**
    * {@inheritDoc}
+   *
+   * @since 1.1.0
    */
   @Override
-  public byte[] getBytes() {
-    final byte[] bytes = new byte[HEADER_SIZE];
-    final ByteBuffer bb = ByteBuffer.wrap(bytes);
-    bb.putShort(id);
-    bb.put(flags.getBytes());
-    bb.putShort(qdcount);
-    bb.putShort(ancount);
-    bb.putShort(nscount);
-    bb.putShort(arcount);
-
-    return bytes;
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    buffer.putShort(id);
+    flags.writeTo(buffer);
+    buffer.putShort(qdcount);
+    buffer.putShort(ancount);
+    buffer.putShort(nscount);
+    buffer.putShort(arcount);
   }
 
   /**
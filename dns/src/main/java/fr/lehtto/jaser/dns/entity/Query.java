@@ -1,11 +1,11 @@
 package fr.lehtto.jaser.dns.entity;
 
-import static fr.lehtto.jaser.dns.entity.Header.HEADER_SIZE;
-
 import com.jcabi.aspects.Loggable;
-import fr.lehtto.jaser.dns.entity.parser.HeaderParser;
+import fr.lehtto.jaser.dns.entity.parser.EdnsParser;
 import fr.lehtto.jaser.dns.entity.parser.QuestionParser;
-import java.util.Arrays;
+import fr.lehtto.jaser.dns.entity.view.HeaderView;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -15,13 +15,27 @@ import org.slf4j.LoggerFactory;
 /**
  * DNS query.
  *
+ * @param header    the header
+ * @param questions the questions
+ * @param edns      the EDNS parameters, null if the client does not support EDNS
  * @author Lehtto
+ * @version 1.1.0
  * @since 0.1.0
  */
-public record Query(@NotNull Header header, @NotNull List<Question> questions) {
+public record Query(@NotNull Header header, @NotNull List<Question> questions, @Nullable Edns edns) {
 
   private static final Logger LOG = LoggerFactory.getLogger(Query.class);
 
+  /**
+   * Valued constructor, for a query without EDNS.
+   *
+   * @param header    the header
+   * @param questions the questions
+   */
+  public Query(final @NotNull Header header, final @NotNull List<Question> questions) {
+    this(header, questions, null);
+  }
+
   /**
    * Reads a DNS query from a socket.
    *
@@ -29,18 +43,35 @@ public record Query(@NotNull Header header, @NotNull List<Question> questions) {
    * @param length the length of the bytes to read
    * @return the query
    */
-  @Loggable(Loggable.DEBUG)
   public static @NotNull Query read(final byte[] bytes, final int length) {
-    LOG.trace("Read {} bytes", length);
+    return read(ByteBuffer.wrap(bytes, 0, length));
+  }
 
-    // Read the header
-    final Header header =
-        HeaderParser.parse(Arrays.copyOfRange(bytes, 0, HEADER_SIZE));
+  /**
+   * Reads a DNS query straight from the message buffer, through views over its header and questions.
+   * <p>
+   * Only the returned header, questions and names are allocated, the message is neither copied nor split. A question
+   * of an unknown class is left out, the query then being answered with a format error.
+   *
+   * @param message the message, from its position to its limit
+   * @return the query
+   * @throws IllegalArgumentException if the message is truncated or holds more than one OPT record
+   * @since 1.1.0
+   */
+  @Loggable(Loggable.DEBUG)
+  public static @NotNull Query read(final @NotNull ByteBuffer message) {
+    LOG.trace("Read {} bytes", message.remaining());
+
+    // View the header
+    final HeaderView header = new HeaderView().wrap(message, message.position());
     // Read the questions
-    final List<Question> questions =
-        QuestionParser.parse(bytes, HEADER_SIZE, length);
+    final int count = header.qdcount();
+    final List<Question> questions = new ArrayList<>(count);
+    final int offset = QuestionParser.parse(message, message.position() + HeaderView.HEADER_SIZE, count, questions);
+    // Read the EDNS parameters from the additional section
+    final Edns edns = EdnsParser.parse(message, offset, header);
 
-    return new Query(header, questions);
+    return new Query(header.toHeader(), questions, edns);
   }
 
   /**
@@ -64,6 +95,7 @@ public record Query(@NotNull Header header, @NotNull List<Question> questions) {
 
     private @Nullable Header header;
     private @Nullable List<Question> questions;
+    private @Nullable Edns edns;
 
     /**
      * Default constructor.
@@ -71,6 +103,7 @@ public record Query(@NotNull Header header, @NotNull List<Question> questions) {
     private Builder() {
       header = null;
       questions = null;
+      edns = null;
     }
 
     /**
@@ -81,6 +114,7 @@ public record Query(@NotNull Header header, @NotNull List<Question> questions) {
     private Builder(final @NotNull Query query) {
       header = query.header;
       questions = query.questions;
+      edns = query.edns;
     }
 
     /**
@@ -105,6 +139,17 @@ public record Query(@NotNull Header header, @NotNull List<Question> questions) {
       return this;
     }
 
+    /**
+     * Sets the EDNS parameters.
+     *
+     * @param edns the EDNS parameters, null if the client does not support EDNS
+     * @return the builder
+     */
+    public @NotNull Builder edns(final @Nullable Edns edns) {
+      this.edns = edns;
+      return this;
+    }
+
     /**
      * Builds the query.
      *
@@ -117,7 +162,7 @@ public record Query(@NotNull Header header, @NotNull List<Question> questions) {
       if (null == questions) {
         throw new IllegalStateException("Questions is not set");
       }
-      return new Query(header, questions);
+      return new Query(header, questions, edns);
     }
   }
 }
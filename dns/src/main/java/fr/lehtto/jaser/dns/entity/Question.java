@@ -1,7 +1,7 @@
 package fr.lehtto.jaser.dns.entity;
 
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
-import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
 import java.nio.ByteBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -10,10 +10,10 @@ import org.jetbrains.annotations.Nullable;
  * DNS question.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
-public record Question(@NotNull DomainName name, @NotNull Type type,
+public record Question(@NotNull DomainName name, @NotNull RecordType type,
                        @NotNull DnsClass recordClass) implements Writable {
 
   /**
@@ -27,17 +27,14 @@ public record Question(@NotNull DomainName name, @NotNull Type type,
 
   /**
    * {@inheritDoc}
+   *
+   * @since 1.1.0
    */
   @Override
-  public byte @NotNull [] getBytes() {
-    final byte[] nameBytes = name.getBytes();
-    final byte[] typeBytes = type.getBytes();
-    final byte[] recordClassBytes = recordClass.getBytes();
-    final ByteBuffer byteBuffer = ByteBuffer.allocate(getLength());
-    byteBuffer.put(nameBytes);
-    byteBuffer.put(typeBytes);
-    byteBuffer.put(recordClassBytes);
-    return byteBuffer.array();
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    name.writeTo(buffer);
+    buffer.putShort(type.getTypeValue());
+    buffer.putShort(recordClass.getValue());
   }
 
   /**
@@ -65,7 +62,7 @@ public record Question(@NotNull DomainName name, @NotNull Type type,
   public static final class Builder {
 
     private @Nullable DomainName name;
-    private @Nullable Type type;
+    private @Nullable RecordType type;
     private @Nullable DnsClass recordClass;
 
     /**
@@ -105,7 +102,7 @@ public record Question(@NotNull DomainName name, @NotNull Type type,
      * @param type the type
      * @return the builder
      */
-    public @NotNull Builder type(final @NotNull Type type) {
+    public @NotNull Builder type(final @NotNull RecordType type) {
       this.type = type;
       return this;
     }
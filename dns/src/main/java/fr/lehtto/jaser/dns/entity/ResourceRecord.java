@@ -1,10 +1,13 @@
 package fr.lehtto.jaser.dns.entity;
 
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
-import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata.NameWriter;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
 import java.nio.ByteBuffer;
 import java.util.Objects;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
@@ -13,7 +16,7 @@ import org.jetbrains.annotations.Range;
  * DNS resource record (RFC 1035 section 4.1.3).
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -21,16 +24,30 @@ public final class ResourceRecord implements Writable {
 
   private static final int TTL_LENGTH = 4;
   private static final int LENGTH_RDATA_LENGTH = 2;
-  private static final int POINTER_LENGTH = 2;
-  private static final short POINTER_MASK = (short) 0xc000;
+
+  /**
+   * Length of the type, class and TTL, before the RDATA length.
+   */
+  private static final int TYPE_CLASS_TTL_LENGTH = 8;
+
+  /**
+   * Name of the compressed resource records, their owner name being the one pointed to.
+   */
+  private static final DomainName ROOT = DomainName.of("");
+
   private final boolean useCompression;
   private final Writable pointer;
   private final @NotNull DomainName name;
-  private final @NotNull Type type;
+  private final @NotNull RecordType type;
   private final @NotNull DnsClass recordClass;
   private final @Range(from = 0, to = Integer.MAX_VALUE) int ttl;
   private final @NotNull Rdata data;
-  private short pointerShort = -1;
+
+  /**
+   * Type, class, TTL, RDATA length and RDATA, its names written in full, encoded once for all the messages the record
+   * is written to, or null if they are encoded each time.
+   */
+  private final byte @Nullable [] encodedFields;
 
   /**
    * Valued constructor.
@@ -42,7 +59,7 @@ public final class ResourceRecord implements Writable {
    * @param data        the data of the resource record
    */
   public ResourceRecord(final @NotNull DomainName name,
-      final @NotNull Type type,
+      final @NotNull RecordType type,
       final @NotNull DnsClass recordClass,
       final @Range(from = 0, to = Integer.MAX_VALUE) int ttl,
       final @NotNull Rdata data) {
@@ -53,6 +70,7 @@ public final class ResourceRecord implements Writable {
     this.recordClass = recordClass;
     this.ttl = ttl;
     this.data = data;
+    this.encodedFields = null;
   }
 
   /**
@@ -65,17 +83,46 @@ public final class ResourceRecord implements Writable {
    * @param data        the data of the resource record
    * @since 1.0.0
    */
-  public ResourceRecord(final Writable pointer, final @NotNull Type type,
+  public ResourceRecord(final Writable pointer, final @NotNull RecordType type,
       final @NotNull DnsClass recordClass,
       final @Range(from = 0, to = Integer.MAX_VALUE) int ttl,
       final @NotNull Rdata data) {
     this.useCompression = true;
     this.pointer = pointer;
-    this.name = DomainName.of("");
+    this.name = ROOT;
+    this.type = type;
+    this.recordClass = recordClass;
+    this.ttl = ttl;
+    this.data = data;
+    this.encodedFields = null;
+  }
+
+  /**
+   * Valued constructor.
+   *
+   * @param useCompression whether the name is a pointer
+   * @param pointer        the pointer to the name (if useCompression is true)
+   * @param name           the name of the resource record (if useCompression is false)
+   * @param type           the type of the resource record
+   * @param recordClass    the class of the resource record
+   * @param ttl            the time to live of the resource record
+   * @param data           the data of the resource record
+   * @param encodedFields  the encoded fields following the name, or null to encode them each time
+   * @since 1.1.0
+   */
+  @SuppressWarnings("ConstructorWithTooManyParameters")
+  private ResourceRecord(final boolean useCompression, final @Nullable Writable pointer,
+      final @NotNull DomainName name, final @NotNull RecordType type, final @NotNull DnsClass recordClass,
+      final @Range(from = 0, to = Integer.MAX_VALUE) int ttl, final @NotNull Rdata data,
+      final byte @Nullable [] encodedFields) {
+    this.useCompression = useCompression;
+    this.pointer = pointer;
+    this.name = name;
     this.type = type;
     this.recordClass = recordClass;
     this.ttl = ttl;
     this.data = data;
+    this.encodedFields = encodedFields;
   }
 
   /**
@@ -98,32 +145,96 @@ public final class ResourceRecord implements Writable {
 
   /**
    * {@inheritDoc}
+   *
+   * @since 1.1.0
    */
   @Override
-  public byte @NotNull [] getBytes() {
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    owner().writeTo(buffer);
+    writeFieldsTo(buffer);
+  }
 
-    final byte[] nameBytes = name.getBytes();
-    final byte[] typeBytes = type.getBytes();
-    final byte[] recordClassBytes = recordClass.getBytes();
-    final byte[] dataBytes = data.getBytes();
+  /**
+   * Writes the fields following the owner name to a buffer: the type, class, TTL, RDATA length and RDATA, its names
+   * written in full.
+   *
+   * @param buffer the buffer to write to, at its position
+   * @since 1.1.0
+   */
+  @Contract(mutates = "param1")
+  public void writeFieldsTo(final @NotNull ByteBuffer buffer) {
+    if (null != encodedFields) {
+      buffer.put(encodedFields);
+      return;
+    }
+    buffer.putShort(type.getTypeValue());
+    buffer.putShort(recordClass.getValue());
+    buffer.putInt(ttl);
+    buffer.putShort((short) data.getLength());
+    data.writeTo(buffer);
+  }
 
-    final ByteBuffer byteBuffer = ByteBuffer.allocate(getLength());
-    if (useCompression) {
-      if (-1 == pointerShort) {
-        throw new IllegalStateException(
-            "The pointer has not been resolved yet.");
-      }
-      byteBuffer.putShort((short) (pointerShort | POINTER_MASK));
+  /**
+   * Writes the fields following the owner name to a buffer, the names of {@link CompressibleRdata compressible RDATA}
+   * being written by the given name writer.
+   * <p>
+   * Once {@link #withEncodedFields() encoded}, only the names go through the name writer, the bytes around them being
+   * copied.
+   *
+   * @param buffer     the buffer to write to, at its position
+   * @param nameWriter the writer of the names of the RDATA
+   * @since 1.1.0
+   */
+  @Contract(mutates = "param1")
+  @SuppressWarnings("NumericCastThatLosesPrecision")
+  public void writeFieldsTo(final @NotNull ByteBuffer buffer, final @NotNull NameWriter nameWriter) {
+    if (!(data instanceof final CompressibleRdata compressibleRdata)) {
+      writeFieldsTo(buffer);
+      return;
+    }
+    final int rdlengthOffset = buffer.position() + TYPE_CLASS_TTL_LENGTH;
+    if (null == encodedFields) {
+      buffer.putShort(type.getTypeValue());
+      buffer.putShort(recordClass.getValue());
+      buffer.putInt(ttl);
+      buffer.position(rdlengthOffset + LENGTH_RDATA_LENGTH);
+      compressibleRdata.writeTo(buffer, nameWriter);
     } else {
-      byteBuffer.put(nameBytes);
+      // The names follow each other from their offset, the bytes before and after them are copied
+      final int namesOffset = TYPE_CLASS_TTL_LENGTH + LENGTH_RDATA_LENGTH
+          + compressibleRdata.getCompressibleNamesOffset();
+      buffer.put(encodedFields, 0, TYPE_CLASS_TTL_LENGTH);
+      buffer.position(rdlengthOffset + LENGTH_RDATA_LENGTH);
+      buffer.put(encodedFields, TYPE_CLASS_TTL_LENGTH + LENGTH_RDATA_LENGTH,
+                 compressibleRdata.getCompressibleNamesOffset());
+      int namesEnd = namesOffset;
+      for (final DomainName compressibleName : compressibleRdata.getCompressibleNames()) {
+        nameWriter.write(compressibleName, buffer);
+        namesEnd += compressibleName.getLength();
+      }
+      buffer.put(encodedFields, namesEnd, encodedFields.length - namesEnd);
     }
-    byteBuffer.put(typeBytes);
-    byteBuffer.put(recordClassBytes);
-    byteBuffer.putInt(ttl);
-    byteBuffer.putShort((short) dataBytes.length);
-    byteBuffer.put(dataBytes);
+    // The RDATA length is known once the RDATA is written, its names being compressed
+    buffer.putShort(rdlengthOffset, (short) (buffer.position() - rdlengthOffset - LENGTH_RDATA_LENGTH));
+  }
 
-    return byteBuffer.array();
+  /**
+   * Gets the resource record with the fields following its owner name encoded once, so that writing it copies them.
+   * <p>
+   * The names of {@link CompressibleRdata compressible RDATA} are encoded in full, and only them are compressed when
+   * {@link #writeFieldsTo(ByteBuffer, NameWriter) written} to a message. The encoded fields are kept by the
+   * {@link #toBuilder() builder} of the record, until one of them is changed.
+   *
+   * @return the resource record with its fields encoded, or this record if they are already encoded
+   * @since 1.1.0
+   */
+  public @NotNull ResourceRecord withEncodedFields() {
+    if (null != encodedFields) {
+      return this;
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(getLength() - owner().getLength());
+    writeFieldsTo(buffer);
+    return new ResourceRecord(useCompression, pointer, name, type, recordClass, ttl, data, buffer.array());
   }
 
   /**
@@ -133,8 +244,27 @@ public final class ResourceRecord implements Writable {
    */
   @Override
   public int getLength() {
-    return type.getLength() + recordClass.getLength() + TTL_LENGTH + LENGTH_RDATA_LENGTH +
-        (useCompression ? POINTER_LENGTH : name.getLength()) + data.getLength();
+    return owner().getLength() + type.getLength() + recordClass.getLength() + TTL_LENGTH + LENGTH_RDATA_LENGTH
+        + data.getLength();
+  }
+
+  /**
+   * Gets the owner name of the resource record, the name pointed to if the resource record is compressed.
+   *
+   * @return the owner name
+   * @since 1.1.0
+   */
+  public @NotNull DomainName owner() {
+    if (!useCompression) {
+      return name;
+    }
+    if (pointer instanceof final DomainName domainName) {
+      return domainName;
+    }
+    if (pointer instanceof final Question question) {
+      return question.name();
+    }
+    throw new IllegalStateException("Cannot get a name from the pointer: " + pointer);
   }
 
   /**
@@ -151,7 +281,7 @@ public final class ResourceRecord implements Writable {
    *
    * @return the type of the resource record
    */
-  public @NotNull Type type() {
+  public @NotNull RecordType type() {
     return type;
   }
 
@@ -203,16 +333,6 @@ public final class ResourceRecord implements Writable {
     return pointer;
   }
 
-  /**
-   * Sets the pointer value.
-   *
-   * @param pointer pointer value
-   * @since 1.0.0
-   */
-  public void pointerShort(final int pointer) {
-    this.pointerShort = (short) pointer;
-  }
-
   @Override
   public boolean equals(final Object obj) {
     if (obj == this) {
@@ -243,8 +363,7 @@ public final class ResourceRecord implements Writable {
         + "type=" + type + ", "
         + "recordClass=" + recordClass + ", "
         + "ttl=" + ttl + ", "
-        + "data=" + data + ", "
-        + "pointerShort=" + pointerShort + ']';
+        + "data=" + data + ']';
   }
 
   /**
@@ -255,10 +374,11 @@ public final class ResourceRecord implements Writable {
     private boolean useCompression;
     private Writable pointer;
     private DomainName name;
-    private Type type;
+    private RecordType type;
     private DnsClass recordClass;
     private int ttl;
     private Rdata data;
+    private byte[] encodedFields;
 
     /**
      * Default constructor.
@@ -271,6 +391,7 @@ public final class ResourceRecord implements Writable {
       recordClass = null;
       ttl = -1;
       data = null;
+      encodedFields = null;
     }
 
     /**
@@ -292,6 +413,7 @@ public final class ResourceRecord implements Writable {
       recordClass = resourceRecord.recordClass();
       ttl = resourceRecord.ttl();
       data = resourceRecord.data();
+      encodedFields = resourceRecord.encodedFields;
     }
 
     /**
@@ -325,8 +447,9 @@ public final class ResourceRecord implements Writable {
      * @param type the type of the resource record.
      * @return the builder.
      */
-    public Builder type(final @NotNull Type type) {
+    public Builder type(final @NotNull RecordType type) {
       this.type = type;
+      encodedFields = null;
       return this;
     }
 
@@ -338,6 +461,7 @@ public final class ResourceRecord implements Writable {
      */
     public Builder recordClass(final @NotNull DnsClass recordClass) {
       this.recordClass = recordClass;
+      encodedFields = null;
       return this;
     }
 
@@ -349,6 +473,7 @@ public final class ResourceRecord implements Writable {
      */
     public Builder ttl(final @Range(from = 0, to = Integer.MAX_VALUE) int ttl) {
       this.ttl = ttl;
+      encodedFields = null;
       return this;
     }
 
@@ -360,6 +485,7 @@ public final class ResourceRecord implements Writable {
      */
     public Builder data(final @NotNull Rdata data) {
       this.data = data;
+      encodedFields = null;
       return this;
     }
 
@@ -394,9 +520,9 @@ public final class ResourceRecord implements Writable {
         throw new IllegalArgumentException("data is not set.");
       }
       if (useCompression) {
-        return new ResourceRecord(pointer, type, recordClass, ttl, data);
+        return new ResourceRecord(true, pointer, ROOT, type, recordClass, ttl, data, encodedFields);
       }
-      return new ResourceRecord(name, type, recordClass, ttl, data);
+      return new ResourceRecord(false, null, name, type, recordClass, ttl, data, encodedFields);
     }
   }
 }
@@ -2,19 +2,45 @@ package fr.lehtto.jaser.dns.entity;
 
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * DNS response entity.
  *
+ * @param header            the header
+ * @param questions         the questions
+ * @param answerRecords     the answer records
+ * @param authorityRecords  the authority records
+ * @param additionalRecords the additional records
+ * @param edns              the EDNS parameters, written as an OPT pseudo-record after the additional records, null
+ *                          if the query did not use EDNS
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public record Response(@NotNull Header header,
                        @NotNull List<Question> questions,
                        @NotNull List<ResourceRecord> answerRecords,
                        @NotNull List<ResourceRecord> authorityRecords,
-                       @NotNull List<ResourceRecord> additionalRecords) {
+                       @NotNull List<ResourceRecord> additionalRecords,
+                       @Nullable Edns edns) {
+
+  /**
+   * Valued constructor, for a response without EDNS.
+   *
+   * @param header            the header
+   * @param questions         the questions
+   * @param answerRecords     the answer records
+   * @param authorityRecords  the authority records
+   * @param additionalRecords the additional records
+   */
+  public Response(final @NotNull Header header,
+                  final @NotNull List<Question> questions,
+                  final @NotNull List<ResourceRecord> answerRecords,
+                  final @NotNull List<ResourceRecord> authorityRecords,
+                  final @NotNull List<ResourceRecord> additionalRecords) {
+    this(header, questions, answerRecords, authorityRecords, additionalRecords, null);
+  }
 
   /**
    * Creates a new builder.
@@ -44,6 +70,7 @@ public record Response(@NotNull Header header,
     private List<ResourceRecord> answers;
     private List<ResourceRecord> authorityRecords;
     private List<ResourceRecord> additionalRecords;
+    private Edns edns;
 
     /**
      * Default constructor.
@@ -54,6 +81,7 @@ public record Response(@NotNull Header header,
       answers = null;
       authorityRecords = null;
       additionalRecords = null;
+      edns = null;
     }
 
     /**
@@ -67,6 +95,7 @@ public record Response(@NotNull Header header,
       answers = response.answerRecords;
       authorityRecords = response.authorityRecords;
       additionalRecords = response.additionalRecords;
+      edns = response.edns;
     }
 
     /**
@@ -164,6 +193,17 @@ public record Response(@NotNull Header header,
       return this;
     }
 
+    /**
+     * Sets the EDNS parameters of the response.
+     *
+     * @param edns the EDNS parameters, null if the query did not use EDNS
+     * @return this builder
+     */
+    public Builder edns(final @Nullable Edns edns) {
+      this.edns = edns;
+      return this;
+    }
+
     /**
      * Builds the response.
      *
@@ -185,7 +225,7 @@ public record Response(@NotNull Header header,
       if (null == additionalRecords) {
         throw new IllegalStateException("Additional records are not set");
       }
-      return new Response(header, questions, answers, authorityRecords, additionalRecords);
+      return new Response(header, questions, answers, authorityRecords, additionalRecords, edns);
     }
   }
 }
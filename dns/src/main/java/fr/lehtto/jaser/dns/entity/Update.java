@@ -0,0 +1,36 @@
+package fr.lehtto.jaser.dns.entity;
+
+import fr.lehtto.jaser.dns.entity.parser.UpdateParser;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * DNS UPDATE message (RFC 2136 section 2).
+ * <p>
+ * The sections of an UPDATE message reuse the ones of a query: the zone section is the question section, the
+ * prerequisite section the answer section, and the update section the authority section. The class and the TTL of
+ * their records tell what they stand for, a {@link fr.lehtto.jaser.dns.entity.enumration.DnsClass#NONE NONE} or
+ * {@link fr.lehtto.jaser.dns.entity.enumration.DnsClass#ANY ANY} record having empty RDATA or RDATA to compare with.
+ *
+ * @param header        the header
+ * @param zone          the zone section, naming the zone to update
+ * @param prerequisites the prerequisite section, the records or RRsets which must exist or not
+ * @param updates       the update section, the records or RRsets to add or delete
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public record Update(@NotNull Header header, @NotNull Question zone, @NotNull List<ResourceRecord> prerequisites,
+                     @NotNull List<ResourceRecord> updates) {
+
+  /**
+   * Reads a DNS UPDATE message.
+   *
+   * @param message the message, from its position to its limit
+   * @return the update
+   * @throws IllegalArgumentException if the message is truncated, malformed, or does not have exactly one zone
+   */
+  public static @NotNull Update read(final @NotNull ByteBuffer message) {
+    return UpdateParser.parse(message);
+  }
+}
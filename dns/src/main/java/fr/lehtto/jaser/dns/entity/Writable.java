@@ -1,12 +1,17 @@
 package fr.lehtto.jaser.dns.entity;
 
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * Writable interface.
+ * <p>
+ * Entities are encoded by {@link #writeTo(ByteBuffer)}, straight into the output buffer; {@link #getBytes()} copies
+ * the encoding to a new array.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public interface Writable {
@@ -16,7 +21,37 @@ public interface Writable {
    *
    * @return the array of bytes representing the entity
    */
-  byte @NotNull [] getBytes();
+  default byte @NotNull [] getBytes() {
+    final ByteBuffer buffer = ByteBuffer.allocate(getLength());
+    writeTo(buffer);
+    return buffer.array();
+  }
+
+  /**
+   * Writes the entity to a buffer, at its position, then moves the position past the entity.
+   *
+   * @param buffer the buffer to write to
+   * @throws java.nio.BufferOverflowException if the buffer has less than {@link #getLength()} bytes remaining
+   * @since 1.1.0
+   */
+  @Contract(mutates = "param1")
+  void writeTo(@NotNull ByteBuffer buffer);
+
+  /**
+   * Writes the entity to an array.
+   *
+   * @param buffer the array to write to
+   * @param offset the offset to write at
+   * @return the number of bytes written
+   * @throws IndexOutOfBoundsException if the entity does not fit in the array
+   * @since 1.1.0
+   */
+  @Contract(mutates = "param1")
+  default int writeTo(final byte @NotNull [] buffer, final int offset) {
+    final int length = getLength();
+    writeTo(ByteBuffer.wrap(buffer, offset, length));
+    return length;
+  }
 
   /**
    * Gets the length of the entity in bytes.
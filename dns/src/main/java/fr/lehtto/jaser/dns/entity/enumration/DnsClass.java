@@ -1,13 +1,16 @@
 package fr.lehtto.jaser.dns.entity.enumration;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * DNS resource record class.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
@@ -27,9 +30,41 @@ public enum DnsClass {
   /**
    * Hesiod (4) (Dyer 87).
    */
-  HS(4);
+  HS(4),
+  /**
+   * None (NONE) (254), only found in dynamic updates (RFC 2136).
+   *
+   * @since 1.1.0
+   */
+  NONE(254),
+  /**
+   * Any class (ANY) (255), only found in questions and dynamic updates.
+   *
+   * @since 1.1.0
+   */
+  ANY(255);
 
   private static final int CLASS_LENGTH = 2;
+
+  /**
+   * Classes by value, covering the whole 16 bits value space so that a lookup is a single array load.
+   */
+  private static final DnsClass @NotNull [] BY_VALUE = new DnsClass[1 << 16];
+
+  /**
+   * Classes by mnemonic, as found in master files, which hold no {@link #NONE} or {@link #ANY} record.
+   */
+  private static final Map<String, DnsClass> BY_MNEMONIC = new HashMap<>();
+
+  static {
+    for (final DnsClass dnsClass : values()) {
+      BY_VALUE[dnsClass.value & 0xFFFF] = dnsClass;
+      if (NONE != dnsClass && ANY != dnsClass) {
+        BY_MNEMONIC.put(dnsClass.name(), dnsClass);
+      }
+    }
+  }
+
   private final short value;
 
   /**
@@ -48,12 +83,29 @@ public enum DnsClass {
    * @return the class
    */
   public static Optional<DnsClass> fromValue(final short value) {
-    for (final DnsClass dnsClass : values()) {
-      if (dnsClass.value == value) {
-        return Optional.of(dnsClass);
-      }
-    }
-    return Optional.empty();
+    return Optional.ofNullable(lookup(value));
+  }
+
+  /**
+   * Gets class from value, without allocating.
+   *
+   * @param value the class value, only its lower 16 bits being used
+   * @return the class, or null if the class is unknown
+   * @since 1.1.0
+   */
+  public static @Nullable DnsClass lookup(final int value) {
+    return BY_VALUE[value & 0xFFFF];
+  }
+
+  /**
+   * Gets class from mnemonic, without throwing for an unknown one.
+   *
+   * @param mnemonic the class mnemonic, such as {@code IN}
+   * @return the class, or null if the class is unknown
+   * @since 1.1.0
+   */
+  public static @Nullable DnsClass lookup(final @NotNull String mnemonic) {
+    return BY_MNEMONIC.get(mnemonic);
   }
 
   /**
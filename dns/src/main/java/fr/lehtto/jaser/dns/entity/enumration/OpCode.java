@@ -1,9 +1,13 @@
 package fr.lehtto.jaser.dns.entity.enumration;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
 /**
  * DNS OPCODE enumeration.
  *
  * @author Lehtto
+ * @version 1.1.0
  * @since 0.1.0
  */
 @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -20,7 +24,24 @@ public enum OpCode {
   /**
    * TcpServer status request (STATUS) (2).
    */
-  STATUS_QUERY(0b0010);
+  STATUS_QUERY(0b0010),
+  /**
+   * Dynamic update (UPDATE) (5) (RFC 2136).
+   *
+   * @since 1.1.0
+   */
+  UPDATE(0b0101);
+
+  /**
+   * OpCodes by value, covering the whole 4 bits value space of the header field.
+   */
+  private static final OpCode @NotNull [] BY_VALUE = new OpCode[1 << 4];
+
+  static {
+    for (final OpCode opcode : values()) {
+      BY_VALUE[opcode.value] = opcode;
+    }
+  }
 
   private final byte value;
 
@@ -42,4 +63,14 @@ public enum OpCode {
     return value;
   }
 
+  /**
+   * Gets opcode from value, without allocating.
+   *
+   * @param value the opcode value, only its lower 4 bits being used
+   * @return the opcode, or null if the opcode is unknown
+   * @since 1.1.0
+   */
+  public static @Nullable OpCode lookup(final int value) {
+    return BY_VALUE[value & 0x0F];
+  }
 }
@@ -1,5 +1,8 @@
 package fr.lehtto.jaser.dns.entity.enumration;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
 /**
  * DNS RCODE enumeration.
  */
@@ -28,7 +31,48 @@ public enum RCode {
   /**
    * Refused (5).
    */
-  REFUSED(0b0101);
+  REFUSED(0b0101),
+  /**
+   * Name exists when it should not (YXDOMAIN) (6) (RFC 2136).
+   *
+   * @since 1.1.0
+   */
+  NAME_EXISTS(0b0110),
+  /**
+   * RRset exists when it should not (YXRRSET) (7) (RFC 2136).
+   *
+   * @since 1.1.0
+   */
+  RRSET_EXISTS(0b0111),
+  /**
+   * RRset that should exist does not (NXRRSET) (8) (RFC 2136).
+   *
+   * @since 1.1.0
+   */
+  RRSET_NOT_EXISTS(0b1000),
+  /**
+   * Server not authoritative for the zone (NOTAUTH) (9) (RFC 2136).
+   *
+   * @since 1.1.0
+   */
+  NOT_AUTHORITATIVE(0b1001),
+  /**
+   * Name not contained in the zone (NOTZONE) (10) (RFC 2136).
+   *
+   * @since 1.1.0
+   */
+  NOT_ZONE(0b1010);
+
+  /**
+   * RCodes by value, covering the whole 4 bits value space of the header field.
+   */
+  private static final RCode @NotNull [] BY_VALUE = new RCode[1 << 4];
+
+  static {
+    for (final RCode rcode : values()) {
+      BY_VALUE[rcode.value] = rcode;
+    }
+  }
 
   private final byte value;
 
@@ -49,4 +93,15 @@ public enum RCode {
   public byte getValue() {
     return value;
   }
+
+  /**
+   * Gets rcode from value, without allocating.
+   *
+   * @param value the rcode value, only its lower 4 bits being used
+   * @return the rcode, or null if the rcode is unknown
+   * @since 1.1.0
+   */
+  public static @Nullable RCode lookup(final int value) {
+    return BY_VALUE[value & 0x0F];
+  }
 }
@@ -0,0 +1,79 @@
+package fr.lehtto.jaser.dns.entity.enumration;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resource record type, either a {@link Type known type} or any other 16 bits value (RFC 3597).
+ * <p>
+ * Instances are unique per value, so they can be compared with {@code ==}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public sealed interface RecordType permits Type, UnknownType {
+
+  /**
+   * Prefix of the generic mnemonic of a type, followed by its decimal value (RFC 3597 section 5).
+   */
+  String GENERIC_MNEMONIC_PREFIX = "TYPE";
+
+  /**
+   * Gets the type of a value, never failing.
+   *
+   * @param typeValue the type value, only its lower 16 bits being used
+   * @return the known type, or the unknown type of this value
+   */
+  static @NotNull RecordType of(final int typeValue) {
+    final Type type = Type.lookup(typeValue);
+    return null != type ? type : UnknownType.of(typeValue);
+  }
+
+  /**
+   * Gets the type of a mnemonic, such as {@code MX}, or of a generic mnemonic, such as {@code TYPE65}.
+   *
+   * @param mnemonic the mnemonic
+   * @return the type, or null if the mnemonic is invalid
+   */
+  static @Nullable RecordType lookup(final @NotNull String mnemonic) {
+    final Type type = Type.lookup(mnemonic);
+    if (null != type) {
+      return type;
+    }
+    final int length = mnemonic.length();
+    final int prefixLength = GENERIC_MNEMONIC_PREFIX.length();
+    if (length <= prefixLength || length > prefixLength + 5 || !mnemonic.startsWith(GENERIC_MNEMONIC_PREFIX)) {
+      return null;
+    }
+    int value = 0;
+    for (int i = prefixLength; i < length; i++) {
+      final char digit = mnemonic.charAt(i);
+      if ('0' > digit || '9' < digit) {
+        return null;
+      }
+      value = value * 10 + digit - '0';
+    }
+    return 0xFFFF < value ? null : of(value);
+  }
+
+  /**
+   * Gets the type value.
+   *
+   * @return the type value
+   */
+  short getTypeValue();
+
+  /**
+   * Gets array of bytes representing the type.
+   *
+   * @return the array of bytes
+   */
+  byte @NotNull [] getBytes();
+
+  /**
+   * Gets the size of the type in bytes.
+   *
+   * @return the size of the type in bytes
+   */
+  int getLength();
+}
@@ -1,17 +1,22 @@
 package fr.lehtto.jaser.dns.entity.enumration;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * DNS resource record type enumeration.
+ * <p>
+ * Types without a constant are represented by {@link UnknownType}.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 @SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
-public enum Type {
+public enum Type implements RecordType {
   /**
    * A (IPv4) address.
    */
@@ -90,10 +95,96 @@ public enum Type {
    */
   X25(19),
   /**
-   * AAA (IPv6 address) record.
+   * AAAA (IPv6 address) record.
+   *
+   * @since 1.1.0
+   */
+  AAAA(28),
+  /**
+   * SRV (service locator) record.
+   *
+   * @since 1.1.0
+   */
+  SRV(33),
+  /**
+   * NAPTR (naming authority pointer) record.
+   *
+   * @since 1.1.0
+   */
+  NAPTR(35),
+  /**
+   * OPT (EDNS(0) options) pseudo-record, only found in the additional section.
+   *
+   * @since 1.1.0
+   */
+  OPT(41),
+  /**
+   * DS (delegation signer) record.
+   *
+   * @since 1.1.0
+   */
+  DS(43),
+  /**
+   * SSHFP (SSH key fingerprint) record.
+   *
+   * @since 1.1.0
+   */
+  SSHFP(44),
+  /**
+   * RRSIG (DNSSEC signature) record.
+   *
+   * @since 1.1.0
+   */
+  RRSIG(46),
+  /**
+   * NSEC (next secure) record.
+   *
+   * @since 1.1.0
+   */
+  NSEC(47),
+  /**
+   * DNSKEY (DNSSEC key) record.
+   *
+   * @since 1.1.0
+   */
+  DNSKEY(48),
+  /**
+   * NSEC3 (next secure, hashed) record.
+   *
+   * @since 1.1.0
+   */
+  NSEC3(50),
+  /**
+   * NSEC3PARAM (NSEC3 parameters) record.
+   *
+   * @since 1.1.0
+   */
+  NSEC3PARAM(51),
+  /**
+   * TLSA (TLS certificate association) record.
+   *
+   * @since 1.1.0
+   */
+  TLSA(52),
+  /**
+   * SVCB (service binding) record.
+   *
+   * @since 1.1.0
    */
-  AAA(28),
+  SVCB(64),
+  /**
+   * HTTPS (HTTPS service binding) record.
+   *
+   * @since 1.1.0
+   */
+  HTTPS(65),
   // Query types,
+  /**
+   * IXFR (incremental zone transfer) record.
+   *
+   * @since 1.1.0
+   */
+  IXFR(251),
   /**
    * AXFR (zone transfer) record.
    */
@@ -109,9 +200,40 @@ public enum Type {
   /**
    * ANY (any) record.
    */
-  ANY(255);
+  ANY(255),
+  // Other types
+  /**
+   * URI (uniform resource identifier) record.
+   *
+   * @since 1.1.0
+   */
+  URI(256),
+  /**
+   * CAA (certification authority authorization) record.
+   *
+   * @since 1.1.0
+   */
+  CAA(257);
 
   private static final int TYPE_LENGTH = 2;
+
+  /**
+   * Types by value, covering the whole 16 bits value space so that a lookup is a single array load.
+   */
+  private static final Type @NotNull [] BY_VALUE = new Type[1 << 16];
+
+  /**
+   * Types by mnemonic, as found in master files.
+   */
+  private static final Map<String, Type> BY_MNEMONIC = new HashMap<>();
+
+  static {
+    for (final Type type : values()) {
+      BY_VALUE[type.typeValue & 0xFFFF] = type;
+      BY_MNEMONIC.put(type.name(), type);
+    }
+  }
+
   /**
    * The type value.
    */
@@ -133,12 +255,31 @@ public enum Type {
    * @return the type
    */
   public static @NotNull Optional<@NotNull Type> fromTypeValue(final short typeValue) {
-    for (final Type type : values()) {
-      if (type.typeValue == typeValue) {
-        return Optional.of(type);
-      }
-    }
-    return Optional.empty();
+    return Optional.ofNullable(lookup(typeValue));
+  }
+
+  /**
+   * Gets type from value, without allocating.
+   *
+   * @param typeValue the type value, only its lower 16 bits being used
+   * @return the type, or null if the type is unknown
+   * @see RecordType#of(int)
+   * @since 1.1.0
+   */
+  public static @Nullable Type lookup(final int typeValue) {
+    return BY_VALUE[typeValue & 0xFFFF];
+  }
+
+  /**
+   * Gets type from mnemonic, without throwing for an unknown one.
+   *
+   * @param mnemonic the type mnemonic, such as {@code MX}
+   * @return the type, or null if the type is unknown
+   * @see RecordType#lookup(String)
+   * @since 1.1.0
+   */
+  public static @Nullable Type lookup(final @NotNull String mnemonic) {
+    return BY_MNEMONIC.get(mnemonic);
   }
 
   /**
@@ -146,6 +287,7 @@ public enum Type {
    *
    * @return the type value
    */
+  @Override
   public short getTypeValue() {
     return typeValue;
   }
@@ -155,7 +297,8 @@ public enum Type {
    *
    * @return the array of bytes
    */
-  public byte[] getBytes() {
+  @Override
+  public byte @NotNull [] getBytes() {
     return new byte[]{(byte) (typeValue >> 8), (byte) (typeValue & 0x00FF)};
   }
 
@@ -165,6 +308,7 @@ public enum Type {
    * @return the size of the type in bytes
    * @since 1.0.0
    */
+  @Override
   public int getLength() {
     return TYPE_LENGTH;
   }
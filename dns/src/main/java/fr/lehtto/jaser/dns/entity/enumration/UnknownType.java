@@ -0,0 +1,92 @@
+package fr.lehtto.jaser.dns.entity.enumration;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Resource record type without a {@link Type} constant, handled as opaque data (RFC 3597).
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
+public final class UnknownType implements RecordType {
+
+  private static final int TYPE_LENGTH = 2;
+
+  /**
+   * Unknown types by value, created when first seen so that each value has a single instance.
+   */
+  private static final AtomicReferenceArray<UnknownType> BY_VALUE = new AtomicReferenceArray<>(1 << 16);
+
+  private final int value;
+
+  /**
+   * Valued constructor.
+   *
+   * @param value the type value, from 0 to 65535
+   */
+  private UnknownType(final int value) {
+    this.value = value;
+  }
+
+  /**
+   * Gets the unknown type of a value.
+   *
+   * @param typeValue the type value, only its lower 16 bits being used
+   * @return the unknown type, the same instance for a given value
+   */
+  static @NotNull UnknownType of(final int typeValue) {
+    final int value = typeValue & 0xFFFF;
+    final UnknownType type = BY_VALUE.get(value);
+    if (null != type) {
+      return type;
+    }
+    final UnknownType created = new UnknownType(value);
+    final UnknownType witness = BY_VALUE.compareAndExchange(value, null, created);
+    return null != witness ? witness : created;
+  }
+
+  /**
+   * Gets the type value.
+   *
+   * @return the type value, from 0 to 65535
+   */
+  public int value() {
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public short getTypeValue() {
+    return (short) value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public byte @NotNull [] getBytes() {
+    return new byte[]{(byte) (value >> 8), (byte) value};
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getLength() {
+    return TYPE_LENGTH;
+  }
+
+  /**
+   * Gets the generic mnemonic of the type.
+   *
+   * @return the generic mnemonic, such as {@code TYPE65}
+   */
+  @Override
+  public String toString() {
+    return GENERIC_MNEMONIC_PREFIX + value;
+  }
+}
@@ -0,0 +1,127 @@
+package fr.lehtto.jaser.dns.entity.parser;
+
+import fr.lehtto.jaser.dns.entity.Edns;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.view.HeaderView;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * EDNS(0) parser, looking for the OPT pseudo-record in the additional section of a message.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("MagicNumber")
+public final class EdnsParser {
+
+  /**
+   * Size of the type, class, TTL and data length of a resource record.
+   */
+  private static final int RECORD_FIXED_LENGTH = 10;
+
+  private static final int POINTER_MASK = 0xC0;
+
+  /**
+   * Default constructor.
+   */
+  private EdnsParser() {
+    throw new AssertionError("This constructor should not be called.");
+  }
+
+  /**
+   * Parses the EDNS parameters of a message, skipping the answer and authority sections using the counts of the
+   * header.
+   * <p>
+   * The whole additional section is read, a message with more than one OPT pseudo-record being malformed (RFC 6891
+   * section 6.1.1).
+   *
+   * @param message the message, up to its limit
+   * @param offset  the offset of the answer section, following the questions
+   * @param header  the header of the message
+   * @return the EDNS parameters, or null if the message has no OPT pseudo-record
+   * @throws IllegalArgumentException if the message is truncated or has more than one OPT pseudo-record
+   */
+  public static @Nullable Edns parse(final @NotNull ByteBuffer message, final int offset,
+                                     final @NotNull HeaderView header) {
+    final int arcount = header.arcount();
+    if (0 == arcount) {
+      return null;
+    }
+    final int length = message.limit();
+    int i = offset;
+    final int records = header.ancount() + header.nscount();
+    for (int r = 0; r < records; r++) {
+      i = skipRecord(message, i, length);
+    }
+    Edns edns = null;
+    for (int r = 0; r < arcount; r++) {
+      final int fixed = skipName(message, i, length);
+      checkAvailable(fixed, RECORD_FIXED_LENGTH, length);
+      if (Type.OPT.getTypeValue() == message.getShort(fixed)) {
+        if (null != edns) {
+          throw new IllegalArgumentException("More than one OPT pseudo-record");
+        }
+        edns = new Edns(message.getShort(fixed + 2) & 0xFFFF, message.get(fixed + 4) & 0xFF,
+                        message.get(fixed + 5) & 0xFF, 0 != (message.get(fixed + 6) & 0x80));
+      }
+      i = skipRecord(message, i, length);
+    }
+    return edns;
+  }
+
+  /**
+   * Skips a resource record.
+   *
+   * @param message the message
+   * @param offset  the offset of the record
+   * @param length  the length of the message
+   * @return the offset following the record
+   */
+  private static int skipRecord(final @NotNull ByteBuffer message, final int offset, final int length) {
+    final int fixed = skipName(message, offset, length);
+    checkAvailable(fixed, RECORD_FIXED_LENGTH, length);
+    final int dataLength = message.getShort(fixed + 8) & 0xFFFF;
+    checkAvailable(fixed + RECORD_FIXED_LENGTH, dataLength, length);
+    return fixed + RECORD_FIXED_LENGTH + dataLength;
+  }
+
+  /**
+   * Skips a domain name, which may end with a compression pointer.
+   *
+   * @param message the message
+   * @param offset  the offset of the name
+   * @param length  the length of the message
+   * @return the offset following the name
+   */
+  private static int skipName(final @NotNull ByteBuffer message, final int offset, final int length) {
+    int i = offset;
+    while (true) {
+      checkAvailable(i, 1, length);
+      final int labelLength = message.get(i) & 0xFF;
+      if (0 == labelLength) {
+        return i + 1;
+      }
+      if (POINTER_MASK == (labelLength & POINTER_MASK)) {
+        checkAvailable(i, 2, length);
+        return i + 2;
+      }
+      i += 1 + labelLength;
+    }
+  }
+
+  /**
+   * Checks that the message holds the given number of bytes at the given offset.
+   *
+   * @param offset the offset
+   * @param count  the number of bytes
+   * @param length the length of the message
+   * @throws IllegalArgumentException if the message is truncated
+   */
+  private static void checkAvailable(final int offset, final int count, final int length) {
+    if (offset + count > length) {
+      throw new IllegalArgumentException("Truncated message: " + length + " bytes");
+    }
+  }
+}
@@ -57,6 +57,7 @@ public final class FlagParser {
    *
    * @param headerBytes the header bytes
    * @return the {@link OpCode OPCODE}
+   * @throws IllegalArgumentException if the OPCODE is unknown
    */
   @Contract(pure = true)
   private static OpCode getOpcode(final byte @NotNull [] headerBytes) {
@@ -65,7 +66,11 @@ public final class FlagParser {
     // 2. Mask all bits except the 18th to 21st bits (0x78)
     // 3. Shift the 18th to 21st bits to the right 3 times (>> 3)
     // 4. Cast the result to an OpCode enum value
-    return OpCode.values()[(headerBytes[2] & 0b0111_1000) >> 3];
+    final OpCode opcode = OpCode.lookup((headerBytes[2] & 0b0111_1000) >> 3);
+    if (null == opcode) {
+      throw new IllegalArgumentException("Unknown opcode: " + ((headerBytes[2] & 0b0111_1000) >> 3));
+    }
+    return opcode;
   }
 
   /**
@@ -164,6 +169,7 @@ public final class FlagParser {
    *
    * @param headerBytes the header bytes
    * @return the {@link RCode RCODE}
+   * @throws IllegalArgumentException if the RCODE is unknown
    */
   @Contract(pure = true)
   private static RCode getRcode(final byte @NotNull [] headerBytes) {
@@ -171,7 +177,11 @@ public final class FlagParser {
     // 1. Get bits 25..32 of the header (the fourth byte)
     // 2. Mask all bits except the 29th to 32nd bits (0x0F)
     // 3. Cast the result to an RCode enum value
-    return RCode.values()[headerBytes[3] & 0b0000_1111];
+    final RCode rcode = RCode.lookup(headerBytes[3]);
+    if (null == rcode) {
+      throw new IllegalArgumentException("Unknown rcode: " + (headerBytes[3] & 0b0000_1111));
+    }
+    return rcode;
   }
 
 
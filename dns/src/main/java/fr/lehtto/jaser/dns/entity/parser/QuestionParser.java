@@ -1,23 +1,26 @@
 package fr.lehtto.jaser.dns.entity.parser;
 
-import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.Question;
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
-import fr.lehtto.jaser.dns.entity.enumration.Type;
-import java.nio.charset.StandardCharsets;
+import fr.lehtto.jaser.dns.entity.view.QuestionView;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Question parser.
  *
  * @author Lehtto
+ * @version 1.1.0
  * @since 0.1.0
  */
-@SuppressWarnings("NumericCastThatLosesPrecision")
 public final class QuestionParser {
 
+  private static final Logger LOG = LoggerFactory.getLogger(QuestionParser.class);
+
   /**
    * Default constructor.
    */
@@ -26,55 +29,64 @@ public final class QuestionParser {
   }
 
   /**
-   * Parses a question from a byte array.
+   * Parses the questions of a message.
    *
    * @param bytes  the bytes to parse
-   * @param offset the offset to start parsing from
+   * @param offset the offset of the question section
    * @param length the length of the bytes to parse
-   * @return the parsed question
+   * @param count  the number of questions, from the header
+   * @return the parsed questions, without the questions of an unknown class
+   * @throws IllegalArgumentException if the questions are truncated
    */
   public static @NotNull List<Question>
-  parse(final byte @NotNull[] bytes, final int offset, final int length) {
-    int i = offset;
-
-    final List<Question> questions = new ArrayList<>();
-
-    final List<String> labels = new ArrayList<>();
-    while (0 != bytes[i]) {
-      final int labelSize = bytes[i];
-      i++;
-      labels.add(new String(bytes, i, labelSize, StandardCharsets.UTF_8));
-      i += labelSize;
-    }
-
-    while (i < length) {
-      final byte qTypeByte1 = bytes[i + 1];
-      final byte qTypeByte2 = bytes[i + 2];
-      final byte qClassByte1 = bytes[i + 3];
-      final byte qClassByte2 = bytes[i + 4];
+  parse(final byte @NotNull[] bytes, final int offset, final int length, final int count) {
+    return parse(ByteBuffer.wrap(bytes, 0, length), offset, count);
+  }
 
-      final short qTypeValue =
-          (short)((qTypeByte1 & 0xFFFF) << 8 | qTypeByte2 & 0x00FF);
-      final Type type =
-          Type.fromTypeValue(qTypeValue)
-              .orElseThrow(()
-                               -> new IllegalArgumentException(
-                                   "Invalid type value: " + qTypeValue));
+  /**
+   * Parses the questions of a message, without copying the message.
+   *
+   * @param message the message, up to its limit
+   * @param offset  the offset of the question section
+   * @param count   the number of questions, from the header
+   * @return the parsed questions, without the questions of an unknown class
+   * @throws IllegalArgumentException if the questions are truncated
+   * @since 1.1.0
+   */
+  public static @NotNull List<Question> parse(final @NotNull ByteBuffer message, final int offset, final int count) {
+    final List<Question> questions = new ArrayList<>(count);
+    parse(message, offset, count, questions);
+    return questions;
+  }
 
-      final short qClassValue =
-          (short)((qClassByte1 & 0xFFFF) << 8 | qClassByte2 & 0x00FF);
-      final DnsClass dnsClass =
-          DnsClass.fromValue(qClassValue)
-              .orElseThrow(()
-                               -> new IllegalArgumentException(
-                                   "Invalid class value: " + qClassValue));
-      questions.add(Question.builder()
-                        .name(DomainName.of(labels.toArray(String[] ::new)))
-                        .type(type)
-                        .recordClass(dnsClass)
-                        .build());
-      i += 5;
+  /**
+   * Parses the questions of a message into the given list, without copying the message.
+   * <p>
+   * A question of an unknown class is left out rather than failing the whole message, so that the query is answered
+   * with an error: the number of questions read then differs from the count of the header.
+   *
+   * @param message   the message, up to its limit
+   * @param offset    the offset of the question section
+   * @param count     the number of questions, from the header
+   * @param questions the list to add the parsed questions to
+   * @return the offset following the question section
+   * @throws IllegalArgumentException if the questions are truncated
+   * @since 1.1.0
+   */
+  public static int parse(final @NotNull ByteBuffer message, final int offset, final int count,
+      final @NotNull List<Question> questions) {
+    final QuestionView view = new QuestionView();
+    int i = offset;
+    for (int q = 0; q < count; q++) {
+      view.wrap(message, i);
+      i = view.end();
+      final DnsClass recordClass = DnsClass.lookup(view.classValue());
+      if (null == recordClass) {
+        LOG.debug("Unknown class value: {}", view.classValue());
+        continue;
+      }
+      questions.add(new Question(view.name(), view.type(), recordClass));
     }
-    return questions;
+    return i;
   }
 }
@@ -1,12 +1,11 @@
 package fr.lehtto.jaser.dns.entity.parser;
 
-import fr.lehtto.jaser.core.utils.EnumUtils;
 import fr.lehtto.jaser.core.utils.NumberUtils;
 import fr.lehtto.jaser.core.utils.StringUtils;
 import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.ResourceRecord;
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
-import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
 import fr.lehtto.jaser.dns.entity.rdata.RDataFactory;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
 import java.util.Arrays;
@@ -51,17 +50,17 @@ public final class ResourceRecordParser {
       throw new InvalidDnsZoneEntryException("Line '%s' must contain a valid number for the TTL. Contains '%s'", line,
           parts[1]);
     }
-    if (!EnumUtils.isValidEnum(DnsClass.class, parts[2])) {
+    final DnsClass clazz = DnsClass.lookup(parts[2]);
+    if (null == clazz) {
       throw new InvalidDnsZoneEntryException("Line '%s' must contain a valid DNS class. Contains '%s'", line, parts[2]);
     }
-    if (!EnumUtils.isValidEnum(Type.class, parts[3])) {
+    final RecordType type = RecordType.lookup(parts[3]);
+    if (null == type) {
       throw new InvalidDnsZoneEntryException("Line '%s' must contain a valid type. Contains '%s'", line, parts[3]);
     }
 
     final String name = parts[0];
     final int ttl = Integer.parseInt(parts[1]);
-    final DnsClass clazz = DnsClass.valueOf(parts[2]);
-    final Type type = Type.valueOf(parts[3]);
     final String[] rdata = Arrays.copyOfRange(parts, 4, parts.length);
     final Rdata rdata1 = RDataFactory.create(type, rdata);
 
@@ -0,0 +1,329 @@
+package fr.lehtto.jaser.dns.entity.parser;
+
+import fr.lehtto.jaser.dns.entity.AddressV4;
+import fr.lehtto.jaser.dns.entity.AddressV6;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.Question;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.Update;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.rdata.OpaqueRdata;
+import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata;
+import fr.lehtto.jaser.dns.entity.rdata.internet.AaaaRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.CnameRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MbRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MdRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MfRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MgRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MinfoRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MrRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MxRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.NsRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.PtrRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.SoaRdata;
+import fr.lehtto.jaser.dns.entity.view.HeaderView;
+import fr.lehtto.jaser.dns.entity.view.QuestionView;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * DNS UPDATE message parser (RFC 2136 section 2).
+ * <p>
+ * The names of the records may be compressed, as well as the names in the RDATA of the types defined in RFC 1035,
+ * which are decoded into their {@link Rdata} so that they are compressed again when written. The RDATA of the other
+ * types is kept {@link OpaqueRdata opaque}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("MagicNumber")
+public final class UpdateParser {
+
+  /**
+   * Size of the type, class, TTL and data length of a resource record.
+   */
+  private static final int RECORD_FIXED_LENGTH = 10;
+
+  private static final int POINTER_MASK = 0xC0;
+  private static final int MAX_LABEL_LENGTH = 63;
+  private static final int MAX_NAME_LENGTH = 255;
+  private static final int ADDRESS_V4_LENGTH = 4;
+  private static final int ADDRESS_V6_LENGTH = 16;
+
+  /**
+   * Default constructor.
+   */
+  private UpdateParser() {
+    throw new AssertionError("This constructor should not be called.");
+  }
+
+  /**
+   * Parses a DNS UPDATE message.
+   *
+   * @param message the message, from its position to its limit
+   * @return the update
+   * @throws IllegalArgumentException if the message is truncated, malformed, or does not have exactly one zone
+   */
+  public static @NotNull Update parse(final @NotNull ByteBuffer message) {
+    final HeaderView header = new HeaderView().wrap(message, message.position());
+    if (1 != header.qdcount()) {
+      throw new IllegalArgumentException("An update must have exactly one zone: " + header.qdcount());
+    }
+    final QuestionView zone = new QuestionView().wrap(message, message.position() + HeaderView.HEADER_SIZE);
+    final int[] offset = {zone.end()};
+    final List<ResourceRecord> prerequisites = readRecords(message, offset, header.ancount());
+    final List<ResourceRecord> updates = readRecords(message, offset, header.nscount());
+    return new Update(header.toHeader(), zone.toQuestion(), prerequisites, updates);
+  }
+
+  /**
+   * Reads the records of a section.
+   *
+   * @param message the message
+   * @param offset  the offset of the section, moved past it
+   * @param count   the number of records of the section
+   * @return the records
+   */
+  private static @NotNull List<ResourceRecord> readRecords(final @NotNull ByteBuffer message,
+      final int @NotNull [] offset, final int count) {
+    final List<ResourceRecord> records = new ArrayList<>(count);
+    for (int r = 0; r < count; r++) {
+      records.add(readRecord(message, offset));
+    }
+    return List.copyOf(records);
+  }
+
+  /**
+   * Reads a record.
+   *
+   * @param message the message
+   * @param offset  the offset of the record, moved past it
+   * @return the record
+   */
+  private static @NotNull ResourceRecord readRecord(final @NotNull ByteBuffer message,
+      final int @NotNull [] offset) {
+    final int limit = message.limit();
+    final DomainName name = readName(message, offset[0]);
+    final int fixed = skipName(message, offset[0], limit);
+    checkAvailable(fixed, RECORD_FIXED_LENGTH, limit);
+    final RecordType type = RecordType.of(message.getShort(fixed) & 0xFFFF);
+    final DnsClass recordClass = DnsClass.lookup(message.getShort(fixed + 2));
+    if (null == recordClass) {
+      throw new IllegalArgumentException("Invalid class value: " + message.getShort(fixed + 2));
+    }
+    final int ttl = message.getInt(fixed + 4);
+    final int dataLength = message.getShort(fixed + 8) & 0xFFFF;
+    final int data = fixed + RECORD_FIXED_LENGTH;
+    checkAvailable(data, dataLength, limit);
+    offset[0] = data + dataLength;
+    return ResourceRecord.builder()
+        .name(name)
+        .type(type)
+        .recordClass(recordClass)
+        .ttl(Math.max(0, ttl))
+        .data(readRdata(message, type, data, dataLength))
+        .build();
+  }
+
+  /**
+   * Reads RDATA, decoding the one of the RFC 1035 types with names.
+   *
+   * @param message the message
+   * @param type    the type of the record
+   * @param offset  the offset of the RDATA
+   * @param length  the length of the RDATA
+   * @return the RDATA
+   */
+  private static @NotNull Rdata readRdata(final @NotNull ByteBuffer message, final @NotNull RecordType type,
+      final int offset, final int length) {
+    if (0 == length || !(type instanceof final Type knownType)) {
+      return readOpaque(message, offset, length);
+    }
+    final int end = offset + length;
+    return switch (knownType) {
+      case A -> new ARdata(new AddressV4(readBytes(message, offset, ADDRESS_V4_LENGTH, length)));
+      case AAAA -> new AaaaRdata(readAddressV6(message, offset, length));
+      case NS -> new NsRdata(readName(message, offset, end));
+      case CNAME -> new CnameRdata(readName(message, offset, end));
+      case PTR -> new PtrRdata(readName(message, offset, end));
+      case MB -> new MbRdata(readName(message, offset, end));
+      case MD -> new MdRdata(readName(message, offset, end));
+      case MF -> new MfRdata(readName(message, offset, end));
+      case MG -> new MgRdata(readName(message, offset, end));
+      case MR -> new MrRdata(readName(message, offset, end));
+      case MX -> new MxRdata(message.getShort(offset), readName(message, offset + 2, end));
+      case MINFO -> new MinfoRdata(readName(message, offset, end),
+                                   readName(message, skipName(message, offset, end), end));
+      case SOA -> readSoa(message, offset, end);
+      default -> readOpaque(message, offset, length);
+    };
+  }
+
+  /**
+   * Reads SOA RDATA.
+   *
+   * @param message the message
+   * @param offset  the offset of the RDATA
+   * @param end     the offset following the RDATA
+   * @return the RDATA
+   */
+  private static @NotNull SoaRdata readSoa(final @NotNull ByteBuffer message, final int offset, final int end) {
+    final int contact = skipName(message, offset, end);
+    final int numbers = skipName(message, contact, end);
+    checkAvailable(numbers, 20, end);
+    return new SoaRdata(readName(message, offset, end), readName(message, contact, end), message.getInt(numbers),
+                        message.getInt(numbers + 4), message.getInt(numbers + 8), message.getInt(numbers + 12),
+                        message.getInt(numbers + 16));
+  }
+
+  /**
+   * Reads an IPv6 address.
+   *
+   * @param message the message
+   * @param offset  the offset of the address
+   * @param length  the length of the RDATA
+   * @return the address
+   */
+  private static @NotNull AddressV6 readAddressV6(final @NotNull ByteBuffer message, final int offset,
+      final int length) {
+    final byte[] bytes = readBytes(message, offset, ADDRESS_V6_LENGTH, length);
+    final short[] address = new short[ADDRESS_V6_LENGTH / 2];
+    for (int s = 0; s < address.length; s++) {
+      address[s] = (short) ((bytes[2 * s] & 0xFF) << 8 | bytes[2 * s + 1] & 0xFF);
+    }
+    return new AddressV6(address);
+  }
+
+  /**
+   * Reads RDATA of a fixed length.
+   *
+   * @param message  the message
+   * @param offset   the offset of the RDATA
+   * @param expected the length of the RDATA of its type
+   * @param length   the length of the RDATA
+   * @return the bytes of the RDATA
+   */
+  private static byte @NotNull [] readBytes(final @NotNull ByteBuffer message, final int offset, final int expected,
+      final int length) {
+    if (expected != length) {
+      throw new IllegalArgumentException("Invalid RDATA length: " + length + " instead of " + expected);
+    }
+    final byte[] bytes = new byte[length];
+    message.get(offset, bytes);
+    return bytes;
+  }
+
+  /**
+   * Reads RDATA as is.
+   *
+   * @param message the message
+   * @param offset  the offset of the RDATA
+   * @param length  the length of the RDATA
+   * @return the RDATA
+   */
+  private static @NotNull OpaqueRdata readOpaque(final @NotNull ByteBuffer message, final int offset,
+      final int length) {
+    final byte[] bytes = new byte[length];
+    message.get(offset, bytes);
+    return new OpaqueRdata(bytes);
+  }
+
+  /**
+   * Reads a name in RDATA, which must start before the end of the RDATA.
+   *
+   * @param message the message
+   * @param offset  the offset of the name
+   * @param end     the offset following the RDATA
+   * @return the name
+   */
+  private static @NotNull DomainName readName(final @NotNull ByteBuffer message, final int offset, final int end) {
+    checkAvailable(offset, 1, end);
+    return readName(message, offset);
+  }
+
+  /**
+   * Reads a name, following its compression pointers, which must point backwards, its labels decoded as ISO-8859-1.
+   *
+   * @param message the message
+   * @param offset  the offset of the name
+   * @return the name
+   */
+  private static @NotNull DomainName readName(final @NotNull ByteBuffer message, final int offset) {
+    final int limit = message.limit();
+    final List<String> labels = new ArrayList<>();
+    int length = 1;
+    int i = offset;
+    while (true) {
+      checkAvailable(i, 1, limit);
+      final int labelLength = message.get(i) & 0xFF;
+      if (0 == labelLength) {
+        return DomainName.of(labels.toArray(String[]::new));
+      }
+      if (POINTER_MASK == (labelLength & POINTER_MASK)) {
+        checkAvailable(i, 2, limit);
+        final int target = (message.getShort(i) & 0x3FFF) + message.position();
+        if (target >= i) {
+          throw new IllegalArgumentException("Compression pointer not pointing backwards: " + target);
+        }
+        i = target;
+        continue;
+      }
+      if (MAX_LABEL_LENGTH < labelLength) {
+        throw new IllegalArgumentException("Invalid label length: " + labelLength);
+      }
+      length += 1 + labelLength;
+      if (MAX_NAME_LENGTH < length) {
+        throw new IllegalArgumentException("Name longer than " + MAX_NAME_LENGTH + " bytes");
+      }
+      checkAvailable(i + 1, labelLength, limit);
+      final byte[] label = new byte[labelLength];
+      message.get(i + 1, label);
+      labels.add(new String(label, StandardCharsets.ISO_8859_1));
+      i += 1 + labelLength;
+    }
+  }
+
+  /**
+   * Skips a name, which may end with a compression pointer.
+   *
+   * @param message the message
+   * @param offset  the offset of the name
+   * @param limit   the offset the name must end before
+   * @return the offset following the name
+   */
+  private static int skipName(final @NotNull ByteBuffer message, final int offset, final int limit) {
+    int i = offset;
+    while (true) {
+      checkAvailable(i, 1, limit);
+      final int labelLength = message.get(i) & 0xFF;
+      if (0 == labelLength) {
+        return i + 1;
+      }
+      if (POINTER_MASK == (labelLength & POINTER_MASK)) {
+        checkAvailable(i, 2, limit);
+        return i + 2;
+      }
+      i += 1 + labelLength;
+    }
+  }
+
+  /**
+   * Checks that the message holds the given number of bytes at the given offset.
+   *
+   * @param offset the offset
+   * @param count  the number of bytes
+   * @param limit  the offset the bytes must end before
+   * @throws IllegalArgumentException if the message is truncated
+   */
+  private static void checkAvailable(final int offset, final int count, final int limit) {
+    if (offset + count > limit) {
+      throw new IllegalArgumentException("Truncated message: " + limit + " bytes");
+    }
+  }
+}
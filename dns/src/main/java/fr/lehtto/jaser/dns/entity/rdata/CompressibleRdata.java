@@ -0,0 +1,67 @@
+package fr.lehtto.jaser.dns.entity.rdata;
+
+import fr.lehtto.jaser.dns.entity.DomainName;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link Rdata} of a type defined in RFC 1035, whose names may be compressed (RFC 3597 section 4).
+ * <p>
+ * The names are written one after the other from an offset of the RDATA, by a {@link NameWriter name writer}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public interface CompressibleRdata extends Rdata {
+
+  /**
+   * Gets the names that may be compressed, in the order they are written.
+   *
+   * @return the names
+   */
+  @NotNull DomainName @NotNull [] getCompressibleNames();
+
+  /**
+   * Gets the offset of the first name in the RDATA.
+   *
+   * @return the number of bytes before the names
+   */
+  default int getCompressibleNamesOffset() {
+    return 0;
+  }
+
+  /**
+   * Writes the RDATA to a buffer, its names being written by the given name writer.
+   *
+   * @param buffer     the buffer to write to
+   * @param nameWriter the writer of the names
+   */
+  @Contract(mutates = "param1")
+  void writeTo(@NotNull ByteBuffer buffer, @NotNull NameWriter nameWriter);
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The names are written in full.
+   */
+  @Override
+  default void writeTo(final @NotNull ByteBuffer buffer) {
+    writeTo(buffer, DomainName::writeTo);
+  }
+
+  /**
+   * Writer of the names of a {@link CompressibleRdata}.
+   */
+  @FunctionalInterface
+  interface NameWriter {
+
+    /**
+     * Writes a name to a buffer, at its position, then moves the position past the name.
+     *
+     * @param name   the name to write
+     * @param buffer the buffer to write to
+     */
+    void write(@NotNull DomainName name, @NotNull ByteBuffer buffer);
+  }
+}
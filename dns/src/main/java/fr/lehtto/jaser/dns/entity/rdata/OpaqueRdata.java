@@ -0,0 +1,99 @@
+package fr.lehtto.jaser.dns.entity.rdata;
+
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HexFormat;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * RDATA of any type, given in the generic format of RFC 3597 and written as is.
+ *
+ * @param data the RDATA bytes
+ * @author Lehtto
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record OpaqueRdata(byte @NotNull [] data) implements Rdata {
+
+  /**
+   * First token of RDATA in the generic format, followed by the length and the hexadecimal data.
+   */
+  public static final String GENERIC_RDATA_MARKER = "\\#";
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    buffer.put(data);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getLength() {
+    return data.length;
+  }
+
+  /**
+   * Checks whether RDATA is given in the generic format.
+   *
+   * @param parts the parts of the RDATA
+   * @return true if the first part is the {@link #GENERIC_RDATA_MARKER generic marker}
+   */
+  public static boolean isGeneric(final @NotNull String @NotNull [] parts) {
+    return 0 < parts.length && GENERIC_RDATA_MARKER.equals(parts[0]);
+  }
+
+  /**
+   * Parses RDATA in the generic format, such as {@code \# 4 0A000001}, the data possibly split in several parts.
+   *
+   * @param parts the parts of the RDATA
+   * @return the RDATA
+   * @throws InvalidDnsZoneEntryException if the RDATA is invalid or its length does not match
+   */
+  public static @NotNull OpaqueRdata parse(final @NotNull String @NotNull [] parts)
+      throws InvalidDnsZoneEntryException {
+    if (!isGeneric(parts) || 2 > parts.length) {
+      throw new InvalidDnsZoneEntryException("Generic RDATA must start with '\\# <length>': %s",
+          Arrays.toString(parts));
+    }
+    final int length;
+    final byte[] data;
+    try {
+      length = Integer.parseInt(parts[1]);
+      data = HexFormat.of().parseHex(String.join("", Arrays.copyOfRange(parts, 2, parts.length)));
+    } catch (final IllegalArgumentException e) {
+      throw new InvalidDnsZoneEntryException(e, "Invalid generic RDATA: %s", Arrays.toString(parts));
+    }
+    if (length != data.length) {
+      throw new InvalidDnsZoneEntryException("Generic RDATA holds %d bytes instead of %d: %s", data.length, length,
+          Arrays.toString(parts));
+    }
+    return new OpaqueRdata(data);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (null == o || getClass() != o.getClass()) {
+      return false;
+    }
+    final OpaqueRdata that = (OpaqueRdata) o;
+    return Arrays.equals(data, that.data);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(data);
+  }
+
+  @Override
+  public String toString() {
+    return GENERIC_RDATA_MARKER + ' ' + data.length + ' ' + HexFormat.of().formatHex(data);
+  }
+}
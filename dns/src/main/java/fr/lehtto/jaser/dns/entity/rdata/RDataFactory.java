@@ -1,9 +1,11 @@
 package fr.lehtto.jaser.dns.entity.rdata;
 
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.enumration.UnknownType;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
 import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata.ARdataParser;
-import fr.lehtto.jaser.dns.entity.rdata.internet.AaaRdata.AaaRdataParser;
+import fr.lehtto.jaser.dns.entity.rdata.internet.AaaaRdata.AaaaRdataParser;
 import fr.lehtto.jaser.dns.entity.rdata.internet.WksRdata.WksRdataParser;
 import fr.lehtto.jaser.dns.entity.rdata.standard.CnameRdata.CnameParser;
 import fr.lehtto.jaser.dns.entity.rdata.standard.HinfoRdata.HinfoParser;
@@ -25,6 +27,7 @@ import org.jetbrains.annotations.NotNull;
  * Factory for RDATA.
  *
  * @author Lehtto
+ * @version 1.1.0
  * @since 0.1.0
  */
 public final class RDataFactory {
@@ -33,7 +36,7 @@ public final class RDataFactory {
 
   static {
     RDataParser parser = new CnameParser(null);
-    parser = new AaaRdataParser(parser);
+    parser = new AaaaRdataParser(parser);
     parser = new HinfoParser(parser);
     parser = new MbRdataParser(parser);
     parser = new MdRdataParser(parser);
@@ -60,14 +63,23 @@ public final class RDataFactory {
 
   /**
    * Create a RDATA entity from a type and a byte array.
+   * <p>
+   * RDATA given in the generic format of RFC 3597 is kept opaque, whatever its type. It is the only format accepted for
+   * {@link UnknownType unknown types}.
    *
    * @param type the type of the RDATA entity.
    * @param data the byte array of the RDATA entity.
    * @return the RDATA entity.
    * @throws InvalidDnsZoneEntryException if the RDATA entity is invalid.
    */
-  public static Rdata create(final @NotNull Type type, final @NotNull String @NotNull [] data)
+  public static Rdata create(final @NotNull RecordType type, final @NotNull String @NotNull [] data)
       throws InvalidDnsZoneEntryException {
-    return PARSER.parse(type, data);
+    if (OpaqueRdata.isGeneric(data)) {
+      return OpaqueRdata.parse(data);
+    }
+    if (type instanceof Type knownType) {
+      return PARSER.parse(knownType, data);
+    }
+    throw new InvalidDnsZoneEntryException("RDATA of type %s must be given in the generic format", type);
   }
 }
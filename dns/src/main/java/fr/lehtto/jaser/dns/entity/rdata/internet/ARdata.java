@@ -5,6 +5,7 @@ import fr.lehtto.jaser.dns.entity.enumration.Type;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import java.nio.ByteBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -12,14 +13,19 @@ import org.jetbrains.annotations.Nullable;
  * A RDATA entity (RFC 1035 section 3.4.1).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public record ARdata(@NotNull AddressV4 address) implements Rdata {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    return address.getBytes();
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    address.writeTo(buffer);
   }
 
   /**
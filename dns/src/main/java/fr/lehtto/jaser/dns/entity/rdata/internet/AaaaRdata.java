@@ -5,21 +5,27 @@ import fr.lehtto.jaser.dns.entity.enumration.Type;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import java.nio.ByteBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * AAA RDATA entity (RFC 1035 section 3.4.1).
+ * AAAA RDATA entity (RFC 3596 section 2.2).
  *
  * @author lehtto
  * @since 0.1.0
- * @version 1.0.0
+ * @version 1.1.0
  */
-public record AaaRdata(@NotNull AddressV6 address) implements Rdata {
+public record AaaaRdata(@NotNull AddressV6 address) implements Rdata {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    return address.getBytes();
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    address.writeTo(buffer);
   }
 
   /**
@@ -33,29 +39,29 @@ public record AaaRdata(@NotNull AddressV6 address) implements Rdata {
   }
 
   /**
-   * Parses the given string into an AAA RDATA.
+   * Parses the given string into an AAAA RDATA.
    */
-  public static class AaaRdataParser extends RDataParser {
+  public static class AaaaRdataParser extends RDataParser {
 
     /**
      * Valued constructor.
      *
      * @param next the next parser to use
      */
-    public AaaRdataParser(final @Nullable RDataParser next) {
+    public AaaaRdataParser(final @Nullable RDataParser next) {
       super(next);
     }
 
     @Override
     protected @Nullable Rdata handle(final @NotNull Type type, final @NotNull String @NotNull [] parts)
         throws InvalidDnsZoneEntryException {
-      if (Type.AAA != type) {
+      if (Type.AAAA != type) {
         return null;
       }
       if (1 != parts.length) {
-        throw new InvalidDnsZoneEntryException("RDATA for A type must contain exactly 1 part", parts);
+        throw new InvalidDnsZoneEntryException("RDATA for AAAA type must contain exactly 1 part", parts);
       }
-      return new AaaRdata(AddressV6.of(parts[0]));
+      return new AaaaRdata(AddressV6.of(parts[0]));
     }
   }
 }
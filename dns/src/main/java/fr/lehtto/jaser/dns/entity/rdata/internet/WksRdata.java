@@ -4,6 +4,7 @@ import fr.lehtto.jaser.dns.entity.AddressV4;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
@@ -13,18 +14,21 @@ import org.jetbrains.annotations.Nullable;
  * WKS RDATA entity (RFC 1035, section 3.4.2).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public record WksRdata(@NotNull AddressV4 address, byte protocol, byte @NotNull [] bitmap) implements Rdata {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    final byte @NotNull [] bytes = new byte[bitmap.length + 5];
-    System.arraycopy(address.getBytes(), 0, bytes, 0, 4);
-    bytes[4] = protocol;
-    System.arraycopy(bitmap, 0, bytes, 5, bitmap.length);
-    return bytes;
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    address.writeTo(buffer);
+    buffer.put(protocol);
+    buffer.put(bitmap);
   }
 
   /**
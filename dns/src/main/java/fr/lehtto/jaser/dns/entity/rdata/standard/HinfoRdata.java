@@ -5,7 +5,6 @@ import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 import org.jetbrains.annotations.NotNull;
@@ -15,17 +14,25 @@ import org.jetbrains.annotations.Nullable;
  * HINFO RDATA entity (RFC 1035, section 3.3.2).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @version 0.1.0
  */
 public record HinfoRdata(@NotNull String hardware, @NotNull String software) implements Rdata {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    final ByteBuffer buffer = ByteBuffer.allocate(getLength());
-    buffer.put(hardware.getBytes(StandardCharsets.UTF_8));
-    buffer.put(software.getBytes(StandardCharsets.UTF_8));
-    return buffer.array();
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    // One byte per character, master files being read as ISO-8859-1, as getLength assumes
+    for (int c = 0; c < hardware.length(); c++) {
+      buffer.put((byte) hardware.charAt(c));
+    }
+    for (int c = 0; c < software.length(); c++) {
+      buffer.put((byte) software.charAt(c));
+    }
   }
 
   /**
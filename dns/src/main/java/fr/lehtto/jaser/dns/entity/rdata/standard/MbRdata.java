@@ -3,9 +3,11 @@ package fr.lehtto.jaser.dns.entity.rdata.standard;
 import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata;
 import fr.lehtto.jaser.dns.entity.rdata.NamedRData;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import java.nio.ByteBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -13,14 +15,19 @@ import org.jetbrains.annotations.Nullable;
  * MB RDATA entity (RFC 1035, section 3.3.3) (Experimental).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
-public record MbRdata(@NotNull DomainName madname) implements Rdata, NamedRData {
+public record MbRdata(@NotNull DomainName madname) implements CompressibleRdata, NamedRData {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    return madname.getBytes();
+  public void writeTo(final @NotNull ByteBuffer buffer, final @NotNull NameWriter nameWriter) {
+    nameWriter.write(madname, buffer);
   }
 
   /**
@@ -38,6 +45,16 @@ public record MbRdata(@NotNull DomainName madname) implements Rdata, NamedRData
     return madname;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
+  @Override
+  public @NotNull DomainName @NotNull [] getCompressibleNames() {
+    return new DomainName[]{madname};
+  }
+
   /**
    * Parses the given string into an MB RDATA.
    */
@@ -2,6 +2,7 @@ package fr.lehtto.jaser.dns.entity.rdata.standard;
 
 import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata;
 import fr.lehtto.jaser.dns.entity.rdata.MultiNamedRData;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
@@ -13,19 +14,20 @@ import org.jetbrains.annotations.Nullable;
  * MINFO RDATA entity (RFC 1035, section 3.3.7) (Experimental).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
-public record MinfoRdata(@NotNull DomainName rmailbx, @NotNull DomainName emailbx) implements Rdata, MultiNamedRData {
+public record MinfoRdata(@NotNull DomainName rmailbx, @NotNull DomainName emailbx) implements CompressibleRdata, MultiNamedRData {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    final byte[] rmailbxBytes = rmailbx.getBytes();
-    final byte[] emailbxBytes = emailbx.getBytes();
-    final ByteBuffer buffer = ByteBuffer.allocate(rmailbxBytes.length + emailbxBytes.length);
-    buffer.put(rmailbxBytes);
-    buffer.put(emailbxBytes);
-    return buffer.array();
+  public void writeTo(final @NotNull ByteBuffer buffer, final @NotNull NameWriter nameWriter) {
+    nameWriter.write(rmailbx, buffer);
+    nameWriter.write(emailbx, buffer);
   }
 
   /**
@@ -43,6 +45,16 @@ public record MinfoRdata(@NotNull DomainName rmailbx, @NotNull DomainName emailb
     return new DomainName[]{rmailbx, emailbx};
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
+  @Override
+  public @NotNull DomainName @NotNull [] getCompressibleNames() {
+    return getNames();
+  }
+
   /**
    * Parses the given string into a MINFO RDATA.
    */
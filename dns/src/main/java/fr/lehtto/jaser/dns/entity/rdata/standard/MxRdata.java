@@ -4,6 +4,7 @@ import fr.lehtto.jaser.core.utils.NumberUtils;
 import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata;
 import fr.lehtto.jaser.dns.entity.rdata.NamedRData;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
@@ -15,18 +16,22 @@ import org.jetbrains.annotations.Nullable;
  * MX RDATA entity (RFC 1035, section 3.3.9).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
-public record MxRdata(short preference, @NotNull DomainName exchange) implements Rdata, NamedRData {
+public record MxRdata(short preference, @NotNull DomainName exchange) implements CompressibleRdata, NamedRData {
 
+  private static final int PREFERENCE_LENGTH = 2;
+
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    final byte[] exchangeBytes = exchange.getBytes();
-    final ByteBuffer buffer = ByteBuffer.allocate(2 + exchangeBytes.length);
+  public void writeTo(final @NotNull ByteBuffer buffer, final @NotNull NameWriter nameWriter) {
     buffer.putShort(preference);
-    buffer.put(exchangeBytes);
-    return buffer.array();
+    nameWriter.write(exchange, buffer);
   }
 
   /**
@@ -36,7 +41,7 @@ public record MxRdata(short preference, @NotNull DomainName exchange) implements
    */
   @Override
   public int getLength() {
-    return 2 + exchange.getLength();
+    return PREFERENCE_LENGTH + exchange.getLength();
   }
 
   @Override
@@ -44,6 +49,27 @@ public record MxRdata(short preference, @NotNull DomainName exchange) implements
     return exchange;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
+  @Override
+  public @NotNull DomainName @NotNull [] getCompressibleNames() {
+    return new DomainName[]{exchange};
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return the length of the preference
+   * @since 1.1.0
+   */
+  @Override
+  public int getCompressibleNamesOffset() {
+    return PREFERENCE_LENGTH;
+  }
+
   /**
    * Parses the given string into a MX RDATA.
    */
@@ -3,6 +3,7 @@ package fr.lehtto.jaser.dns.entity.rdata.standard;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -11,14 +12,19 @@ import org.jetbrains.annotations.Nullable;
  * NULL RDATA entity (RFC 1035, section 3.3.10) (Experimental).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public record NullRdata(byte @NotNull [] data) implements Rdata {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    return Arrays.copyOf(data, data.length);
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    buffer.put(data);
   }
 
   /**
@@ -3,6 +3,7 @@ package fr.lehtto.jaser.dns.entity.rdata.standard;
 import fr.lehtto.jaser.core.utils.NumberUtils;
 import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata;
 import fr.lehtto.jaser.dns.entity.rdata.MultiNamedRData;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
@@ -14,11 +15,11 @@ import org.jetbrains.annotations.Nullable;
  * SOA RDATA entity (RFC 1035 section 3.3.13).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public record SoaRdata(@NotNull DomainName origin, @NotNull DomainName contact, int serial, int refresh, int retry,
-                       int expire, int minimum) implements Rdata, MultiNamedRData {
+                       int expire, int minimum) implements CompressibleRdata, MultiNamedRData {
 
   private static final int SERIAL_LENGTH = 4;
   private static final int REFRESH_LENGTH = 4;
@@ -26,19 +27,20 @@ public record SoaRdata(@NotNull DomainName origin, @NotNull DomainName contact,
   private static final int EXPIRE_LENGTH = 4;
   private static final int MINIMUM_LENGTH = 4;
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    final byte[] originBytes = origin.getBytes();
-    final byte[] contactBytes = contact.getBytes();
-    final ByteBuffer buffer = ByteBuffer.allocate(originBytes.length + contactBytes.length + 20);
-    buffer.put(originBytes);
-    buffer.put(contactBytes);
+  public void writeTo(final @NotNull ByteBuffer buffer, final @NotNull NameWriter nameWriter) {
+    nameWriter.write(origin, buffer);
+    nameWriter.write(contact, buffer);
     buffer.putInt(serial);
     buffer.putInt(refresh);
     buffer.putInt(retry);
     buffer.putInt(expire);
     buffer.putInt(minimum);
-    return buffer.array();
   }
 
   /**
@@ -58,6 +60,16 @@ public record SoaRdata(@NotNull DomainName origin, @NotNull DomainName contact,
     return new DomainName[]{origin, contact};
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
+  @Override
+  public @NotNull DomainName @NotNull [] getCompressibleNames() {
+    return getNames();
+  }
+
   /**
    * Parses the given string into a SOA RDATA.
    */
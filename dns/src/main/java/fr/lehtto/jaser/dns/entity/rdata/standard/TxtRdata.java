@@ -3,7 +3,7 @@ package fr.lehtto.jaser.dns.entity.rdata.standard;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
 import fr.lehtto.jaser.dns.entity.rdata.RDataParser;
 import fr.lehtto.jaser.dns.entity.rdata.Rdata;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -11,14 +11,23 @@ import org.jetbrains.annotations.Nullable;
  * TXT RDATA entity (RFC1035 section 3.3.14).
  *
  * @author lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public record TxtRdata(@NotNull String txt) implements Rdata {
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 1.1.0
+   */
   @Override
-  public byte @NotNull [] getBytes() {
-    return txt.getBytes(StandardCharsets.UTF_8);
+  public void writeTo(final @NotNull ByteBuffer buffer) {
+    // One byte per character, master files being read as ISO-8859-1, as getLength assumes
+    final int length = txt.length();
+    for (int c = 0; c < length; c++) {
+      buffer.put((byte) txt.charAt(c));
+    }
   }
 
   /**
@@ -0,0 +1,142 @@
+package fr.lehtto.jaser.dns.entity.view;
+
+import fr.lehtto.jaser.dns.entity.Flags;
+import fr.lehtto.jaser.dns.entity.enumration.OpCode;
+import fr.lehtto.jaser.dns.entity.enumration.QR;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flyweight view over the flags of a message, reading them straight from the message buffer.
+ * <p>
+ * The view does not copy anything: it must not be used once the buffer is reused for another message.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("MagicNumber")
+public final class FlagsView {
+
+  /**
+   * Buffer viewed until the view is first wrapped.
+   */
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private @NotNull ByteBuffer buffer;
+  private int offset;
+
+  /**
+   * Default constructor, for a view to {@link #wrap(ByteBuffer, int) wrap} later.
+   */
+  public FlagsView() {
+    buffer = EMPTY;
+    offset = 0;
+  }
+
+  /**
+   * Moves the view to the flags of a message.
+   *
+   * @param buffer the message buffer
+   * @param offset the offset of the flags
+   * @return this view
+   */
+  @Contract("_, _ -> this")
+  public @NotNull FlagsView wrap(final @NotNull ByteBuffer buffer, final int offset) {
+    this.buffer = buffer;
+    this.offset = offset;
+    return this;
+  }
+
+  /**
+   * Gets the QR flag.
+   *
+   * @return whether the message is a response
+   */
+  public boolean qr() {
+    return 0 != (buffer.get(offset) & 0b1000_0000);
+  }
+
+  /**
+   * Gets the OPCODE.
+   *
+   * @return the OPCODE value
+   */
+  public int opcode() {
+    return (buffer.get(offset) & 0b0111_1000) >> 3;
+  }
+
+  /**
+   * Gets the AA flag.
+   *
+   * @return the AA flag
+   */
+  public boolean aa() {
+    return 0 != (buffer.get(offset) & 0b0000_0100);
+  }
+
+  /**
+   * Gets the TC flag.
+   *
+   * @return the TC flag
+   */
+  public boolean tc() {
+    return 0 != (buffer.get(offset) & 0b0000_0010);
+  }
+
+  /**
+   * Gets the RD flag.
+   *
+   * @return the RD flag
+   */
+  public boolean rd() {
+    return 0 != (buffer.get(offset) & 0b0000_0001);
+  }
+
+  /**
+   * Gets the RA flag.
+   *
+   * @return the RA flag
+   */
+  public boolean ra() {
+    return 0 != (buffer.get(offset + 1) & 0b1000_0000);
+  }
+
+  /**
+   * Gets the Z bits.
+   *
+   * @return the Z bits
+   */
+  public byte z() {
+    return (byte) ((buffer.get(offset + 1) & 0b0111_0000) >> 4);
+  }
+
+  /**
+   * Gets the RCODE.
+   *
+   * @return the RCODE value
+   */
+  public int rcode() {
+    return buffer.get(offset + 1) & 0b0000_1111;
+  }
+
+  /**
+   * Copies the viewed flags.
+   *
+   * @return the flags
+   * @throws IllegalArgumentException if the opcode or the rcode is unknown
+   */
+  @Contract("-> new")
+  public @NotNull Flags toFlags() {
+    final OpCode opCode = OpCode.lookup(opcode());
+    if (null == opCode) {
+      throw new IllegalArgumentException("Unknown opcode: " + opcode());
+    }
+    final RCode rCode = RCode.lookup(rcode());
+    if (null == rCode) {
+      throw new IllegalArgumentException("Unknown rcode: " + rcode());
+    }
+    return new Flags(qr() ? QR.RESPONSE : QR.QUERY, opCode, aa(), tc(), rd(), ra(), z(), rCode);
+  }
+}
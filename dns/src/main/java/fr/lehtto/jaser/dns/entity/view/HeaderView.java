@@ -0,0 +1,130 @@
+package fr.lehtto.jaser.dns.entity.view;
+
+import fr.lehtto.jaser.dns.entity.Header;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flyweight view over the header of a message, reading it straight from the message buffer.
+ * <p>
+ * The view does not copy anything: it must not be used once the buffer is reused for another message.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
+public final class HeaderView {
+
+  /**
+   * The size of the header in bytes.
+   */
+  public static final int HEADER_SIZE = 12;
+
+  private static final int FLAGS_OFFSET = 2;
+  private static final int QDCOUNT_OFFSET = 4;
+  private static final int ANCOUNT_OFFSET = 6;
+  private static final int NSCOUNT_OFFSET = 8;
+  private static final int ARCOUNT_OFFSET = 10;
+
+  /**
+   * Buffer viewed until the view is first wrapped.
+   */
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private final @NotNull FlagsView flags = new FlagsView();
+  private @NotNull ByteBuffer buffer;
+  private int offset;
+
+  /**
+   * Default constructor, for a view to {@link #wrap(ByteBuffer, int) wrap} later.
+   */
+  public HeaderView() {
+    buffer = EMPTY;
+    offset = 0;
+  }
+
+  /**
+   * Moves the view to the header of a message.
+   *
+   * @param buffer the message buffer
+   * @param offset the offset of the header
+   * @return this view
+   * @throws IllegalArgumentException if the message is shorter than a header
+   */
+  @Contract("_, _ -> this")
+  public @NotNull HeaderView wrap(final @NotNull ByteBuffer buffer, final int offset) {
+    if (offset + HEADER_SIZE > buffer.limit()) {
+      throw new IllegalArgumentException("Truncated header: " + (buffer.limit() - offset) + " bytes");
+    }
+    this.buffer = buffer;
+    this.offset = offset;
+    flags.wrap(buffer, offset + FLAGS_OFFSET);
+    return this;
+  }
+
+  /**
+   * Gets the ID.
+   *
+   * @return the ID
+   */
+  public short id() {
+    return buffer.getShort(offset);
+  }
+
+  /**
+   * Gets the flags.
+   *
+   * @return the view over the flags, moved along with this view
+   */
+  public @NotNull FlagsView flags() {
+    return flags;
+  }
+
+  /**
+   * Gets the number of entries in the question section.
+   *
+   * @return the QDCOUNT, unsigned
+   */
+  public int qdcount() {
+    return buffer.getShort(offset + QDCOUNT_OFFSET) & 0xFFFF;
+  }
+
+  /**
+   * Gets the number of resource records in the answer section.
+   *
+   * @return the ANCOUNT, unsigned
+   */
+  public int ancount() {
+    return buffer.getShort(offset + ANCOUNT_OFFSET) & 0xFFFF;
+  }
+
+  /**
+   * Gets the number of resource records in the authority records section.
+   *
+   * @return the NSCOUNT, unsigned
+   */
+  public int nscount() {
+    return buffer.getShort(offset + NSCOUNT_OFFSET) & 0xFFFF;
+  }
+
+  /**
+   * Gets the number of resource records in the additional records section.
+   *
+   * @return the ARCOUNT, unsigned
+   */
+  public int arcount() {
+    return buffer.getShort(offset + ARCOUNT_OFFSET) & 0xFFFF;
+  }
+
+  /**
+   * Copies the viewed header.
+   *
+   * @return the header
+   */
+  @Contract("-> new")
+  public @NotNull Header toHeader() {
+    return new Header(id(), flags.toFlags(), (short) qdcount(), (short) ancount(), (short) nscount(),
+        (short) arcount());
+  }
+}
@@ -0,0 +1,208 @@
+package fr.lehtto.jaser.dns.entity.view;
+
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.Question;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flyweight view over a question of a message, reading it straight from the message buffer.
+ * <p>
+ * Wrapping a question only checks its bounds, its name is decoded when {@link #name() asked for}. The view does not
+ * copy anything: it must not be used once the buffer is reused for another message.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("MagicNumber")
+public final class QuestionView {
+
+  /**
+   * Size of the type and class of a question.
+   */
+  private static final int QUESTION_FIXED_LENGTH = 4;
+
+  /**
+   * Longest label, the two upper bits of a length being used by compression pointers.
+   */
+  private static final int MAX_LABEL_LENGTH = 63;
+
+  /**
+   * Buffer viewed until the view is first wrapped.
+   */
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private @NotNull ByteBuffer buffer;
+  private int offset;
+  private int fixedOffset;
+  private int labelCount;
+
+  /**
+   * Default constructor, for a view to {@link #wrap(ByteBuffer, int) wrap} later.
+   */
+  public QuestionView() {
+    buffer = EMPTY;
+    offset = 0;
+    fixedOffset = 0;
+    labelCount = 0;
+  }
+
+  /**
+   * Moves the view to a question of a message.
+   *
+   * @param buffer the message buffer
+   * @param offset the offset of the question
+   * @return this view
+   * @throws IllegalArgumentException if the question is truncated or its name is compressed
+   */
+  @Contract("_, _ -> this")
+  public @NotNull QuestionView wrap(final @NotNull ByteBuffer buffer, final int offset) {
+    final int limit = buffer.limit();
+    int i = offset;
+    int labels = 0;
+    while (true) {
+      checkAvailable(i, 1, limit);
+      final int labelLength = buffer.get(i) & 0xFF;
+      i++;
+      if (0 == labelLength) {
+        break;
+      }
+      if (MAX_LABEL_LENGTH < labelLength) {
+        throw new IllegalArgumentException("Invalid label length: " + labelLength);
+      }
+      checkAvailable(i, labelLength, limit);
+      i += labelLength;
+      labels++;
+    }
+    checkAvailable(i, QUESTION_FIXED_LENGTH, limit);
+    this.buffer = buffer;
+    this.offset = offset;
+    fixedOffset = i;
+    labelCount = labels;
+    return this;
+  }
+
+  /**
+   * Gets the offset following the question, where the next question or section starts.
+   *
+   * @return the offset following the question
+   */
+  public int end() {
+    return fixedOffset + QUESTION_FIXED_LENGTH;
+  }
+
+  /**
+   * Gets the number of labels of the name, without the root label.
+   *
+   * @return the number of labels
+   */
+  public int labelCount() {
+    return labelCount;
+  }
+
+  /**
+   * Decodes the name.
+   *
+   * @return the name
+   */
+  @Contract("-> new")
+  public @NotNull DomainName name() {
+    final String[] labels = new String[labelCount];
+    int i = offset;
+    for (int l = 0; l < labelCount; l++) {
+      final int labelLength = buffer.get(i) & 0xFF;
+      labels[l] = decodeLabel(buffer, i + 1, labelLength);
+      i += 1 + labelLength;
+    }
+    return DomainName.of(labels);
+  }
+
+  /**
+   * Gets the type value.
+   *
+   * @return the QTYPE value
+   */
+  public short typeValue() {
+    return buffer.getShort(fixedOffset);
+  }
+
+  /**
+   * Gets the class value.
+   *
+   * @return the QCLASS value
+   */
+  public short classValue() {
+    return buffer.getShort(fixedOffset + 2);
+  }
+
+  /**
+   * Gets the type, an unknown type value giving an {@link fr.lehtto.jaser.dns.entity.enumration.UnknownType}.
+   *
+   * @return the type
+   */
+  public @NotNull RecordType type() {
+    return RecordType.of(typeValue());
+  }
+
+  /**
+   * Gets the class.
+   *
+   * @return the class
+   * @throws IllegalArgumentException if the class is unknown
+   */
+  public @NotNull DnsClass recordClass() {
+    final DnsClass recordClass = DnsClass.lookup(classValue());
+    if (null == recordClass) {
+      throw new IllegalArgumentException("Invalid class value: " + classValue());
+    }
+    return recordClass;
+  }
+
+  /**
+   * Copies the viewed question.
+   *
+   * @return the question
+   * @throws IllegalArgumentException if the class is unknown
+   */
+  @Contract("-> new")
+  public @NotNull Question toQuestion() {
+    return new Question(name(), type(), recordClass());
+  }
+
+  /**
+   * Decodes a label, straight from the backing array when the buffer has one.
+   * <p>
+   * Labels are decoded as ISO-8859-1, each byte giving one character, so that they are written back as they were read.
+   *
+   * @param buffer the message buffer
+   * @param offset the offset of the label, after its length
+   * @param length the length of the label
+   * @return the label
+   */
+  private static @NotNull String decodeLabel(final @NotNull ByteBuffer buffer, final int offset, final int length) {
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.ISO_8859_1);
+    }
+    final byte[] label = new byte[length];
+    buffer.get(offset, label);
+    return new String(label, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Checks that the message holds the given number of bytes at the given offset.
+   *
+   * @param offset the offset
+   * @param count  the number of bytes
+   * @param limit  the length of the message
+   * @throws IllegalArgumentException if the message is truncated
+   */
+  private static void checkAvailable(final int offset, final int count, final int limit) {
+    if (offset + count > limit) {
+      throw new IllegalArgumentException("Truncated question: " + limit + " bytes");
+    }
+  }
+}
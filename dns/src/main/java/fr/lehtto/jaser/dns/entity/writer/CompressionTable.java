@@ -0,0 +1,325 @@
+package fr.lehtto.jaser.dns.entity.writer;
+
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata.NameWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compression dictionary of a message, mapping the name suffixes already written to their offset (RFC 1035 section
+ * 4.1.4).
+ * <p>
+ * A name is written as its labels up to the longest suffix already in the message, followed by a pointer to this
+ * suffix, so that partial suffixes are compressed as well. Names are compared ignoring case. Each suffix written at an
+ * offset a pointer can reach is added to the dictionary.
+ * <p>
+ * Names can be {@link #put(DomainName, int) put} without being written, to measure them. The dictionary can then be
+ * {@link #rollback(int) rolled back} if the names are not written after all, or the names written at the same offsets.
+ * <p>
+ * The suffixes are kept in an open addressing table, so that neither lookups nor additions allocate: a dictionary is
+ * meant to be {@link #clear() cleared} and reused for the next message.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
+final class CompressionTable implements NameWriter {
+
+  /**
+   * Highest offset a pointer can reach, on 14 bits.
+   */
+  private static final int MAX_OFFSET = 0x3FFF;
+
+  /**
+   * Mask of the two first bits of a pointer.
+   */
+  private static final int POINTER_MASK = 0xC000;
+
+  private static final int POINTER_LENGTH = 2;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Labels of the name of each suffix by slot, null if the slot is free.
+   */
+  private String[][] names = new String[INITIAL_CAPACITY][];
+
+  /**
+   * Index of the first label of each suffix by slot.
+   */
+  private int[] froms = new int[INITIAL_CAPACITY];
+
+  /**
+   * Hash of each suffix by slot.
+   */
+  private int[] hashes = new int[INITIAL_CAPACITY];
+
+  /**
+   * Offset of each suffix by slot.
+   */
+  private int[] offsets = new int[INITIAL_CAPACITY];
+
+  /**
+   * Slots in the order they were filled, to roll them back.
+   */
+  private int[] slots = new int[INITIAL_CAPACITY];
+
+  private int size;
+
+  /**
+   * Hashes of the suffixes of the name being compressed, by index of their first label.
+   */
+  private int[] suffixHashes = new int[16];
+
+  /**
+   * Adds the suffixes of a name to the dictionary as if it was written at the given offset, without writing it.
+   *
+   * @param name   the name
+   * @param offset the offset of the name in the message
+   * @return the number of bytes the name takes once compressed
+   */
+  int put(final @NotNull DomainName name, final int offset) {
+    return encode(name, null, offset);
+  }
+
+  /**
+   * Writes a name to a buffer at its position, compressed with the suffixes written before it, and adds its suffixes
+   * to the dictionary.
+   *
+   * @param name   the name to write
+   * @param buffer the buffer to write to
+   */
+  @Override
+  @Contract(mutates = "this,param2")
+  public void write(final @NotNull DomainName name, final @NotNull ByteBuffer buffer) {
+    final int offset = buffer.position();
+    buffer.position(offset + encode(name, buffer, offset));
+  }
+
+  /**
+   * Compresses a name at an offset, adding its suffixes to the dictionary.
+   * <p>
+   * A suffix found at the offset it would be written at was put by a previous measure of this name: it is written
+   * again rather than pointed to.
+   *
+   * @param name   the name to compress
+   * @param buffer the buffer to write to, or null to only measure the name
+   * @param offset the offset of the name in the message
+   * @return the number of bytes the name takes once compressed
+   */
+  private int encode(final @NotNull DomainName name, final @Nullable ByteBuffer buffer, final int offset) {
+    final String[] labels = name.labels();
+    hashSuffixes(labels);
+    int i = offset;
+    for (int l = 0; l < labels.length && !labels[l].isEmpty(); l++) {
+      final int hash = suffixHashes[l];
+      final int slot = find(labels, l, hash);
+      final boolean found = null != names[slot];
+      if (found && offsets[slot] < i) {
+        if (null != buffer) {
+          buffer.putShort(i, (short) (POINTER_MASK | offsets[slot]));
+        }
+        return i - offset + POINTER_LENGTH;
+      }
+      if (!found && MAX_OFFSET >= i) {
+        add(slot, labels, l, hash, i);
+      }
+      final String label = labels[l];
+      final int length = label.length();
+      if (null != buffer) {
+        buffer.put(i, (byte) length);
+        // One byte per character, labels being decoded as ISO-8859-1, as DomainName#getLength assumes
+        for (int c = 0; c < length; c++) {
+          buffer.put(i + 1 + c, (byte) label.charAt(c));
+        }
+      }
+      i += 1 + length;
+    }
+    if (null != buffer) {
+      buffer.put(i, (byte) 0);
+    }
+    return i - offset + 1;
+  }
+
+  /**
+   * Gets the state of the dictionary, to {@link #rollback(int) roll back} to.
+   *
+   * @return the number of suffixes in the dictionary
+   */
+  int mark() {
+    return size;
+  }
+
+  /**
+   * Removes the suffixes added since a {@link #mark() mark}.
+   * <p>
+   * Suffixes are removed in the reverse order they were added, which leaves the probe sequences of the remaining ones
+   * as they were.
+   *
+   * @param mark the mark to roll back to
+   */
+  @Contract(mutates = "this")
+  void rollback(final int mark) {
+    while (size > mark) {
+      size--;
+      names[slots[size]] = null;
+    }
+  }
+
+  /**
+   * Removes all the suffixes, for the dictionary to be reused.
+   */
+  @Contract(mutates = "this")
+  void clear() {
+    rollback(0);
+  }
+
+  /**
+   * Finds the slot of a suffix, or the free slot to add it to.
+   *
+   * @param labels the labels of the name
+   * @param from   the index of the first label of the suffix
+   * @param hash   the hash of the suffix
+   * @return the slot holding the suffix, or the free slot ending its probe sequence
+   */
+  private int find(final String @NotNull [] labels, final int from, final int hash) {
+    final int mask = names.length - 1;
+    int slot = mix(hash) & mask;
+    while (null != names[slot]
+        && (hashes[slot] != hash || !suffixEquals(names[slot], froms[slot], labels, from))) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Adds a suffix to a free slot, growing the table beforehand if it is half full.
+   *
+   * @param slot   the free slot {@link #find(String[], int, int) found} for the suffix
+   * @param labels the labels of the name
+   * @param from   the index of the first label of the suffix
+   * @param hash   the hash of the suffix
+   * @param offset the offset of the suffix in the message
+   */
+  private void add(final int slot, final String @NotNull [] labels, final int from, final int hash,
+      final int offset) {
+    int free = slot;
+    if (2 * (size + 1) > names.length) {
+      grow();
+      free = find(labels, from, hash);
+    }
+    names[free] = labels;
+    froms[free] = from;
+    hashes[free] = hash;
+    offsets[free] = offset;
+    slots[size] = free;
+    size++;
+  }
+
+  /**
+   * Doubles the capacity of the table, adding the suffixes back in the order they were added.
+   */
+  private void grow() {
+    final String[][] oldNames = names;
+    final int[] oldFroms = froms;
+    final int[] oldHashes = hashes;
+    final int[] oldOffsets = offsets;
+    final int[] oldSlots = slots;
+    final int oldSize = size;
+    final int capacity = 2 * oldNames.length;
+    names = new String[capacity][];
+    froms = new int[capacity];
+    hashes = new int[capacity];
+    offsets = new int[capacity];
+    slots = new int[capacity];
+    size = 0;
+    for (int s = 0; s < oldSize; s++) {
+      final int oldSlot = oldSlots[s];
+      final int slot = find(oldNames[oldSlot], oldFroms[oldSlot], oldHashes[oldSlot]);
+      names[slot] = oldNames[oldSlot];
+      froms[slot] = oldFroms[oldSlot];
+      hashes[slot] = oldHashes[oldSlot];
+      offsets[slot] = oldOffsets[oldSlot];
+      slots[size] = slot;
+      size++;
+    }
+  }
+
+  /**
+   * Hashes the suffixes of a name ignoring case, from the last label so that each label is read once.
+   *
+   * @param labels the labels of the name
+   */
+  private void hashSuffixes(final String @NotNull [] labels) {
+    if (suffixHashes.length < labels.length) {
+      suffixHashes = Arrays.copyOf(suffixHashes, labels.length);
+    }
+    int hash = 1;
+    for (int l = labels.length - 1; l >= 0; l--) {
+      final String label = labels[l];
+      final int length = label.length();
+      for (int c = 0; c < length; c++) {
+        hash = 31 * hash + toLowerCase(label.charAt(c));
+      }
+      hash = 31 * hash + length;
+      suffixHashes[l] = hash;
+    }
+  }
+
+  /**
+   * Spreads the bits of a hash, as the low bits select the slot.
+   *
+   * @param hash the hash
+   * @return the spread hash
+   */
+  private static int mix(final int hash) {
+    final int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Compares two suffixes ignoring case.
+   *
+   * @param labels      the labels of the first name
+   * @param from        the index of the first label of the first suffix
+   * @param otherLabels the labels of the second name
+   * @param otherFrom   the index of the first label of the second suffix
+   * @return true if the suffixes are equal ignoring case
+   */
+  private static boolean suffixEquals(final String @NotNull [] labels, final int from,
+      final String @NotNull [] otherLabels, final int otherFrom) {
+    if (labels.length - from != otherLabels.length - otherFrom) {
+      return false;
+    }
+    if (labels == otherLabels) {
+      return true;
+    }
+    for (int l = from, m = otherFrom; l < labels.length; l++, m++) {
+      final String label = labels[l];
+      final String other = otherLabels[m];
+      final int length = label.length();
+      if (length != other.length()) {
+        return false;
+      }
+      for (int c = 0; c < length; c++) {
+        if (toLowerCase(label.charAt(c)) != toLowerCase(other.charAt(c))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Lower cases an ASCII character, as names are compared (RFC 4343).
+   *
+   * @param c the character
+   * @return the lower case character, or the character if it is not an upper case ASCII letter
+   */
+  private static char toLowerCase(final char c) {
+    return 'A' <= c && 'Z' >= c ? (char) (c + ('a' - 'A')) : c;
+  }
+}
@@ -1,9 +1,15 @@
 package fr.lehtto.jaser.dns.entity.writer;
 
 import com.jcabi.aspects.Loggable;
+import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.Question;
 import fr.lehtto.jaser.dns.entity.ResourceRecord;
 import fr.lehtto.jaser.dns.entity.Response;
+import fr.lehtto.jaser.dns.entity.rdata.CompressibleRdata;
+import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -13,11 +19,37 @@ import org.slf4j.LoggerFactory;
  * Writes a DNS response to a buffer.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  * @since 0.1.0
  */
 public final class ResponseWriter {
 
+  /**
+   * Offset of the question count in the header, followed by the answer, authority and additional counts.
+   */
+  private static final int COUNTS_OFFSET = 4;
+
+  /**
+   * Offset of the first byte of the flags in the header.
+   */
+  private static final int FLAGS_OFFSET = 2;
+
+  /**
+   * Mask of the TC flag in the first byte of the flags.
+   */
+  private static final byte TC_MASK = 0x02;
+
+  /**
+   * Length of the type, class, TTL and RDATA length of a record, between its owner name and its RDATA.
+   */
+  private static final int RECORD_FIELDS_LENGTH = 10;
+
+  /**
+   * Per-thread compression dictionaries, cleared once a response is written.
+   */
+  private static final ThreadLocal<CompressionTable> COMPRESSION_TABLES =
+      ThreadLocal.withInitial(CompressionTable::new);
+
   private static final Logger LOG =
       LoggerFactory.getLogger(ResponseWriter.class);
 
@@ -29,79 +61,241 @@ public final class ResponseWriter {
   }
 
   /**
-   * Writes a DNS response to a buffer.
+   * Writes a DNS response to a buffer, as long as the buffer allows.
    *
    * @param response the response to write to the buffer
    * @param buffer   the buffer to write to
    * @return the number of bytes written
+   * @see #write(Response, byte[], int)
    */
   @Contract(mutates = "param2")
-  @Loggable(Loggable.DEBUG)
   public static int write(final @NotNull Response response,
       final byte @NotNull [] buffer) {
+    return write(response, buffer, buffer.length);
+  }
+
+  /**
+   * Writes a DNS response to a buffer, within a size budget.
+   * <p>
+   * Names are compressed with a {@link CompressionTable compression dictionary} of the response, pointing to the
+   * longest suffix already written: owner names, and the names of {@link CompressibleRdata RDATA} defined in RFC 1035.
+   * <p>
+   * Records are written by whole RRsets, the records of a section sharing the same name, type and class. If an RRset
+   * of the answer or authority section does not fit, it is left out with all the following records and the TC flag is
+   * set, so that the client retries over TCP. If it is an RRset of the additional section, the following additional
+   * records are left out without setting the TC flag, as they are optional. The OPT pseudo-record is always written.
+   * <p>
+   * The section counts of the header are those of the written records, the OPT pseudo-record being counted as an
+   * additional record.
+   *
+   * @param response  the response to write to the buffer
+   * @param buffer    the buffer to write to
+   * @param maxLength the maximum number of bytes to write, bounded by the length of the buffer
+   * @return the number of bytes written
+   * @since 1.1.0
+   */
+  @Contract(mutates = "param2")
+  @Loggable(Loggable.DEBUG)
+  public static int write(final @NotNull Response response,
+      final byte @NotNull [] buffer, final int maxLength) {
     LOG.debug("Write response");
+    final ByteBuffer out = ByteBuffer.wrap(buffer, 0, Math.min(maxLength, buffer.length));
+    final int limit = out.limit()
+        - (null == response.edns() ? 0 : response.edns().getLength());
+
+    final CompressionTable compressionTable = COMPRESSION_TABLES.get();
+    try {
+      return write(response, out, limit, compressionTable);
+    } finally {
+      compressionTable.clear();
+    }
+  }
 
+  /**
+   * Writes a DNS response to a buffer, from its start.
+   *
+   * @param response         the response to write to the buffer
+   * @param out              the buffer to write to, positioned at its start
+   * @param limit            the offset the records must end before, leaving room for the OPT pseudo-record
+   * @param compressionTable the compression dictionary of the response, empty
+   * @return the number of bytes written
+   * @since 1.1.0
+   */
+  private static int write(final @NotNull Response response,
+      final @NotNull ByteBuffer out, final int limit,
+      final @NotNull CompressionTable compressionTable) {
     // Write the header
-    int i = Writer.write(response.header(), buffer, 0);
+    response.header().writeTo(out);
 
     // Write the questions
     for (final Question question : response.questions()) {
-      i += Writer.write(question, buffer, i);
+      compressionTable.write(question.name(), out);
+      out.putShort(question.type().getTypeValue());
+      out.putShort(question.recordClass().getValue());
     }
 
     // Write the answerRecords
-    for (final ResourceRecord answer : response.answerRecords()) {
-      resolvePointers(answer, buffer, i);
-      i += Writer.write(answer, buffer, i);
-    }
+    final List<ResourceRecord> answers = response.answerRecords();
+    final int ancount = countFitting(answers, compressionTable, out.position(), limit);
+    writeRecords(answers, ancount, compressionTable, out);
+    boolean truncated = ancount < answers.size();
 
     // Write the authorityRecords
-    for (final ResourceRecord authority : response.authorityRecords()) {
-      resolvePointers(authority, buffer, i);
-      i += Writer.write(authority, buffer, i);
-    }
+    final List<ResourceRecord> authorities = response.authorityRecords();
+    final int nscount = truncated ? 0 : countFitting(authorities, compressionTable, out.position(), limit);
+    writeRecords(authorities, nscount, compressionTable, out);
+    truncated |= nscount < authorities.size();
 
     // Write the additionalRecords
-    for (final ResourceRecord additional : response.additionalRecords()) {
-      resolvePointers(additional, buffer, i);
-      i += Writer.write(additional, buffer, i);
+    final List<ResourceRecord> additionals = response.additionalRecords();
+    final int arcount = truncated ? 0 : countFitting(additionals, compressionTable, out.position(), limit);
+    writeRecords(additionals, arcount, compressionTable, out);
+
+    // Write the OPT pseudo-record
+    if (null != response.edns()) {
+      response.edns().writeTo(out);
     }
 
-    return i;
+    writeCounts(out, response.questions().size(), ancount, nscount,
+        arcount + (null == response.edns() ? 0 : 1));
+    if (truncated) {
+      LOG.debug("Response truncated to {} bytes", out.position());
+      out.put(FLAGS_OFFSET, (byte) (out.get(FLAGS_OFFSET) | TC_MASK));
+    }
+    return out.position();
   }
 
   /**
-   * Resolves pointers in a {@link ResourceRecord}.
+   * Counts the records of a section fitting before the limit, by whole RRsets.
+   * <p>
+   * The names of the fitting records are put in the compression dictionary, at the offsets they are to be written at.
    *
-   * @param answer the answer to resolve pointers for
-   * @param buffer the current buffer
-   * @param i      the current index in the buffer
-   * @since 1.0.0
+   * @param records          the records of the section
+   * @param compressionTable the compression dictionary of the response
+   * @param offset           the offset of the section
+   * @param limit            the offset the records must end before
+   * @return the number of records fitting
+   * @since 1.1.0
    */
-  private static void resolvePointers(final ResourceRecord answer, final byte[] buffer, final int i) {
-    if (!answer.useCompression()) {
-      return;
+  private static int countFitting(final @NotNull List<ResourceRecord> records,
+      final @NotNull CompressionTable compressionTable, final int offset,
+      final int limit) {
+    int i = offset;
+    int fitting = 0;
+    final int size = records.size();
+    while (fitting < size) {
+      final int mark = compressionTable.mark();
+      final ResourceRecord first = records.get(fitting);
+      int end = fitting;
+      int j = i;
+      do {
+        j += putRecord(records.get(end), compressionTable, j);
+        end++;
+      } while (end < size && isSameRrset(first, records.get(end)));
+      if (j > limit) {
+        compressionTable.rollback(mark);
+        break;
+      }
+      i = j;
+      fitting = end;
     }
-    assert null != answer.pointer() : "Compression is enabled but pointer is null";
-    final byte[] pointerBytes = answer.pointer().getBytes();
-    final int pointerBytesLength = pointerBytes.length;
-
-    for (int j = 0; j < i; j++) {
-      if (buffer[j] == pointerBytes[0]) {
-        boolean match = true;
-        for (int k = 0; k < pointerBytesLength; k++) {
-          if (buffer[j + k] != pointerBytes[k]) {
-            // Not matching
-            match = false;
-            break;
-          }
-        }
-        if (match) {
-          // We found the pointer
-          answer.pointerShort(j);
-          break;
-        }
+    return fitting;
+  }
+
+  /**
+   * Puts the names of a record in the compression dictionary, as if it was written at the given offset.
+   *
+   * @param resourceRecord   the record
+   * @param compressionTable the compression dictionary of the response
+   * @param i                the offset of the record
+   * @return the length of the record once compressed
+   * @since 1.1.0
+   */
+  private static int putRecord(final @NotNull ResourceRecord resourceRecord,
+      final @NotNull CompressionTable compressionTable, final int i) {
+    final int ownerLength = compressionTable.put(resourceRecord.owner(), i);
+    final Rdata data = resourceRecord.data();
+    int length = ownerLength + RECORD_FIELDS_LENGTH + data.getLength();
+    if (data instanceof final CompressibleRdata compressibleRdata) {
+      int j = i + ownerLength + RECORD_FIELDS_LENGTH
+          + compressibleRdata.getCompressibleNamesOffset();
+      for (final DomainName name : compressibleRdata.getCompressibleNames()) {
+        final int nameLength = compressionTable.put(name, j);
+        length += nameLength - name.getLength();
+        j += nameLength;
       }
     }
+    return length;
+  }
+
+  /**
+   * Checks if two records belong to the same RRset.
+   *
+   * @param first  the first record
+   * @param second the second record
+   * @return true, if the records share the same name, type and class
+   * @since 1.1.0
+   */
+  private static boolean isSameRrset(final @NotNull ResourceRecord first,
+      final @NotNull ResourceRecord second) {
+    return first.type() == second.type()
+        && first.recordClass() == second.recordClass()
+        && Objects.equals(first.pointer(), second.pointer())
+        && first.name().equals(second.name());
+  }
+
+  /**
+   * Writes the first records of a section.
+   *
+   * @param records          the records of the section
+   * @param count            the number of records to write
+   * @param compressionTable the compression dictionary of the response
+   * @param buffer           the buffer to write to, at its position
+   * @since 1.1.0
+   */
+  private static void writeRecords(final @NotNull List<ResourceRecord> records,
+      final int count, final @NotNull CompressionTable compressionTable,
+      final @NotNull ByteBuffer buffer) {
+    for (int r = 0; r < count; r++) {
+      writeRecord(records.get(r), compressionTable, buffer);
+    }
+  }
+
+  /**
+   * Writes a record, its names being compressed.
+   * <p>
+   * The fields of the record are copied if {@link ResourceRecord#withEncodedFields() encoded} beforehand, only the
+   * names of compressible RDATA going through the compression dictionary.
+   *
+   * @param resourceRecord   the record to write
+   * @param compressionTable the compression dictionary of the response
+   * @param buffer           the buffer to write to, at its position
+   * @since 1.1.0
+   */
+  private static void writeRecord(final @NotNull ResourceRecord resourceRecord,
+      final @NotNull CompressionTable compressionTable,
+      final @NotNull ByteBuffer buffer) {
+    compressionTable.write(resourceRecord.owner(), buffer);
+    resourceRecord.writeFieldsTo(buffer, compressionTable);
+  }
+
+  /**
+   * Writes the section counts of the header.
+   *
+   * @param buffer  the buffer holding the response
+   * @param qdcount the number of questions
+   * @param ancount the number of answer records
+   * @param nscount the number of authority records
+   * @param arcount the number of additional records
+   * @since 1.1.0
+   */
+  @SuppressWarnings("NumericCastThatLosesPrecision")
+  private static void writeCounts(final @NotNull ByteBuffer buffer,
+      final int qdcount, final int ancount, final int nscount,
+      final int arcount) {
+    buffer.putShort(COUNTS_OFFSET, (short) qdcount);
+    buffer.putShort(COUNTS_OFFSET + 2, (short) ancount);
+    buffer.putShort(COUNTS_OFFSET + 4, (short) nscount);
+    buffer.putShort(COUNTS_OFFSET + 6, (short) arcount);
   }
 }
@@ -4,32 +4,80 @@ import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.ResourceRecord;
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 
 /**
  * DNS master file.
+ * <p>
+ * A master file is built by adding records to it, then {@link #freeze() frozen} before it is published to the threads
+ * answering queries. A frozen master file can no longer change, so that it is read without locking: loading more
+ * records builds a {@link #MasterFile(MasterFile) copy} of it to the side, which replaces it once complete. The copy
+ * shares the zones it does not change with the frozen master file.
  *
  * @author lehtto
- * @version 0.2.0
+ * @version 1.1.0
  */
 public class MasterFile {
 
-  private final @NotNull List<Zone> zones = new ArrayList<>();
+  /**
+   * Longest encoded record: the longest name, the fixed fields and the longest RDATA.
+   */
+  private static final int MAX_RECORD_LENGTH = 255 + 10 + 65_535;
+
+  private final @NotNull Map<String, Zone> zones = new LinkedHashMap<>();
   private DnsClass dnsClass;
+  private boolean frozen;
+
+  /**
+   * Default constructor.
+   */
+  public MasterFile() {
+    // Empty master file
+  }
+
+  /**
+   * Copy constructor, to change a copy of a frozen master file.
+   * <p>
+   * The zones are shared with the copied master file, a zone being copied along with its parents on its first change
+   * only, so that making and changing the copy cost the changed names rather than the whole master file.
+   *
+   * @param masterFile the frozen master file to copy
+   * @throws IllegalArgumentException if the master file is not frozen
+   * @since 1.1.0
+   */
+  public MasterFile(final @NotNull MasterFile masterFile) {
+    if (!masterFile.frozen) {
+      throw new IllegalArgumentException("Only a frozen master file can be copied");
+    }
+    dnsClass = masterFile.dnsClass;
+    zones.putAll(masterFile.zones);
+  }
 
   /**
    * Adds a record to the master file.
    *
    * @param resourceRecord the resource record to add
-   * @throws InvalidDnsZoneEntryException if the record is invalid
+   * @throws InvalidDnsZoneEntryException if the record is invalid, or of the root name
+   * @throws IllegalStateException         if the master file is frozen
    */
   public void addRecord(final @NotNull ResourceRecord resourceRecord)
       throws InvalidDnsZoneEntryException {
+    if (frozen) {
+      throw new IllegalStateException("The master file is frozen");
+    }
+    if (0 == resourceRecord.name().labels().length) {
+      throw new InvalidDnsZoneEntryException("Records of the root name are not supported.");
+    }
     // Check if the record is valid.
     if (null == dnsClass) {
       dnsClass = resourceRecord.recordClass();
@@ -39,9 +87,90 @@ public class MasterFile {
           "The record class is not the same as the master file's class.");
     }
 
-    final String[] labels = resourceRecord.name().labels();
-    final int length = labels.length;
-    insertResourceRecord(resourceRecord, labels, length - 1);
+    getZoneToChange(resourceRecord.name().labels()).addRecord(resourceRecord);
+  }
+
+  /**
+   * Removes the records of a name matching a filter.
+   *
+   * @param name   the name of the records
+   * @param filter the filter of the records to remove
+   * @return the number of records removed
+   * @throws IllegalStateException if the master file is frozen
+   * @since 1.1.0
+   */
+  int removeRecords(final @NotNull DomainName name, final @NotNull Predicate<ResourceRecord> filter) {
+    if (frozen) {
+      throw new IllegalStateException("The master file is frozen");
+    }
+    final Zone zone = search(name).orElse(null);
+    if (null == zone || zone.getRecords().stream().noneMatch(filter)) {
+      return 0;
+    }
+    return getZoneToChange(name.labels()).removeRecords(filter);
+  }
+
+  /**
+   * Freezes the master file, once all its records are added, for it to be read concurrently.
+   * <p>
+   * The unmodifiable lists of records of its zones are made, so that reading them does not write, and any later change
+   * is rejected.
+   *
+   * @return this master file
+   * @since 1.1.0
+   */
+  public @NotNull MasterFile freeze() {
+    if (!frozen) {
+      zones.values().forEach(Zone::freeze);
+      frozen = true;
+    }
+    return this;
+  }
+
+  /**
+   * Counts the records of the master file which are not in another one, records being compared by their encoding.
+   * <p>
+   * A record present several times is counted as many times as it is missing from the other master file.
+   *
+   * @param other the master file to compare with
+   * @return the number of records not in the other master file
+   * @since 1.1.0
+   */
+  public int countRecordsNotIn(final @NotNull MasterFile other) {
+    final Map<ByteBuffer, Integer> otherRecords = new HashMap<>();
+    for (final ByteBuffer encoded : other.encodeRecords()) {
+      otherRecords.merge(encoded, 1, Integer::sum);
+    }
+    int count = 0;
+    for (final ByteBuffer encoded : encodeRecords()) {
+      final Integer remaining = otherRecords.get(encoded);
+      if (null == remaining) {
+        count++;
+      } else if (1 == remaining) {
+        otherRecords.remove(encoded);
+      } else {
+        otherRecords.put(encoded, remaining - 1);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Encodes the records of the master file, to compare them.
+   *
+   * @return the encoded records
+   */
+  private @NotNull List<ByteBuffer> encodeRecords() {
+    final List<ByteBuffer> result = new ArrayList<>(size());
+    final ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD_LENGTH);
+    for (final Zone zone : zones.values()) {
+      for (final ResourceRecord resourceRecord : zone.getRecordsFlatList()) {
+        buffer.clear();
+        resourceRecord.writeTo(buffer);
+        result.add(ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.position())));
+      }
+    }
+    return result;
   }
 
   /**
@@ -50,7 +179,7 @@ public class MasterFile {
    * @return the zone's size
    */
   public int size() {
-    return zones.stream().mapToInt(Zone::size).sum();
+    return zones.values().stream().mapToInt(Zone::size).sum();
   }
 
   /**
@@ -62,7 +191,7 @@ public class MasterFile {
   @UnmodifiableView
   @Deprecated(forRemoval = true)
   public @NotNull List<ResourceRecord> getRecords() {
-    return zones.stream()
+    return zones.values().stream()
         .map(Zone::getRecordsFlatList)
         .flatMap(List::stream)
         .toList();
@@ -78,95 +207,38 @@ public class MasterFile {
   }
 
   /**
-   * Inserts a resource record in the master file.
-   *
-   * @param resourceRecord the resource record to insert
-   * @param labels         the labels of the resource record
-   * @param labelPosition  the position of the label to insert the resource record in
-   */
-  private void insertResourceRecord(final @NotNull ResourceRecord resourceRecord,
-      final String[] labels,
-      final int labelPosition) {
-    final @NotNull List<Zone> children = this.zones;
-
-    final Zone newZone = insertResourceRecord(children, resourceRecord, labels, labelPosition);
-    if (null != newZone) {
-      this.zones.add(newZone);
-    }
-  }
-
-  /**
-   * Inserts a resource record in the master file.
+   * Gets the zone of a name to change it, adding the zones of the name down from the top level one, and copying the
+   * ones shared with a frozen master file.
    *
-   * @param parent         the parent zone
-   * @param resourceRecord the resource record to insert
-   * @param labels         the labels of the resource record
-   * @param labelPosition  the position of the label to insert the resource record in
+   * @param labels the labels of the name
+   * @return the zone of the name, which can be changed
    */
-  private void insertResourceRecord(final @NotNull Zone parent,
-      final @NotNull ResourceRecord resourceRecord,
-      final String[] labels,
-      final int labelPosition) {
-    final @NotNull List<Zone> children = parent.getSubZones();
-    final Zone newZone = insertResourceRecord(children, resourceRecord, labels, labelPosition);
-    if (null != newZone) {
-      final List<Zone> newChildren = new ArrayList<>(children);
-      newChildren.add(newZone);
-      parent.setSubZones(newChildren);
+  private @NotNull Zone getZoneToChange(final String @NotNull [] labels) {
+    final String topLabel = labels[labels.length - 1];
+    Zone zone = zones.compute(Zone.key(topLabel), (key, top) -> null == top ? new Zone(topLabel) : top.toChange());
+    for (int position = labels.length - 2; 0 <= position; position--) {
+      zone = zone.getOrAddSubZone(labels[position]);
     }
+    return zone;
   }
 
-
-  /**
-   * Inserts a resource record in the master file.
-   *
-   * @param children       the children zones
-   * @param resourceRecord the resource record to insert
-   * @param labels         the labels of the resource record
-   * @param labelPosition  the position of the label to insert the resource
-   * @return the new zone or null if zone already exists
-   */
-  @Nullable
-  private Zone insertResourceRecord(final @NotNull List<Zone> children,
-      final
-      @NotNull ResourceRecord resourceRecord,
-      final String[] labels,
-      final int labelPosition) {
-    for (final Zone zone : children) {
-      if (labels[labelPosition].equals(zone.getLabel())) {
-        if (0 == labelPosition) {
-          zone.addRecord(resourceRecord);
-          return null;
-        }
-        insertResourceRecord(zone, resourceRecord, labels, labelPosition - 1);
-        return null;
-      }
-    }
-    final Zone newZone = new Zone(labels[labelPosition]);
-    if (0 == labelPosition) {
-      newZone.addRecord(resourceRecord);
-    } else {
-      insertResourceRecord(newZone, resourceRecord, labels, labelPosition - 1);
-    }
-    return newZone;
-  }
-
-
   /**
    * Searches for a resource record in the master file.
+   * <p>
+   * The root name is in no zone, records of the root name not being supported.
    *
    * @param domainName the domain name to search for
    * @return the resource record if found
    */
   public Optional<Zone> search(final @NotNull DomainName domainName) {
     final String[] labels = domainName.labels();
-    for (final Zone zone : zones) {
-      final Optional<Zone> optionalZone =
-          zone.search(labels, labels.length - 1);
-      if (optionalZone.isPresent()) {
-        return optionalZone;
-      }
+    if (0 == labels.length) {
+      return Optional.empty();
+    }
+    Zone zone = zones.get(Zone.key(labels[labels.length - 1]));
+    for (int position = labels.length - 2; null != zone && 0 <= position; position--) {
+      zone = zone.getSubZone(labels[position]);
     }
-    return Optional.empty();
+    return Optional.ofNullable(zone);
   }
 }
@@ -3,13 +3,14 @@ package fr.lehtto.jaser.dns.master.file;
 import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.ResourceRecord;
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
-import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
 import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
 import fr.lehtto.jaser.dns.entity.rdata.RDataFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Scanner;
 import org.jetbrains.annotations.NotNull;
@@ -20,7 +21,7 @@ import org.slf4j.LoggerFactory;
  * Parser for DNS master file.
  *
  * @author lehtto
- * @version 0.2.0
+ * @version 1.1.0
  */
 public final class MasterFileParser {
 
@@ -41,10 +42,29 @@ public final class MasterFileParser {
    * @param file       the file to parse
    * @return the number of entries parsed
    * @throws InvalidDnsZoneEntryException if the master file is invalid
+   * @throws IOException                  if the master file or an included file cannot be read
    */
   public static int parse(final @NotNull MasterFile masterFile,
                           final @NotNull File file)
-      throws InvalidDnsZoneEntryException {
+      throws InvalidDnsZoneEntryException, IOException {
+    return parse(masterFile, file, new ArrayList<>());
+  }
+
+  /**
+   * Parses a DNS master file, collecting the files read.
+   *
+   * @param masterFile the master file to add the records to
+   * @param file       the file to parse
+   * @param readFiles  the collection to add the file and the files it includes to, as they are read
+   * @return the number of entries parsed
+   * @throws InvalidDnsZoneEntryException if the master file is invalid
+   * @throws IOException                  if the master file or an included file cannot be read
+   * @since 1.1.0
+   */
+  public static int parse(final @NotNull MasterFile masterFile,
+                          final @NotNull File file,
+                          final @NotNull Collection<File> readFiles)
+      throws InvalidDnsZoneEntryException, IOException {
     // Determine the zone name from the file name.
     final String domain;
     if (file.getName().endsWith(".zone")) {
@@ -55,6 +75,7 @@ public final class MasterFileParser {
     }
 
     // Read the file.
+    readFiles.add(file);
     final List<String> lines = readLines(file);
 
     // Parse the file.
@@ -79,14 +100,14 @@ public final class MasterFileParser {
 
       if (ParseTokenStateMachine.CONTROL == parsedTokens.get(0).type()) {
         // This is a control line.
-        handleControlLine(file, parsedTokens, parserInputContext);
+        handleControlLine(file, parsedTokens, parserInputContext, readFiles);
         continue;
       }
 
       // This is a resource record line.
       final String recordDomain =
           retrieveDomain(parserInputContext, parsedTokens);
-      final Type type = retrieveType(parsedTokens);
+      final RecordType type = retrieveType(parsedTokens);
       final int ttl = retrieveTtl(parserInputContext, parsedTokens);
       final DnsClass dnsClass = retrieveClass(parserInputContext, parsedTokens);
       final String[] data = retrieveData(parsedTokens);
@@ -112,18 +133,22 @@ public final class MasterFileParser {
    * @param masterFile         the master file to parse
    * @param parsedTokens       the parsed tokens
    * @param parserInputContext the parser input context
+   * @param readFiles          the files read, to add the included file to
    * @throws InvalidDnsZoneEntryException if the master file is invalid
+   * @throws IOException                  if the included file cannot be read
    */
   private static void
   handleControlLine(final @NotNull File masterFile,
                     final @NotNull List<ParsedToken> parsedTokens,
-                    final @NotNull ParserInputContext parserInputContext)
-      throws InvalidDnsZoneEntryException {
+                    final @NotNull ParserInputContext parserInputContext,
+                    final @NotNull Collection<File> readFiles)
+      throws InvalidDnsZoneEntryException, IOException {
     LOG.debug("Control line: {}", parsedTokens);
     switch (parsedTokens.get(0).value()) {
       case "$INCLUDE" -> {
         final String fileName = parsedTokens.get(1).value();
         final File file = new File(masterFile.getParent(), fileName);
+        readFiles.add(file);
         final List<String> includedLines = readLines(file);
         parserInputContext.addLines(includedLines);
         LOG.debug("Included file: {}", file);
@@ -139,7 +164,10 @@ public final class MasterFileParser {
         LOG.debug("TTL: {}", ttl);
       }
       case "$CLASS" -> {
-        final DnsClass dnsClass = DnsClass.valueOf(parsedTokens.get(1).value());
+        final DnsClass dnsClass = DnsClass.lookup(parsedTokens.get(1).value());
+        if (null == dnsClass) {
+          throw new InvalidDnsZoneEntryException("Unknown class: " + parsedTokens);
+        }
         parserInputContext.setDnsClass(dnsClass);
         LOG.debug("Class: {}", dnsClass);
       }
@@ -149,20 +177,26 @@ public final class MasterFileParser {
 
   /**
    * Reads the lines of a file.
+   * <p>
+   * The file is read as ISO-8859-1, each byte giving one character, so that names and texts are written as they are
+   * in the file.
    *
    * @param file the file to read
    * @return the lines of the file
+   * @throws IOException if the file cannot be read, as when it is missing
    */
-  private static List<String> readLines(final @NotNull File file) {
+  private static List<String> readLines(final @NotNull File file) throws IOException {
     // Read the file.
     final List<String> lines = new ArrayList<>();
-    try (final Scanner scanner = new Scanner(file, StandardCharsets.UTF_8)) {
+    try (final Scanner scanner = new Scanner(file, StandardCharsets.ISO_8859_1)) {
       while (scanner.hasNextLine()) {
         final String line = scanner.nextLine();
         lines.add(line);
       }
-    } catch (final IOException e) {
-      LOG.warn("Could not read file.", e);
+      // The scanner stops at the first read error as if the file ended there
+      if (null != scanner.ioException()) {
+        throw scanner.ioException();
+      }
     }
     return lines;
   }
@@ -200,13 +234,13 @@ public final class MasterFileParser {
    * @return the type
    * @throws InvalidDnsZoneEntryException if the type is not found
    */
-  private static @NotNull Type retrieveType(final @NotNull List<ParsedToken> parsedTokens)
+  private static @NotNull RecordType retrieveType(final @NotNull List<ParsedToken> parsedTokens)
       throws InvalidDnsZoneEntryException {
     return parsedTokens.stream()
         .filter(token -> ParseTokenStateMachine.TYPE == token.type())
         .map(ParsedToken::value)
         .findFirst()
-        .map(Type::valueOf)
+        .map(RecordType::lookup)
         .orElseThrow(() -> new InvalidDnsZoneEntryException("Could not determine type."));
   }
 
@@ -245,7 +279,7 @@ public final class MasterFileParser {
                 .filter(token -> ParseTokenStateMachine.CLASS == token.type())
                 .map(ParsedToken::value)
                 .findFirst()
-                .map(DnsClass::valueOf)
+                .map(DnsClass::lookup)
                 .orElseGet(parserInputContext::getDnsClass);
         assert null != dnsClass : "DnsClass should not be null.";
         return dnsClass;
@@ -4,7 +4,7 @@ package fr.lehtto.jaser.dns.master.file;
 import fr.lehtto.jaser.dns.entity.DomainName;
 import fr.lehtto.jaser.dns.entity.ResourceRecord;
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
-import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
 import java.util.List;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
@@ -13,7 +13,7 @@ import org.jetbrains.annotations.NotNull;
  * Querier for the master file.
  *
  * @author lehtto
- * @version 0.2.0
+ * @version 1.1.0
  */
 public class MasterFileQuerier {
 
@@ -52,7 +52,7 @@ public class MasterFileQuerier {
      * @param type the type to filter by
      * @return the filtered records
      */
-    public @NotNull TypeFilteredMasterFileQuerier withType(final @NotNull Type type) {
+    public @NotNull TypeFilteredMasterFileQuerier withType(final @NotNull RecordType type) {
       final Stream<ResourceRecord> filteredRecords = this.masterFiles
           .map(MasterFile::getRecords)
           .flatMap(List::stream)
@@ -0,0 +1,151 @@
+package fr.lehtto.jaser.dns.master.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches master files for changes, reloading them in the background.
+ * <p>
+ * The directories of the files are watched, as editors and deployments often replace a file rather than write to it.
+ * Once a file changes, the watcher waits for the changes to settle before reloading, so that a file written in several
+ * steps is reloaded once. The reload gives the files to watch next, which may include other files than before.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public final class MasterFileWatcher implements Runnable, Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MasterFileWatcher.class);
+
+  /**
+   * Time without changes to wait for before reloading, in milliseconds.
+   */
+  private static final long QUIET_PERIOD_MILLIS = 200;
+
+  private final @NotNull WatchService watchService;
+  private final @NotNull Supplier<Collection<File>> reloader;
+  private final @NotNull Set<Path> directories = new HashSet<>();
+  private @NotNull Set<Path> files = Set.of();
+
+  /**
+   * Valued constructor.
+   *
+   * @param files    the files to watch
+   * @param reloader reloads the files, returning the files to watch next
+   * @throws IOException if the watch service cannot be created
+   */
+  public MasterFileWatcher(final @NotNull Collection<File> files,
+      final @NotNull Supplier<Collection<File>> reloader) throws IOException {
+    watchService = FileSystems.getDefault().newWatchService();
+    this.reloader = reloader;
+    watch(files);
+  }
+
+  /**
+   * Waits for changes of the files and reloads them, until closed.
+   */
+  @Override
+  public void run() {
+    LOG.info("Watching {} master files for changes", files.size());
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        if (hasChanged(watchService.take())) {
+          WatchKey key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+          while (null != key) {
+            hasChanged(key);
+            key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+          }
+          reload();
+        }
+      }
+    } catch (final ClosedWatchServiceException e) {
+      LOG.debug("Master file watcher closed");
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.debug("Master file watcher interrupted");
+    }
+  }
+
+  /**
+   * Stops watching the files.
+   *
+   * @throws IOException if the watch service cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  /**
+   * Reloads the files, watching the same files again if the reload fails, so that a failure does not stop the watcher.
+   */
+  private void reload() {
+    try {
+      watch(reloader.get());
+    } catch (final RuntimeException e) {
+      LOG.error("Could not reload the master files", e);
+    }
+  }
+
+  /**
+   * Watches the given files, watching their directories not watched yet.
+   *
+   * @param watchedFiles the files to watch
+   */
+  private void watch(final @NotNull Collection<File> watchedFiles) {
+    files = watchedFiles.stream()
+        .map(file -> file.toPath().toAbsolutePath().normalize())
+        .collect(Collectors.toUnmodifiableSet());
+    for (final Path file : files) {
+      final Path directory = file.getParent();
+      if (null != directory && !directories.contains(directory)) {
+        try {
+          directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+          directories.add(directory);
+        } catch (final IOException e) {
+          LOG.warn("Could not watch directory {}", directory, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Consumes the events of a watch key, and resets it.
+   *
+   * @param key the signalled key
+   * @return true if one of the files changed, or if events were lost
+   */
+  private boolean hasChanged(final @NotNull WatchKey key) {
+    final Path directory = (Path) key.watchable();
+    boolean changed = false;
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      if (StandardWatchEventKinds.OVERFLOW == event.kind()
+          || files.contains(directory.resolve((Path) event.context()))) {
+        LOG.debug("Master file event {} on {}", event.kind(), event.context());
+        changed = true;
+      }
+    }
+    if (!key.reset()) {
+      directories.remove(directory);
+    }
+    return changed;
+  }
+}
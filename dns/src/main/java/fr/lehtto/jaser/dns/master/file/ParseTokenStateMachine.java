@@ -1,9 +1,8 @@
 package fr.lehtto.jaser.dns.master.file;
 
-import fr.lehtto.jaser.core.utils.EnumUtils;
 import fr.lehtto.jaser.core.utils.NumberUtils;
 import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
-import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
 
 /**
  * State machine for parsing a {@link Token}.
@@ -19,10 +18,10 @@ enum ParseTokenStateMachine {
         if (NumberUtils.isParsable(token.value())) {
           return TTL;
         }
-        if (EnumUtils.isValidEnum(Type.class, token.value())) {
+        if (null != RecordType.lookup(token.value())) {
           return TYPE;
         }
-        if (EnumUtils.isValidEnum(DnsClass.class, token.value())) {
+        if (null != DnsClass.lookup(token.value())) {
           return CLASS;
         }
         return INVALID;
@@ -42,10 +41,10 @@ enum ParseTokenStateMachine {
         if (NumberUtils.isParsable(token.value())) {
           return TTL;
         }
-        if (EnumUtils.isValidEnum(Type.class, token.value())) {
+        if (null != RecordType.lookup(token.value())) {
           return TYPE;
         }
-        if (EnumUtils.isValidEnum(DnsClass.class, token.value())) {
+        if (null != DnsClass.lookup(token.value())) {
           return CLASS;
         }
       }
@@ -56,10 +55,10 @@ enum ParseTokenStateMachine {
     @Override
     public ParseTokenStateMachine next(final Token token) {
       if (TokenType.DATA == token.type()) {
-        if (EnumUtils.isValidEnum(Type.class, token.value())) {
+        if (null != RecordType.lookup(token.value())) {
           return TYPE;
         }
-        if (EnumUtils.isValidEnum(DnsClass.class, token.value())) {
+        if (null != DnsClass.lookup(token.value())) {
           return CLASS;
         }
       }
@@ -82,7 +81,7 @@ enum ParseTokenStateMachine {
         if (NumberUtils.isParsable(token.value())) {
           return TTL;
         }
-        if (EnumUtils.isValidEnum(Type.class, token.value())) {
+        if (null != RecordType.lookup(token.value())) {
           return TYPE;
         }
       }
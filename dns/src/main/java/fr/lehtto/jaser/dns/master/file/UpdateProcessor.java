@@ -0,0 +1,421 @@
+package fr.lehtto.jaser.dns.master.file;
+
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.Update;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.SoaRdata;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a dynamic update to a master file (RFC 2136 section 3).
+ * <p>
+ * The zone of the update must have a SOA record in the master file. The prerequisites are checked and the update
+ * section prescanned before any change, so that an update which is not applied leaves the master file as it was.
+ * The records are then added and deleted one after the other, and the serial of the SOA record incremented if the
+ * zone changed, unless the update replaced the SOA record itself.
+ * <p>
+ * The master file is meant to be a {@link MasterFile#MasterFile(MasterFile) copy} of the one answering queries,
+ * published once the update is applied, so that only the changed names are copied.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public final class UpdateProcessor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(UpdateProcessor.class);
+
+  private final @NotNull MasterFile masterFile;
+  private final @NotNull Update update;
+  private final @NotNull DomainName zoneName;
+  private final @NotNull DnsClass zoneClass;
+  private boolean soaReplaced;
+  private int addedCount;
+  private int removedCount;
+
+  /**
+   * Valued constructor.
+   *
+   * @param masterFile the master file to apply the update to, not frozen
+   * @param update     the update to apply
+   */
+  public UpdateProcessor(final @NotNull MasterFile masterFile, final @NotNull Update update) {
+    this.masterFile = masterFile;
+    this.update = update;
+    zoneName = update.zone().name();
+    zoneClass = update.zone().recordClass();
+  }
+
+  /**
+   * Checks the zone and the prerequisites of the update, and applies it if they hold.
+   *
+   * @return the result of the update, {@link RCode#NO_ERROR} if it was applied
+   */
+  public @NotNull RCode process() {
+    if (Type.SOA != update.zone().type()) {
+      return RCode.FORMAT_ERROR;
+    }
+    // The root zone is never served, records of the root name not being supported
+    if (0 == zoneName.labels().length || zoneClass != masterFile.getDnsClass() || null == getSoa()) {
+      LOG.info("Not authoritative for zone {}", zoneName.value());
+      return RCode.NOT_AUTHORITATIVE;
+    }
+    RCode rcode = checkPrerequisites();
+    if (RCode.NO_ERROR != rcode) {
+      return rcode;
+    }
+    rcode = prescan();
+    if (RCode.NO_ERROR != rcode) {
+      return rcode;
+    }
+    for (final ResourceRecord resourceRecord : update.updates()) {
+      apply(resourceRecord);
+    }
+    if (hasChanged() && !soaReplaced) {
+      incrementSerial();
+    }
+    return RCode.NO_ERROR;
+  }
+
+  /**
+   * Whether the update changed the master file.
+   *
+   * @return true if records were added or removed
+   */
+  public boolean hasChanged() {
+    return 0 < addedCount || 0 < removedCount;
+  }
+
+  /**
+   * Gets the number of records added by the update, the SOA record with an incremented serial aside.
+   *
+   * @return the number of records added
+   */
+  public int getAddedCount() {
+    return addedCount;
+  }
+
+  /**
+   * Gets the number of records removed by the update, the SOA record with an outdated serial aside.
+   *
+   * @return the number of records removed
+   */
+  public int getRemovedCount() {
+    return removedCount;
+  }
+
+  /**
+   * Checks the prerequisites of the update (RFC 2136 section 3.2).
+   *
+   * @return {@link RCode#NO_ERROR} if they all hold, the error otherwise
+   */
+  private @NotNull RCode checkPrerequisites() {
+    final Map<String, List<ResourceRecord>> rrsets = new LinkedHashMap<>();
+    for (final ResourceRecord prerequisite : update.prerequisites()) {
+      if (0 != prerequisite.ttl()) {
+        return RCode.FORMAT_ERROR;
+      }
+      if (!isInZone(prerequisite.name())) {
+        return RCode.NOT_ZONE;
+      }
+      final DnsClass recordClass = prerequisite.recordClass();
+      final boolean anyType = Type.ANY == prerequisite.type();
+      if (DnsClass.ANY == recordClass || DnsClass.NONE == recordClass) {
+        if (0 != prerequisite.data().getLength()) {
+          return RCode.FORMAT_ERROR;
+        }
+        final List<ResourceRecord> records = getRecords(prerequisite.name(), anyType ? null : prerequisite.type());
+        if (DnsClass.ANY == recordClass && records.isEmpty()) {
+          return anyType ? RCode.NAME_ERROR : RCode.RRSET_NOT_EXISTS;
+        }
+        if (DnsClass.NONE == recordClass && !records.isEmpty()) {
+          return anyType ? RCode.NAME_EXISTS : RCode.RRSET_EXISTS;
+        }
+      } else if (zoneClass == recordClass) {
+        rrsets.computeIfAbsent(rrsetKey(prerequisite), key -> new ArrayList<>()).add(prerequisite);
+      } else {
+        return RCode.FORMAT_ERROR;
+      }
+    }
+    // Value dependent prerequisites: the RRsets must hold exactly the given records
+    for (final List<ResourceRecord> rrset : rrsets.values()) {
+      final ResourceRecord first = rrset.get(0);
+      if (!hasSameData(getRecords(first.name(), first.type()), rrset)) {
+        return RCode.RRSET_NOT_EXISTS;
+      }
+    }
+    return RCode.NO_ERROR;
+  }
+
+  /**
+   * Prescans the update section (RFC 2136 section 3.4.1).
+   *
+   * @return {@link RCode#NO_ERROR} if the records can all be applied, the error otherwise
+   */
+  private @NotNull RCode prescan() {
+    for (final ResourceRecord resourceRecord : update.updates()) {
+      if (!isInZone(resourceRecord.name())) {
+        return RCode.NOT_ZONE;
+      }
+      final DnsClass recordClass = resourceRecord.recordClass();
+      final RecordType type = resourceRecord.type();
+      final boolean valid;
+      if (zoneClass == recordClass) {
+        valid = !isMetaType(type) && Type.ANY != type;
+      } else if (DnsClass.ANY == recordClass) {
+        valid = 0 == resourceRecord.ttl() && 0 == resourceRecord.data().getLength() && !isMetaType(type);
+      } else if (DnsClass.NONE == recordClass) {
+        valid = 0 == resourceRecord.ttl() && !isMetaType(type) && Type.ANY != type;
+      } else {
+        valid = false;
+      }
+      if (!valid) {
+        return RCode.FORMAT_ERROR;
+      }
+    }
+    return RCode.NO_ERROR;
+  }
+
+  /**
+   * Applies a record of the update section (RFC 2136 section 3.4.2).
+   *
+   * @param resourceRecord the record to apply
+   */
+  private void apply(final @NotNull ResourceRecord resourceRecord) {
+    final DomainName name = resourceRecord.name();
+    final RecordType type = resourceRecord.type();
+    final boolean apex = isZoneName(name);
+    if (DnsClass.ANY == resourceRecord.recordClass()) {
+      if (Type.ANY == type) {
+        // Delete all the RRsets of the name, but the SOA and NS RRsets of the zone
+        removedCount += masterFile.removeRecords(name, existing ->
+            !apex || (Type.SOA != existing.type() && Type.NS != existing.type()));
+      } else if (!apex || (Type.SOA != type && Type.NS != type)) {
+        removedCount += masterFile.removeRecords(name, existing -> isSameType(existing, type));
+      }
+    } else if (DnsClass.NONE == resourceRecord.recordClass()) {
+      if (Type.SOA == type || apex && Type.NS == type && 1 >= getRecords(name, Type.NS).size()) {
+        // The SOA record and the last NS record of the zone are never deleted
+        return;
+      }
+      removedCount += masterFile.removeRecords(name, existing -> isSameRecord(existing, resourceRecord));
+    } else if (Type.SOA == type) {
+      replaceSoa(resourceRecord, apex);
+    } else {
+      add(resourceRecord);
+    }
+  }
+
+  /**
+   * Adds a record, unless it conflicts with a CNAME record, replacing the record with the same data if its TTL differs.
+   *
+   * @param resourceRecord the record to add
+   */
+  private void add(final @NotNull ResourceRecord resourceRecord) {
+    final List<ResourceRecord> records = getRecords(resourceRecord.name(), null);
+    final boolean cname = Type.CNAME == resourceRecord.type();
+    for (final ResourceRecord existing : records) {
+      if (cname != (Type.CNAME == existing.type())) {
+        // A CNAME record cannot coexist with other data
+        return;
+      }
+      if (isSameRecord(existing, resourceRecord) && existing.ttl() == resourceRecord.ttl()) {
+        return;
+      }
+    }
+    removedCount += masterFile.removeRecords(resourceRecord.name(), existing -> cname
+        ? Type.CNAME == existing.type()
+        : isSameRecord(existing, resourceRecord));
+    addRecord(resourceRecord);
+    addedCount++;
+  }
+
+  /**
+   * Replaces the SOA record of the zone, if the serial of the new one is greater (RFC 1982).
+   *
+   * @param soa  the new SOA record
+   * @param apex whether the record is the one of the zone
+   */
+  private void replaceSoa(final @NotNull ResourceRecord soa, final boolean apex) {
+    final ResourceRecord current = getSoa();
+    if (!apex || null == current || !(soa.data() instanceof final SoaRdata soaRdata)
+        || !(current.data() instanceof final SoaRdata currentRdata)
+        || 0 >= soaRdata.serial() - currentRdata.serial()) {
+      return;
+    }
+    removedCount += masterFile.removeRecords(zoneName, existing -> Type.SOA == existing.type());
+    addRecord(soa);
+    addedCount++;
+    soaReplaced = true;
+  }
+
+  /**
+   * Increments the serial of the SOA record of the zone.
+   */
+  private void incrementSerial() {
+    final ResourceRecord soa = getSoa();
+    if (null == soa || !(soa.data() instanceof final SoaRdata soaRdata)) {
+      return;
+    }
+    masterFile.removeRecords(zoneName, existing -> Type.SOA == existing.type());
+    addRecord(soa.toBuilder()
+        .data(new SoaRdata(soaRdata.origin(), soaRdata.contact(), soaRdata.serial() + 1, soaRdata.refresh(),
+                           soaRdata.retry(), soaRdata.expire(), soaRdata.minimum()))
+        .build());
+  }
+
+  /**
+   * Adds a record to the master file, without counting it.
+   *
+   * @param resourceRecord the record to add, of the class of the master file
+   */
+  private void addRecord(final @NotNull ResourceRecord resourceRecord) {
+    try {
+      masterFile.addRecord(resourceRecord);
+    } catch (final InvalidDnsZoneEntryException e) {
+      // Cannot happen: the class of the record is the one of the zone, checked to be the one of the master file
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Gets the SOA record of the zone.
+   *
+   * @return the SOA record, or null if the zone has none
+   */
+  private @Nullable ResourceRecord getSoa() {
+    final List<ResourceRecord> soa = getRecords(zoneName, Type.SOA);
+    return soa.isEmpty() ? null : soa.get(0);
+  }
+
+  /**
+   * Gets the records of a name.
+   *
+   * @param name the name
+   * @param type the type of the records, null for all of them
+   * @return the records
+   */
+  private @NotNull List<ResourceRecord> getRecords(final @NotNull DomainName name, final @Nullable RecordType type) {
+    return masterFile.search(name)
+        .map(zone -> null == type ? zone.getRecords() : zone.getRecords(type))
+        .orElse(List.of());
+  }
+
+  /**
+   * Checks whether a name is in the zone of the update, ignoring case.
+   *
+   * @param name the name
+   * @return true if the name is the name of the zone or a name below it
+   */
+  private boolean isInZone(final @NotNull DomainName name) {
+    final String[] labels = name.labels();
+    final String[] zoneLabels = zoneName.labels();
+    if (labels.length < zoneLabels.length) {
+      return false;
+    }
+    final int offset = labels.length - zoneLabels.length;
+    for (int l = 0; l < zoneLabels.length; l++) {
+      if (!labels[offset + l].equalsIgnoreCase(zoneLabels[l])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether a name is the name of the zone, ignoring case.
+   *
+   * @param name the name
+   * @return true if the name is the name of the zone
+   */
+  private boolean isZoneName(final @NotNull DomainName name) {
+    return name.labels().length == zoneName.labels().length && isInZone(name);
+  }
+
+  /**
+   * Checks whether the records of an RRset have the same data as the given ones, whatever their order.
+   *
+   * @param rrset   the RRset of the master file
+   * @param records the records of the prerequisite
+   * @return true if the data are the same
+   */
+  private static boolean hasSameData(final @NotNull List<ResourceRecord> rrset,
+      final @NotNull List<ResourceRecord> records) {
+    return rrset.stream().map(ResourceRecord::data).map(UpdateProcessor::encode).map(ByteBuffer::wrap)
+        .distinct().sorted().toList()
+        .equals(records.stream().map(ResourceRecord::data).map(UpdateProcessor::encode).map(ByteBuffer::wrap)
+                    .distinct().sorted().toList());
+  }
+
+  /**
+   * Checks whether two records have the same type and data.
+   *
+   * @param resourceRecord the first record
+   * @param other          the second record
+   * @return true if their type and data are the same
+   */
+  private static boolean isSameRecord(final @NotNull ResourceRecord resourceRecord,
+      final @NotNull ResourceRecord other) {
+    return isSameType(resourceRecord, other.type())
+        && Arrays.equals(encode(resourceRecord.data()), encode(other.data()));
+  }
+
+  /**
+   * Checks whether a record has the given type.
+   *
+   * @param resourceRecord the record
+   * @param type           the type
+   * @return true if the record has the type
+   */
+  private static boolean isSameType(final @NotNull ResourceRecord resourceRecord, final @NotNull RecordType type) {
+    return resourceRecord.type().getTypeValue() == type.getTypeValue();
+  }
+
+  /**
+   * Checks whether a type only makes sense in a question or an EDNS message.
+   *
+   * @param type the type
+   * @return true if no record of the zone can have the type
+   */
+  private static boolean isMetaType(final @NotNull RecordType type) {
+    return Type.AXFR == type || Type.IXFR == type || Type.MAILA == type || Type.MAILB == type || Type.OPT == type;
+  }
+
+  /**
+   * Gets the key of the RRset of a record: its name ignoring case, and its type.
+   *
+   * @param resourceRecord the record
+   * @return the key
+   */
+  private static @NotNull String rrsetKey(final @NotNull ResourceRecord resourceRecord) {
+    return String.join(".", resourceRecord.name().labels()).toLowerCase(Locale.ROOT) + ' '
+        + resourceRecord.type().getTypeValue();
+  }
+
+  /**
+   * Encodes RDATA, its names written in full, to compare it.
+   *
+   * @param data the RDATA
+   * @return the encoded RDATA
+   */
+  private static byte @NotNull [] encode(final @NotNull Rdata data) {
+    final ByteBuffer buffer = ByteBuffer.allocate(data.getLength());
+    data.writeTo(buffer);
+    return buffer.array();
+  }
+}
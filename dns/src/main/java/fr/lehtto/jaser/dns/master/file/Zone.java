@@ -1,25 +1,60 @@
 package fr.lehtto.jaser.dns.master.file;
 
 import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
 import fr.lehtto.jaser.dns.entity.enumration.Type;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 /**
  * Zone DNS.
+ * <p>
+ * Records are stored with their fields {@link ResourceRecord#withEncodedFields() encoded}, so that answering copies
+ * them rather than encoding them for each response. They are also grouped by type into RRsets, built as the records
+ * are added and made unmodifiable once frozen, so that a typed lookup neither filters nor copies them.
+ * <p>
+ * Sub zones are indexed by their label ignoring case (RFC 4343), so that finding one does not depend on how many
+ * there are.
+ * <p>
+ * A zone is read concurrently once {@link #freeze() frozen} along with its master file, after which it can no longer
+ * change. Changing a frozen zone starts from a {@link #toChange() copy} of it, sharing its sub zones.
  *
  * @author Lehtto
- * @version 1.0.0
+ * @version 1.1.0
  */
 public class Zone {
 
   private final @NotNull String label;
   private final @NotNull List<ResourceRecord> records = new ArrayList<>();
-  private final @NotNull List<Zone> subZones = new ArrayList<>();
+  private final @NotNull Map<String, Zone> subZones = new LinkedHashMap<>();
+
+  /**
+   * RRsets by type, types being unique per value: growable while the zone changes, unmodifiable once frozen.
+   */
+  private final @NotNull Map<RecordType, List<ResourceRecord>> rrsets = new HashMap<>();
+
+  /**
+   * Types of the RRsets shared with the frozen zone this one is a copy of, copied when first changed.
+   */
+  private final @NotNull Set<RecordType> sharedRrsets = new HashSet<>();
+
+  /**
+   * Unmodifiable copy of the records, made on the first read following a change of the records.
+   */
+  private volatile @Nullable List<ResourceRecord> recordsCopy;
+
+  private boolean frozen;
 
   /**
    * Valued constructor.
@@ -28,6 +63,19 @@ public class Zone {
    */
   Zone(final @NotNull String label) { this.label = label; }
 
+  /**
+   * Copy constructor, sharing the records, RRsets and sub zones of a frozen zone.
+   *
+   * @param zone the zone to copy
+   */
+  private Zone(final @NotNull Zone zone) {
+    label = zone.label;
+    records.addAll(zone.records);
+    subZones.putAll(zone.subZones);
+    rrsets.putAll(zone.rrsets);
+    sharedRrsets.addAll(zone.rrsets.keySet());
+  }
+
   /**
    * Gets the label of the zone.
    *
@@ -47,7 +95,7 @@ public class Zone {
   @NotNull
   List<ResourceRecord> getRecordsFlatList() {
     final List<ResourceRecord> result = new ArrayList<>(records);
-    for (final Zone zone : subZones) {
+    for (final Zone zone : subZones.values()) {
       result.addAll(zone.getRecordsFlatList());
     }
     return List.copyOf(result);
@@ -60,49 +108,163 @@ public class Zone {
    */
   @Unmodifiable
   public @NotNull List<ResourceRecord> getRecords() {
-    return List.copyOf(records);
+    List<ResourceRecord> copy = recordsCopy;
+    if (null == copy) {
+      copy = List.copyOf(records);
+      recordsCopy = copy;
+    }
+    return copy;
   }
 
   /**
-   * Gets the sub zones of the zone.
+   * Gets the RRset of the given type.
    *
-   * @return the subZones
+   * @param type the type of the records
+   * @return the records of this type, in the order they were added
+   * @since 1.1.0
    */
   @Unmodifiable
+  public @NotNull List<ResourceRecord> getRecords(final @NotNull RecordType type) {
+    final List<ResourceRecord> rrset = rrsets.getOrDefault(type, List.of());
+    return frozen ? rrset : Collections.unmodifiableList(rrset);
+  }
+
+  /**
+   * Gets the sub zone with the given label, ignoring case.
+   *
+   * @param label the label of the sub zone
+   * @return the sub zone, or null if there is none
+   * @since 1.1.0
+   */
+  @Nullable
+  Zone getSubZone(final @NotNull String label) {
+    return subZones.get(key(label));
+  }
+
+  /**
+   * Gets the sub zone with the given label, ignoring case, to change it: adding it if there is none, and copying it
+   * if it is frozen.
+   *
+   * @param label the label of the sub zone
+   * @return the sub zone
+   * @since 1.1.0
+   */
   @NotNull
-  List<Zone> getSubZones() {
-    return List.copyOf(subZones);
+  Zone getOrAddSubZone(final @NotNull String label) {
+    checkNotFrozen();
+    return subZones.compute(key(label), (key, zone) -> null == zone ? new Zone(label) : zone.toChange());
   }
 
   /**
-   * Sets the sub zones of the zone.
+   * Gets the zone to change it: this zone, or a copy if it is frozen.
    *
-   * @param subZones the new sub zones
+   * @return the zone, which can be changed
+   * @since 1.1.0
    */
-  void setSubZones(final @Nullable List<Zone> subZones) {
-    this.subZones.clear();
-    if (null != subZones) {
-      this.subZones.addAll(subZones);
-    }
+  @NotNull
+  Zone toChange() {
+    return frozen ? new Zone(this) : this;
   }
 
   /**
-   * Adds a record to the zone.
+   * Adds a record to the zone, encoding its fields.
    *
    * @param dnsRecord the record to add
    */
   void addRecord(final @NotNull ResourceRecord dnsRecord) {
-    records.add(dnsRecord);
+    checkNotFrozen();
+    final ResourceRecord encoded = dnsRecord.withEncodedFields();
+    records.add(encoded);
+    recordsCopy = null;
+    rrsetToChange(encoded.type()).add(encoded);
   }
 
   /**
-   * Adds a sub zone to the zone.
+   * Removes the records matching a filter.
+   *
+   * @param filter the filter of the records to remove
+   * @return the number of records removed
+   * @since 1.1.0
+   */
+  int removeRecords(final @NotNull Predicate<ResourceRecord> filter) {
+    checkNotFrozen();
+    final int size = records.size();
+    final Set<RecordType> types = new HashSet<>();
+    records.removeIf(dnsRecord -> {
+      if (!filter.test(dnsRecord)) {
+        return false;
+      }
+      types.add(dnsRecord.type());
+      return true;
+    });
+    if (types.isEmpty()) {
+      return 0;
+    }
+    recordsCopy = null;
+    // Only the RRsets of the removed records are rebuilt
+    for (final RecordType type : types) {
+      rrsets.remove(type);
+      sharedRrsets.remove(type);
+    }
+    for (final ResourceRecord dnsRecord : records) {
+      if (types.contains(dnsRecord.type())) {
+        rrsetToChange(dnsRecord.type()).add(dnsRecord);
+      }
+    }
+    return size - records.size();
+  }
+
+  /**
+   * Gets the RRset of the given type to change it: adding it if there is none, and copying it if it is shared with a
+   * frozen zone.
+   *
+   * @param type the type of the records
+   * @return the growable RRset
+   */
+  private @NotNull List<ResourceRecord> rrsetToChange(final @NotNull RecordType type) {
+    if (sharedRrsets.remove(type)) {
+      return rrsets.compute(type, (key, rrset) -> new ArrayList<>(rrset));
+    }
+    return rrsets.computeIfAbsent(type, key -> new ArrayList<>());
+  }
+
+  /**
+   * Adds a sub zone to the zone, replacing the one with the same label.
    *
    * @param zone the zone to add
+   * @throws IllegalStateException if the zone is frozen
    */
   public void addSubZone(final @Nullable Zone zone) {
+    checkNotFrozen();
     if (null != zone) {
-      subZones.add(zone);
+      subZones.put(key(zone.label), zone);
+    }
+  }
+
+  /**
+   * Freezes the zone and its sub zones not frozen yet, making the unmodifiable copies of their records and RRsets.
+   *
+   * @since 1.1.0
+   */
+  void freeze() {
+    if (frozen) {
+      return;
+    }
+    recordsCopy = List.copyOf(records);
+    rrsets.replaceAll((type, rrset) -> List.copyOf(rrset));
+    sharedRrsets.clear();
+    subZones.values().forEach(Zone::freeze);
+    frozen = true;
+  }
+
+  /**
+   * Checks that the zone can still change.
+   *
+   * @throws IllegalStateException if the zone is frozen
+   */
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new IllegalStateException("The zone is frozen");
     }
   }
 
@@ -112,8 +274,8 @@ public class Zone {
    * @return true if the zone contains a SOA record, false otherwise
    */
   private boolean isSoaPresent() {
-    return records.stream().anyMatch(r -> Type.SOA == r.type()) ||
-        subZones.stream().anyMatch(Zone::isSoaPresent);
+    return rrsets.containsKey(Type.SOA) ||
+        subZones.values().stream().anyMatch(Zone::isSoaPresent);
   }
 
   /**
@@ -122,28 +284,17 @@ public class Zone {
    * @return the size of the zone
    */
   public int size() {
-    return records.size() + subZones.stream().mapToInt(Zone::size).sum();
+    return records.size() + subZones.values().stream().mapToInt(Zone::size).sum();
   }
 
   /**
-   * Searches for a zone with the given label.
+   * Gets the key a label is indexed by: the label in lower case, as names are compared ignoring case.
    *
-   * @param labels   the labels
-   * @param position the label position
-   * @return the zone
+   * @param label the label
+   * @return the key of the label
+   * @since 1.1.0
    */
-  Optional<Zone> search(final String[] labels, final int position) {
-    if (labels[position].equals(label)) {
-      if (0 == position) {
-        return Optional.of(this);
-      }
-      for (final Zone zone : subZones) {
-        final Optional<Zone> optionalZone = zone.search(labels, position - 1);
-        if (optionalZone.isPresent()) {
-          return optionalZone;
-        }
-      }
-    }
-    return Optional.empty();
+  static @NotNull String key(final @NotNull String label) {
+    return label.toLowerCase(Locale.ROOT);
   }
 }
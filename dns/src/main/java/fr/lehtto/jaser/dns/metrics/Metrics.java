@@ -1,22 +1,39 @@
 package fr.lehtto.jaser.dns.metrics;
 
+import fr.lehtto.jaser.core.BufferPool;
+import fr.lehtto.jaser.core.Server;
+import fr.lehtto.jaser.dns.cache.ResponseCache;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Metrics.
  *
  * @author Lehtto
- * @version 0.2.0
+ * @version 1.1.0
  */
 public class Metrics {
 
+  private final MeterRegistry registry;
   private final Counter zoneSize;
   private final Counter aQuery;
   private final Counter nsQuery;
   private final Counter cnameQuery;
   private final Timer queryTimer;
+  private final Timer zoneReloadTimer;
+  private final Timer failedZoneReloadTimer;
+  private final Counter addedRecords;
+  private final Counter removedRecords;
+  private final Map<RCode, Counter> updates = new EnumMap<>(RCode.class);
+  private final Counter updateAddedRecords;
+  private final Counter updateRemovedRecords;
 
   /**
    * Valued constructor.
@@ -24,11 +41,42 @@ public class Metrics {
    * @param registry MeterRegistry to use
    */
   Metrics(final MeterRegistry registry) {
+    this.registry = registry;
     zoneSize = Counter.builder("jaser_dns_zone_size").description("Size of the DNS zone").register(registry);
     aQuery = Counter.builder("jaser_dns_query").tag("type", "A").register(registry);
     nsQuery = Counter.builder("jaser_dns_query").tag("type", "NS").register(registry);
     cnameQuery = Counter.builder("jaser_dns_query").tag("type", "CNAME").register(registry);
     queryTimer = Timer.builder("jaser_dns_query_time").register(registry);
+    zoneReloadTimer = Timer.builder("jaser_dns_zone_reload_time")
+        .description("Time to reload the DNS zone files")
+        .tag("result", "success")
+        .register(registry);
+    failedZoneReloadTimer = Timer.builder("jaser_dns_zone_reload_time")
+        .description("Time to reload the DNS zone files")
+        .tag("result", "failure")
+        .register(registry);
+    addedRecords = Counter.builder("jaser_dns_zone_reload_records")
+        .description("Number of records changed by the reloads of the DNS zone files")
+        .tag("change", "added")
+        .register(registry);
+    removedRecords = Counter.builder("jaser_dns_zone_reload_records")
+        .description("Number of records changed by the reloads of the DNS zone files")
+        .tag("change", "removed")
+        .register(registry);
+    for (final RCode rcode : RCode.values()) {
+      updates.put(rcode, Counter.builder("jaser_dns_update")
+          .description("Number of dynamic updates")
+          .tag("rcode", rcode.name())
+          .register(registry));
+    }
+    updateAddedRecords = Counter.builder("jaser_dns_update_records")
+        .description("Number of records changed by the dynamic updates")
+        .tag("change", "added")
+        .register(registry);
+    updateRemovedRecords = Counter.builder("jaser_dns_update_records")
+        .description("Number of records changed by the dynamic updates")
+        .tag("change", "removed")
+        .register(registry);
   }
 
   /**
@@ -40,6 +88,44 @@ public class Metrics {
     zoneSize.increment(size);
   }
 
+  /**
+   * Records a reload of the zone files.
+   *
+   * @param nanos   how long the reload took, in nanoseconds
+   * @param added   the number of records added by the reload
+   * @param removed the number of records removed by the reload
+   * @since 1.1.0
+   */
+  public void recordZoneReload(final long nanos, final int added, final int removed) {
+    zoneReloadTimer.record(nanos, TimeUnit.NANOSECONDS);
+    addedRecords.increment(added);
+    removedRecords.increment(removed);
+  }
+
+  /**
+   * Records a reload of the zone files which failed, leaving the zone as it was.
+   *
+   * @param nanos how long the reload took until it failed, in nanoseconds
+   * @since 1.1.0
+   */
+  public void recordFailedZoneReload(final long nanos) {
+    failedZoneReloadTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records a dynamic update.
+   *
+   * @param rcode   the result of the update
+   * @param added   the number of records added by the update
+   * @param removed the number of records removed by the update
+   * @since 1.1.0
+   */
+  public void recordUpdate(final RCode rcode, final int added, final int removed) {
+    updates.get(rcode).increment();
+    updateAddedRecords.increment(added);
+    updateRemovedRecords.increment(removed);
+  }
+
   /**
    * Increments the A query counter.
    *
@@ -67,6 +153,75 @@ public class Metrics {
     cnameQuery.increment(number);
   }
 
+  /**
+   * Registers the in-flight, work queue and buffer pool metrics of the given server.
+   *
+   * @param server the server to monitor
+   */
+  public void bindServer(final Server<?> server) {
+    Gauge.builder("jaser_dns_in_flight", server, Server::getInFlightCount)
+        .description("Number of queries accepted and not answered yet")
+        .register(registry);
+    Gauge.builder("jaser_dns_queue_depth", server, Server::getQueueDepth)
+        .description("Number of queries waiting for a worker")
+        .register(registry);
+    FunctionCounter.builder("jaser_dns_overload", server, Server::getDroppedCount)
+        .description("Number of queries given up because the work queue was full")
+        .tag("action", "dropped")
+        .register(registry);
+    FunctionCounter.builder("jaser_dns_overload", server, Server::getRejectedCount)
+        .description("Number of queries given up because the work queue was full")
+        .tag("action", "rejected")
+        .register(registry);
+    server.getBufferPool().ifPresent(bufferPool -> {
+      FunctionCounter.builder("jaser_dns_buffer_pool", bufferPool, BufferPool::getHitCount)
+          .description("Number of I/O buffers requested from the pool")
+          .tag("result", "hit")
+          .register(registry);
+      FunctionCounter.builder("jaser_dns_buffer_pool", bufferPool, BufferPool::getMissCount)
+          .description("Number of I/O buffers requested from the pool")
+          .tag("result", "miss")
+          .register(registry);
+    });
+  }
+
+  /**
+   * Registers the open connections metric of the given DNS over TCP server.
+   *
+   * @param server the server to monitor
+   */
+  public void bindTcpServer(final Server<?> server) {
+    Gauge.builder("jaser_dns_tcp_connections", server, Server::getInFlightCount)
+        .description("Number of open DNS over TCP connections")
+        .register(registry);
+  }
+
+  /**
+   * Registers the hit, miss, eviction and size metrics of the given response cache.
+   *
+   * @param responseCache the response cache to monitor
+   */
+  public void bindResponseCache(final ResponseCache responseCache) {
+    FunctionCounter.builder("jaser_dns_response_cache", responseCache, ResponseCache::getHitCount)
+        .description("Number of cacheable queries")
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("jaser_dns_response_cache", responseCache, ResponseCache::getMissCount)
+        .description("Number of cacheable queries")
+        .tag("result", "miss")
+        .register(registry);
+    Gauge.builder("jaser_dns_response_cache_hit_ratio", responseCache, ResponseCache::getHitRatio)
+        .description("Ratio of the cacheable queries answered from the response cache")
+        .register(registry);
+    FunctionCounter.builder("jaser_dns_response_cache_evictions", responseCache, ResponseCache::getEvictionCount)
+        .description("Number of responses evicted from the response cache")
+        .register(registry);
+    Gauge.builder("jaser_dns_response_cache_size", responseCache, ResponseCache::getSize)
+        .description("Bytes of the cached responses")
+        .baseUnit("bytes")
+        .register(registry);
+  }
+
   /**
    * Gets the query timer.
    *
@@ -1,20 +1,40 @@
 package fr.lehtto.jaser.dns.query.handler;
 
+import fr.lehtto.jaser.dns.entity.Flags;
+import fr.lehtto.jaser.dns.entity.Header;
 import fr.lehtto.jaser.dns.entity.Query;
+import fr.lehtto.jaser.dns.entity.Question;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
 import fr.lehtto.jaser.dns.entity.Response;
+import fr.lehtto.jaser.dns.entity.enumration.QR;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * {@link QueryHandler Query handler} for A (IPv4) query.
+ * {@link QueryHandler Query handler} for the types without a dedicated handler, including unknown types (RFC 3597).
+ * <p>
+ * The records of the queried type are answered as they are, an empty answer meaning that the name has no such records
+ * (NODATA). Query-only types, such as zone transfers, are not implemented.
  *
  * @author lehtto
  * @since  0.1.0
- * @version 0.2.0
+ * @version 1.1.0
  */
+@SuppressWarnings("NumericCastThatLosesPrecision")
 final class DefaultQueryHandler implements QueryHandler {
 
   static final DefaultQueryHandler INSTANCE = new DefaultQueryHandler();
 
+  /**
+   * Types which are only found in questions or in the additional section, never in a zone.
+   */
+  private static final Set<Type> NOT_IMPLEMENTED_TYPES =
+      EnumSet.of(Type.OPT, Type.IXFR, Type.AXFR, Type.MAILB, Type.MAILA, Type.ANY);
+
   /**
    * Default constructor.
    */
@@ -24,7 +44,37 @@ final class DefaultQueryHandler implements QueryHandler {
 
   @Override
   public @NotNull Response handleValidatedQuery(final @NotNull Query query) {
-    LOG.warn("Unsupported query type: {}", query.questions().get(0).type());
-    return QueryHandlerHelper.INSTANCE.newNotImplementedResponse(query);
+    // Current implementation only supports one question
+    final Question question = query.questions().get(0);
+    if (question.type() instanceof Type type && NOT_IMPLEMENTED_TYPES.contains(type)) {
+      LOG.debug("Unsupported query type: {}", type);
+      return QueryHandlerHelper.INSTANCE.newNotImplementedResponse(query);
+    }
+
+    final List<ResourceRecord> answers = QueryHandlerHelper.INSTANCE.search(question);
+
+    // Create response header's flags
+    final Flags flags = query.header()
+                            .flags()
+                            .toBuilder()
+                            .qr(QR.RESPONSE)
+                            .rcode(RCode.NO_ERROR)
+                            .build();
+
+    // Create response's header
+    final Header header = query.header()
+                              .toBuilder()
+                              .ancount((short)answers.size())
+                              .flags(flags)
+                              .build();
+
+    // Create response
+    return Response.builder()
+        .header(header)
+        .questions(query.questions())
+        .answers(answers)
+        .noAuthorityRecords()
+        .noAdditionalRecords()
+        .build();
   }
 }
@@ -2,6 +2,7 @@ package fr.lehtto.jaser.dns.query.handler;
 
 import fr.lehtto.jaser.dns.QueryValidator;
 import fr.lehtto.jaser.dns.QueryValidator.QueryValidationResult;
+import fr.lehtto.jaser.dns.entity.Edns;
 import fr.lehtto.jaser.dns.entity.Query;
 import fr.lehtto.jaser.dns.entity.Response;
 import fr.lehtto.jaser.dns.entity.enumration.OpCode;
@@ -16,7 +17,7 @@ import org.slf4j.LoggerFactory;
  * DNS query handler.
  *
  * @author lehtto
- * @version 0.1.0
+ * @version 1.1.0
  */
 @FunctionalInterface
 public interface QueryHandler {
@@ -28,12 +29,27 @@ public interface QueryHandler {
    * <ul>
    *   <li>Validates the query</li>
    *   <li>Creates the response</li>
+   *   <li>Adds the EDNS parameters of the server if the query has some</li>
    * </ul>
    *
    * @param query the query to handle
    * @return the response
    */
   default Response handle(final @NotNull Query query) {
+    if (null != query.edns() && Edns.VERSION != query.edns().version()) {
+      LOG.info("Unsupported EDNS version: {}", query.edns().version());
+      return QueryHandlerHelper.INSTANCE.newBadVersionResponse(query);
+    }
+    return QueryHandlerHelper.INSTANCE.withEdns(query, respond(query));
+  }
+
+  /**
+   * Validates the given query and creates its response.
+   *
+   * @param query the query to handle
+   * @return the response
+   */
+  private Response respond(final @NotNull Query query) {
     // Validate the query
     final QueryValidationResult validationResult =
         QueryValidator.validate(query);
@@ -1,13 +1,15 @@
 package fr.lehtto.jaser.dns.query.handler;
 
 import fr.lehtto.jaser.dns.entity.Query;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * DNS query handler factory.
  *
  * @author lehtto
- * @version 0.1.0
+ * @version 1.1.0
  */
 public final class QueryHandlerFactory {
 
@@ -26,11 +28,25 @@ public final class QueryHandlerFactory {
    */
   public static QueryHandler fromQuery(final @NotNull Query query) {
     // Current implementation only handles 1 question per query (check type of first question)
-    return switch (query.questions().get(0).type()) {
+    // Without any question read, the default handler answers the query with a format error
+    if (query.questions().isEmpty() || !(query.questions().get(0).type() instanceof Type type)) {
+      return DefaultQueryHandler.INSTANCE;
+    }
+    return switch (type) {
       case A -> AQueryHandler.INSTANCE;
       case NS -> NSQueryHandler.INSTANCE;
       case CNAME -> CnameQueryHandler.INSTANCE;
       default -> DefaultQueryHandler.INSTANCE;
     };
   }
+
+  /**
+   * Creates a {@link QueryHandler Query handler} answering every valid query with the given error.
+   *
+   * @param rcode the error to answer with
+   * @return the handler
+   */
+  public static QueryHandler fromRCode(final @NotNull RCode rcode) {
+    return query -> QueryHandlerHelper.INSTANCE.newErrorResponse(query, rcode);
+  }
 }
@@ -2,12 +2,11 @@ package fr.lehtto.jaser.dns.query.handler;
 
 import fr.lehtto.jaser.dns.Dns;
 import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.Edns;
 import fr.lehtto.jaser.dns.entity.Query;
 import fr.lehtto.jaser.dns.entity.Question;
 import fr.lehtto.jaser.dns.entity.ResourceRecord;
-import fr.lehtto.jaser.dns.entity.ResourceRecord.Builder;
 import fr.lehtto.jaser.dns.entity.Response;
-import fr.lehtto.jaser.dns.entity.Writable;
 import fr.lehtto.jaser.dns.entity.enumration.QR;
 import fr.lehtto.jaser.dns.entity.enumration.RCode;
 import fr.lehtto.jaser.dns.entity.rdata.MultiNamedRData;
@@ -15,7 +14,6 @@ import fr.lehtto.jaser.dns.entity.rdata.NamedRData;
 import fr.lehtto.jaser.dns.master.file.Zone;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
@@ -23,6 +21,7 @@ import org.jetbrains.annotations.Unmodifiable;
  * Helper class for {@link QueryHandler}.
  *
  * @author lehtto
+ * @version 1.1.0
  * @since 1.0.0
  */
 final class QueryHandlerHelper {
@@ -38,6 +37,8 @@ final class QueryHandlerHelper {
 
   /**
    * Search in zone for the given question.
+   * <p>
+   * The records are the RRset of the zone, their owner name being compressed against the question when written.
    *
    * @param question the question to search for
    * @return the list of resource records found
@@ -46,14 +47,8 @@ final class QueryHandlerHelper {
   @NotNull List<ResourceRecord> search(final @NotNull Question question) {
     return Dns.INSTANCE.getMasterFile()
         .search(question.name())
-        .stream()
-        .map(Zone::getRecords)
-        .flatMap(List::stream)
-        .filter(resourceRecord -> question.type() == resourceRecord.type())
-        .map(ResourceRecord::toBuilder)
-        .map(builder -> builder.pointer(question))
-        .map(Builder::build)
-        .toList();
+        .map(zone -> zone.getRecords(question.type()))
+        .orElse(List.of());
   }
 
   /**
@@ -69,10 +64,10 @@ final class QueryHandlerHelper {
     final ArrayList<ResourceRecord> result = new ArrayList<>();
     for (final ResourceRecord answer : answers) {
       if (answer.data() instanceof NamedRData namedRData) {
-        search(namedRData.getName(), namedRData.getName()).forEach(result::add);
+        result.addAll(search(namedRData.getName()));
       } else if (answer.data() instanceof MultiNamedRData namedRData) {
         for (final DomainName name : namedRData.getNames()) {
-          search(name, name).forEach(result::add);
+          result.addAll(search(name));
         }
       }
     }
@@ -86,6 +81,49 @@ final class QueryHandlerHelper {
    * @return the response
    */
   Response newNotImplementedResponse(final @NotNull Query query) {
+    return newErrorResponse(query, RCode.NOT_IMPLEMENTED);
+  }
+
+  /**
+   * Adds the EDNS parameters of the server to the response of a query using EDNS, with the DO bit of the query.
+   *
+   * @param query    the query
+   * @param response the response to the query
+   * @return the response, with EDNS parameters if the query had some
+   * @since 1.1.0
+   */
+  Response withEdns(final @NotNull Query query, final @NotNull Response response) {
+    if (null == query.edns()) {
+      return response;
+    }
+    return response.toBuilder()
+        .edns(Edns.of(Dns.INSTANCE.getEdnsPayloadSize(), query.edns().dnssecOk()))
+        .build();
+  }
+
+  /**
+   * Creates the response to a query using an unsupported EDNS version.
+   *
+   * @param query the query to answer
+   * @return the response, with the BADVERS extended error
+   * @since 1.1.0
+   */
+  Response newBadVersionResponse(final @NotNull Query query) {
+    return newErrorResponse(query, RCode.NO_ERROR)
+        .toBuilder()
+        .edns(new Edns(Dns.INSTANCE.getEdnsPayloadSize(), Edns.BAD_VERSION, Edns.VERSION,
+                       null != query.edns() && query.edns().dnssecOk()))
+        .build();
+  }
+
+  /**
+   * Creates a response with the given error.
+   *
+   * @param query the query to answer
+   * @param rcode the error to answer with
+   * @return the response
+   */
+  Response newErrorResponse(final @NotNull Query query, final @NotNull RCode rcode) {
     return Response.builder()
         .header(query.header()
             .toBuilder()
@@ -93,7 +131,7 @@ final class QueryHandlerHelper {
                 .flags()
                 .toBuilder()
                 .qr(QR.RESPONSE)
-                .rcode(RCode.NOT_IMPLEMENTED)
+                .rcode(rcode)
                 .build())
             .build())
         .questions(query.questions())
@@ -106,18 +144,14 @@ final class QueryHandlerHelper {
   /**
    * Search in zone for the given name.
    *
-   * @param name    the name to search for
-   * @param pointer the pointer to use for the resource records
+   * @param name the name to search for
    * @return the list of resource records found
    */
-  private Stream<ResourceRecord> search(final @NotNull DomainName name, final @NotNull Writable pointer) {
+  @Unmodifiable
+  private @NotNull List<ResourceRecord> search(final @NotNull DomainName name) {
     return Dns.INSTANCE.getMasterFile()
         .search(name)
-        .stream()
         .map(Zone::getRecords)
-        .flatMap(List::stream)
-        .map(ResourceRecord::toBuilder)
-        .map(builder -> builder.pointer(pointer))
-        .map(Builder::build);
+        .orElse(List.of());
   }
 }
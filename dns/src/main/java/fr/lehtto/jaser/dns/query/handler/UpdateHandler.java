@@ -0,0 +1,76 @@
+package fr.lehtto.jaser.dns.query.handler;
+
+import fr.lehtto.jaser.dns.Dns;
+import fr.lehtto.jaser.dns.entity.Edns;
+import fr.lehtto.jaser.dns.entity.Query;
+import fr.lehtto.jaser.dns.entity.Response;
+import fr.lehtto.jaser.dns.entity.Update;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handler of the UPDATE messages (RFC 2136), applying them to the zone in memory.
+ * <p>
+ * Only the clients {@link Dns#isUpdateAllowed(InetAddress) allowed to} may update the zone, the updates of the other
+ * ones being refused. The response echoes the zone section of the update, with the result of the update.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+public final class UpdateHandler {
+
+  public static final UpdateHandler INSTANCE = new UpdateHandler();
+
+  private static final Logger LOG = LoggerFactory.getLogger(UpdateHandler.class);
+
+  /**
+   * Default constructor.
+   */
+  private UpdateHandler() {
+    // This constructor should not be called
+  }
+
+  /**
+   * Handles an UPDATE message.
+   *
+   * @param message the message, from its position to its limit
+   * @param query   the query read from the message, its question being the zone section
+   * @param client  the address of the client
+   * @return the response
+   */
+  public @NotNull Response handle(final @NotNull ByteBuffer message, final @NotNull Query query,
+      final @NotNull InetAddress client) {
+    if (null != query.edns() && Edns.VERSION != query.edns().version()) {
+      LOG.info("Unsupported EDNS version: {}", query.edns().version());
+      return QueryHandlerHelper.INSTANCE.newBadVersionResponse(query);
+    }
+    return QueryHandlerHelper.INSTANCE.withEdns(query, QueryHandlerHelper.INSTANCE.newErrorResponse(query,
+        respond(message, client)));
+  }
+
+  /**
+   * Applies an UPDATE message, if the client is allowed to.
+   *
+   * @param message the message
+   * @param client  the address of the client
+   * @return the result of the update
+   */
+  private static @NotNull RCode respond(final @NotNull ByteBuffer message, final @NotNull InetAddress client) {
+    if (!Dns.INSTANCE.isUpdateAllowed(client)) {
+      LOG.info("Update refused to {}", client);
+      return RCode.REFUSED;
+    }
+    final Update update;
+    try {
+      update = Update.read(message);
+    } catch (final IllegalArgumentException e) {
+      LOG.info("Update is invalid: {}", e.getMessage());
+      return RCode.FORMAT_ERROR;
+    }
+    return Dns.INSTANCE.update(update);
+  }
+}
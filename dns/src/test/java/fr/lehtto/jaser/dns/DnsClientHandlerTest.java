@@ -0,0 +1,106 @@
+package fr.lehtto.jaser.dns;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.opt;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static fr.lehtto.jaser.dns.Messages.record;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fr.lehtto.jaser.dns.entity.Edns;
+import fr.lehtto.jaser.dns.entity.Query;
+import java.net.InetAddress;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the handling of the EDNS parameters of the queries by the {@link DnsClientHandler UDP client handler}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class DnsClientHandlerTest {
+
+  @Test
+  void limitsResponsesTo512BytesWithoutEdns() {
+    assertEquals(512, DnsClientHandler.getMaxResponseSize(read(Messages.query(1, "www.example.com", 1))));
+  }
+
+  @Test
+  void limitsResponsesToThePayloadSizeOfTheClientAndServer() {
+    final int serverSize = Dns.INSTANCE.getEdnsPayloadSize();
+
+    assertEquals(512, DnsClientHandler.getMaxResponseSize(read(Messages.query(1, "www.example.com", 1, 100))));
+    assertEquals(512, DnsClientHandler.getMaxResponseSize(read(Messages.query(1, "www.example.com", 1, 0))));
+    assertEquals(1000, DnsClientHandler.getMaxResponseSize(read(Messages.query(1, "www.example.com", 1, 1000))));
+    assertEquals(serverSize, DnsClientHandler.getMaxResponseSize(read(Messages.query(1, "www.example.com", 1,
+                                                                                   serverSize + 1))));
+    assertEquals(serverSize, DnsClientHandler.getMaxResponseSize(read(Messages.query(1, "www.example.com", 1,
+                                                                                   65535))));
+  }
+
+  @Test
+  void answersBadVersionToUnknownEdnsVersions() {
+    final byte[] message = concat(header(1, 0x0100, 1, 0, 0, 1), question("www.example.com", 1, Messages.IN),
+                                  opt(1232, 1, false, new byte[0]));
+    final Query query = read(message);
+    final byte[] buffer = new byte[512];
+
+    final int length = DnsClientHandler.writeResponse(message, message.length, query,
+                                                      InetAddress.getLoopbackAddress(), buffer, 512);
+
+    // No record, the BADVERS extended rcode in the OPT record of version 0
+    final byte[] response = Arrays.copyOf(buffer, length);
+    assertArrayEquals(header(1, 0x8100, 1, 0, 0, 1), Arrays.copyOf(response, 12));
+    assertArrayEquals(record(name(""), 41, Dns.INSTANCE.getEdnsPayloadSize(), Edns.BAD_VERSION << 24, new byte[0]),
+                      Arrays.copyOfRange(response, length - 11, length));
+  }
+
+  @Test
+  void copiesTheDnssecOkBitOfTheQuery() {
+    final int payloadSize = Dns.INSTANCE.getEdnsPayloadSize();
+
+    // DO bit in the flags, the lower 16 bits of the TTL of the OPT record
+    assertArrayEquals(record(name(""), 41, payloadSize, 0x8000, new byte[0]), optRecord(true));
+    assertArrayEquals(record(name(""), 41, payloadSize, 0, new byte[0]), optRecord(false));
+  }
+
+  @Test
+  void answersFormatErrorToUnknownClasses() {
+    final byte[] message = concat(header(1, 0x0100, 1, 0, 0, 1), question("www.example.com", 1, 1234),
+                                  opt(1232, 0, false, new byte[0]));
+    final byte[] buffer = new byte[512];
+
+    final int length = DnsClientHandler.writeResponse(message, message.length, read(message),
+                                                      InetAddress.getLoopbackAddress(), buffer, 512);
+
+    // No question, the OPT record following the unknown question still being read
+    assertArrayEquals(concat(header(1, 0x8101, 0, 0, 0, 1),
+                             record(name(""), 41, Dns.INSTANCE.getEdnsPayloadSize(), 0, new byte[0])),
+                      Arrays.copyOf(buffer, length));
+  }
+
+  /**
+   * Answers a query using EDNS version 0.
+   *
+   * @return the OPT record of the response
+   */
+  private static byte @NotNull [] optRecord(final boolean dnssecOk) {
+    final byte[] message = concat(header(1, 0x0100, 1, 0, 0, 1), question("www.example.com", 1, Messages.IN),
+                                  opt(1232, 0, dnssecOk, new byte[0]));
+    final byte[] buffer = new byte[1232];
+
+    final int length = DnsClientHandler.writeResponse(message, message.length, read(message),
+                                                      InetAddress.getLoopbackAddress(), buffer, buffer.length);
+
+    return Arrays.copyOfRange(buffer, length - 11, length);
+  }
+
+  private static @NotNull Query read(final byte @NotNull [] message) {
+    return Query.read(message, message.length);
+  }
+}
@@ -0,0 +1,110 @@
+package fr.lehtto.jaser.dns;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import fr.lehtto.jaser.dns.master.file.MasterFile;
+import fr.lehtto.jaser.dns.master.file.MasterFileWatcher;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of the {@link Dns#reload() reloads} of the master files, on a temporary directory.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class DnsReloadTest {
+
+  private static final String ZONE = """
+      $TTL 20
+      example.com. 150 IN SOA ns1.example.com. hostmaster.example.com. 1 1 1 1 1
+      $INCLUDE sub.example.com.zone
+      """;
+
+  @TempDir
+  Path directory;
+
+  private Path file;
+  private Path included;
+
+  @BeforeEach
+  void before() throws IOException {
+    file = Files.writeString(directory.resolve("example.com.zone"), ZONE);
+    included = Files.writeString(directory.resolve("sub.example.com.zone"), """
+        sub.example.com. 150 IN A 192.0.2.1
+        """);
+    Dns.INSTANCE.initializeMasterFiles(new MasterFile());
+    Dns.INSTANCE.load(file.toFile());
+  }
+
+  @AfterEach
+  void after() {
+    Dns.INSTANCE.initializeMasterFiles(new MasterFile());
+  }
+
+  @Test
+  void reloadsTheFilesAndTheFilesTheyInclude() throws IOException {
+    assertEquals(2, Dns.INSTANCE.getMasterFile().size());
+    Files.writeString(included, """
+        sub.example.com. 150 IN A 192.0.2.1
+        sub.example.com. 150 IN A 192.0.2.2
+        """);
+
+    final List<File> files = List.copyOf(Dns.INSTANCE.reload());
+
+    assertEquals(List.of(file.toFile(), included.toFile()), files);
+    assertEquals(3, Dns.INSTANCE.getMasterFile().size());
+  }
+
+  @Test
+  void keepsThePreviousMasterFileWhenTheReloadFails() throws IOException {
+    final MasterFile previous = Dns.INSTANCE.getMasterFile();
+
+    Files.writeString(included, "$UNKNOWN sub.example.com.\n");
+    assertEquals(List.of(file.toFile(), included.toFile()), List.copyOf(Dns.INSTANCE.reload()));
+    assertSame(previous, Dns.INSTANCE.getMasterFile());
+
+    Files.delete(included);
+    assertEquals(List.of(file.toFile(), included.toFile()), List.copyOf(Dns.INSTANCE.reload()));
+    assertSame(previous, Dns.INSTANCE.getMasterFile());
+
+    Files.writeString(included, "sub.example.com. 150 IN A 192.0.2.2\n");
+    Dns.INSTANCE.reload();
+    assertNotSame(previous, Dns.INSTANCE.getMasterFile());
+    assertEquals(2, Dns.INSTANCE.getMasterFile().size());
+  }
+
+  @Test
+  void reloadsWhenAnIncludedFileChanges() throws IOException, InterruptedException {
+    final MasterFileWatcher watcher = new MasterFileWatcher(Dns.INSTANCE.reload(), Dns.INSTANCE::reload);
+    final Thread thread = new Thread(watcher, "zone-watcher");
+    thread.start();
+    try {
+      Files.writeString(included, """
+          sub.example.com. 150 IN A 192.0.2.1
+          www.sub.example.com. 150 IN A 192.0.2.2
+          """);
+
+      final long deadline = System.currentTimeMillis() + 5_000L;
+      while (3 != Dns.INSTANCE.getMasterFile().size() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(3, Dns.INSTANCE.getMasterFile().size());
+    } finally {
+      watcher.close();
+      thread.join(5_000L);
+    }
+    assertFalse(thread.isAlive());
+  }
+}
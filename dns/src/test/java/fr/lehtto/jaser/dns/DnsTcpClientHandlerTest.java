@@ -0,0 +1,215 @@
+package fr.lehtto.jaser.dns;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.standard.SoaRdata;
+import fr.lehtto.jaser.dns.master.file.MasterFile;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link DnsTcpClientHandler DNS over TCP client handler}, over a loopback connection.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class DnsTcpClientHandlerTest {
+
+  private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+  private Socket client;
+  private Socket accepted;
+  private Thread handler;
+  private DataInputStream input;
+  private DataOutputStream output;
+
+  @BeforeEach
+  void before() throws IOException, InvalidDnsZoneEntryException {
+    final MasterFile masterFile = new MasterFile();
+    masterFile.addRecord(ResourceRecord.builder()
+                             .name(DomainName.of("example.com"))
+                             .type(Type.SOA)
+                             .recordClass(DnsClass.IN)
+                             .ttl(60)
+                             .data(new SoaRdata(DomainName.of("ns1.example.com"),
+                                                DomainName.of("hostmaster.example.com"), 1, 1, 1, 1, 1))
+                             .build());
+    Dns.INSTANCE.initializeMasterFiles(masterFile);
+
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      client = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+      accepted = server.accept();
+    }
+    client.setSoTimeout(5_000);
+    input = new DataInputStream(client.getInputStream());
+    output = new DataOutputStream(client.getOutputStream());
+  }
+
+  @AfterEach
+  void after() throws IOException, InterruptedException {
+    client.close();
+    // Answers the queries left pending, for the handler to stop
+    for (Runnable task = tasks.poll(); null != task; task = tasks.poll()) {
+      task.run();
+    }
+    if (null != handler) {
+      handler.join(5_000);
+    }
+    accepted.close();
+  }
+
+  @Test
+  void answersFramedQueries() throws IOException {
+    start(Runnable::run);
+
+    send(Messages.query(0x1234, "www.example.com", 1));
+    send(Messages.query(0x4321, "example.com", 6));
+
+    assertResponse(0x1234);
+    assertResponse(0x4321);
+    assertEquals(DnsTcpClientHandler.IDLE_TIMEOUT, accepted.getSoTimeout());
+  }
+
+  @Test
+  void closesTheConnectionOnClientEof() throws IOException, InterruptedException {
+    start(Runnable::run);
+
+    send(Messages.query(1, "www.example.com", 1));
+    client.shutdownOutput();
+
+    assertResponse(1);
+    assertEquals(-1, input.read());
+    assertStopped();
+  }
+
+  @Test
+  void closesTheConnectionOnTruncatedLengthPrefix() throws IOException, InterruptedException {
+    start(tasks::add);
+
+    output.write(0);
+    output.flush();
+    client.shutdownOutput();
+
+    assertEquals(-1, input.read());
+    assertStopped();
+    assertTrue(tasks.isEmpty());
+  }
+
+  @Test
+  void closesTheConnectionOnTruncatedMessage() throws IOException, InterruptedException {
+    start(tasks::add);
+
+    final byte[] query = Messages.query(1, "www.example.com", 1);
+    output.writeShort(query.length);
+    output.write(query, 0, query.length - 1);
+    output.flush();
+    client.shutdownOutput();
+
+    assertEquals(-1, input.read());
+    assertStopped();
+    assertTrue(tasks.isEmpty());
+  }
+
+  @Test
+  void limitsThePipelinedQueries() throws IOException, InterruptedException {
+    start(tasks::add);
+
+    for (int i = 0; i <= DnsTcpClientHandler.MAX_PIPELINED_QUERIES; i++) {
+      send(Messages.query(i, "www.example.com", 1));
+    }
+    final List<Runnable> pending = new ArrayList<>();
+    for (int i = 0; i < DnsTcpClientHandler.MAX_PIPELINED_QUERIES; i++) {
+      final Runnable task = tasks.poll(5, TimeUnit.SECONDS);
+      assertNotNull(task);
+      pending.add(task);
+    }
+    // The last query is only read once a pending one is answered
+    assertNull(tasks.poll(200, TimeUnit.MILLISECONDS));
+
+    pending.remove(0).run();
+
+    assertResponse(0);
+    final Runnable last = tasks.poll(5, TimeUnit.SECONDS);
+    assertNotNull(last);
+    last.run();
+    assertResponse(DnsTcpClientHandler.MAX_PIPELINED_QUERIES);
+    for (int i = 1; i < DnsTcpClientHandler.MAX_PIPELINED_QUERIES; i++) {
+      pending.remove(0).run();
+      assertResponse(i);
+    }
+    client.shutdownOutput();
+    assertStopped();
+  }
+
+  @Test
+  void stopsWhenTheExecutorIsShutDown() throws IOException, InterruptedException {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    start(executor);
+
+    send(Messages.query(1, "www.example.com", 1));
+    assertResponse(1);
+    executor.shutdown();
+    send(Messages.query(2, "www.example.com", 1));
+
+    assertEquals(-1, input.read());
+    assertStopped();
+  }
+
+  /**
+   * Starts handling the accepted connection, resolving the queries with the given executor.
+   */
+  private void start(final @NotNull Executor executor) {
+    handler = new Thread(new DnsTcpClientHandler(accepted, executor));
+    handler.start();
+  }
+
+  private void send(final byte @NotNull [] message) throws IOException {
+    output.writeShort(message.length);
+    output.write(message);
+    output.flush();
+  }
+
+  /**
+   * Reads a length-prefixed response and checks it answers the query of the given ID.
+   */
+  private void assertResponse(final int id) throws IOException {
+    final byte[] response = new byte[input.readUnsignedShort()];
+    input.readFully(response);
+
+    assertTrue(12 <= response.length);
+    assertEquals(id, (response[0] & 0xFF) << 8 | response[1] & 0xFF);
+    assertTrue(0 != (response[2] & 0x80));
+  }
+
+  private void assertStopped() throws InterruptedException {
+    handler.join(5_000);
+    assertFalse(handler.isAlive());
+    assertTrue(accepted.isClosed());
+  }
+}
@@ -0,0 +1,89 @@
+package fr.lehtto.jaser.dns;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static fr.lehtto.jaser.dns.Messages.record;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.Update;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.standard.SoaRdata;
+import fr.lehtto.jaser.dns.master.file.MasterFile;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link Dns#update(Update) dynamic updates} of the served master file.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class DnsUpdateTest {
+
+  private static final byte[] ZONE = question("example.com", 6, Messages.IN);
+  private static final byte[] ADDRESS = {(byte) 192, 0, 2, 1};
+
+  @BeforeEach
+  void before() throws InvalidDnsZoneEntryException {
+    final MasterFile masterFile = new MasterFile();
+    masterFile.addRecord(ResourceRecord.builder()
+                             .name(DomainName.of("example.com"))
+                             .type(Type.SOA)
+                             .recordClass(DnsClass.IN)
+                             .ttl(60)
+                             .data(new SoaRdata(DomainName.of("ns1.example.com"),
+                                                DomainName.of("hostmaster.example.com"), 1, 1, 1, 1, 1))
+                             .build());
+    Dns.INSTANCE.initializeMasterFiles(masterFile);
+  }
+
+  @Test
+  void publishesTheUpdatedMasterFile() {
+    final MasterFile previous = Dns.INSTANCE.getMasterFile();
+    final List<ResourceRecord> records = previous.getRecords();
+
+    final RCode rcode = Dns.INSTANCE.update(update(0, record(name("www.example.com"), 1, Messages.IN, 60, ADDRESS)));
+
+    assertEquals(RCode.NO_ERROR, rcode);
+    assertNotSame(previous, Dns.INSTANCE.getMasterFile());
+    assertTrue(Dns.INSTANCE.getMasterFile().search(DomainName.of("www.example.com")).isPresent());
+    assertEquals(records, previous.getRecords());
+    assertTrue(previous.search(DomainName.of("www.example.com")).isEmpty());
+  }
+
+  @Test
+  void keepsTheMasterFileOfUpdatesNotApplied() {
+    final MasterFile previous = Dns.INSTANCE.getMasterFile();
+
+    // Failing prerequisite: www.example.com is not in use
+    assertEquals(RCode.NAME_ERROR, Dns.INSTANCE.update(update(1, record(name("www.example.com"), 255, 255, 0,
+                                                                        new byte[0]),
+                                                              record(name("www.example.com"), 1, Messages.IN, 60,
+                                                                     ADDRESS))));
+    // Nothing to delete
+    assertEquals(RCode.NO_ERROR, Dns.INSTANCE.update(update(0, record(name("www.example.com"), 255, 255, 0,
+                                                                      new byte[0]))));
+
+    assertSame(previous, Dns.INSTANCE.getMasterFile());
+  }
+
+  private static @NotNull Update update(final int prerequisiteCount, final byte @NotNull [] @NotNull ... records) {
+    return Update.read(ByteBuffer.wrap(concat(header(1, 0x2800, 1, prerequisiteCount,
+                                                     records.length - prerequisiteCount, 0),
+                                              ZONE, concat(records))));
+  }
+}
@@ -0,0 +1,181 @@
+package fr.lehtto.jaser.dns;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Builds DNS messages in wire format for the tests.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"MagicNumber", "NumericCastThatLosesPrecision"})
+public final class Messages {
+
+  /**
+   * Class IN.
+   */
+  public static final int IN = 1;
+
+  /**
+   * Default constructor.
+   */
+  private Messages() {
+    throw new AssertionError("This constructor should not be called.");
+  }
+
+  /**
+   * Encodes a name, its labels being encoded as ISO-8859-1.
+   *
+   * @param name the name, its labels separated by dots, empty for the root
+   * @return the encoded name
+   */
+  public static byte @NotNull [] name(final @NotNull String name) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (!name.isEmpty()) {
+      for (final String label : name.split("[.]")) {
+        final byte[] bytes = label.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes.length);
+        out.writeBytes(bytes);
+      }
+    }
+    out.write(0);
+    return out.toByteArray();
+  }
+
+  /**
+   * Encodes a compression pointer.
+   *
+   * @param offset the offset pointed to
+   * @return the encoded pointer
+   */
+  public static byte @NotNull [] pointer(final int offset) {
+    return new byte[]{(byte) (0xC0 | offset >> 8), (byte) offset};
+  }
+
+  /**
+   * Encodes a header.
+   *
+   * @param id      the id
+   * @param flags   the flags
+   * @param qdcount the number of questions
+   * @param ancount the number of answer records
+   * @param nscount the number of authority records
+   * @param arcount the number of additional records
+   * @return the encoded header
+   */
+  public static byte @NotNull [] header(final int id, final int flags, final int qdcount, final int ancount,
+      final int nscount, final int arcount) {
+    return ByteBuffer.allocate(12)
+        .putShort((short) id)
+        .putShort((short) flags)
+        .putShort((short) qdcount)
+        .putShort((short) ancount)
+        .putShort((short) nscount)
+        .putShort((short) arcount)
+        .array();
+  }
+
+  /**
+   * Encodes a question.
+   *
+   * @param name        the name
+   * @param type        the type value
+   * @param recordClass the class value
+   * @return the encoded question
+   */
+  public static byte @NotNull [] question(final @NotNull String name, final int type, final int recordClass) {
+    return concat(name(name), shorts(type, recordClass));
+  }
+
+  /**
+   * Encodes a resource record.
+   *
+   * @param name        the encoded owner name
+   * @param type        the type value
+   * @param recordClass the class value
+   * @param ttl         the TTL
+   * @param rdata       the RDATA
+   * @return the encoded record
+   */
+  public static byte @NotNull [] record(final byte @NotNull [] name, final int type, final int recordClass,
+      final int ttl, final byte @NotNull [] rdata) {
+    return concat(name, ByteBuffer.allocate(10)
+        .putShort((short) type)
+        .putShort((short) recordClass)
+        .putInt(ttl)
+        .putShort((short) rdata.length)
+        .array(), rdata);
+  }
+
+  /**
+   * Encodes an OPT pseudo-record.
+   *
+   * @param udpPayloadSize the UDP payload size
+   * @param version        the EDNS version
+   * @param dnssecOk       the DO bit
+   * @param options        the encoded options
+   * @return the encoded OPT pseudo-record
+   */
+  public static byte @NotNull [] opt(final int udpPayloadSize, final int version, final boolean dnssecOk,
+      final byte @NotNull [] options) {
+    return record(name(""), 41, udpPayloadSize, version << 16 | (dnssecOk ? 0x8000 : 0), options);
+  }
+
+  /**
+   * Encodes a standard query with one question, without EDNS.
+   *
+   * @param id   the id
+   * @param name the name
+   * @param type the type value
+   * @return the encoded query
+   */
+  public static byte @NotNull [] query(final int id, final @NotNull String name, final int type) {
+    return concat(header(id, 0x0100, 1, 0, 0, 0), question(name, type, IN));
+  }
+
+  /**
+   * Encodes a standard query with one question and an OPT pseudo-record.
+   *
+   * @param id             the id
+   * @param name           the name
+   * @param type           the type value
+   * @param udpPayloadSize the UDP payload size
+   * @return the encoded query
+   */
+  public static byte @NotNull [] query(final int id, final @NotNull String name, final int type,
+      final int udpPayloadSize) {
+    return concat(header(id, 0x0100, 1, 0, 0, 1), question(name, type, IN),
+                  opt(udpPayloadSize, 0, false, new byte[0]));
+  }
+
+  /**
+   * Encodes unsigned 16 bits values.
+   *
+   * @param values the values
+   * @return the encoded values
+   */
+  public static byte @NotNull [] shorts(final int... values) {
+    final ByteBuffer buffer = ByteBuffer.allocate(2 * values.length);
+    for (final int value : values) {
+      buffer.putShort((short) value);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Concatenates byte arrays.
+   *
+   * @param parts the arrays
+   * @return the concatenation of the arrays
+   */
+  public static byte @NotNull [] concat(final byte @NotNull [] @NotNull ... parts) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (final byte[] part : parts) {
+      out.writeBytes(part);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,229 @@
+package fr.lehtto.jaser.dns.cache;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.opt;
+import static fr.lehtto.jaser.dns.Messages.pointer;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static fr.lehtto.jaser.dns.Messages.shorts;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.Edns;
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link ResponseCache response cache}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class ResponseCacheTest {
+
+  private static final byte[] ANSWER = {(byte) 0xC0, 0x0C, 0, 1, 0, 1, 0, 0, 0, 60, 0, 4, (byte) 192, 0, 2, 1};
+
+  private final ResponseCache cache = new ResponseCache(1 << 20);
+  private final byte[] buffer = new byte[512];
+  private int resolutions;
+
+  @Test
+  void answersEqualQueriesFromTheCache() {
+    final byte[] query = Messages.query(1, "www.example.com", 1);
+
+    final byte[] first = write(query, null, 512);
+    final byte[] second = write(query, null, 512);
+
+    assertArrayEquals(first, second);
+    assertEquals(1, resolutions);
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0.5, cache.getHitRatio());
+    assertTrue(0 < cache.getSize());
+  }
+
+  @Test
+  void patchesTheIdRdFlagAndNameCase() {
+    write(Messages.query(1, "www.example.com", 1), null, 512);
+    final byte[] query = concat(header(0x4242, 0x0000, 1, 0, 0, 0), question("WWW.Example.COM", 1, Messages.IN));
+
+    final byte[] response = write(query, null, 512);
+
+    assertEquals(1, resolutions);
+    assertArrayEquals(respond(query), response);
+    assertEquals(0x42, response[0]);
+    assertEquals(0x42, response[1]);
+    assertEquals(0x80, response[2] & 0xFF);
+  }
+
+  @Test
+  void resolvesQueriesDifferingByTheirQuestion() {
+    write(Messages.query(1, "www.example.com", 1), null, 512);
+    write(Messages.query(1, "www.example.com", 28), null, 512);
+    write(Messages.query(1, "ftp.example.com", 1), null, 512);
+    write(concat(header(1, 0x0100, 1, 0, 0, 0), question("www.example.com", 1, 3)), null, 512);
+
+    assertEquals(4, resolutions);
+    assertEquals(0, cache.getHitCount());
+  }
+
+  @Test
+  void resolvesQueriesDifferingByTheirFlagsOrEdns() {
+    final byte[] query = Messages.query(1, "www.example.com", 1);
+
+    write(query, null, 512);
+    write(query, null, 1232);
+    write(query, new Edns(1232, 0, 0, false), 1232);
+    write(query, new Edns(4096, 0, 0, false), 1232);
+    write(query, new Edns(1232, 0, 1, false), 1232);
+    write(query, new Edns(1232, 0, 0, true), 1232);
+    write(concat(header(1, 0x0110, 1, 0, 0, 0), question("www.example.com", 1, Messages.IN)), null, 512);
+
+    assertEquals(7, resolutions);
+    assertEquals(0, cache.getHitCount());
+  }
+
+  @Test
+  void ignoresTheOtherRecordsAndOptionsOfQueries() {
+    final Edns edns = new Edns(1232, 0, 0, false);
+    final byte[] question = question("www.example.com", 1, Messages.IN);
+    // Client cookies, then client subnets, differing between the queries
+    final byte[] first = concat(header(1, 0x0100, 1, 0, 0, 1), question,
+                                opt(1232, 0, false, concat(shorts(10, 8), new byte[]{1, 2, 3, 4, 5, 6, 7, 8})));
+    final byte[] second = concat(header(2, 0x0100, 1, 0, 0, 1), question,
+                                 opt(1232, 0, false, concat(shorts(10, 8), new byte[]{8, 7, 6, 5, 4, 3, 2, 1})));
+    final byte[] third = concat(header(3, 0x0100, 1, 0, 0, 1), question,
+                                opt(1232, 0, false, concat(shorts(8, 8, 1), new byte[]{24, 0, (byte) 192, 0, 2, 0})));
+
+    write(first, edns, 1232);
+    write(second, edns, 1232);
+    write(third, edns, 1232);
+
+    assertEquals(1, resolutions);
+    assertEquals(2, cache.getHitCount());
+  }
+
+  @Test
+  void doesNotCacheQueriesWithSeveralOrCompressedQuestions() {
+    final byte[] twoQuestions = concat(header(1, 0x0100, 2, 0, 0, 0), question("www.example.com", 1, Messages.IN),
+                                       question("ftp.example.com", 1, Messages.IN));
+    final byte[] compressed = concat(header(1, 0x0100, 1, 0, 0, 0), pointer(12), shorts(1, Messages.IN));
+
+    write(twoQuestions, null, 512);
+    write(twoQuestions, null, 512);
+    write(compressed, null, 512);
+    write(compressed, null, 512);
+
+    assertEquals(4, resolutions);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+  }
+
+  @Test
+  void doesNotCacheResponsesNotEchoingTheQuestionName() {
+    final byte[] query = Messages.query(1, "www.example.com", 1);
+    // Same length, other name: patching a later response would leave its name wrong
+    final byte[] otherName = respond(Messages.query(1, "ftp.example.com", 1));
+    // Shorter name: patching a later response would overwrite its type and class
+    final byte[] shorterName = respond(Messages.query(1, "www.example.co", 1));
+
+    write(query, otherName);
+    write(query, shorterName);
+    write(query, null, 512);
+    write(query, null, 512);
+
+    assertEquals(3, resolutions);
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedResponsesOnceFull() {
+    final ResponseCache small = new ResponseCache(16 * 200);
+
+    for (int i = 0; i < 100; i++) {
+      final byte[] query = Messages.query(1, "host" + i + ".example.com", 1);
+      small.write(query, query.length, null, 512, buffer, () -> writeResponse(respond(query)));
+    }
+
+    assertTrue(0 < small.getEvictionCount());
+    assertTrue(small.getCapacity() >= small.getSize());
+  }
+
+  @Test
+  void forgetsTheResponsesOnceCleared() {
+    final byte[] query = Messages.query(1, "www.example.com", 1);
+    write(query, null, 512);
+
+    cache.clear();
+    write(query, null, 512);
+    write(query, null, 512);
+
+    assertEquals(2, resolutions);
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  void doesNotCacheResponsesResolvedBeforeAClear() {
+    final byte[] query = Messages.query(1, "www.example.com", 1);
+
+    cache.write(query, query.length, null, 512, buffer, () -> {
+      // The zone changes while the query is resolved
+      cache.clear();
+      return writeResponse(respond(query));
+    });
+    write(query, null, 512);
+
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, resolutions);
+  }
+
+  private byte @NotNull [] write(final byte @NotNull [] query, final @Nullable Edns edns, final int maxLength) {
+    return write(query, edns, maxLength, respond(query));
+  }
+
+  private byte @NotNull [] write(final byte @NotNull [] query, final byte @NotNull [] response) {
+    return write(query, null, 512, response);
+  }
+
+  private byte @NotNull [] write(final byte @NotNull [] query, final @Nullable Edns edns, final int maxLength,
+      final byte @NotNull [] response) {
+    final IntSupplier writer = () -> {
+      resolutions++;
+      return writeResponse(response);
+    };
+    final int length = cache.write(query, query.length, edns, maxLength, buffer, writer);
+    return Arrays.copyOf(buffer, length);
+  }
+
+  private int writeResponse(final byte @NotNull [] response) {
+    System.arraycopy(response, 0, buffer, 0, response.length);
+    return response.length;
+  }
+
+  /**
+   * Builds the response to a query, echoing its header and question, with an answer.
+   */
+  private static byte @NotNull [] respond(final byte @NotNull [] query) {
+    int end = 12;
+    while (0 != query[end] && 0 == (query[end] & 0xC0)) {
+      end += 1 + query[end];
+    }
+    end += (0 == query[end] ? 1 : 2) + 4;
+    final byte[] response = concat(Arrays.copyOf(query, end), ANSWER);
+    response[2] |= (byte) 0x80;
+    // One question and one answer
+    response[4] = 0;
+    response[5] = 1;
+    response[6] = 0;
+    response[7] = 1;
+    response[10] = 0;
+    response[11] = 0;
+    return response;
+  }
+}
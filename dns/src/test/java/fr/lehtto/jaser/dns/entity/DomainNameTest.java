@@ -0,0 +1,79 @@
+package fr.lehtto.jaser.dns.entity;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.writer.ResponseWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link DomainName domain names} and their encoding.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("JavaDoc")
+class DomainNameTest {
+
+  /**
+   * Name with a label holding bytes above 0x7F, the UTF-8 encoding of "é" and a byte which is not valid UTF-8.
+   */
+  private static final String NON_ASCII = "cafÃ©ÿ.example.com";
+
+  @Test
+  void writesLabelsByteForByte() {
+    final DomainName name = DomainName.of(NON_ASCII);
+    final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    name.writeTo(buffer);
+
+    assertEquals(name(NON_ASCII).length, name.getLength());
+    assertArrayEquals(name(NON_ASCII), Arrays.copyOf(buffer.array(), buffer.position()));
+  }
+
+  @Test
+  void readsNonAsciiLabelsOfQueriesByteForByte() {
+    final byte[] message = Messages.query(1, NON_ASCII, 1);
+
+    final Query query = Query.read(message, message.length);
+
+    final DomainName name = query.questions().get(0).name();
+    assertEquals(NON_ASCII, name.value());
+    assertEquals(name(NON_ASCII).length, name.getLength());
+  }
+
+  @Test
+  void echoesNonAsciiQuestionsAsReceived() {
+    final byte[] message = Messages.query(1, NON_ASCII, 1);
+    final Query query = Query.read(message, message.length);
+    final byte[] buffer = new byte[512];
+
+    final int length = ResponseWriter.write(Response.builder()
+                                                .header(query.header())
+                                                .questions(query.questions())
+                                                .noAnswer()
+                                                .noAuthorityRecords()
+                                                .noAdditionalRecords()
+                                                .build(), buffer);
+
+    assertEquals(message.length, length);
+    assertArrayEquals(Arrays.copyOfRange(message, 12, message.length), Arrays.copyOfRange(buffer, 12, length));
+  }
+
+  @Test
+  void readsNonAsciiLabelsOfUpdatesByteForByte() {
+    final byte[] message = concat(header(1, 0x2800, 1, 0, 0, 0), question(NON_ASCII, 6, Messages.IN));
+
+    final Update update = Update.read(ByteBuffer.wrap(message));
+
+    assertEquals(NON_ASCII, update.zone().name().value());
+    assertEquals(name(NON_ASCII).length, update.zone().name().getLength());
+  }
+}
@@ -0,0 +1,76 @@
+package fr.lehtto.jaser.dns.entity.enumration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link RecordType record types}, known or not (RFC 3597).
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class RecordTypeTest {
+
+  @Test
+  void looksUpMnemonicsAndGenericMnemonics() {
+    assertSame(Type.MX, RecordType.lookup("MX"));
+    assertSame(Type.MX, RecordType.lookup("TYPE15"));
+    assertSame(Type.A, RecordType.lookup("TYPE00001"));
+
+    final RecordType type = RecordType.lookup("TYPE4242");
+    assertInstanceOf(UnknownType.class, type);
+    assertEquals(4242, type.getTypeValue());
+    assertEquals("TYPE4242", type.toString());
+    assertEquals(65534, ((UnknownType) RecordType.lookup("TYPE65534")).value());
+  }
+
+  @Test
+  void rejectsInvalidGenericMnemonics() {
+    assertNull(RecordType.lookup("TYPE"));
+    assertNull(RecordType.lookup("TYPE65536"));
+    assertNull(RecordType.lookup("TYPE123456"));
+    assertNull(RecordType.lookup("TYPE6x"));
+    assertNull(RecordType.lookup("TYPE-1"));
+    assertNull(RecordType.lookup("CLASS65"));
+    assertNull(RecordType.lookup("UNKNOWN"));
+  }
+
+  @Test
+  void getsTheTypesOfValues() {
+    assertSame(Type.AAAA, RecordType.of(28));
+    assertSame(UnknownType.of(4242), RecordType.of(4242));
+    assertSame(UnknownType.of(4242), RecordType.of(4242 + 0x10000));
+  }
+
+  @Test
+  void internsUnknownTypes() {
+    assertSame(UnknownType.of(4343), UnknownType.of(4343));
+
+    final Set<UnknownType> types = Collections.newSetFromMap(new IdentityHashMap<>());
+    IntStream.range(0, 10_000).parallel()
+        .mapToObj(i -> UnknownType.of(40_000 + i % 10))
+        .toList()
+        .forEach(types::add);
+    assertEquals(10, types.size());
+  }
+
+  @Test
+  void encodesUnknownTypesOnTwoBytes() {
+    final UnknownType type = UnknownType.of(65_000);
+
+    assertEquals(65_000, type.value());
+    assertEquals((short) 65_000, type.getTypeValue());
+    assertArrayEquals(new byte[]{(byte) 0xFD, (byte) 0xE8}, type.getBytes());
+    assertEquals(2, type.getLength());
+  }
+}
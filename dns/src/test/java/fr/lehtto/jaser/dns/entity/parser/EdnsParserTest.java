@@ -0,0 +1,97 @@
+package fr.lehtto.jaser.dns.entity.parser;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.opt;
+import static fr.lehtto.jaser.dns.Messages.pointer;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static fr.lehtto.jaser.dns.Messages.record;
+import static fr.lehtto.jaser.dns.Messages.shorts;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.Edns;
+import fr.lehtto.jaser.dns.entity.view.HeaderView;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link EdnsParser EDNS parser}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class EdnsParserTest {
+
+  private static final byte[] QUESTION = question("www.example.com", 1, Messages.IN);
+  private static final byte[] ANSWER = record(pointer(12), 1, Messages.IN, 60, new byte[]{(byte) 192, 0, 2, 1});
+  private static final byte[] NO_OPTIONS = new byte[0];
+
+  @Test
+  void findsNoOptRecordInMessagesWithout() {
+    assertNull(parse(Messages.query(1, "www.example.com", 1)));
+    assertNull(parse(concat(header(1, 0x0100, 1, 0, 0, 1), QUESTION, ANSWER)));
+  }
+
+  @Test
+  void readsTheOptRecord() {
+    assertEquals(new Edns(1232, 0, 0, false), parse(Messages.query(1, "www.example.com", 1, 1232)));
+    assertEquals(new Edns(4096, 0, 1, true), parse(concat(header(1, 0x0100, 1, 0, 0, 1), QUESTION,
+                                                          opt(4096, 1, true, NO_OPTIONS))));
+    // Extended rcode, in the first byte of the TTL, and options
+    assertEquals(new Edns(1232, 1, 0, false), parse(concat(header(1, 0x0100, 1, 0, 0, 1), QUESTION,
+                                                           record(name(""), 41, 1232, 1 << 24,
+                                                                  concat(shorts(10, 2), shorts(0))))));
+  }
+
+  @Test
+  void skipsTheRecordsBeforeTheOptRecord() {
+    final byte[] message = concat(header(1, 0x0100, 1, 1, 1, 2), QUESTION, ANSWER, ANSWER, ANSWER,
+                                  opt(1232, 0, false, NO_OPTIONS));
+
+    assertEquals(new Edns(1232, 0, 0, false), parse(message));
+  }
+
+  @Test
+  void keepsPayloadSizesBelow512AsSent() {
+    final Edns edns = parse(Messages.query(1, "www.example.com", 1, 100));
+
+    assertEquals(100, edns.udpPayloadSize());
+    assertEquals(Edns.MIN_UDP_PAYLOAD_SIZE, edns.getEffectiveUdpPayloadSize());
+  }
+
+  @Test
+  void rejectsMessagesWithSeveralOptRecords() {
+    final byte[] message = concat(header(1, 0x0100, 1, 0, 0, 3), QUESTION, opt(1232, 0, false, NO_OPTIONS),
+                                  ANSWER, opt(4096, 0, false, NO_OPTIONS));
+
+    assertThrows(IllegalArgumentException.class, () -> parse(message));
+  }
+
+  @Test
+  void rejectsRecordsRunningPastTheMessage() {
+    final byte[] opt = opt(1232, 0, false, concat(shorts(10, 8), new byte[8]));
+    final byte[] answer = ANSWER.clone();
+    // RDLENGTH of 20 bytes, running over the OPT record and past the message
+    answer[11] = 20;
+
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x0100, 1, 0, 0, 1), QUESTION,
+                                                                    Arrays.copyOf(opt, opt.length - 1))));
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x0100, 1, 1, 0, 1), QUESTION, answer,
+                                                                    opt(1232, 0, false, NO_OPTIONS))));
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x0100, 1, 0, 0, 1), QUESTION)));
+  }
+
+  private static @Nullable Edns parse(final byte @NotNull [] message) {
+    final ByteBuffer buffer = ByteBuffer.wrap(message);
+    final HeaderView header = new HeaderView().wrap(buffer, 0);
+    return EdnsParser.parse(buffer, HeaderView.HEADER_SIZE + QUESTION.length, header);
+  }
+}
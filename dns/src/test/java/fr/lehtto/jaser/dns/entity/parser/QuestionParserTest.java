@@ -0,0 +1,57 @@
+package fr.lehtto.jaser.dns.entity.parser;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.Question;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link QuestionParser question parser}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class QuestionParserTest {
+
+  @Test
+  void readsTheQuestionsUpToTheEndOfTheSection() {
+    final byte[] message = concat(header(1, 0x0100, 2, 0, 0, 0), question("www.example.com", 1, Messages.IN),
+                                  question("example.com", 2, 255), new byte[]{1, 2, 3});
+    final List<Question> questions = new ArrayList<>();
+
+    assertEquals(message.length - 3, QuestionParser.parse(ByteBuffer.wrap(message), 12, 2, questions));
+    assertEquals(List.of(new Question(DomainName.of("www.example.com"), Type.A, DnsClass.IN),
+                         new Question(DomainName.of("example.com"), Type.NS, DnsClass.ANY)), questions);
+  }
+
+  @Test
+  void leavesOutTheQuestionsOfAnUnknownClass() {
+    final byte[] message = concat(header(1, 0x0100, 2, 0, 0, 0), question("www.example.com", 1, 1234),
+                                  question("example.com", 2, Messages.IN));
+    final List<Question> questions = new ArrayList<>();
+
+    assertEquals(message.length, QuestionParser.parse(ByteBuffer.wrap(message), 12, 2, questions));
+    assertEquals(List.of(new Question(DomainName.of("example.com"), Type.NS, DnsClass.IN)), questions);
+  }
+
+  @Test
+  void failsOnTruncatedQuestions() {
+    final byte[] message = concat(header(1, 0x0100, 1, 0, 0, 0), question("www.example.com", 1, Messages.IN));
+
+    assertThrows(IllegalArgumentException.class,
+                 () -> QuestionParser.parse(ByteBuffer.wrap(Arrays.copyOf(message, message.length - 1)), 12, 1));
+  }
+}
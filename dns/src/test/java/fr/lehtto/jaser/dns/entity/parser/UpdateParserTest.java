@@ -0,0 +1,122 @@
+package fr.lehtto.jaser.dns.entity.parser;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.pointer;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static fr.lehtto.jaser.dns.Messages.record;
+import static fr.lehtto.jaser.dns.Messages.shorts;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.Update;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.rdata.OpaqueRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MxRdata;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link UpdateParser update parser}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class UpdateParserTest {
+
+  private static final byte[] ZONE = question("example.com", 6, Messages.IN);
+  private static final int HEADER_AND_ZONE_LENGTH = 12 + ZONE.length;
+
+  @Test
+  void readsTheSectionsFollowingCompressionPointers() {
+    final byte[] message = concat(header(1, 0x2800, 1, 1, 1, 0), ZONE,
+                                  record(pointer(12), 255, 255, 0, new byte[0]),
+                                  record(concat(new byte[]{4, 'm', 'a', 'i', 'l'}, pointer(12)), 15, Messages.IN, 60,
+                                         concat(shorts(10), pointer(12))));
+
+    final Update update = UpdateParser.parse(ByteBuffer.wrap(message));
+
+    assertEquals(DomainName.of("example.com"), update.zone().name());
+    final ResourceRecord prerequisite = update.prerequisites().get(0);
+    assertEquals(DomainName.of("example.com"), prerequisite.name());
+    assertEquals(Type.ANY, prerequisite.type());
+    assertEquals(DnsClass.ANY, prerequisite.recordClass());
+    assertEquals(0, prerequisite.data().getLength());
+    final ResourceRecord mx = update.updates().get(0);
+    assertEquals(DomainName.of("mail.example.com"), mx.name());
+    assertEquals(60, mx.ttl());
+    assertEquals(new MxRdata((short) 10, DomainName.of("example.com")), mx.data());
+  }
+
+  @Test
+  void keepsTheRdataOfOtherTypesOpaque() {
+    final byte[] rdata = {1, 2, 3, 4, 5};
+    final byte[] message = concat(header(1, 0x2800, 1, 0, 1, 0), ZONE,
+                                  record(name("www.example.com"), 4242, Messages.IN, 60, rdata));
+
+    final Update update = UpdateParser.parse(ByteBuffer.wrap(message));
+
+    final OpaqueRdata data = (OpaqueRdata) update.updates().get(0).data();
+    final ByteBuffer buffer = ByteBuffer.allocate(data.getLength());
+    data.writeTo(buffer);
+    assertEquals(4242, update.updates().get(0).type().getTypeValue());
+    assertArrayEquals(rdata, buffer.array());
+  }
+
+  @Test
+  void rejectsUpdatesWithoutExactlyOneZone() {
+    assertThrows(IllegalArgumentException.class, () -> parse(header(1, 0x2800, 0, 0, 0, 0)));
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x2800, 2, 0, 0, 0), ZONE, ZONE)));
+  }
+
+  @Test
+  void rejectsTruncatedUpdates() {
+    final byte[] message = concat(header(1, 0x2800, 1, 0, 1, 0), ZONE,
+                                  record(name("www.example.com"), 1, Messages.IN, 60, new byte[]{(byte) 192, 0, 2, 1}));
+
+    for (int length = HEADER_AND_ZONE_LENGTH; length < message.length; length++) {
+      final byte[] truncated = Arrays.copyOf(message, length);
+      assertThrows(IllegalArgumentException.class, () -> parse(truncated));
+    }
+    assertThrows(IllegalArgumentException.class,
+                 () -> parse(concat(header(1, 0x2800, 1, 1, 0, 0), ZONE)));
+  }
+
+  @Test
+  void rejectsMalformedRecords() {
+    // Compression pointer to itself
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x2800, 1, 0, 1, 0), ZONE,
+                                                                    record(pointer(29), 1, Messages.IN, 60,
+                                                                           new byte[]{(byte) 192, 0, 2, 1}))));
+    // Compression pointer forwards, into the RDATA
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x2800, 1, 0, 1, 0), ZONE,
+                                                                    record(name("example.com"), 5, Messages.IN, 60,
+                                                                           pointer(54)))));
+    // Unknown class
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x2800, 1, 0, 1, 0), ZONE,
+                                                                    record(pointer(12), 1, 42, 60,
+                                                                           new byte[]{(byte) 192, 0, 2, 1}))));
+    // Address of the wrong length
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x2800, 1, 0, 1, 0), ZONE,
+                                                                    record(pointer(12), 1, Messages.IN, 60,
+                                                                           new byte[]{(byte) 192, 0, 2}))));
+    // SOA RDATA too short for its numbers
+    assertThrows(IllegalArgumentException.class, () -> parse(concat(header(1, 0x2800, 1, 0, 1, 0), ZONE,
+                                                                    record(pointer(12), 6, Messages.IN, 60,
+                                                                           concat(pointer(12), pointer(12),
+                                                                                  new byte[10])))));
+  }
+
+  private static void parse(final byte @NotNull [] message) {
+    UpdateParser.parse(ByteBuffer.wrap(message));
+  }
+}
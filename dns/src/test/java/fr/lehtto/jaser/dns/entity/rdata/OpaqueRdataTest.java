@@ -0,0 +1,60 @@
+package fr.lehtto.jaser.dns.entity.rdata;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link OpaqueRdata opaque RDATA} and its generic format (RFC 3597 section 5).
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class OpaqueRdataTest {
+
+  @Test
+  void parsesTheGenericFormat() throws InvalidDnsZoneEntryException {
+    assertTrue(OpaqueRdata.isGeneric(parts("\\# 4 0A000001")));
+    assertFalse(OpaqueRdata.isGeneric(parts("10.0.0.1")));
+
+    assertArrayEquals(new byte[]{10, 0, 0, 1}, OpaqueRdata.parse(parts("\\# 4 0A000001")).data());
+    assertArrayEquals(new byte[]{10, 0, 0, 1}, OpaqueRdata.parse(parts("\\# 4 0a00 0001")).data());
+    assertArrayEquals(new byte[0], OpaqueRdata.parse(parts("\\# 0")).data());
+  }
+
+  @Test
+  void rejectsInvalidGenericRdata() {
+    assertThrows(InvalidDnsZoneEntryException.class, () -> OpaqueRdata.parse(parts("\\#")));
+    assertThrows(InvalidDnsZoneEntryException.class, () -> OpaqueRdata.parse(parts("4 0A000001")));
+    assertThrows(InvalidDnsZoneEntryException.class, () -> OpaqueRdata.parse(parts("\\# four 0A000001")));
+    assertThrows(InvalidDnsZoneEntryException.class, () -> OpaqueRdata.parse(parts("\\# 4 0A0000")));
+    assertThrows(InvalidDnsZoneEntryException.class, () -> OpaqueRdata.parse(parts("\\# 4 0A00000")));
+    assertThrows(InvalidDnsZoneEntryException.class, () -> OpaqueRdata.parse(parts("\\# 4 0A0000ZZ")));
+  }
+
+  @Test
+  void writesAndFormatsTheDataAsParsed() throws InvalidDnsZoneEntryException {
+    final OpaqueRdata rdata = OpaqueRdata.parse(parts("\\# 5 0102030405"));
+    final ByteBuffer buffer = ByteBuffer.allocate(8);
+
+    rdata.writeTo(buffer);
+
+    assertEquals(5, rdata.getLength());
+    assertEquals(5, buffer.position());
+    assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 0, 0, 0}, buffer.array());
+    assertEquals("\\# 5 0102030405", rdata.toString());
+    assertEquals(rdata, OpaqueRdata.parse(parts(rdata.toString())));
+  }
+
+  private static String @NotNull [] parts(final @NotNull String rdata) {
+    return rdata.split(" ");
+  }
+}
@@ -0,0 +1,120 @@
+package fr.lehtto.jaser.dns.entity.writer;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.pointer;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fr.lehtto.jaser.dns.entity.DomainName;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link CompressionTable compression dictionary}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class CompressionTableTest {
+
+  private final CompressionTable table = new CompressionTable();
+  private final ByteBuffer buffer = ByteBuffer.allocate(0x4200).position(12);
+
+  @Test
+  void pointsToTheLongestSuffixWrittenBefore() {
+    assertArrayEquals(name("www.example.com"), write("www.example.com"));
+    assertArrayEquals(concat(new byte[]{4, 'm', 'a', 'i', 'l'}, pointer(16)), write("mail.example.com"));
+    assertArrayEquals(pointer(16), write("example.com"));
+    assertArrayEquals(pointer(12), write("www.example.com"));
+    assertArrayEquals(pointer(29), write("mail.example.com"));
+    assertArrayEquals(concat(new byte[]{3, 'w', 'w', 'w', 7, 'e', 'x', 'a', 'm', 'p', 'l', 'e', 3, 'c', 'o', 'm'},
+                             pointer(24)), write("www.example.com.com"));
+    assertArrayEquals(name("www.example.org"), write("www.example.org"));
+  }
+
+  @Test
+  void matchesNamesIgnoringCase() {
+    write("www.example.com");
+
+    assertArrayEquals(pointer(12), write("WWW.Example.COM"));
+    assertArrayEquals(concat(new byte[]{4, 'M', 'A', 'I', 'L'}, pointer(16)), write("MAIL.EXAMPLE.com"));
+    assertArrayEquals(concat(new byte[]{4, 'c', 'a', 'f', (byte) 0xC9}, pointer(16)),
+                      write("caf\u00C9.example.com"));
+    // Only ASCII letters are compared ignoring case (RFC 4343)
+    assertArrayEquals(concat(new byte[]{4, 'c', 'a', 'f', (byte) 0xE9}, pointer(16)),
+                      write("caf\u00E9.example.com"));
+  }
+
+  @Test
+  void writesNamesInFullAtTheOffsetTheyWereMeasuredAt() {
+    assertEquals(17, table.put(DomainName.of("www.example.com"), 12));
+    assertEquals(7, table.put(DomainName.of("mail.example.com"), 29));
+    assertEquals(2, table.put(DomainName.of("example.com"), 36));
+
+    assertArrayEquals(name("www.example.com"), write("www.example.com"));
+    assertArrayEquals(concat(new byte[]{4, 'm', 'a', 'i', 'l'}, pointer(16)), write("mail.example.com"));
+    assertArrayEquals(pointer(16), write("example.com"));
+  }
+
+  @Test
+  void forgetsTheSuffixesRolledBack() {
+    write("www.example.com");
+    final int mark = table.mark();
+    table.put(DomainName.of("mail.example.org"), 29);
+
+    table.rollback(mark);
+
+    // Without the rollback, the suffix would be found at the offset of the name measured, and not added again
+    assertArrayEquals(name("example.org"), write("example.org"));
+    assertArrayEquals(concat(new byte[]{3, 'w', 'w', 'w'}, pointer(29)), write("www.example.org"));
+    assertArrayEquals(pointer(12), write("www.example.com"));
+  }
+
+  @Test
+  void forgetsAllTheSuffixesOnceCleared() {
+    write("www.example.com");
+
+    table.clear();
+
+    assertArrayEquals(name("www.example.com"), write("www.example.com"));
+    assertArrayEquals(pointer(29), write("www.example.com"));
+  }
+
+  @Test
+  void doesNotPointBeyondTheReachOfPointers() {
+    buffer.position(0x3FF0);
+    write("www.example.com");
+
+    assertArrayEquals(concat(new byte[]{3, 'f', 't', 'p'}, pointer(0x3FF4)), write("ftp.example.com"));
+    // Written past the reach of pointers, so not added
+    assertArrayEquals(concat(new byte[]{3, 'f', 't', 'p'}, pointer(0x3FF4)), write("ftp.example.com"));
+  }
+
+  @Test
+  void compressesAsManySuffixesAsNeeded() {
+    for (int i = 0; i < 200; i++) {
+      write("host" + i + ".example.com");
+    }
+
+    int offset = 12;
+    for (int i = 0; i < 200; i++) {
+      assertArrayEquals(pointer(offset), write("host" + i + ".example.com"));
+      offset += 0 == i ? 19 : 2 + ("host" + i).length() + 1;
+    }
+  }
+
+  /**
+   * Writes a name at the position of the buffer.
+   *
+   * @return the bytes written
+   */
+  private byte @NotNull [] write(final @NotNull String name) {
+    final int offset = buffer.position();
+    table.write(DomainName.of(name), buffer);
+    return Arrays.copyOfRange(buffer.array(), offset, buffer.position());
+  }
+}
@@ -0,0 +1,307 @@
+package fr.lehtto.jaser.dns.entity.writer;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.opt;
+import static fr.lehtto.jaser.dns.Messages.pointer;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static fr.lehtto.jaser.dns.Messages.record;
+import static fr.lehtto.jaser.dns.Messages.shorts;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.AddressV4;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.Edns;
+import fr.lehtto.jaser.dns.entity.Query;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.Response;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.MxRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.NsRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.SoaRdata;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link ResponseWriter response writer}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class ResponseWriterTest {
+
+  private static final byte[] MAIL = {4, 'm', 'a', 'i', 'l'};
+  private static final byte[] NS1 = {3, 'n', 's', '1'};
+  private static final byte[] HOSTMASTER = {10, 'h', 'o', 's', 't', 'm', 'a', 's', 't', 'e', 'r'};
+
+  private final byte[] buffer = new byte[4096];
+
+  @Test
+  void compressesTheNamesOfRdata() {
+    final Response response = rdataResponse(UnaryOperator.identity());
+
+    final byte[] expected = concat(
+        header(1, 0x0100, 1, 1, 2, 2), question("example.com", 15, Messages.IN),
+        // Exchange pointing to the question, at 41
+        record(pointer(12), 15, Messages.IN, 60, concat(shorts(10), MAIL, pointer(12))),
+        // Name server at 62
+        record(pointer(12), 2, Messages.IN, 60, concat(NS1, pointer(12))),
+        record(pointer(12), 6, Messages.IN, 60, concat(pointer(62), HOSTMASTER, pointer(12),
+                                                       ByteBuffer.allocate(20).putInt(1).putInt(2).putInt(3)
+                                                           .putInt(4).putInt(5).array())),
+        // Owners pointing into the RDATA of the exchange and of the name server
+        record(pointer(43), 1, Messages.IN, 60, new byte[]{(byte) 192, 0, 2, 1}),
+        record(pointer(62), 1, Messages.IN, 60, new byte[]{(byte) 192, 0, 2, 2}));
+    assertArrayEquals(expected, write(response, 512));
+  }
+
+  @Test
+  void compressesTheNamesOfEncodedRdata() {
+    final ResourceRecord mx = resourceRecord("example.com", Type.MX,
+                                             new MxRdata((short) 10, DomainName.of("mail.example.com")));
+
+    assertNotSame(mx, mx.withEncodedFields());
+    assertArrayEquals(write(rdataResponse(UnaryOperator.identity()), 512),
+                      write(rdataResponse(ResourceRecord::withEncodedFields), 512));
+  }
+
+  @Test
+  void compressesNamesIgnoringCase() {
+    final Response response = response("www.example.com", 2)
+        .answers(List.of(resourceRecord("WWW.Example.COM", Type.NS, new NsRdata(DomainName.of("NS1.EXAMPLE.com")))))
+        .noAuthorityRecords()
+        .additionalRecords(List.of(resourceRecord("ns1.example.com", Type.A, a(1))))
+        .build();
+
+    final byte[] expected = concat(
+        header(1, 0x0100, 1, 1, 0, 1), question("www.example.com", 2, Messages.IN),
+        record(pointer(12), 2, Messages.IN, 60, concat(new byte[]{3, 'N', 'S', '1'}, pointer(16))),
+        record(pointer(45), 1, Messages.IN, 60, new byte[]{(byte) 192, 0, 2, 1}));
+    assertArrayEquals(expected, write(response, 512));
+  }
+
+  @Test
+  void setsTheTcFlagWhenAnswersAreLeftOut() {
+    final Response response = response("example.com", 1)
+        .answers(hosts(0, 100))
+        .authorityRecords(List.of(resourceRecord("example.com", Type.NS,
+                                                 new NsRdata(DomainName.of("ns1.example.com")))))
+        .additionalRecords(List.of(resourceRecord("ns1.example.com", Type.A, a(1))))
+        .build();
+
+    final byte[] message = write(response, 512);
+
+    // Question up to 29, then answers of 24 bytes
+    assertEquals(29 + 20 * 24, message.length);
+    assertTrue(isTruncated(message));
+    assertCounts(message, 20, 0, 0);
+  }
+
+  @Test
+  void setsTheTcFlagWhenAuthorityRecordsAreLeftOut() {
+    final Response response = response("example.com", 1)
+        .answers(hosts(0, 10))
+        .authorityRecords(hosts(100, 100))
+        .additionalRecords(List.of(resourceRecord("ns1.example.com", Type.A, a(1))))
+        .build();
+
+    final byte[] message = write(response, 512);
+
+    assertTrue(isTruncated(message));
+    assertCounts(message, 10, 10, 0);
+  }
+
+  @Test
+  void leavesAdditionalRecordsOutSilently() {
+    final Response response = response("example.com", 1)
+        .answers(hosts(0, 10))
+        .noAuthorityRecords()
+        .additionalRecords(hosts(100, 100))
+        .build();
+
+    final byte[] message = write(response, 512);
+
+    assertFalse(isTruncated(message));
+    assertCounts(message, 10, 0, 10);
+  }
+
+  @Test
+  void leavesRrsetsOutWhole() {
+    final List<ResourceRecord> answers = new ArrayList<>();
+    answers.add(resourceRecord("ftp.example.com", Type.A, a(1)));
+    for (int i = 0; i < 30; i++) {
+      answers.add(resourceRecord("www.example.com", Type.A, a(i)));
+    }
+    final Response response = response("example.com", 1)
+        .answers(answers)
+        .noAuthorityRecords()
+        .noAdditionalRecords()
+        .build();
+
+    final byte[] message = write(response, 512);
+
+    assertTrue(isTruncated(message));
+    assertCounts(message, 1, 0, 0);
+    assertFalse(isTruncated(write(response, 1232)));
+    assertCounts(write(response, 1232), 31, 0, 0);
+  }
+
+  @Test
+  void fillsTheEdnsPayloadSizeKeepingTheOptRecord() {
+    final Response response = response("example.com", 1)
+        .answers(hosts(0, 100))
+        .noAuthorityRecords()
+        .additionalRecords(List.of(resourceRecord("ns1.example.com", Type.A, a(1))))
+        .edns(new Edns(1232, 0, 0, false))
+        .build();
+
+    final byte[] message = write(response, 1232);
+
+    // Room left for the OPT record
+    assertEquals(29 + 49 * 24 + 11, message.length);
+    assertTrue(isTruncated(message));
+    assertCounts(message, 49, 0, 1);
+    assertArrayEquals(opt(1232, 0, false, new byte[0]),
+                      Arrays.copyOfRange(message, message.length - 11, message.length));
+  }
+
+  @Test
+  void keepsTheOptRecordWhenNoRecordFits() {
+    final Response response = response("example.com", 1)
+        .answers(hosts(0, 100))
+        .noAuthorityRecords()
+        .noAdditionalRecords()
+        .edns(new Edns(512, 0, 0, false))
+        .build();
+
+    assertCounts(write(response, 29 + 24 + 10), 0, 0, 1);
+    assertCounts(write(response, 29 + 24 + 11), 1, 0, 1);
+  }
+
+  @Test
+  void writesEverythingWhenItFits() {
+    final Response response = response("example.com", 1)
+        .answers(hosts(0, 20))
+        .authorityRecords(hosts(20, 20))
+        .additionalRecords(hosts(40, 20))
+        .edns(new Edns(1232, 0, 0, false))
+        .build();
+
+    final byte[] message = write(response, 4096);
+
+    assertFalse(isTruncated(message));
+    assertCounts(message, 20, 20, 21);
+  }
+
+  /**
+   * Writes a response within a size budget.
+   *
+   * @return the bytes written
+   */
+  private byte @NotNull [] write(final @NotNull Response response, final int maxLength) {
+    return Arrays.copyOf(buffer, ResponseWriter.write(response, buffer, maxLength));
+  }
+
+  /**
+   * Builds a response whose records have names in their RDATA, before and after other fields.
+   *
+   * @param encoder applied to each record, to encode its fields or not
+   */
+  private static @NotNull Response rdataResponse(final @NotNull UnaryOperator<ResourceRecord> encoder) {
+    return response("example.com", 15)
+        .answers(List.of(encoder.apply(resourceRecord("example.com", Type.MX,
+                                                      new MxRdata((short) 10, DomainName.of("mail.example.com"))))))
+        .authorityRecords(List.of(
+            encoder.apply(resourceRecord("example.com", Type.NS, new NsRdata(DomainName.of("ns1.example.com")))),
+            encoder.apply(resourceRecord("example.com", Type.SOA,
+                                         new SoaRdata(DomainName.of("ns1.example.com"),
+                                                      DomainName.of("hostmaster.example.com"), 1, 2, 3, 4, 5)))))
+        .additionalRecords(List.of(encoder.apply(resourceRecord("mail.example.com", Type.A, a(1))),
+                                   encoder.apply(resourceRecord("ns1.example.com", Type.A, a(2)))))
+        .build();
+  }
+
+  /**
+   * Starts the response to a query, without EDNS.
+   */
+  private static Response.@NotNull Builder response(final @NotNull String name, final int type) {
+    final byte[] message = Messages.query(1, name, type);
+    final Query query = Query.read(message, message.length);
+    return Response.builder()
+        .header(query.header())
+        .questions(query.questions());
+  }
+
+  private static @NotNull ResourceRecord resourceRecord(final @NotNull String name, final @NotNull Type type,
+      final @NotNull Rdata data) {
+    return ResourceRecord.builder()
+        .name(DomainName.of(name))
+        .type(type)
+        .recordClass(DnsClass.IN)
+        .ttl(60)
+        .data(data)
+        .build();
+  }
+
+  /**
+   * Checks the section counts of the header, and that the message ends with the records they count.
+   */
+  private static void assertCounts(final byte @NotNull [] message, final int ancount, final int nscount,
+      final int arcount) {
+    final ByteBuffer buffer = ByteBuffer.wrap(message);
+    assertEquals(1, buffer.getShort(4));
+    assertEquals(ancount, buffer.getShort(6));
+    assertEquals(nscount, buffer.getShort(8));
+    assertEquals(arcount, buffer.getShort(10));
+    int offset = skipName(message, 12) + 4;
+    for (int r = 0; r < ancount + nscount + arcount; r++) {
+      offset = skipName(message, offset) + 10;
+      offset += buffer.getShort(offset - 2) & 0xFFFF;
+    }
+    assertEquals(message.length, offset);
+  }
+
+  private static int skipName(final byte @NotNull [] message, final int offset) {
+    int i = offset;
+    while (0 != message[i]) {
+      if (0xC0 == (message[i] & 0xC0)) {
+        return i + 2;
+      }
+      i += 1 + message[i];
+    }
+    return i + 1;
+  }
+
+  private static boolean isTruncated(final byte @NotNull [] message) {
+    return 0 != (message[2] & 0x02);
+  }
+
+  /**
+   * Builds A records of distinct names, one RRset each, taking 24 bytes once compressed.
+   */
+  private static @NotNull List<ResourceRecord> hosts(final int from, final int count) {
+    final List<ResourceRecord> records = new ArrayList<>(count);
+    for (int i = from; i < from + count; i++) {
+      records.add(resourceRecord("host" + (100 + i) + ".example.com", Type.A, a(i)));
+    }
+    return records;
+  }
+
+  private static @NotNull ARdata a(final int host) {
+    return new ARdata(new AddressV4(new byte[]{(byte) 192, 0, 2, (byte) host}));
+  }
+}
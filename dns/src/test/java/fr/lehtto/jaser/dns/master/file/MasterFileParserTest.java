@@ -0,0 +1,106 @@
+package fr.lehtto.jaser.dns.master.file;
+
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.record;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.enumration.RecordType;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.OpaqueRdata;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of the {@link MasterFileParser master file parser}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings("JavaDoc")
+class MasterFileParserTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void parsesFilesAndTheFilesTheyInclude() throws IOException, InvalidDnsZoneEntryException {
+    final Path file = Files.writeString(directory.resolve("example.com.zone"), """
+        $TTL 20
+              150 IN SOA ns1.example.com. hostmaster.example.com. 1 1 1 1 1
+        $INCLUDE sub.example.com.zone
+        """);
+    Files.writeString(directory.resolve("sub.example.com.zone"), """
+        sub.example.com. 150 IN A 192.168.0.1
+        """);
+    final MasterFile masterFile = new MasterFile();
+    final List<File> readFiles = new ArrayList<>();
+
+    final int count = MasterFileParser.parse(masterFile, file.toFile(), readFiles);
+
+    assertEquals(2, count);
+    assertEquals(List.of(file.toFile(), directory.resolve("sub.example.com.zone").toFile()), readFiles);
+    assertTrue(masterFile.search(DomainName.of("sub.example.com")).isPresent());
+  }
+
+  @Test
+  void failsOnAMissingFile() {
+    final File file = directory.resolve("example.com.zone").toFile();
+    final List<File> readFiles = new ArrayList<>();
+
+    assertThrows(IOException.class, () -> MasterFileParser.parse(new MasterFile(), file, readFiles));
+    assertEquals(List.of(file), readFiles);
+  }
+
+  @Test
+  void failsOnAMissingIncludedFile() throws IOException {
+    final Path file = Files.writeString(directory.resolve("example.com.zone"), """
+        $TTL 20
+              150 IN SOA ns1.example.com. hostmaster.example.com. 1 1 1 1 1
+        $INCLUDE sub.example.com.zone
+        """);
+    final List<File> readFiles = new ArrayList<>();
+
+    assertThrows(IOException.class, () -> MasterFileParser.parse(new MasterFile(), file.toFile(), readFiles));
+    assertEquals(List.of(file.toFile(), directory.resolve("sub.example.com.zone").toFile()), readFiles);
+  }
+
+  @Test
+  void parsesRecordsOfUnknownTypesAsTheyAreSent() throws IOException, InvalidDnsZoneEntryException {
+    final Path file = Files.writeString(directory.resolve("example.com.zone"), """
+        www.example.com. 60 IN TYPE4242 \\# 3 ABCDEF
+        www.example.com. 60 IN TYPE1 \\# 4 C0000201
+        """);
+    final MasterFile masterFile = new MasterFile();
+
+    MasterFileParser.parse(masterFile, file.toFile(), new ArrayList<>());
+
+    final Zone zone = masterFile.search(DomainName.of("www.example.com")).orElseThrow();
+    final ResourceRecord unknown = zone.getRecords(RecordType.of(4242)).get(0);
+    assertEquals(new OpaqueRdata(new byte[]{(byte) 0xAB, (byte) 0xCD, (byte) 0xEF}), unknown.data());
+    assertArrayEquals(record(name("www.example.com"), 4242, Messages.IN, 60,
+                             new byte[]{(byte) 0xAB, (byte) 0xCD, (byte) 0xEF}), encode(unknown));
+    assertArrayEquals(record(name("www.example.com"), 1, Messages.IN, 60, new byte[]{(byte) 192, 0, 2, 1}),
+                      encode(zone.getRecords(Type.A).get(0)));
+  }
+
+  private static byte @NotNull [] encode(final @NotNull ResourceRecord resourceRecord) {
+    final ByteBuffer buffer = ByteBuffer.allocate(resourceRecord.getLength());
+    resourceRecord.writeTo(buffer);
+    return buffer.array();
+  }
+}
@@ -0,0 +1,157 @@
+package fr.lehtto.jaser.dns.master.file;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of the {@link MasterFileWatcher master file watcher}, on a temporary directory.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class MasterFileWatcherTest {
+
+  /**
+   * How long to wait for a reload, in milliseconds.
+   */
+  private static final long TIMEOUT = 5_000L;
+
+  /**
+   * How long to wait before deciding that no reload happens, longer than the quiet period of the watcher.
+   */
+  private static final long NO_RELOAD_TIMEOUT = 600L;
+
+  @TempDir
+  Path directory;
+
+  private final Semaphore reloads = new Semaphore(0);
+  private final AtomicReference<Collection<File>> nextFiles = new AtomicReference<>();
+  private final AtomicBoolean failing = new AtomicBoolean();
+  private Path file;
+  private MasterFileWatcher watcher;
+  private Thread thread;
+
+  @BeforeEach
+  void before() throws IOException {
+    file = Files.writeString(directory.resolve("example.com.zone"), "v1\n");
+    nextFiles.set(List.of(file.toFile()));
+  }
+
+  @AfterEach
+  void after() throws IOException, InterruptedException {
+    if (null != watcher) {
+      watcher.close();
+      thread.join(TIMEOUT);
+      assertFalse(thread.isAlive());
+    }
+  }
+
+  @Test
+  void reloadsOnceTheChangesSettle() throws IOException, InterruptedException {
+    start();
+
+    for (int i = 0; i < 5; i++) {
+      Files.writeString(file, "v" + i + "\n");
+      Thread.sleep(20);
+    }
+
+    assertReloaded();
+    assertNotReloaded();
+  }
+
+  @Test
+  void reloadsReplacedFiles() throws IOException, InterruptedException {
+    start();
+
+    final Path replacement = Files.writeString(directory.resolve("example.com.zone.tmp"), "v2\n");
+    Files.move(replacement, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+    assertReloaded();
+  }
+
+  @Test
+  void ignoresTheOtherFilesOfTheDirectory() throws IOException, InterruptedException {
+    start();
+
+    Files.writeString(directory.resolve("other.zone"), "v1\n");
+
+    assertNotReloaded();
+  }
+
+  @Test
+  void watchesTheFilesGivenByTheReload() throws IOException, InterruptedException {
+    final Path included = Files.writeString(Files.createDirectory(directory.resolve("included"))
+                                                .resolve("sub.example.com.zone"), "v1\n");
+    nextFiles.set(List.of(file.toFile(), included.toFile()));
+    start();
+
+    // Not watched until a reload finds it included
+    Files.writeString(included, "v2\n");
+    assertNotReloaded();
+    Files.writeString(file, "v2\n");
+    assertReloaded();
+    // Lets the watcher register the directory of the included file, once the reload returns
+    Thread.sleep(100);
+
+    Files.writeString(included, "v3\n");
+
+    assertReloaded();
+  }
+
+  @Test
+  void keepsWatchingWhenTheReloadFails() throws IOException, InterruptedException {
+    failing.set(true);
+    start();
+
+    Files.writeString(file, "v2\n");
+    assertReloaded();
+    failing.set(false);
+    Files.writeString(file, "v3\n");
+
+    assertReloaded();
+    assertTrue(thread.isAlive());
+  }
+
+  /**
+   * Watches the file on its own thread, reloads giving the next files to watch, or failing.
+   */
+  private void start() throws IOException {
+    watcher = new MasterFileWatcher(List.of(file.toFile()), this::reload);
+    thread = new Thread(watcher, "zone-watcher");
+    thread.start();
+  }
+
+  private @NotNull Collection<File> reload() {
+    reloads.release();
+    if (failing.get()) {
+      throw new IllegalStateException("Reload failed");
+    }
+    return nextFiles.get();
+  }
+
+  private void assertReloaded() throws InterruptedException {
+    assertTrue(reloads.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS));
+  }
+
+  private void assertNotReloaded() throws InterruptedException {
+    assertFalse(reloads.tryAcquire(NO_RELOAD_TIMEOUT, TimeUnit.MILLISECONDS));
+  }
+}
@@ -0,0 +1,337 @@
+package fr.lehtto.jaser.dns.master.file;
+
+import static fr.lehtto.jaser.dns.Messages.concat;
+import static fr.lehtto.jaser.dns.Messages.header;
+import static fr.lehtto.jaser.dns.Messages.name;
+import static fr.lehtto.jaser.dns.Messages.question;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.Messages;
+import fr.lehtto.jaser.dns.entity.AddressV4;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.Update;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.RCode;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.parser.InvalidDnsZoneEntryException;
+import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.CnameRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.NsRdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.SoaRdata;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link UpdateProcessor update processor}.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class UpdateProcessorTest {
+
+  private static final int A = 1;
+  private static final int NS = 2;
+  private static final int CNAME = 5;
+  private static final int SOA = 6;
+  private static final int AAAA = 28;
+  private static final int AXFR = 252;
+  private static final int ANY = 255;
+  private static final int CH = 3;
+  private static final int NONE = 254;
+  private static final byte[] EMPTY = new byte[0];
+
+  private MasterFile frozen;
+  private MasterFile updated;
+  private UpdateProcessor processor;
+
+  @BeforeEach
+  void before() throws InvalidDnsZoneEntryException {
+    frozen = masterFile(10);
+  }
+
+  @Test
+  void checksWhetherNamesAndRrsetsAreInUse() {
+    assertEquals(RCode.NAME_ERROR, process(update(1, record("nowhere.example.com", ANY, ANY, EMPTY))));
+    assertEquals(RCode.NAME_EXISTS, process(update(1, record("www.example.com", ANY, NONE, EMPTY))));
+    assertEquals(RCode.RRSET_NOT_EXISTS, process(update(1, record("www.example.com", AAAA, ANY, EMPTY))));
+    assertEquals(RCode.RRSET_EXISTS, process(update(1, record("www.example.com", A, NONE, EMPTY))));
+    assertEquals(RCode.NO_ERROR, process(update(1, record("WWW.example.com", A, ANY, EMPTY))));
+    assertEquals(RCode.NO_ERROR, process(update(1, record("nowhere.example.com", ANY, NONE, EMPTY))));
+    assertFalse(processor.hasChanged());
+  }
+
+  @Test
+  void checksTheValuesOfRrsets() {
+    assertEquals(RCode.RRSET_NOT_EXISTS, process(update(1, record("www.example.com", A, Messages.IN, a(2)))));
+    assertEquals(RCode.RRSET_NOT_EXISTS, process(update(1, record("ns.example.com", A, Messages.IN, a(3)))));
+    assertEquals(RCode.NO_ERROR, process(update(2, record("ns.example.com", A, Messages.IN, a(4)),
+                                                record("ns.example.com", A, Messages.IN, a(3)))));
+    assertEquals(RCode.NO_ERROR, process(update(1, record("www.example.com", A, Messages.IN, a(1)))));
+  }
+
+  @Test
+  void rejectsMalformedPrerequisites() {
+    assertEquals(RCode.FORMAT_ERROR, process(update(1, record("www.example.com", A, ANY, 60, EMPTY))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(1, record("www.example.com", A, ANY, a(1)))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(1, record("www.example.com", A, CH, a(1)))));
+    assertEquals(RCode.NOT_ZONE, process(update(1, record("www.example.org", A, ANY, EMPTY))));
+  }
+
+  @Test
+  void rejectsMalformedUpdatesBeforeApplyingAny() {
+    final byte[] add = record("new.example.com", A, Messages.IN, 60, a(5));
+
+    assertEquals(RCode.FORMAT_ERROR, process(update(0, add, record("www.example.com", A, ANY, 60, EMPTY))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(0, add, record("www.example.com", A, ANY, a(1)))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(0, add, record("www.example.com", A, NONE, 60, a(1)))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(0, add, record("www.example.com", ANY, NONE, EMPTY))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(0, add, record("www.example.com", ANY, Messages.IN, EMPTY))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(0, add, record("www.example.com", AXFR, Messages.IN, EMPTY))));
+    assertEquals(RCode.FORMAT_ERROR, process(update(0, add, record("www.example.com", A, CH, 60, a(1)))));
+    assertEquals(RCode.NOT_ZONE, process(update(0, add, record("www.example.org", A, Messages.IN, 60, a(1)))));
+    assertFalse(processor.hasChanged());
+    assertTrue(records(updated, "new.example.com", Type.A).isEmpty());
+    assertEquals(10, serial(updated));
+  }
+
+  @Test
+  void answersNotAuthoritativeForOtherZones() {
+    assertEquals(RCode.NOT_AUTHORITATIVE, process(update("example.net", SOA, Messages.IN, 0)));
+    assertEquals(RCode.NOT_AUTHORITATIVE, process(update("example.org", SOA, Messages.IN, 0)));
+    assertEquals(RCode.NOT_AUTHORITATIVE, process(update("", SOA, Messages.IN, 0)));
+    assertEquals(RCode.NOT_AUTHORITATIVE, process(update("example.com", SOA, CH, 0)));
+    assertEquals(RCode.FORMAT_ERROR, process(update("example.com", A, Messages.IN, 0)));
+  }
+
+  @Test
+  void addsRecordsIncrementingTheSerial() {
+    assertEquals(RCode.NO_ERROR, process(update(0, record("new.example.com", A, Messages.IN, 60, a(5)),
+                                                record("www.example.com", A, Messages.IN, 60, a(6)))));
+
+    assertEquals(2, processor.getAddedCount());
+    assertEquals(0, processor.getRemovedCount());
+    assertEquals(List.of(new ARdata(address(5))), records(updated, "new.example.com", Type.A));
+    assertEquals(List.of(new ARdata(address(1)), new ARdata(address(6))),
+                 records(updated, "www.example.com", Type.A));
+    assertEquals(11, serial(updated));
+  }
+
+  @Test
+  void ignoresRecordsAlreadyThere() {
+    assertEquals(RCode.NO_ERROR, process(update(0, record("www.example.com", A, Messages.IN, 60, a(1)))));
+
+    assertFalse(processor.hasChanged());
+    assertEquals(10, serial(updated));
+  }
+
+  @Test
+  void deletesRecordsRrsetsAndNames() {
+    assertEquals(RCode.NO_ERROR, process(update(0, record("ns.example.com", A, NONE, a(3)))));
+    assertEquals(List.of(new ARdata(address(4))), records(updated, "ns.example.com", Type.A));
+    assertEquals(11, serial(updated));
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("ns.example.com", A, ANY, EMPTY))));
+    assertEquals(2, processor.getRemovedCount());
+    assertTrue(records(updated, "ns.example.com", Type.A).isEmpty());
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("www.example.com", ANY, ANY, EMPTY))));
+    assertEquals(1, processor.getRemovedCount());
+    assertTrue(records(updated, "www.example.com", null).isEmpty());
+  }
+
+  @Test
+  void keepsCnameRecordsAlone() {
+    assertEquals(RCode.NO_ERROR, process(update(0, record("alias.example.com", A, Messages.IN, 60, a(5)))));
+    assertFalse(processor.hasChanged());
+    assertTrue(records(updated, "alias.example.com", Type.A).isEmpty());
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("www.example.com", CNAME, Messages.IN, 60,
+                                                          name("ftp.example.com")))));
+    assertFalse(processor.hasChanged());
+    assertTrue(records(updated, "www.example.com", Type.CNAME).isEmpty());
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("alias.example.com", CNAME, Messages.IN, 60,
+                                                          name("ftp.example.com")))));
+    assertEquals(1, processor.getAddedCount());
+    assertEquals(1, processor.getRemovedCount());
+    assertEquals(List.of(new CnameRdata(DomainName.of("ftp.example.com"))),
+                 records(updated, "alias.example.com", Type.CNAME));
+  }
+
+  @Test
+  void keepsTheSoaAndNsRecordsOfTheZone() {
+    assertEquals(RCode.NO_ERROR, process(update(0, record("example.com", ANY, ANY, EMPTY))));
+    assertEquals(1, processor.getRemovedCount());
+    assertTrue(records(updated, "example.com", Type.A).isEmpty());
+    assertEquals(1, records(updated, "example.com", Type.SOA).size());
+    assertEquals(2, records(updated, "example.com", Type.NS).size());
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("example.com", NS, ANY, EMPTY),
+                                                record("example.com", SOA, ANY, EMPTY),
+                                                record("example.com", SOA, NONE, soa(10)))));
+    assertFalse(processor.hasChanged());
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("example.com", NS, NONE, name("ns1.example.com")),
+                                                record("example.com", NS, NONE, name("ns2.example.com")))));
+    assertEquals(1, processor.getRemovedCount());
+    assertEquals(List.of(new NsRdata(DomainName.of("ns2.example.com"))),
+                 records(updated, "example.com", Type.NS));
+  }
+
+  @Test
+  void replacesTheSoaRecordWithAGreaterSerialOnly() {
+    assertEquals(RCode.NO_ERROR, process(update(0, record("example.com", SOA, Messages.IN, 60, soa(9)),
+                                                record("example.com", SOA, Messages.IN, 60, soa(10)),
+                                                record("example.com", SOA, Messages.IN, 60, soa(10 + 0x80000001)),
+                                                record("www.example.com", SOA, Messages.IN, 60, soa(20)))));
+    assertFalse(processor.hasChanged());
+    assertEquals(10, serial(updated));
+    assertTrue(records(updated, "www.example.com", Type.SOA).isEmpty());
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("example.com", SOA, Messages.IN, 60, soa(20)),
+                                                record("new.example.com", A, Messages.IN, 60, a(5)))));
+    assertEquals(2, processor.getAddedCount());
+    assertEquals(20, serial(updated));
+  }
+
+  @Test
+  void comparesSerialsAcrossTheirWrapAround() throws InvalidDnsZoneEntryException {
+    frozen = masterFile(0x7FFFFFF0);
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("example.com", SOA, Messages.IN, 60, soa(0x80000005)))));
+    assertEquals(0x80000005, serial(updated));
+
+    frozen = masterFile(0xFFFFFFFF);
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("example.com", SOA, Messages.IN, 60, soa(0x7FFFFFFF)))));
+    assertFalse(processor.hasChanged());
+    assertEquals(RCode.NO_ERROR, process(update(0, record("new.example.com", A, Messages.IN, 60, a(5)))));
+    assertEquals(0, serial(updated));
+  }
+
+  @Test
+  void leavesTheSnapshotUnchangedAndSharesTheUntouchedZones() {
+    final List<ResourceRecord> before = frozen.getRecords();
+
+    assertEquals(RCode.NO_ERROR, process(update(0, record("new.example.com", A, Messages.IN, 60, a(5)),
+                                                record("www.example.com", A, ANY, EMPTY))));
+
+    assertEquals(before, frozen.getRecords());
+    assertEquals(10, serial(frozen));
+    assertEquals(11, serial(updated));
+    assertTrue(records(frozen, "new.example.com", Type.A).isEmpty());
+    assertNotSame(zone(frozen, "example.com"), zone(updated, "example.com"));
+    assertSame(zone(frozen, "alias.example.com"), zone(updated, "alias.example.com"));
+    assertSame(zone(frozen, "other.com"), zone(updated, "other.com"));
+    assertSame(zone(frozen, "org"), zone(updated, "org"));
+  }
+
+  /**
+   * Processes an update against a copy of the frozen master file.
+   */
+  private @NotNull RCode process(final @NotNull Update update) {
+    updated = new MasterFile(frozen);
+    processor = new UpdateProcessor(updated, update);
+    return processor.process();
+  }
+
+  /**
+   * Builds a frozen master file with the example.com zone, and other zones next to it.
+   */
+  private static @NotNull MasterFile masterFile(final int serial) throws InvalidDnsZoneEntryException {
+    final MasterFile masterFile = new MasterFile();
+    masterFile.addRecord(resourceRecord("example.com", Type.SOA,
+                                        new SoaRdata(DomainName.of("ns1.example.com"),
+                                                     DomainName.of("hostmaster.example.com"), serial, 1, 1, 1, 1)));
+    masterFile.addRecord(resourceRecord("example.com", Type.NS, new NsRdata(DomainName.of("ns1.example.com"))));
+    masterFile.addRecord(resourceRecord("example.com", Type.NS, new NsRdata(DomainName.of("ns2.example.com"))));
+    masterFile.addRecord(resourceRecord("example.com", Type.A, new ARdata(address(10))));
+    masterFile.addRecord(resourceRecord("www.example.com", Type.A, new ARdata(address(1))));
+    masterFile.addRecord(resourceRecord("ns.example.com", Type.A, new ARdata(address(3))));
+    masterFile.addRecord(resourceRecord("ns.example.com", Type.A, new ARdata(address(4))));
+    masterFile.addRecord(resourceRecord("alias.example.com", Type.CNAME,
+                                        new CnameRdata(DomainName.of("www.example.com"))));
+    masterFile.addRecord(resourceRecord("www.other.com", Type.A, new ARdata(address(20))));
+    masterFile.addRecord(resourceRecord("www.example.org", Type.A, new ARdata(address(30))));
+    return masterFile.freeze();
+  }
+
+  private static @NotNull ResourceRecord resourceRecord(final @NotNull String name, final @NotNull Type type,
+      final @NotNull Rdata data) {
+    return ResourceRecord.builder()
+        .name(DomainName.of(name))
+        .type(type)
+        .recordClass(DnsClass.IN)
+        .ttl(60)
+        .data(data)
+        .build();
+  }
+
+  /**
+   * Builds an update of the example.com zone.
+   *
+   * @param prerequisiteCount the number of records which are prerequisites, the other ones being updates
+   */
+  private static @NotNull Update update(final int prerequisiteCount, final byte @NotNull [] @NotNull ... records) {
+    return update("example.com", SOA, Messages.IN, prerequisiteCount, records);
+  }
+
+  private static @NotNull Update update(final @NotNull String zone, final int type, final int recordClass,
+      final int prerequisiteCount, final byte @NotNull [] @NotNull ... records) {
+    final byte[] message = concat(header(1, 0x2800, 1, prerequisiteCount, records.length - prerequisiteCount, 0),
+                                  question(zone, type, recordClass), concat(records));
+    return Update.read(ByteBuffer.wrap(message));
+  }
+
+  private static byte @NotNull [] record(final @NotNull String name, final int type, final int recordClass,
+      final byte @NotNull [] rdata) {
+    return record(name, type, recordClass, 0, rdata);
+  }
+
+  private static byte @NotNull [] record(final @NotNull String name, final int type, final int recordClass,
+      final int ttl, final byte @NotNull [] rdata) {
+    return Messages.record(name(name), type, recordClass, ttl, rdata);
+  }
+
+  private static byte @NotNull [] a(final int host) {
+    return new byte[]{(byte) 192, 0, 2, (byte) host};
+  }
+
+  private static byte @NotNull [] soa(final int serial) {
+    return concat(name("ns1.example.com"), name("hostmaster.example.com"),
+                  ByteBuffer.allocate(20).putInt(serial).putInt(1).putInt(1).putInt(1).putInt(1).array());
+  }
+
+  private static @NotNull AddressV4 address(final int host) {
+    return new AddressV4(a(host));
+  }
+
+  private static @NotNull Zone zone(final @NotNull MasterFile masterFile, final @NotNull String name) {
+    return masterFile.search(DomainName.of(name)).orElseThrow();
+  }
+
+  private static @NotNull List<Rdata> records(final @NotNull MasterFile masterFile, final @NotNull String name,
+      final @Nullable Type type) {
+    return masterFile.search(DomainName.of(name))
+        .map(zone -> null == type ? zone.getRecords() : zone.getRecords(type))
+        .orElse(List.of())
+        .stream()
+        .map(ResourceRecord::data)
+        .toList();
+  }
+
+  private static int serial(final @NotNull MasterFile masterFile) {
+    return ((SoaRdata) records(masterFile, "example.com", Type.SOA).get(0)).serial();
+  }
+}
@@ -0,0 +1,122 @@
+package fr.lehtto.jaser.dns.master.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.lehtto.jaser.dns.entity.AddressV4;
+import fr.lehtto.jaser.dns.entity.DomainName;
+import fr.lehtto.jaser.dns.entity.ResourceRecord;
+import fr.lehtto.jaser.dns.entity.enumration.DnsClass;
+import fr.lehtto.jaser.dns.entity.enumration.Type;
+import fr.lehtto.jaser.dns.entity.rdata.Rdata;
+import fr.lehtto.jaser.dns.entity.rdata.internet.ARdata;
+import fr.lehtto.jaser.dns.entity.rdata.standard.NsRdata;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link Zone zone} and of its RRsets.
+ *
+ * @author Lehtto
+ * @since 1.1.0
+ */
+@SuppressWarnings({"JavaDoc", "MagicNumber"})
+class ZoneTest {
+
+  @Test
+  void groupsRecordsIntoRrsetsInOrder() {
+    final Zone zone = new Zone("www");
+    for (int i = 0; i < 10_000; i++) {
+      zone.addRecord(a(i));
+    }
+    zone.addRecord(ns("ns1.example.com"));
+
+    assertEquals(10_000, zone.getRecords(Type.A).size());
+    assertEquals(a(9_999).data(), zone.getRecords(Type.A).get(9_999).data());
+    assertEquals(List.of(ns("ns1.example.com").data()), data(zone.getRecords(Type.NS)));
+    assertTrue(zone.getRecords(Type.MX).isEmpty());
+    assertThrows(UnsupportedOperationException.class, () -> zone.getRecords(Type.A).add(a(1)));
+
+    zone.freeze();
+
+    assertEquals(10_000, zone.getRecords(Type.A).size());
+    assertThrows(UnsupportedOperationException.class, () -> zone.getRecords(Type.A).add(a(1)));
+    assertThrows(IllegalStateException.class, () -> zone.addRecord(a(1)));
+  }
+
+  @Test
+  void copiesOnlyTheChangedRrsets() {
+    final Zone frozen = zone();
+
+    final Zone changed = frozen.toChange();
+    changed.addRecord(a(3));
+    changed.freeze();
+
+    assertEquals(2, frozen.getRecords(Type.A).size());
+    assertEquals(3, changed.getRecords(Type.A).size());
+    assertSame(frozen.getRecords(Type.NS), changed.getRecords(Type.NS));
+  }
+
+  @Test
+  void rebuildsOnlyTheRrsetsOfRemovedRecords() {
+    final Zone frozen = zone();
+
+    final Zone changed = frozen.toChange();
+    assertEquals(1, changed.removeRecords(dnsRecord -> dnsRecord.data().equals(a(1).data())));
+    assertEquals(0, changed.removeRecords(dnsRecord -> Type.MX == dnsRecord.type()));
+    changed.freeze();
+
+    assertEquals(List.of(a(2).data()), data(changed.getRecords(Type.A)));
+    assertEquals(2, frozen.getRecords(Type.A).size());
+    assertSame(frozen.getRecords(Type.NS), changed.getRecords(Type.NS));
+    assertEquals(3, changed.getRecords().size());
+  }
+
+  @Test
+  void dropsEmptiedRrsets() {
+    final Zone changed = zone().toChange();
+
+    assertEquals(2, changed.removeRecords(dnsRecord -> Type.A == dnsRecord.type()));
+    changed.addRecord(a(5));
+
+    assertEquals(List.of(a(5).data()), data(changed.getRecords(Type.A)));
+  }
+
+  /**
+   * Builds a frozen zone with two A and two NS records.
+   */
+  private static @NotNull Zone zone() {
+    final Zone zone = new Zone("www");
+    zone.addRecord(a(1));
+    zone.addRecord(ns("ns1.example.com"));
+    zone.addRecord(a(2));
+    zone.addRecord(ns("ns2.example.com"));
+    zone.freeze();
+    return zone;
+  }
+
+  private static @NotNull List<Rdata> data(final @NotNull List<ResourceRecord> records) {
+    return records.stream().map(ResourceRecord::data).toList();
+  }
+
+  private static @NotNull ResourceRecord a(final int host) {
+    return resourceRecord(Type.A, new ARdata(new AddressV4(new byte[]{10, 0, (byte) (host >> 8), (byte) host})));
+  }
+
+  private static @NotNull ResourceRecord ns(final @NotNull String name) {
+    return resourceRecord(Type.NS, new NsRdata(DomainName.of(name)));
+  }
+
+  private static @NotNull ResourceRecord resourceRecord(final @NotNull Type type, final @NotNull Rdata data) {
+    return ResourceRecord.builder()
+        .name(DomainName.of("www.example.com"))
+        .type(type)
+        .recordClass(DnsClass.IN)
+        .ttl(60)
+        .data(data)
+        .build();
+  }
+}